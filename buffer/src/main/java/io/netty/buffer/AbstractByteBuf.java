@@ -35,7 +35,7 @@ public abstract class AbstractByteBuf implements ByteBuf {
     private int markedReaderIndex;
     private int markedWriterIndex;
 
-    private final int maxCapacity;
+    private int maxCapacity;
 
     private SwappedByteBuf swappedBuf;
 
@@ -56,6 +56,13 @@ public abstract class AbstractByteBuf implements ByteBuf {
         return maxCapacity;
     }
 
+    /**
+     * Updates the maximum capacity of a buffer which is about to be reused by its pool.
+     */
+    final void maxCapacity(int maxCapacity) {
+        this.maxCapacity = maxCapacity;
+    }
+
     @Override
     public int readerIndex() {
         return readerIndex;
@@ -16,8 +16,28 @@
 
 package io.netty.buffer;
 
+import io.netty.util.ResourceLeak;
+import io.netty.util.ResourceLeakDetector;
+
 public abstract class AbstractByteBufAllocator implements ByteBufAllocator {
 
+    private static final ResourceLeakDetector<ByteBuf> leakDetector = new ResourceLeakDetector<ByteBuf>(ByteBuf.class);
+
+    /**
+     * Tracks the specified buffer with the {@link ResourceLeakDetector} so that a warning is logged if it is
+     * garbage-collected before it is released.  Whether the buffer is tracked or not depends on the
+     * {@linkplain ResourceLeakDetector#getLevel() leak detection level}.
+     */
+    protected static ByteBuf toLeakAwareBuffer(ByteBuf buf) {
+        if (buf instanceof AbstractReferenceCountedByteBuf) {
+            ResourceLeak leak = leakDetector.open(buf);
+            if (leak != null) {
+                ((AbstractReferenceCountedByteBuf) buf).leak(leak);
+            }
+        }
+        return buf;
+    }
+
     private final boolean directByDefault;
     private final ByteBuf emptyBuf;
 
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.buffer;
+
+import io.netty.util.ResourceLeak;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Abstract base class for {@link ByteBuf} implementations that count references.
+ */
+public abstract class AbstractReferenceCountedByteBuf extends AbstractByteBuf {
+
+    private static final AtomicIntegerFieldUpdater<AbstractReferenceCountedByteBuf> refCntUpdater =
+            AtomicIntegerFieldUpdater.newUpdater(AbstractReferenceCountedByteBuf.class, "refCnt");
+
+    private volatile int refCnt = 1;
+
+    private ResourceLeak leak;
+
+    protected AbstractReferenceCountedByteBuf(int maxCapacity) {
+        super(maxCapacity);
+    }
+
+    @Override
+    public final int refCnt() {
+        return refCnt;
+    }
+
+    /**
+     * Tracks this buffer with the specified {@link ResourceLeak}, which is closed when this buffer is deallocated.
+     */
+    final void leak(ResourceLeak leak) {
+        this.leak = leak;
+    }
+
+    /**
+     * An unsafe operation intended for use by a subclass that resets the reference count of the buffer to 1
+     */
+    protected final void resetRefCnt() {
+        refCntUpdater.set(this, 1);
+    }
+
+    @Override
+    public ByteBuf retain() {
+        return retain(1);
+    }
+
+    @Override
+    public ByteBuf retain(int increment) {
+        if (increment <= 0) {
+            throw new IllegalArgumentException("increment: " + increment + " (expected: > 0)");
+        }
+
+        for (;;) {
+            int refCnt = this.refCnt;
+            if (refCnt == 0) {
+                throw new IllegalBufferAccessException();
+            }
+            if (refCnt > Integer.MAX_VALUE - increment) {
+                throw new IllegalStateException(
+                        "refCnt overflow (refCnt: " + refCnt + ", increment: " + increment + ')');
+            }
+            if (refCntUpdater.compareAndSet(this, refCnt, refCnt + increment)) {
+                break;
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public final boolean release() {
+        return release(1);
+    }
+
+    @Override
+    public final boolean release(int decrement) {
+        if (decrement <= 0) {
+            throw new IllegalArgumentException("decrement: " + decrement + " (expected: > 0)");
+        }
+
+        for (;;) {
+            int refCnt = this.refCnt;
+            if (refCnt < decrement) {
+                throw new IllegalBufferAccessException(
+                        "refCnt: " + refCnt + ", decrement: " + decrement + " (expected: refCnt >= decrement)");
+            }
+
+            if (refCntUpdater.compareAndSet(this, refCnt, refCnt - decrement)) {
+                if (refCnt == decrement) {
+                    deallocate0();
+                    return true;
+                }
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public final void free() {
+        for (;;) {
+            int refCnt = this.refCnt;
+            if (refCnt == 0) {
+                // Deallocated already.
+                return;
+            }
+
+            if (refCntUpdater.compareAndSet(this, refCnt, refCnt - 1)) {
+                if (refCnt == 1) {
+                    deallocate0();
+                }
+                return;
+            }
+        }
+    }
+
+    @Override
+    public final boolean isFreed() {
+        return refCnt == 0;
+    }
+
+    private void deallocate0() {
+        ResourceLeak leak = this.leak;
+        if (leak != null) {
+            this.leak = null;
+            leak.close();
+        }
+        deallocate();
+    }
+
+    /**
+     * Called once {@link #refCnt()} is equals 0.
+     */
+    protected abstract void deallocate();
+}
@@ -17,6 +17,14 @@ package io.netty.buffer;
 
 /**
  * A buffer to operate on
+ *
+ * <h3>Reference counting</h3>
+ *
+ * A {@link Buf} is reference-counted.  A new buffer starts with a reference count of {@code 1}.
+ * {@link #retain()} increases the reference count and {@link #release()} decreases it.  Once the reference count
+ * reaches {@code 0}, the buffer is deallocated and must not be accessed anymore.  This allows a single buffer to
+ * be shared by multiple parties, such as multiple outbound writes, without copying its content:  each party calls
+ * {@link #release()} once it is done with the buffer.
  */
 public interface Buf {
     /**
@@ -25,15 +33,55 @@ public interface Buf {
     BufType type();
 
     /**
-     * Returns {@code true} if and only if this buffer has been deallocated by {@link #free()}.
+     * Returns {@code true} if and only if this buffer has been deallocated by {@link #free()} or {@link #release()}.
      */
     boolean isFreed();
 
     /**
-     * Deallocates the internal memory block of this buffer or returns it to the allocator or pool it came from.
+     * Decreases the reference count by {@code 1} and deallocates the internal memory block of this buffer or
+     * returns it to the allocator or pool it came from if the reference count reaches {@code 0}.  Calling this
+     * method on a buffer which has been deallocated already has no effect.
      * The result of accessing a released buffer is unspecified and can even cause JVM crash.
      *
      * @throws UnsupportedOperationException if this buffer is derived
      */
     void free();
+
+    /**
+     * Returns the reference count of this buffer.  If {@code 0}, it means this buffer has been deallocated.
+     */
+    int refCnt();
+
+    /**
+     * Increases the reference count by {@code 1}.
+     *
+     * @throws IllegalBufferAccessException if this buffer has been deallocated already
+     */
+    Buf retain();
+
+    /**
+     * Increases the reference count by the specified {@code increment}.
+     *
+     * @throws IllegalBufferAccessException if this buffer has been deallocated already
+     */
+    Buf retain(int increment);
+
+    /**
+     * Decreases the reference count by {@code 1} and deallocates this buffer if the reference count reaches
+     * {@code 0}.  If this buffer is derived, the reference count of the buffer it was derived from is decreased.
+     *
+     * @return {@code true} if and only if the reference count became {@code 0} and this buffer has been deallocated
+     * @throws IllegalBufferAccessException if this buffer has been deallocated already
+     */
+    boolean release();
+
+    /**
+     * Decreases the reference count by the specified {@code decrement} and deallocates this buffer if the reference
+     * count reaches {@code 0}.
+     *
+     * @return {@code true} if and only if the reference count became {@code 0} and this buffer has been deallocated
+     * @throws IllegalBufferAccessException if this buffer has been deallocated already or
+     *                                      {@code decrement} is greater than the reference count
+     */
+    boolean release(int decrement);
 }
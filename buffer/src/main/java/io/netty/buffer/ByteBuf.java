@@ -1835,6 +1835,12 @@ public interface ByteBuf extends Buf, Comparable<ByteBuf> {
      */
     String toString(int index, int length, Charset charset);
 
+    @Override
+    ByteBuf retain();
+
+    @Override
+    ByteBuf retain(int increment);
+
     /**
      * Suspends the intermediary deallocation of the internal memory block of this buffer until asked via
      * {@link #resumeIntermediaryDeallocations()}. An intermediary deallocation is usually made when the capacity of
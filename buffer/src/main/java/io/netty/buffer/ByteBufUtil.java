@@ -277,7 +277,35 @@ public final class ByteBufUtil {
             return -1;
         }
 
-        for (int i = fromIndex; i < toIndex; i ++) {
+        if (buffer.hasArray() && toIndex <= buffer.capacity()) {
+            byte[] array = buffer.array();
+            int offset = buffer.arrayOffset();
+            for (int i = fromIndex; i < toIndex; i ++) {
+                if (array[offset + i] == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        int i = fromIndex;
+        if (toIndex - fromIndex >= 8) {
+            // Compare 8 bytes at a time, which saves the bounds check and the indirection of every getByte() call.
+            final long pattern = compilePattern(value);
+            final boolean swap = buffer.order() == ByteOrder.LITTLE_ENDIAN;
+            for (; i <= toIndex - 8; i += 8) {
+                long word = buffer.getLong(i);
+                if (swap) {
+                    word = Long.reverseBytes(word);
+                }
+                long matches = matches(word, pattern);
+                if (matches != 0) {
+                    return i + (Long.numberOfLeadingZeros(matches) >>> 3);
+                }
+            }
+        }
+
+        for (; i < toIndex; i ++) {
             if (buffer.getByte(i) == value) {
                 return i;
             }
@@ -292,7 +320,34 @@ public final class ByteBufUtil {
             return -1;
         }
 
-        for (int i = fromIndex - 1; i >= toIndex; i --) {
+        if (buffer.hasArray() && toIndex >= 0) {
+            byte[] array = buffer.array();
+            int offset = buffer.arrayOffset();
+            for (int i = fromIndex - 1; i >= toIndex; i --) {
+                if (array[offset + i] == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        int i = fromIndex;
+        if (i - toIndex >= 8) {
+            final long pattern = compilePattern(value);
+            final boolean swap = buffer.order() == ByteOrder.LITTLE_ENDIAN;
+            for (; i - 8 >= toIndex; i -= 8) {
+                long word = buffer.getLong(i - 8);
+                if (swap) {
+                    word = Long.reverseBytes(word);
+                }
+                long matches = matches(word, pattern);
+                if (matches != 0) {
+                    return i - 1 - (Long.numberOfTrailingZeros(matches) >>> 3);
+                }
+            }
+        }
+
+        for (i --; i >= toIndex; i --) {
             if (buffer.getByte(i) == value) {
                 return i;
             }
@@ -301,6 +356,24 @@ public final class ByteBufUtil {
         return -1;
     }
 
+    /**
+     * Returns a 64-bit word whose bytes are all equal to the specified value.
+     */
+    private static long compilePattern(byte value) {
+        return (value & 0xFFL) * 0x0101010101010101L;
+    }
+
+    /**
+     * Returns a 64-bit word which has the most significant bit of a byte set if and only if the byte at the same
+     * position in {@code word} equals the byte {@code pattern} has been compiled from.  Unlike the well-known
+     * {@code (x - 0x01..01) & ~x & 0x80..80} trick, this never reports a false positive, so the position of any set
+     * bit can be trusted as is.
+     */
+    private static long matches(long word, long pattern) {
+        long x = word ^ pattern;
+        return ~((x & 0x7F7F7F7F7F7F7F7FL) + 0x7F7F7F7F7F7F7F7FL | x | 0x7F7F7F7F7F7F7F7FL);
+    }
+
     private static int firstIndexOf(
             ByteBuf buffer, int fromIndex, int toIndex, ByteBufIndexFinder indexFinder) {
         fromIndex = Math.max(fromIndex, 0);
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.buffer;
+
+/**
+ * Locates a fixed sequence of bytes in a {@link ByteBuf} using the Boyer-Moore-Horspool algorithm.
+ * <p>
+ * Unlike a naive search which compares the sequence at every index, this finder skips up to the length of the
+ * sequence on a mismatch, so that it gets faster as the sequence gets longer.  A finder is immutable and thus can
+ * be shared by many threads; it is recommended to create it once and reuse it for every search.
+ */
+public final class ByteSequenceFinder {
+
+    private final byte[] sequence;
+    private final int[] shifts = new int[256];
+
+    /**
+     * Creates a new finder which locates the specified sequence.
+     */
+    public ByteSequenceFinder(byte[] sequence) {
+        if (sequence == null) {
+            throw new NullPointerException("sequence");
+        }
+        if (sequence.length == 0) {
+            throw new IllegalArgumentException("empty sequence");
+        }
+
+        this.sequence = sequence.clone();
+
+        int last = sequence.length - 1;
+        for (int i = 0; i < shifts.length; i ++) {
+            shifts[i] = sequence.length;
+        }
+        for (int i = 0; i < last; i ++) {
+            shifts[sequence[i] & 0xFF] = last - i;
+        }
+    }
+
+    /**
+     * Creates a new finder which locates the readable bytes of the specified buffer.  The indexes of the buffer
+     * are not modified.
+     */
+    public ByteSequenceFinder(ByteBuf sequence) {
+        this(toArray(sequence));
+    }
+
+    private static byte[] toArray(ByteBuf sequence) {
+        if (sequence == null) {
+            throw new NullPointerException("sequence");
+        }
+        byte[] array = new byte[sequence.readableBytes()];
+        sequence.getBytes(sequence.readerIndex(), array);
+        return array;
+    }
+
+    /**
+     * Returns the length of the sequence this finder locates.
+     */
+    public int length() {
+        return sequence.length;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the sequence which starts at or after {@code fromIndex} and
+     * ends at or before {@code toIndex} (exclusive) in the specified buffer.
+     *
+     * @return the absolute index of the first byte of the sequence, or {@code -1} if not found
+     */
+    public int indexOf(ByteBuf haystack, int fromIndex, int toIndex) {
+        fromIndex = Math.max(fromIndex, 0);
+        toIndex = Math.min(toIndex, haystack.capacity());
+
+        final byte[] sequence = this.sequence;
+        final int last = sequence.length - 1;
+        if (toIndex - fromIndex <= last) {
+            return -1;
+        }
+        if (last == 0) {
+            return ByteBufUtil.indexOf(haystack, fromIndex, toIndex, sequence[0]);
+        }
+
+        final int[] shifts = this.shifts;
+        final byte lastByte = sequence[last];
+        final int limit = toIndex - sequence.length;
+        if (haystack.hasArray()) {
+            final byte[] array = haystack.array();
+            final int offset = haystack.arrayOffset();
+            for (int i = fromIndex; i <= limit;) {
+                byte b = array[offset + i + last];
+                if (b == lastByte) {
+                    int j = last - 1;
+                    while (array[offset + i + j] == sequence[j]) {
+                        if (j == 0) {
+                            return i;
+                        }
+                        j --;
+                    }
+                }
+                i += shifts[b & 0xFF];
+            }
+        } else {
+            for (int i = fromIndex; i <= limit;) {
+                byte b = haystack.getByte(i + last);
+                if (b == lastByte) {
+                    int j = last - 1;
+                    while (haystack.getByte(i + j) == sequence[j]) {
+                        if (j == 0) {
+                            return i;
+                        }
+                        j --;
+                    }
+                }
+                i += shifts[b & 0xFF];
+            }
+        }
+        return -1;
+    }
+}
@@ -25,6 +25,13 @@ import java.util.List;
  */
 public interface CompositeByteBuf extends ByteBuf, Iterable<ByteBuf> {
 
+    /**
+     * The {@link #maxNumComponents()} of a composite buffer which never consolidates its components into a single
+     * buffer, no matter how many components are added.  Use it for buffers which accumulate many components, e.g.
+     * an aggregated message body, so that adding a component never copies the content added before.
+     */
+    int NEVER_CONSOLIDATE = Integer.MAX_VALUE;
+
     /**
      * Add the given {@link ByteBuf}.
      *
@@ -124,7 +131,9 @@ public interface CompositeByteBuf extends ByteBuf, Iterable<ByteBuf> {
     int numComponents();
 
     /**
-     * Return the max number of {@link ByteBuf}'s that are composed in this instance
+     * Return the max number of {@link ByteBuf}'s that are composed in this instance.  Once the number of
+     * components exceeds it, all components are consolidated into a single buffer unless it is
+     * {@link #NEVER_CONSOLIDATE}.
      */
     int maxNumComponents();
 
@@ -369,6 +378,12 @@ public interface CompositeByteBuf extends ByteBuf, Iterable<ByteBuf> {
     @Override
     CompositeByteBuf writeZero(int length);
 
+    @Override
+    CompositeByteBuf retain();
+
+    @Override
+    CompositeByteBuf retain(int increment);
+
     @Override
     CompositeByteBuf suspendIntermediaryDeallocations();
 
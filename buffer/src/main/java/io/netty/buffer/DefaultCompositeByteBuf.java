@@ -15,6 +15,7 @@
  */
 package io.netty.buffer;
 
+import io.netty.util.Recycler;
 import io.netty.util.internal.DetectionUtil;
 
 import java.io.IOException;
@@ -39,7 +40,7 @@ import java.util.Queue;
  * is recommended to use {@link Unpooled#wrappedBuffer(ByteBuf...)}
  * instead of calling the constructor explicitly.
  */
-public class DefaultCompositeByteBuf extends AbstractByteBuf implements CompositeByteBuf {
+public class DefaultCompositeByteBuf extends AbstractReferenceCountedByteBuf implements CompositeByteBuf {
 
     private static final ByteBuffer[] EMPTY_NIOBUFFERS = new ByteBuffer[0];
 
@@ -48,9 +49,7 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
     private final List<Component> components = new ArrayList<Component>();
     private final int maxNumComponents;
 
-    private Component lastAccessed;
     private int lastAccessedId;
-    private boolean freed;
     private Queue<ByteBuf> suspendedDeallocations;
 
     public DefaultCompositeByteBuf(ByteBufAllocator alloc, boolean direct, int maxNumComponents) {
@@ -148,7 +147,7 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
         }
 
         // No need to consolidate - just add a component to the list.
-        Component c = new Component(buffer.order(ByteOrder.BIG_ENDIAN).slice(), addedBySelf);
+        Component c = Component.newInstance(buffer.order(ByteOrder.BIG_ENDIAN).slice(), addedBySelf);
         if (cIndex == components.size()) {
             components.add(c);
             if (cIndex == 0) {
@@ -272,17 +271,18 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
                 Component c = components.get(i);
                 ByteBuf b = c.buf;
                 consolidated.writeBytes(b);
-                c.freeIfNecessary();
+                freeAndRecycle(c);
             }
-            Component c = new Component(consolidated, true);
+            Component c = Component.newInstance(consolidated, true);
             c.endOffset = c.length;
             components.clear();
             components.add(c);
+            lastAccessedId = 0;
         }
     }
 
     private void checkComponentIndex(int cIndex) {
-        assert !freed;
+        assert !isFreed();
         if (cIndex < 0 || cIndex > components.size()) {
             throw new IndexOutOfBoundsException(String.format(
                     "cIndex: %d (expected: >= 0 && <= numComponents(%d))",
@@ -291,7 +291,7 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
     }
 
     private void checkComponentIndex(int cIndex, int numComponents) {
-        assert !freed;
+        assert !isFreed();
         if (cIndex < 0 || cIndex + numComponents > components.size()) {
             throw new IndexOutOfBoundsException(String.format(
                     "cIndex: %d, numComponents: %d " +
@@ -301,10 +301,13 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
     }
 
     private void updateComponentOffsets(int cIndex) {
+        lastAccessedId = cIndex;
+        if (cIndex == components.size()) {
+            // The last component has been removed.
+            return;
+        }
 
         Component c = components.get(cIndex);
-        lastAccessed = c;
-        lastAccessedId = cIndex;
 
         if (cIndex == 0) {
             c.offset = 0;
@@ -323,7 +326,7 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
     @Override
     public CompositeByteBuf removeComponent(int cIndex) {
         checkComponentIndex(cIndex);
-        components.remove(cIndex);
+        components.remove(cIndex).recycle();
         updateComponentOffsets(cIndex);
         return this;
     }
@@ -331,14 +334,18 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
     @Override
     public CompositeByteBuf removeComponents(int cIndex, int numComponents) {
         checkComponentIndex(cIndex, numComponents);
-        components.subList(cIndex, cIndex + numComponents).clear();
+        List<Component> removed = components.subList(cIndex, cIndex + numComponents);
+        for (Component c: removed) {
+            c.recycle();
+        }
+        removed.clear();
         updateComponentOffsets(cIndex);
         return this;
     }
 
     @Override
     public Iterator<ByteBuf> iterator() {
-        assert !freed;
+        assert !isFreed();
         List<ByteBuf> list = new ArrayList<ByteBuf>(components.size());
         for (Component c: components) {
             list.add(c.buf);
@@ -435,7 +442,7 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
 
     @Override
     public CompositeByteBuf capacity(int newCapacity) {
-        assert !freed;
+        assert !isFreed();
         if (newCapacity < 0 || newCapacity > maxCapacity()) {
             throw new IllegalArgumentException("newCapacity: " + newCapacity);
         }
@@ -464,16 +471,19 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
                 if (bytesToTrim >= c.length) {
                     bytesToTrim -= c.length;
                     i.remove();
+                    c.recycle();
                     continue;
                 }
 
                 // Replace the last component with the trimmed slice.
-                Component newC = new Component(c.buf.slice(0, c.length - bytesToTrim), c.allocatedBySelf);
+                Component newC = Component.newInstance(c.buf.slice(0, c.length - bytesToTrim), c.allocatedBySelf);
                 newC.offset = c.offset;
                 newC.endOffset = newC.offset + newC.length;
                 i.set(newC);
+                c.recycle();
                 break;
             }
+            lastAccessedId = 0;
 
             if (readerIndex() > newCapacity) {
                 setIndex(newCapacity, newCapacity);
@@ -506,39 +516,35 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
 
     @Override
     public int toComponentIndex(int offset) {
-        assert !freed;
+        assert !isFreed();
         if (offset < 0 || offset >= capacity()) {
             throw new IndexOutOfBoundsException(String.format(
                     "offset: %d (expected: >= 0 && < capacity(%d))", offset, capacity()));
         }
 
-        Component c = lastAccessed;
-        if (c == null) {
-            lastAccessed = c = components.get(0);
-        }
-        if (offset >= c.offset) {
-            if (offset < c.endOffset) {
-                return lastAccessedId;
+        // Try the last accessed component first, which is the common case for sequential access.
+        final List<Component> components = this.components;
+        int id = lastAccessedId;
+        if (id < components.size()) {
+            Component c = components.get(id);
+            if (offset >= c.offset && offset < c.endOffset) {
+                return id;
             }
+        }
 
-            // Search right
-            for (int i = lastAccessedId + 1; i < components.size(); i ++) {
-                c = components.get(i);
-                if (offset < c.endOffset) {
-                    lastAccessedId = i;
-                    lastAccessed = c;
-                    return i;
-                }
-            }
-        } else {
-            // Search left
-            for (int i = lastAccessedId - 1; i >= 0; i --) {
-                c = components.get(i);
-                if (offset >= c.offset) {
-                    lastAccessedId = i;
-                    lastAccessed = c;
-                    return i;
-                }
+        // Binary search over the offsets of the components.
+        int low = 0;
+        int high = components.size() - 1;
+        while (low <= high) {
+            int mid = low + high >>> 1;
+            Component c = components.get(mid);
+            if (offset >= c.endOffset) {
+                low = mid + 1;
+            } else if (offset < c.offset) {
+                high = mid - 1;
+            } else {
+                lastAccessedId = mid;
+                return mid;
             }
         }
 
@@ -1015,44 +1021,7 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
     }
 
     private Component findComponent(int offset) {
-        assert !freed;
-        if (offset < 0 || offset >= capacity()) {
-            throw new IndexOutOfBoundsException(String.format(
-                    "offset: %d (expected: >= 0 && < capacity(%d))", offset, capacity()));
-        }
-
-        Component c = lastAccessed;
-        if (c == null) {
-            lastAccessed = c = components.get(0);
-        }
-
-        if (offset >= c.offset) {
-            if (offset < c.endOffset) {
-                return c;
-            }
-
-            // Search right
-            for (int i = lastAccessedId + 1; i < components.size(); i ++) {
-                c = components.get(i);
-                if (offset < c.endOffset) {
-                    lastAccessedId = i;
-                    lastAccessed = c;
-                    return c;
-                }
-            }
-        } else {
-            // Search left
-            for (int i = lastAccessedId - 1; i >= 0; i --) {
-                c = components.get(i);
-                if (offset >= c.offset) {
-                    lastAccessedId = i;
-                    lastAccessed = c;
-                    return c;
-                }
-            }
-        }
-
-        throw new IllegalStateException("should not reach here - concurrent modification?");
+        return components.get(toComponentIndex(offset));
     }
 
     @Override
@@ -1069,7 +1038,7 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
     }
 
     private ByteBuffer copiedNioBuffer(int index, int length) {
-        assert !freed;
+        assert !isFreed();
         if (components.size() == 1) {
             return toNioBuffer(components.get(0).buf, index, length);
         }
@@ -1095,23 +1064,32 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
         if (length == 0) {
             return EMPTY_NIOBUFFERS;
         }
-        int componentId = toComponentIndex(index);
+        final int firstId = toComponentIndex(index);
+        final int lastId = toComponentIndex(index + length - 1);
 
-        List<ByteBuffer> buffers = new ArrayList<ByteBuffer>(components.size());
-
-        int i = componentId;
-        while (length > 0) {
+        // Every component exposes exactly one NIO buffer unless it is a view of another composite buffer.
+        ByteBuffer[] buffers = new ByteBuffer[lastId - firstId + 1];
+        int numBuffers = 0;
+        for (int i = firstId; i <= lastId; i ++) {
             Component c = components.get(i);
             ByteBuf s = c.buf;
-            int adjustment = c.offset;
-            int localLength = Math.min(length, s.capacity() - (index - adjustment));
-            buffers.add(s.nioBuffer(index - adjustment, localLength));
+            int localIndex = index - c.offset;
+            int localLength = Math.min(length, c.length - localIndex);
+            if (s.nioBufferCount() == 1) {
+                buffers[numBuffers ++] = s.nioBuffer(localIndex, localLength);
+            } else {
+                ByteBuffer[] nested = s.nioBuffers(localIndex, localLength);
+                ByteBuffer[] newBuffers = new ByteBuffer[buffers.length + nested.length - 1];
+                System.arraycopy(buffers, 0, newBuffers, 0, numBuffers);
+                System.arraycopy(nested, 0, newBuffers, numBuffers, nested.length);
+                buffers = newBuffers;
+                numBuffers += nested.length;
+            }
             index += localLength;
             length -= localLength;
-            i ++;
         }
 
-        return buffers.toArray(new ByteBuffer[buffers.size()]);
+        return buffers;
     }
 
     private static ByteBuffer toNioBuffer(ByteBuf buf, int index, int length) {
@@ -1124,7 +1102,7 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
 
     @Override
     public CompositeByteBuf consolidate() {
-        assert !freed;
+        assert !isFreed();
         final int numComponents = numComponents();
         if (numComponents <= 1) {
             return this;
@@ -1138,11 +1116,11 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
             Component c = components.get(i);
             ByteBuf b = c.buf;
             consolidated.writeBytes(b);
-            c.freeIfNecessary();
+            freeAndRecycle(c);
         }
 
         components.clear();
-        components.add(new Component(consolidated, true));
+        components.add(Component.newInstance(consolidated, true));
         updateComponentOffsets(0);
         return this;
     }
@@ -1163,18 +1141,18 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
             Component c = components.get(i);
             ByteBuf b = c.buf;
             consolidated.writeBytes(b);
-            c.freeIfNecessary();
+            freeAndRecycle(c);
         }
 
         components.subList(cIndex + 1, endCIndex).clear();
-        components.set(cIndex, new Component(consolidated, true));
+        components.set(cIndex, Component.newInstance(consolidated, true));
         updateComponentOffsets(cIndex);
         return this;
     }
 
     @Override
     public CompositeByteBuf discardReadComponents() {
-        assert !freed;
+        assert !isFreed();
         final int readerIndex = readerIndex();
         if (readerIndex == 0) {
             return this;
@@ -1184,7 +1162,7 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
         int writerIndex = writerIndex();
         if (readerIndex == writerIndex && writerIndex == capacity()) {
             for (Component c: components) {
-                c.freeIfNecessary();
+                freeAndRecycle(c);
             }
             components.clear();
             setIndex(0, 0);
@@ -1195,7 +1173,7 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
         // Remove read components.
         int firstComponentId = toComponentIndex(readerIndex);
         for (int i = 0; i < firstComponentId; i ++) {
-            components.get(i).freeIfNecessary();
+            freeAndRecycle(components.get(i));
         }
         components.subList(0, firstComponentId).clear();
 
@@ -1209,7 +1187,7 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
 
     @Override
     public CompositeByteBuf discardReadBytes() {
-        assert !freed;
+        assert !isFreed();
         final int readerIndex = readerIndex();
         if (readerIndex == 0) {
             return this;
@@ -1219,7 +1197,7 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
         int writerIndex = writerIndex();
         if (readerIndex == writerIndex && writerIndex == capacity()) {
             for (Component c: components) {
-                c.freeIfNecessary();
+                freeAndRecycle(c);
             }
             components.clear();
             setIndex(0, 0);
@@ -1230,7 +1208,7 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
         // Remove read components.
         int firstComponentId = toComponentIndex(readerIndex);
         for (int i = 0; i < firstComponentId; i ++) {
-            components.get(i).freeIfNecessary();
+            freeAndRecycle(components.get(i));
         }
         components.subList(0, firstComponentId).clear();
 
@@ -1241,9 +1219,11 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
             // new slice would be empty, so remove instead
             components.remove(0);
         } else {
-            Component newC = new Component(c.buf.slice(adjustment, c.length - adjustment), c.allocatedBySelf);
+            Component newC = Component.newInstance(
+                    c.buf.slice(adjustment, c.length - adjustment), c.allocatedBySelf);
             components.set(0, newC);
         }
+        c.recycle();
 
         // Update indexes and markers.
         updateComponentOffsets(0);
@@ -1266,27 +1246,11 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
         return result + ", components=" + components.size() + ')';
     }
 
-    private final class Component {
-        final ByteBuf buf;
-        final int length;
-        final boolean allocatedBySelf;
-        int offset;
-        int endOffset;
-
-        Component(ByteBuf buf, boolean allocatedBySelf) {
-            this.buf = buf;
-            length = buf.readableBytes();
-            this.allocatedBySelf = allocatedBySelf;
-        }
-
-        void freeIfNecessary() {
-            if (!allocatedBySelf) {
-                return;
-            }
-
+    private void freeAndRecycle(Component c) {
+        if (c.allocatedBySelf) {
             // Unwrap so that we can free slices, too.
             ByteBuf buf;
-            for (buf = this.buf; buf.unwrap() != null; buf = buf.unwrap()) {
+            for (buf = c.buf; buf.unwrap() != null; buf = buf.unwrap()) {
                 continue;
             }
 
@@ -1296,6 +1260,44 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
                 suspendedDeallocations.add(buf);
             }
         }
+        c.recycle();
+    }
+
+    private static final class Component {
+
+        private static final Recycler<Component> RECYCLER = new Recycler<Component>() {
+            @Override
+            protected Component newObject(Handle handle) {
+                return new Component(handle);
+            }
+        };
+
+        static Component newInstance(ByteBuf buf, boolean allocatedBySelf) {
+            Component c = RECYCLER.get();
+            c.buf = buf;
+            c.length = buf.readableBytes();
+            c.allocatedBySelf = allocatedBySelf;
+            c.offset = 0;
+            c.endOffset = 0;
+            return c;
+        }
+
+        private final Recycler.Handle recyclerHandle;
+        ByteBuf buf;
+        int length;
+        boolean allocatedBySelf;
+        int offset;
+        int endOffset;
+
+        private Component(Recycler.Handle recyclerHandle) {
+            this.recyclerHandle = recyclerHandle;
+        }
+
+        void recycle() {
+            // Do not pin the buffer while this component sits in the pool.
+            buf = null;
+            RECYCLER.recycle(this, recyclerHandle);
+        }
     }
 
     @Override
@@ -1529,21 +1531,24 @@ public class DefaultCompositeByteBuf extends AbstractByteBuf implements Composit
     }
 
     @Override
-    public boolean isFreed() {
-        return freed;
+    protected void deallocate() {
+        resumeIntermediaryDeallocations();
+        for (Component c: components) {
+            freeAndRecycle(c);
+        }
+        components.clear();
     }
 
     @Override
-    public void free() {
-        if (freed) {
-            return;
-        }
+    public CompositeByteBuf retain() {
+        super.retain();
+        return this;
+    }
 
-        freed = true;
-        resumeIntermediaryDeallocations();
-        for (Component c: components) {
-            c.freeIfNecessary();
-        }
+    @Override
+    public CompositeByteBuf retain(int increment) {
+        super.retain(increment);
+        return this;
     }
 
     @Override
@@ -31,20 +31,41 @@ import java.nio.channels.ScatteringByteChannel;
  */
 public class DuplicatedByteBuf extends AbstractByteBuf {
 
-    private final ByteBuf buffer;
+    private ByteBuf buffer;
 
     public DuplicatedByteBuf(ByteBuf buffer) {
         super(buffer.maxCapacity());
+        init(buffer);
+    }
+
+    /**
+     * Creates an uninitialized instance which is initialized by {@link #init(ByteBuf)} later.
+     */
+    DuplicatedByteBuf() {
+        super(0);
+    }
 
+    final void init(ByteBuf buffer) {
         if (buffer instanceof DuplicatedByteBuf) {
             this.buffer = ((DuplicatedByteBuf) buffer).buffer;
         } else {
             this.buffer = buffer;
         }
+        maxCapacity(buffer.maxCapacity());
 
+        setIndex(0, 0);
+        markReaderIndex();
+        markWriterIndex();
         setIndex(buffer.readerIndex(), buffer.writerIndex());
     }
 
+    /**
+     * Releases the reference to the parent buffer so that it is not pinned while this instance is pooled.
+     */
+    final void deinit() {
+        buffer = null;
+    }
+
     @Override
     public ByteBuf unwrap() {
         return buffer;
@@ -232,6 +253,33 @@ public class DuplicatedByteBuf extends AbstractByteBuf {
         return buffer.nioBuffers(index, length);
     }
 
+    @Override
+    public int refCnt() {
+        return buffer.refCnt();
+    }
+
+    @Override
+    public ByteBuf retain() {
+        buffer.retain();
+        return this;
+    }
+
+    @Override
+    public ByteBuf retain(int increment) {
+        buffer.retain(increment);
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return buffer.release();
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        return buffer.release(decrement);
+    }
+
     @Override
     public boolean isFreed() {
         return buffer.isFreed();
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.buffer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Locates the first occurrence of any of several byte sequences in a {@link ByteBuf} in a single pass, using a
+ * deterministic automaton built with the Aho-Corasick algorithm.
+ * <p>
+ * Searching for each sequence separately reads the same bytes as many times as there are sequences, while this
+ * finder reads every byte at most once regardless of the number of sequences.  A finder is immutable and thus can be
+ * shared by many threads; it is recommended to create it once and reuse it for every search.
+ */
+public final class MultiByteSequenceFinder {
+
+    private final byte[][] sequences;
+    private final int maxLength;
+    /** The transitions of the automaton, indexed by state and then by the unsigned value of the next byte. */
+    private final int[][] transitions;
+    /** The length of the longest sequence which ends when the automaton enters a state, or 0 if none. */
+    private final int[] matchLengths;
+
+    /**
+     * Creates a new finder which locates the specified sequences.
+     */
+    public MultiByteSequenceFinder(byte[]... sequences) {
+        if (sequences == null) {
+            throw new NullPointerException("sequences");
+        }
+        if (sequences.length == 0) {
+            throw new IllegalArgumentException("empty sequences");
+        }
+
+        this.sequences = new byte[sequences.length][];
+        int maxLength = 0;
+        int maxStates = 1;
+        for (int i = 0; i < sequences.length; i ++) {
+            byte[] s = sequences[i];
+            if (s == null) {
+                throw new NullPointerException("sequences[" + i + ']');
+            }
+            if (s.length == 0) {
+                throw new IllegalArgumentException("empty sequence: sequences[" + i + ']');
+            }
+            this.sequences[i] = s.clone();
+            maxLength = Math.max(maxLength, s.length);
+            maxStates += s.length;
+        }
+        this.maxLength = maxLength;
+
+        // Build the trie.
+        int[][] transitions = new int[maxStates][];
+        int[] matchLengths = new int[maxStates];
+        transitions[0] = new int[256];
+        Arrays.fill(transitions[0], -1);
+        int numStates = 1;
+        for (byte[] s: this.sequences) {
+            int state = 0;
+            for (byte b: s) {
+                int next = transitions[state][b & 0xFF];
+                if (next < 0) {
+                    next = numStates ++;
+                    transitions[next] = new int[256];
+                    Arrays.fill(transitions[next], -1);
+                    transitions[state][b & 0xFF] = next;
+                }
+                state = next;
+            }
+            matchLengths[state] = s.length;
+        }
+
+        // Turn the trie into an automaton by following the failure links in breadth-first order.
+        int[] failures = new int[numStates];
+        int[] queue = new int[numStates];
+        int head = 0;
+        int tail = 0;
+        for (int c = 0; c < 256; c ++) {
+            int next = transitions[0][c];
+            if (next < 0) {
+                transitions[0][c] = 0;
+            } else {
+                failures[next] = 0;
+                queue[tail ++] = next;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head ++];
+            int failure = failures[state];
+            if (matchLengths[state] == 0) {
+                matchLengths[state] = matchLengths[failure];
+            }
+            for (int c = 0; c < 256; c ++) {
+                int next = transitions[state][c];
+                if (next < 0) {
+                    transitions[state][c] = transitions[failure][c];
+                } else {
+                    failures[next] = transitions[failure][c];
+                    queue[tail ++] = next;
+                }
+            }
+        }
+
+        this.transitions = Arrays.copyOf(transitions, numStates);
+        this.matchLengths = Arrays.copyOf(matchLengths, numStates);
+    }
+
+    /**
+     * Creates a new finder which locates the readable bytes of the specified buffers.  The indexes of the buffers
+     * are not modified.
+     */
+    public MultiByteSequenceFinder(ByteBuf... sequences) {
+        this(toArrays(sequences));
+    }
+
+    private static byte[][] toArrays(ByteBuf[] sequences) {
+        if (sequences == null) {
+            throw new NullPointerException("sequences");
+        }
+        List<byte[]> arrays = new ArrayList<byte[]>(sequences.length);
+        for (int i = 0; i < sequences.length; i ++) {
+            ByteBuf s = sequences[i];
+            if (s == null) {
+                throw new NullPointerException("sequences[" + i + ']');
+            }
+            byte[] array = new byte[s.readableBytes()];
+            s.getBytes(s.readerIndex(), array);
+            arrays.add(array);
+        }
+        return arrays.toArray(new byte[arrays.size()][]);
+    }
+
+    /**
+     * Returns the number of the sequences this finder locates.
+     */
+    public int numSequences() {
+        return sequences.length;
+    }
+
+    /**
+     * Returns the index of the first occurrence of any of the sequences which starts at or after {@code fromIndex}
+     * and ends at or before {@code toIndex} (exclusive) in the specified buffer.  When more than one sequence
+     * occurs, the one which starts first wins.  Use {@link #sequenceAt(ByteBuf, int, int)} to tell which sequence
+     * has been found.
+     *
+     * @return the absolute index of the first byte of the found sequence, or {@code -1} if not found
+     */
+    public int indexOf(ByteBuf haystack, int fromIndex, int toIndex) {
+        fromIndex = Math.max(fromIndex, 0);
+        toIndex = Math.min(toIndex, haystack.capacity());
+
+        final int[][] transitions = this.transitions;
+        final int[] matchLengths = this.matchLengths;
+        int found = -1;
+        int end = toIndex;
+        int state = 0;
+        if (haystack.hasArray()) {
+            final byte[] array = haystack.array();
+            final int offset = haystack.arrayOffset();
+            for (int i = fromIndex; i < end; i ++) {
+                state = transitions[state][array[offset + i] & 0xFF];
+                int length = matchLengths[state];
+                if (length != 0) {
+                    int start = i - length + 1;
+                    if (found < 0 || start < found) {
+                        found = start;
+                        // A longer sequence which ends later may still start earlier.
+                        end = Math.min(toIndex, start + maxLength - 1);
+                    }
+                }
+            }
+        } else {
+            for (int i = fromIndex; i < end; i ++) {
+                state = transitions[state][haystack.getByte(i) & 0xFF];
+                int length = matchLengths[state];
+                if (length != 0) {
+                    int start = i - length + 1;
+                    if (found < 0 || start < found) {
+                        found = start;
+                        end = Math.min(toIndex, start + maxLength - 1);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the index of the first of the sequences, in the order they were specified in the constructor, which
+     * occurs at the specified index of the specified buffer and ends at or before {@code toIndex} (exclusive).
+     *
+     * @return the index of the found sequence, or {@code -1} if none of the sequences occurs at {@code index}
+     */
+    public int sequenceAt(ByteBuf haystack, int index, int toIndex) {
+        final byte[][] sequences = this.sequences;
+        for (int i = 0; i < sequences.length; i ++) {
+            byte[] s = sequences[i];
+            if (toIndex - index < s.length) {
+                continue;
+            }
+            int j = 0;
+            while (j < s.length && haystack.getByte(index + j) == s[j]) {
+                j ++;
+            }
+            if (j == s.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the length of the sequence at the specified index, as returned by
+     * {@link #sequenceAt(ByteBuf, int, int)}.
+     */
+    public int length(int sequenceIndex) {
+        return sequences[sequenceIndex].length;
+    }
+}
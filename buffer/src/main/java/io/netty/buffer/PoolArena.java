@@ -17,12 +17,24 @@
 package io.netty.buffer;
 
 import io.netty.util.internal.StringUtil;
+import io.netty.util.internal.UnsafeUtil;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-abstract class PoolArena<T> {
+abstract class PoolArena<T> implements PoolArenaMetric {
+
+    static final int NUM_TINY_SUBPAGE_POOLS = 512 >>> 4;
 
     final PooledByteBufAllocator parent;
 
@@ -30,6 +42,7 @@ abstract class PoolArena<T> {
     private final int maxOrder;
     private final int pageShifts;
     private final int chunkSize;
+    private final int chunkShifts;
     private final int subpageOverflowMask;
 
     private final Deque<PoolSubpage<T>>[] tinySubpagePools;
@@ -41,19 +54,59 @@ abstract class PoolArena<T> {
     private final PoolChunkList<T> qInit;
     private final PoolChunkList<T> q075;
     private final PoolChunkList<T> q100;
+    private final List<PoolChunkListMetric> chunkListMetrics;
+
+    // Updated only while holding the lock of this arena.
+    private long allocationsTiny;
+    private long allocationsSmall;
+    private long allocationsNormal;
+    private long deallocationsTiny;
+    private long deallocationsSmall;
+    private long deallocationsNormal;
+
+    // Huge allocations never acquire the lock of this arena.
+    private final AtomicLong allocationsHuge = new AtomicLong();
+    private final AtomicLong deallocationsHuge = new AtomicLong();
+    private final AtomicLong activeBytesHuge = new AtomicLong();
+
+    final AtomicInteger numThreadCaches = new AtomicInteger();
+
+    // Unpooled chunks kept for reuse by the next huge allocation, bucketed by log2 of their size.  Guarded by itself
+    // rather than by the lock of this arena, which huge allocations never acquire.  hugeCacheMaxBytes bounds the
+    // chunks kept by all arenas of the parent together, see PooledByteBufAllocator.cachedHugeBytes.
+    private final Deque<PoolChunk<T>>[] hugeCache;
+    private final long hugeCacheMaxBytes;
+    private final long hugeCacheIdleTimeNanos;
+    private long cachedHugeBytes;
+    private final AtomicLong hugeCacheHits = new AtomicLong();
 
     // TODO: Test if adding padding helps under contention
     //private long pad0, pad1, pad2, pad3, pad4, pad5, pad6, pad7;
 
-    protected PoolArena(PooledByteBufAllocator parent, int pageSize, int maxOrder, int pageShifts, int chunkSize) {
+    protected PoolArena(
+            PooledByteBufAllocator parent, int pageSize, int maxOrder, int pageShifts, int chunkSize,
+            long hugeCacheMaxBytes, long hugeCacheIdleTimeMillis) {
         this.parent = parent;
         this.pageSize = pageSize;
         this.maxOrder = maxOrder;
         this.pageShifts = pageShifts;
         this.chunkSize = chunkSize;
+        chunkShifts = pageShifts + maxOrder;
         subpageOverflowMask = ~(pageSize - 1);
 
-        tinySubpagePools = newSubpagePoolArray(512 >>> 4);
+        if (hugeCacheMaxBytes > 0) {
+            // One bucket per power of two above chunkSize.
+            hugeCache = newChunkDequeArray(31 - chunkShifts);
+            for (int i = 0; i < hugeCache.length; i ++) {
+                hugeCache[i] = new ArrayDeque<PoolChunk<T>>();
+            }
+        } else {
+            hugeCache = null;
+        }
+        this.hugeCacheMaxBytes = hugeCacheMaxBytes;
+        hugeCacheIdleTimeNanos = TimeUnit.MILLISECONDS.toNanos(hugeCacheIdleTimeMillis);
+
+        tinySubpagePools = newSubpagePoolArray(NUM_TINY_SUBPAGE_POOLS);
         for (int i = 0; i < tinySubpagePools.length; i ++) {
             tinySubpagePools[i] = new ArrayDeque<PoolSubpage<T>>();
         }
@@ -76,6 +129,15 @@ abstract class PoolArena<T> {
         q025.prevList = q000;
         q000.prevList = null;
         qInit.prevList = qInit;
+
+        List<PoolChunkListMetric> metrics = new ArrayList<PoolChunkListMetric>(6);
+        metrics.add(qInit);
+        metrics.add(q000);
+        metrics.add(q025);
+        metrics.add(q050);
+        metrics.add(q075);
+        metrics.add(q100);
+        chunkListMetrics = Collections.unmodifiableList(metrics);
     }
 
     @SuppressWarnings("unchecked")
@@ -83,6 +145,11 @@ abstract class PoolArena<T> {
         return new Deque[size];
     }
 
+    @SuppressWarnings("unchecked")
+    private Deque<PoolChunk<T>>[] newChunkDequeArray(int size) {
+        return new Deque[size];
+    }
+
     PooledByteBuf<T> allocate(PoolThreadCache cache, int reqCapacity, int maxCapacity) {
         PooledByteBuf<T> buf = newByteBuf(maxCapacity);
         allocate(cache, buf, reqCapacity);
@@ -91,19 +158,22 @@ abstract class PoolArena<T> {
 
     private void allocate(PoolThreadCache cache, PooledByteBuf<T> buf, final int reqCapacity) {
         final int normCapacity = normalizeCapacity(reqCapacity);
-        if ((normCapacity & subpageOverflowMask) == 0) { // capacity < pageSize
+        if (isTinyOrSmall(normCapacity)) { // capacity < pageSize
             int tableIdx;
             Deque<PoolSubpage<T>>[] table;
-            if ((normCapacity & 0xFFFFFE00) == 0) { // < 512
-                tableIdx = normCapacity >>> 4;
+            if (isTiny(normCapacity)) { // < 512
+                if (cache.allocateTiny(this, buf, reqCapacity, normCapacity)) {
+                    // was able to allocate out of the cache so move on
+                    return;
+                }
+                tableIdx = tinyIdx(normCapacity);
                 table = tinySubpagePools;
             } else {
-                tableIdx = 0;
-                int i = normCapacity >>> 10;
-                while (i != 0) {
-                    i >>>= 1;
-                    tableIdx ++;
+                if (cache.allocateSmall(this, buf, reqCapacity, normCapacity)) {
+                    // was able to allocate out of the cache so move on
+                    return;
                 }
+                tableIdx = smallIdx(normCapacity);
                 table = smallSubpagePools;
             }
 
@@ -126,6 +196,7 @@ abstract class PoolArena<T> {
                         subpages.removeFirst();
                     } else {
                         s.chunk.initBufWithSubpage(buf, handle, reqCapacity);
+                        incAllocations(normCapacity);
                         return;
                     }
                 }
@@ -133,6 +204,9 @@ abstract class PoolArena<T> {
         } else if (normCapacity > chunkSize) {
             allocateHuge(buf, reqCapacity);
             return;
+        } else if (cache.allocateNormal(this, buf, reqCapacity, normCapacity)) {
+            // was able to allocate out of the cache so move on
+            return;
         }
 
         allocateNormal(buf, reqCapacity, normCapacity);
@@ -142,6 +216,7 @@ abstract class PoolArena<T> {
         if (q050.allocate(buf, reqCapacity, normCapacity) || q025.allocate(buf, reqCapacity, normCapacity) ||
             q000.allocate(buf, reqCapacity, normCapacity) || qInit.allocate(buf, reqCapacity, normCapacity) ||
             q075.allocate(buf, reqCapacity, normCapacity)) {
+            incAllocations(normCapacity);
             return;
         }
 
@@ -151,38 +226,235 @@ abstract class PoolArena<T> {
         assert handle > 0;
         c.initBuf(buf, handle, reqCapacity);
         qInit.add(c);
+        incAllocations(normCapacity);
     }
 
     private void allocateHuge(PooledByteBuf<T> buf, int reqCapacity) {
-        buf.initUnpooled(newUnpooledChunk(reqCapacity), reqCapacity);
+        PoolChunk<T> chunk = pollHugeCache(reqCapacity);
+        if (chunk == null) {
+            chunk = newUnpooledChunk(hugeCapacity(reqCapacity));
+        }
+        buf.initUnpooled(chunk, reqCapacity);
+        allocationsHuge.incrementAndGet();
+        activeBytesHuge.addAndGet(chunk.chunkSize());
     }
 
-    synchronized void free(PoolChunk<T> chunk, long handle) {
-        if (chunk.unpooled) {
-            destroyChunk(chunk);
+    private int hugeCapacity(int reqCapacity) {
+        if (hugeCache == null) {
+            return reqCapacity;
+        }
+
+        // Round up to the page size so that the cached chunks can serve requests of slightly different sizes.
+        int capacity = reqCapacity + pageSize - 1 & ~(pageSize - 1);
+        return capacity < 0 ? reqCapacity : capacity;
+    }
+
+    private static int log2(int val) {
+        return 31 - Integer.numberOfLeadingZeros(val);
+    }
+
+    private PoolChunk<T> pollHugeCache(int reqCapacity) {
+        if (hugeCache == null) {
+            return null;
+        }
+
+        long currentTime = System.nanoTime();
+        synchronized (hugeCache) {
+            expireHugeCache(currentTime);
+
+            // All chunks in the bucket are smaller than twice the requested capacity.
+            Deque<PoolChunk<T>> bucket = hugeCache[log2(reqCapacity) - chunkShifts];
+            for (Iterator<PoolChunk<T>> i = bucket.iterator(); i.hasNext();) {
+                PoolChunk<T> c = i.next();
+                if (c.chunkSize() >= reqCapacity) {
+                    i.remove();
+                    removeCachedHugeBytes(c.chunkSize());
+                    hugeCacheHits.incrementAndGet();
+                    return c;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Keeps the specified unpooled chunk for reuse if the huge cache is enabled and has room for it, evicting the
+     * least recently cached chunks of this arena if necessary.  Returns {@code false} if the chunk must be destroyed
+     * instead, which is also the case if the chunks kept by the other arenas of the parent leave no room for it.
+     */
+    private boolean offerHugeCache(PoolChunk<T> chunk) {
+        int size = chunk.chunkSize();
+        if (hugeCache == null || size > hugeCacheMaxBytes || size <= chunkSize) {
+            return false;
+        }
+
+        long currentTime = System.nanoTime();
+        synchronized (hugeCache) {
+            expireHugeCache(currentTime);
+            while (!reserveCachedHugeBytes(size)) {
+                if (cachedHugeBytes == 0) {
+                    return false;
+                }
+                evictOldestHugeChunk();
+            }
+
+            chunk.cacheTime = currentTime;
+            hugeCache[log2(size) - chunkShifts].addFirst(chunk);
+            cachedHugeBytes += size;
+        }
+        return true;
+    }
+
+    // Reserves room for a chunk of the specified size in the huge cache budget shared by all arenas of the parent.
+    private boolean reserveCachedHugeBytes(int size) {
+        AtomicLong parentCachedHugeBytes = parent.cachedHugeBytes;
+        for (;;) {
+            long oldValue = parentCachedHugeBytes.get();
+            long newValue = oldValue + size;
+            if (newValue > hugeCacheMaxBytes) {
+                return false;
+            }
+            if (parentCachedHugeBytes.compareAndSet(oldValue, newValue)) {
+                return true;
+            }
+        }
+    }
+
+    // Must be called while holding the lock of hugeCache.
+    private void removeCachedHugeBytes(int size) {
+        cachedHugeBytes -= size;
+        parent.cachedHugeBytes.addAndGet(-size);
+    }
+
+    /**
+     * Destroys the chunks which have not been reused for longer than the idle time of the huge cache.
+     */
+    void trimHugeCache() {
+        if (hugeCache == null) {
+            return;
+        }
+
+        long currentTime = System.nanoTime();
+        synchronized (hugeCache) {
+            expireHugeCache(currentTime);
+        }
+    }
+
+    // Must be called while holding the lock of hugeCache.
+    private void expireHugeCache(long currentTime) {
+        if (cachedHugeBytes == 0) {
+            return;
+        }
+
+        for (Deque<PoolChunk<T>> bucket: hugeCache) {
+            // Each bucket is ordered from the most recently to the least recently cached chunk.
+            for (;;) {
+                PoolChunk<T> c = bucket.peekLast();
+                if (c == null || currentTime - c.cacheTime < hugeCacheIdleTimeNanos) {
+                    break;
+                }
+                bucket.removeLast();
+                removeCachedHugeBytes(c.chunkSize());
+                destroyChunk(c);
+            }
+        }
+    }
+
+    // Must be called while holding the lock of hugeCache.
+    private void evictOldestHugeChunk() {
+        Deque<PoolChunk<T>> oldest = null;
+        for (Deque<PoolChunk<T>> bucket: hugeCache) {
+            PoolChunk<T> c = bucket.peekLast();
+            if (c != null && (oldest == null || c.cacheTime - oldest.peekLast().cacheTime < 0)) {
+                oldest = bucket;
+            }
+        }
+
+        PoolChunk<T> c = oldest.removeLast();
+        removeCachedHugeBytes(c.chunkSize());
+        destroyChunk(c);
+    }
+
+    // Must be called while holding the lock of this arena.
+    private void incAllocations(int normCapacity) {
+        if (!isTinyOrSmall(normCapacity)) {
+            allocationsNormal ++;
+        } else if (isTiny(normCapacity)) {
+            allocationsTiny ++;
         } else {
+            allocationsSmall ++;
+        }
+    }
+
+    /**
+     * Frees the memory region by caching it in the {@link PoolThreadCache} of the current thread if possible, or
+     * returning it to this arena otherwise.
+     */
+    void free(PoolChunk<T> chunk, long handle, int normCapacity) {
+        if (!chunk.unpooled) {
+            PoolThreadCache cache = parent.threadCache.get();
+            if (cache.add(this, chunk, handle, normCapacity)) {
+                // cached so not free it.
+                return;
+            }
+        }
+        free(chunk, handle);
+    }
+
+    void free(PoolChunk<T> chunk, long handle) {
+        if (chunk.unpooled) {
+            deallocationsHuge.incrementAndGet();
+            activeBytesHuge.addAndGet(-chunk.chunkSize());
+            if (!offerHugeCache(chunk)) {
+                destroyChunk(chunk);
+            }
+            return;
+        }
+
+        synchronized (this) {
+            int normCapacity = chunk.normCapacity(handle);
+            if (!isTinyOrSmall(normCapacity)) {
+                deallocationsNormal ++;
+            } else if (isTiny(normCapacity)) {
+                deallocationsTiny ++;
+            } else {
+                deallocationsSmall ++;
+            }
             chunk.parent.free(chunk, handle);
         }
     }
 
     void addSubpage(PoolSubpage<T> subpage) {
-        int tableIdx;
         int elemSize = subpage.elemSize;
-        Deque<PoolSubpage<T>>[] table;
-        if ((elemSize & 0xFFFFFE00) == 0) { // < 512
-            tableIdx = elemSize >>> 4;
-            table = tinySubpagePools;
+        if (isTiny(elemSize)) { // < 512
+            tinySubpagePools[tinyIdx(elemSize)].addFirst(subpage);
         } else {
-            tableIdx = 0;
-            elemSize >>>= 10;
-            while (elemSize != 0) {
-                elemSize >>>= 1;
-                tableIdx ++;
-            }
-            table = smallSubpagePools;
+            smallSubpagePools[smallIdx(elemSize)].addFirst(subpage);
+        }
+    }
+
+    static int tinyIdx(int normCapacity) {
+        return normCapacity >>> 4;
+    }
+
+    static int smallIdx(int normCapacity) {
+        int tableIdx = 0;
+        int i = normCapacity >>> 10;
+        while (i != 0) {
+            i >>>= 1;
+            tableIdx ++;
         }
+        return tableIdx;
+    }
 
-        table[tableIdx].addFirst(subpage);
+    // capacity < pageSize
+    boolean isTinyOrSmall(int normCapacity) {
+        return (normCapacity & subpageOverflowMask) == 0;
+    }
+
+    // normCapacity < 512
+    static boolean isTiny(int normCapacity) {
+        return (normCapacity & 0xFFFFFE00) == 0;
     }
 
     private int normalizeCapacity(int reqCapacity) {
@@ -224,6 +496,7 @@ abstract class PoolArena<T> {
         long oldHandle = buf.handle;
         T oldMemory = buf.memory;
         int oldOffset = buf.offset;
+        int oldMaxLength = buf.maxLength;
 
         int readerIndex = buf.readerIndex();
         int writerIndex = buf.writerIndex();
@@ -249,7 +522,7 @@ abstract class PoolArena<T> {
         buf.setIndex(readerIndex, writerIndex);
 
         if (freeOldMemory) {
-            free(oldChunk, oldHandle);
+            free(oldChunk, oldHandle, oldMaxLength);
         }
     }
 
@@ -259,6 +532,135 @@ abstract class PoolArena<T> {
     protected abstract void memoryCopy(T src, int srcOffset, T dst, int dstOffset, int length);
     protected abstract void destroyChunk(PoolChunk<T> chunk);
 
+    @Override
+    public int numThreadCaches() {
+        return numThreadCaches.get();
+    }
+
+    @Override
+    public long numAllocations() {
+        long allocations;
+        synchronized (this) {
+            allocations = allocationsTiny + allocationsSmall + allocationsNormal;
+        }
+        return allocations + allocationsHuge.get();
+    }
+
+    @Override
+    public synchronized long numTinyAllocations() {
+        return allocationsTiny;
+    }
+
+    @Override
+    public synchronized long numSmallAllocations() {
+        return allocationsSmall;
+    }
+
+    @Override
+    public synchronized long numNormalAllocations() {
+        return allocationsNormal;
+    }
+
+    @Override
+    public long numHugeAllocations() {
+        return allocationsHuge.get();
+    }
+
+    @Override
+    public long numDeallocations() {
+        long deallocations;
+        synchronized (this) {
+            deallocations = deallocationsTiny + deallocationsSmall + deallocationsNormal;
+        }
+        return deallocations + deallocationsHuge.get();
+    }
+
+    @Override
+    public synchronized long numTinyDeallocations() {
+        return deallocationsTiny;
+    }
+
+    @Override
+    public synchronized long numSmallDeallocations() {
+        return deallocationsSmall;
+    }
+
+    @Override
+    public synchronized long numNormalDeallocations() {
+        return deallocationsNormal;
+    }
+
+    @Override
+    public long numHugeDeallocations() {
+        return deallocationsHuge.get();
+    }
+
+    @Override
+    public long numActiveAllocations() {
+        long active;
+        synchronized (this) {
+            active = allocationsTiny + allocationsSmall + allocationsNormal -
+                     deallocationsTiny - deallocationsSmall - deallocationsNormal;
+        }
+        return active + allocationsHuge.get() - deallocationsHuge.get();
+    }
+
+    @Override
+    public long numActiveBytes() {
+        long activeBytes = activeBytesHuge.get();
+        for (PoolChunkListMetric m: chunkListMetrics) {
+            for (PoolChunkMetric c: m) {
+                activeBytes += c.chunkSize() - c.freeBytes();
+            }
+        }
+        return activeBytes;
+    }
+
+    @Override
+    public long numHugeCacheHits() {
+        return hugeCacheHits.get();
+    }
+
+    @Override
+    public long numCachedHugeBytes() {
+        if (hugeCache == null) {
+            return 0;
+        }
+        synchronized (hugeCache) {
+            return cachedHugeBytes;
+        }
+    }
+
+    @Override
+    public List<PoolChunkListMetric> chunkLists() {
+        return chunkListMetrics;
+    }
+
+    @Override
+    public List<PoolSubpageMetric> tinySubpages() {
+        return subpageMetrics(tinySubpagePools, true);
+    }
+
+    @Override
+    public List<PoolSubpageMetric> smallSubpages() {
+        return subpageMetrics(smallSubpagePools, false);
+    }
+
+    private synchronized List<PoolSubpageMetric> subpageMetrics(Deque<PoolSubpage<T>>[] pools, boolean tiny) {
+        // A pool may contain stale or duplicate entries until they are removed lazily on allocation.
+        Set<PoolSubpage<T>> seen = Collections.newSetFromMap(new IdentityHashMap<PoolSubpage<T>, Boolean>());
+        List<PoolSubpageMetric> metrics = new ArrayList<PoolSubpageMetric>();
+        for (Deque<PoolSubpage<T>> subpages: pools) {
+            for (PoolSubpage<T> s: subpages) {
+                if (!s.doNotDestroy || s.elemSize == 0 || isTiny(s.elemSize) != tiny || !seen.add(s)) {
+                    continue;
+                }
+                metrics.add(new SubpageMetric(s.maxNumElems, s.numAvail, s.elemSize, s.pageSize));
+            }
+        }
+        return Collections.unmodifiableList(metrics);
+    }
+
     public synchronized String toString() {
         StringBuilder buf = new StringBuilder();
         buf.append("Chunk(s) at 0~25%:");
@@ -315,10 +717,46 @@ abstract class PoolArena<T> {
         return buf.toString();
     }
 
+    private static final class SubpageMetric implements PoolSubpageMetric {
+        private final int maxNumElements;
+        private final int numAvailable;
+        private final int elementSize;
+        private final int pageSize;
+
+        SubpageMetric(int maxNumElements, int numAvailable, int elementSize, int pageSize) {
+            this.maxNumElements = maxNumElements;
+            this.numAvailable = numAvailable;
+            this.elementSize = elementSize;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public int maxNumElements() {
+            return maxNumElements;
+        }
+
+        @Override
+        public int numAvailable() {
+            return numAvailable;
+        }
+
+        @Override
+        public int elementSize() {
+            return elementSize;
+        }
+
+        @Override
+        public int pageSize() {
+            return pageSize;
+        }
+    }
+
     static final class HeapArena extends PoolArena<byte[]> {
 
-        HeapArena(PooledByteBufAllocator parent, int pageSize, int maxOrder, int pageShifts, int chunkSize) {
-            super(parent, pageSize, maxOrder, pageShifts, chunkSize);
+        HeapArena(
+                PooledByteBufAllocator parent, int pageSize, int maxOrder, int pageShifts, int chunkSize,
+                long hugeCacheMaxBytes, long hugeCacheIdleTimeMillis) {
+            super(parent, pageSize, maxOrder, pageShifts, chunkSize, hugeCacheMaxBytes, hugeCacheIdleTimeMillis);
         }
 
         @Override
@@ -338,7 +776,7 @@ abstract class PoolArena<T> {
 
         @Override
         protected PooledByteBuf<byte[]> newByteBuf(int maxCapacity) {
-            return new PooledHeapByteBuf(maxCapacity);
+            return PooledHeapByteBuf.newInstance(maxCapacity);
         }
 
         @Override
@@ -353,8 +791,12 @@ abstract class PoolArena<T> {
 
     static final class DirectArena extends PoolArena<ByteBuffer> {
 
-        DirectArena(PooledByteBufAllocator parent, int pageSize, int maxOrder, int pageShifts, int chunkSize) {
-            super(parent, pageSize, maxOrder, pageShifts, chunkSize);
+        private static final boolean HAS_UNSAFE = UnsafeUtil.isAvailable();
+
+        DirectArena(
+                PooledByteBufAllocator parent, int pageSize, int maxOrder, int pageShifts, int chunkSize,
+                long hugeCacheMaxBytes, long hugeCacheIdleTimeMillis) {
+            super(parent, pageSize, maxOrder, pageShifts, chunkSize, hugeCacheMaxBytes, hugeCacheIdleTimeMillis);
         }
 
         @Override
@@ -375,7 +817,10 @@ abstract class PoolArena<T> {
 
         @Override
         protected PooledByteBuf<ByteBuffer> newByteBuf(int maxCapacity) {
-            return new PooledDirectByteBuf(maxCapacity);
+            if (HAS_UNSAFE) {
+                return PooledUnsafeDirectByteBuf.newInstance(maxCapacity);
+            }
+            return PooledDirectByteBuf.newInstance(maxCapacity);
         }
 
         @Override
@@ -384,6 +829,13 @@ abstract class PoolArena<T> {
                 return;
             }
 
+            if (HAS_UNSAFE) {
+                UnsafeUtil.copyMemory(
+                        UnsafeUtil.directBufferAddress(src) + srcOffset,
+                        UnsafeUtil.directBufferAddress(dst) + dstOffset, length);
+                return;
+            }
+
             // We must duplicate the NIO buffers because they may be accessed by other Netty buffers.
             src = src.duplicate();
             dst = dst.duplicate();
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.buffer;
+
+import java.util.List;
+
+/**
+ * Exposes the state of an arena of a {@link PooledByteBufAllocator}.  Allocations and deallocations are counted when
+ * they are served by the arena itself; the ones served by the thread-local caches are not counted because they never
+ * touch the arena.
+ */
+public interface PoolArenaMetric {
+
+    /**
+     * Returns the number of threads whose thread-local cache is bound to this arena.
+     */
+    int numThreadCaches();
+
+    /**
+     * Returns the number of allocations served by this arena.
+     */
+    long numAllocations();
+
+    /**
+     * Returns the number of tiny (&lt; 512 bytes) allocations served by this arena.
+     */
+    long numTinyAllocations();
+
+    /**
+     * Returns the number of small (&lt; {@code pageSize}) allocations served by this arena.
+     */
+    long numSmallAllocations();
+
+    /**
+     * Returns the number of normal (&lt;= {@code chunkSize}) allocations served by this arena.
+     */
+    long numNormalAllocations();
+
+    /**
+     * Returns the number of huge (&gt; {@code chunkSize}) allocations, which are never pooled.
+     */
+    long numHugeAllocations();
+
+    /**
+     * Returns the number of deallocations returned to this arena.
+     */
+    long numDeallocations();
+
+    /**
+     * Returns the number of tiny deallocations returned to this arena.
+     */
+    long numTinyDeallocations();
+
+    /**
+     * Returns the number of small deallocations returned to this arena.
+     */
+    long numSmallDeallocations();
+
+    /**
+     * Returns the number of normal deallocations returned to this arena.
+     */
+    long numNormalDeallocations();
+
+    /**
+     * Returns the number of huge deallocations returned to this arena.
+     */
+    long numHugeDeallocations();
+
+    /**
+     * Returns the number of allocations which have not been returned to this arena yet.
+     */
+    long numActiveAllocations();
+
+    /**
+     * Returns the number of bytes which have not been returned to this arena yet, including the memory held by the
+     * thread-local caches.
+     */
+    long numActiveBytes();
+
+    /**
+     * Returns the number of huge allocations which reused the memory of a previously freed huge buffer.
+     */
+    long numHugeCacheHits();
+
+    /**
+     * Returns the number of bytes which are kept by this arena for the reuse by the next huge allocations.
+     */
+    long numCachedHugeBytes();
+
+    /**
+     * Returns the snapshots of the chunk lists of this arena, ordered by their usage.
+     */
+    List<PoolChunkListMetric> chunkLists();
+
+    /**
+     * Returns the snapshots of the subpages in the tiny subpage pools of this arena.
+     */
+    List<PoolSubpageMetric> tinySubpages();
+
+    /**
+     * Returns the snapshots of the subpages in the small subpage pools of this arena.
+     */
+    List<PoolSubpageMetric> smallSubpages();
+}
@@ -48,6 +48,9 @@ final class PoolChunk<T> {
     PoolChunk<T> prev;
     PoolChunk<T> next;
 
+    /** The value of {@link System#nanoTime()} when this unpooled chunk was put into the huge cache of its arena. */
+    long cacheTime;
+
     // TODO: Test if adding padding helps under contention
     //private long pad0, pad1, pad2, pad3, pad4, pad5, pad6, pad7;
 
@@ -109,6 +112,30 @@ final class PoolChunk<T> {
         return 100 - freePercentage;
     }
 
+    int chunkSize() {
+        return chunkSize;
+    }
+
+    int freeBytes() {
+        return freeBytes;
+    }
+
+    /**
+     * Returns the normalized capacity of the memory region identified by the specified handle.
+     */
+    int normCapacity(long handle) {
+        if (unpooled) {
+            return chunkSize;
+        }
+
+        int memoryMapIdx = (int) handle;
+        int bitmapIdx = (int) (handle >>> 32);
+        if (bitmapIdx == 0) {
+            return runLength(memoryMap[memoryMapIdx]);
+        }
+        return subpages[subpageIdx(memoryMapIdx)].elemSize;
+    }
+
     long allocate(int normCapacity) {
         int firstVal = memoryMap[1];
         if ((normCapacity & subpageOverflowMask) != 0) { // >= pageSize
@@ -18,7 +18,12 @@ package io.netty.buffer;
 
 import io.netty.util.internal.StringUtil;
 
-final class PoolChunkList<T> {
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+final class PoolChunkList<T> implements PoolChunkListMetric {
     private final PoolArena<T> arena;
     private final PoolChunkList<T> nextList;
     PoolChunkList<T> prevList;
@@ -108,6 +113,27 @@ final class PoolChunkList<T> {
         }
     }
 
+    @Override
+    public int minUsage() {
+        return Math.max(0, minUsage);
+    }
+
+    @Override
+    public int maxUsage() {
+        return Math.min(100, maxUsage);
+    }
+
+    @Override
+    public Iterator<PoolChunkMetric> iterator() {
+        List<PoolChunkMetric> metrics = new ArrayList<PoolChunkMetric>();
+        synchronized (arena) {
+            for (PoolChunk<T> cur = head; cur != null; cur = cur.next) {
+                metrics.add(new ChunkMetric(cur.usage(), cur.chunkSize(), cur.freeBytes()));
+            }
+        }
+        return Collections.unmodifiableList(metrics).iterator();
+    }
+
     @Override
     public String toString() {
         if (head == null) {
@@ -126,4 +152,31 @@ final class PoolChunkList<T> {
 
         return buf.toString();
     }
+
+    private static final class ChunkMetric implements PoolChunkMetric {
+        private final int usage;
+        private final int chunkSize;
+        private final int freeBytes;
+
+        ChunkMetric(int usage, int chunkSize, int freeBytes) {
+            this.usage = usage;
+            this.chunkSize = chunkSize;
+            this.freeBytes = freeBytes;
+        }
+
+        @Override
+        public int usage() {
+            return usage;
+        }
+
+        @Override
+        public int chunkSize() {
+            return chunkSize;
+        }
+
+        @Override
+        public int freeBytes() {
+            return freeBytes;
+        }
+    }
 }
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.buffer;
+
+/**
+ * Exposes the state of a list of chunks whose usage is within a certain range.  Iterating over it yields the
+ * snapshots of the chunks in the list at the time {@link #iterator()} was called.
+ */
+public interface PoolChunkListMetric extends Iterable<PoolChunkMetric> {
+
+    /**
+     * Returns the minimum usage, in percent, of the chunks in this list.
+     */
+    int minUsage();
+
+    /**
+     * Returns the maximum usage, in percent, of the chunks in this list.
+     */
+    int maxUsage();
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.buffer;
+
+/**
+ * A snapshot of the state of a chunk.
+ */
+public interface PoolChunkMetric {
+
+    /**
+     * Returns the usage of the chunk in percent.
+     */
+    int usage();
+
+    /**
+     * Returns the size of the chunk in bytes.
+     */
+    int chunkSize();
+
+    /**
+     * Returns the number of bytes which are not allocated from the chunk.
+     */
+    int freeBytes();
+}
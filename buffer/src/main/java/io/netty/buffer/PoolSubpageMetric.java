@@ -0,0 +1,42 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.buffer;
+
+/**
+ * A snapshot of the state of a subpage, which is a page split into elements of the same size.
+ */
+public interface PoolSubpageMetric {
+
+    /**
+     * Returns the number of elements the subpage can hold.
+     */
+    int maxNumElements();
+
+    /**
+     * Returns the number of elements which are not allocated.
+     */
+    int numAvailable();
+
+    /**
+     * Returns the size of an element in bytes.
+     */
+    int elementSize();
+
+    /**
+     * Returns the size of the page in bytes.
+     */
+    int pageSize();
+}
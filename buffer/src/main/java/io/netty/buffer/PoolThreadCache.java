@@ -18,16 +18,308 @@ package io.netty.buffer;
 
 import java.nio.ByteBuffer;
 
+/**
+ * Acts as a thread cache for allocations. Memory which is freed by the thread that owns this cache is kept in
+ * per-size-class free lists, so that the next allocation of the same normalized capacity does not need to acquire
+ * the lock of the {@link PoolArena}.  Entries which were not reused since the last sweep are returned to their
+ * arena every {@code freeSweepAllocationThreshold} allocations.
+ *
+ * A cache is only ever touched by the thread it is bound to, hence no synchronization is needed.  Once that
+ * thread has gone away, {@link PooledByteBufAllocator} returns the cached memory to the arenas via {@link #free()}.
+ */
 final class PoolThreadCache {
 
     final PoolArena<byte[]> heapArena;
     final PoolArena<ByteBuffer> directArena;
 
+    // Hold the caches for the different size classes, which are tiny, small and normal.
+    private final MemoryRegionCache<byte[]>[] tinySubPageHeapCaches;
+    private final MemoryRegionCache<byte[]>[] smallSubPageHeapCaches;
+    private final MemoryRegionCache<byte[]>[] normalHeapCaches;
+    private final MemoryRegionCache<ByteBuffer>[] tinySubPageDirectCaches;
+    private final MemoryRegionCache<ByteBuffer>[] smallSubPageDirectCaches;
+    private final MemoryRegionCache<ByteBuffer>[] normalDirectCaches;
+
+    private final int pageShifts;
+    private final int freeSweepAllocationThreshold;
+
+    private int allocations;
+
     // TODO: Test if adding padding helps under contention
     //private long pad0, pad1, pad2, pad3, pad4, pad5, pad6, pad7;
 
-    PoolThreadCache(PoolArena<byte[]> heapArena, PoolArena<ByteBuffer> directArena) {
+    PoolThreadCache(PoolArena<byte[]> heapArena, PoolArena<ByteBuffer> directArena,
+                    int tinyCacheSize, int smallCacheSize, int normalCacheSize,
+                    int maxCachedBufferCapacity, int freeSweepAllocationThreshold, int pageShifts) {
+        if (maxCachedBufferCapacity < 0) {
+            throw new IllegalArgumentException(
+                    "maxCachedBufferCapacity: " + maxCachedBufferCapacity + " (expected: 0+)");
+        }
+        if (freeSweepAllocationThreshold < 1) {
+            throw new IllegalArgumentException(
+                    "freeSweepAllocationThreshold: " + freeSweepAllocationThreshold + " (expected: 1+)");
+        }
+
         this.heapArena = heapArena;
         this.directArena = directArena;
+        this.pageShifts = pageShifts;
+        this.freeSweepAllocationThreshold = freeSweepAllocationThreshold;
+
+        final int numSmallSubpagePools = pageShifts - 9;
+        final int numNormalCaches = numNormalCaches(maxCachedBufferCapacity, pageShifts);
+
+        tinySubPageHeapCaches = newCacheArray(tinyCacheSize, PoolArena.NUM_TINY_SUBPAGE_POOLS);
+        smallSubPageHeapCaches = newCacheArray(smallCacheSize, numSmallSubpagePools);
+        normalHeapCaches = newCacheArray(normalCacheSize, numNormalCaches);
+        tinySubPageDirectCaches = newCacheArray(tinyCacheSize, PoolArena.NUM_TINY_SUBPAGE_POOLS);
+        smallSubPageDirectCaches = newCacheArray(smallCacheSize, numSmallSubpagePools);
+        normalDirectCaches = newCacheArray(normalCacheSize, numNormalCaches);
+    }
+
+    private static int numNormalCaches(int maxCachedBufferCapacity, int pageShifts) {
+        // One cache per power of two between pageSize and maxCachedBufferCapacity (inclusive).
+        int num = 0;
+        for (int size = 1 << pageShifts; size > 0 && size <= maxCachedBufferCapacity; size <<= 1) {
+            num ++;
+        }
+        return num;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> MemoryRegionCache<T>[] newCacheArray(int cacheSize, int numCaches) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cacheSize: " + cacheSize + " (expected: 0+)");
+        }
+        if (cacheSize == 0 || numCaches == 0) {
+            return null;
+        }
+
+        MemoryRegionCache<T>[] cache = new MemoryRegionCache[numCaches];
+        for (int i = 0; i < cache.length; i ++) {
+            cache[i] = new MemoryRegionCache<T>(cacheSize);
+        }
+        return cache;
+    }
+
+    /**
+     * Try to allocate a tiny buffer out of the cache. Returns {@code true} if successful {@code false} otherwise
+     */
+    boolean allocateTiny(PoolArena<?> area, PooledByteBuf<?> buf, int reqCapacity, int normCapacity) {
+        return allocate(cacheForTiny(area, normCapacity), buf, reqCapacity);
+    }
+
+    /**
+     * Try to allocate a small buffer out of the cache. Returns {@code true} if successful {@code false} otherwise
+     */
+    boolean allocateSmall(PoolArena<?> area, PooledByteBuf<?> buf, int reqCapacity, int normCapacity) {
+        return allocate(cacheForSmall(area, normCapacity), buf, reqCapacity);
+    }
+
+    /**
+     * Try to allocate a normal buffer out of the cache. Returns {@code true} if successful {@code false} otherwise
+     */
+    boolean allocateNormal(PoolArena<?> area, PooledByteBuf<?> buf, int reqCapacity, int normCapacity) {
+        return allocate(cacheForNormal(area, normCapacity), buf, reqCapacity);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private boolean allocate(MemoryRegionCache<?> cache, PooledByteBuf buf, int reqCapacity) {
+        if (cache == null) {
+            // no cache found so just return false here
+            return false;
+        }
+        boolean allocated = cache.allocate(buf, reqCapacity);
+        if (++ allocations >= freeSweepAllocationThreshold) {
+            allocations = 0;
+            trim();
+            heapArena.trimHugeCache();
+            directArena.trimHugeCache();
+            heapArena.parent.freeDeadThreadCaches();
+        }
+        return allocated;
+    }
+
+    /**
+     * Add the memory region identified by {@code chunk} and {@code handle} to the cache if the cache is bound to
+     * the arena the chunk belongs to and has capacity left.  Returns {@code true} if it was added and so must not be
+     * returned to the arena, {@code false} otherwise.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    boolean add(PoolArena<?> area, PoolChunk chunk, long handle, int normCapacity) {
+        MemoryRegionCache<?> cache;
+        if (area.isTinyOrSmall(normCapacity)) {
+            if (PoolArena.isTiny(normCapacity)) {
+                cache = cacheForTiny(area, normCapacity);
+            } else {
+                cache = cacheForSmall(area, normCapacity);
+            }
+        } else {
+            cache = cacheForNormal(area, normCapacity);
+        }
+        if (cache == null) {
+            return false;
+        }
+        return cache.add(chunk, handle);
+    }
+
+    /**
+     * Returns all cached memory regions to their arenas.
+     */
+    void free() {
+        free(tinySubPageHeapCaches);
+        free(smallSubPageHeapCaches);
+        free(normalHeapCaches);
+        free(tinySubPageDirectCaches);
+        free(smallSubPageDirectCaches);
+        free(normalDirectCaches);
+    }
+
+    private static void free(MemoryRegionCache<?>[] caches) {
+        if (caches == null) {
+            return;
+        }
+        for (MemoryRegionCache<?> c: caches) {
+            c.free();
+        }
+    }
+
+    void trim() {
+        trim(tinySubPageHeapCaches);
+        trim(smallSubPageHeapCaches);
+        trim(normalHeapCaches);
+        trim(tinySubPageDirectCaches);
+        trim(smallSubPageDirectCaches);
+        trim(normalDirectCaches);
+    }
+
+    private static void trim(MemoryRegionCache<?>[] caches) {
+        if (caches == null) {
+            return;
+        }
+        for (MemoryRegionCache<?> c: caches) {
+            c.trim();
+        }
+    }
+
+    private MemoryRegionCache<?> cacheForTiny(PoolArena<?> area, int normCapacity) {
+        int idx = PoolArena.tinyIdx(normCapacity);
+        if (area == directArena) {
+            return cache(tinySubPageDirectCaches, idx);
+        }
+        if (area == heapArena) {
+            return cache(tinySubPageHeapCaches, idx);
+        }
+        return null;
+    }
+
+    private MemoryRegionCache<?> cacheForSmall(PoolArena<?> area, int normCapacity) {
+        int idx = PoolArena.smallIdx(normCapacity);
+        if (area == directArena) {
+            return cache(smallSubPageDirectCaches, idx);
+        }
+        if (area == heapArena) {
+            return cache(smallSubPageHeapCaches, idx);
+        }
+        return null;
+    }
+
+    private MemoryRegionCache<?> cacheForNormal(PoolArena<?> area, int normCapacity) {
+        int idx = log2(normCapacity >> pageShifts);
+        if (area == directArena) {
+            return cache(normalDirectCaches, idx);
+        }
+        if (area == heapArena) {
+            return cache(normalHeapCaches, idx);
+        }
+        return null;
+    }
+
+    private static MemoryRegionCache<?> cache(MemoryRegionCache<?>[] cache, int idx) {
+        if (cache == null || idx >= cache.length) {
+            return null;
+        }
+        return cache[idx];
+    }
+
+    private static int log2(int val) {
+        int res = 0;
+        while (val > 1) {
+            val >>= 1;
+            res ++;
+        }
+        return res;
+    }
+
+    /**
+     * A bounded LIFO of memory regions of the same normalized capacity.  The most recently freed region is handed
+     * out first because it is the most likely to be still in the CPU cache.
+     */
+    private static final class MemoryRegionCache<T> {
+        private final PoolChunk<T>[] chunks;
+        private final long[] handles;
+        private int size;
+        private int allocations;
+
+        @SuppressWarnings("unchecked")
+        MemoryRegionCache(int capacity) {
+            chunks = new PoolChunk[capacity];
+            handles = new long[capacity];
+        }
+
+        boolean add(PoolChunk<T> chunk, long handle) {
+            int size = this.size;
+            if (size == chunks.length) {
+                // Cache is full.
+                return false;
+            }
+            chunks[size] = chunk;
+            handles[size] = handle;
+            this.size = size + 1;
+            return true;
+        }
+
+        boolean allocate(PooledByteBuf<T> buf, int reqCapacity) {
+            int size = this.size;
+            if (size == 0) {
+                return false;
+            }
+            this.size = -- size;
+            PoolChunk<T> chunk = chunks[size];
+            chunks[size] = null;
+            chunk.initBuf(buf, handles[size], reqCapacity);
+            allocations ++;
+            return true;
+        }
+
+        /**
+         * Returns the regions which were not needed since the last call of this method to their arenas.
+         */
+        void trim() {
+            int free = size - allocations;
+            allocations = 0;
+            if (free > 0) {
+                free(free);
+            }
+        }
+
+        void free() {
+            free(size);
+        }
+
+        private void free(int max) {
+            // Free the oldest entries first, which are at the bottom of the stack.
+            int size = this.size;
+            int remaining = size - max;
+            for (int i = 0; i < max; i ++) {
+                PoolChunk<T> chunk = chunks[i];
+                chunk.arena.free(chunk, handles[i]);
+            }
+            System.arraycopy(chunks, max, chunks, 0, remaining);
+            System.arraycopy(handles, max, handles, 0, remaining);
+            for (int i = remaining; i < size; i ++) {
+                chunks[i] = null;
+            }
+            this.size = remaining;
+        }
     }
 }
@@ -16,53 +16,69 @@
 
 package io.netty.buffer;
 
+import io.netty.util.Recycler;
+
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayDeque;
 import java.util.Queue;
 
-abstract class PooledByteBuf<T> extends AbstractByteBuf {
+abstract class PooledByteBuf<T> extends AbstractReferenceCountedByteBuf {
+
+    private final Recycler.Handle recyclerHandle;
 
     protected PoolChunk<T> chunk;
+    // Not cleared by recycle() unlike chunk, so that alloc() works even after this buffer is freed.
+    private ByteBufAllocator allocator;
     protected long handle;
     protected T memory;
     protected int offset;
     protected int length;
-    private int maxLength;
+    int maxLength;
 
     private ByteBuffer tmpNioBuf;
     private Queue<Allocation<T>> suspendedDeallocations;
 
-    protected PooledByteBuf(int maxCapacity) {
+    protected PooledByteBuf(Recycler.Handle recyclerHandle, int maxCapacity) {
         super(maxCapacity);
+        this.recyclerHandle = recyclerHandle;
     }
 
-    final void init(PoolChunk<T> chunk, long handle, int offset, int length, int maxLength) {
+    void init(PoolChunk<T> chunk, long handle, int offset, int length, int maxLength) {
         assert handle >= 0;
         assert chunk != null;
 
         this.chunk = chunk;
+        allocator = chunk.arena.parent;
         this.handle = handle;
         memory = chunk.memory;
         this.offset = offset;
         this.length = length;
         this.maxLength = maxLength;
-        setIndex(0, 0);
+        resetIndexes();
         tmpNioBuf = null;
     }
 
-    final void initUnpooled(PoolChunk<T> chunk, int length) {
+    void initUnpooled(PoolChunk<T> chunk, int length) {
         assert chunk != null;
 
         this.chunk = chunk;
+        allocator = chunk.arena.parent;
         handle = 0;
         memory = chunk.memory;
         offset = 0;
         this.length = maxLength = length;
-        setIndex(0, 0);
+        resetIndexes();
         tmpNioBuf = null;
     }
 
+    private void resetIndexes() {
+        // Reset the marks as well, as this buffer may have been used by someone else before it was recycled.
+        setIndex(0, 0);
+        markReaderIndex();
+        markWriterIndex();
+    }
+
     @Override
     public final int capacity() {
         return length;
@@ -115,7 +131,7 @@ abstract class PooledByteBuf<T> extends AbstractByteBuf {
 
     @Override
     public final ByteBufAllocator alloc() {
-        return chunk.arena.parent;
+        return allocator;
     }
 
     @Override
@@ -128,6 +144,19 @@ abstract class PooledByteBuf<T> extends AbstractByteBuf {
         return null;
     }
 
+    @Override
+    public final ByteBuf duplicate() {
+        return PooledDuplicatedByteBuf.newInstance(this);
+    }
+
+    @Override
+    public final ByteBuf slice(int index, int length) {
+        if (length == 0) {
+            return Unpooled.EMPTY_BUFFER;
+        }
+        return PooledSlicedByteBuf.newInstance(this, index, length);
+    }
+
     protected final ByteBuffer internalNioBuffer() {
         ByteBuffer tmpNioBuf = this.tmpNioBuf;
         if (tmpNioBuf == null) {
@@ -150,39 +179,54 @@ abstract class PooledByteBuf<T> extends AbstractByteBuf {
     @Override
     public final ByteBuf resumeIntermediaryDeallocations() {
         checkUnfreed();
+        freeSuspendedDeallocations();
+        return this;
+    }
+
+    private void freeSuspendedDeallocations() {
         if (suspendedDeallocations == null) {
-            return this;
+            return;
         }
 
         Queue<Allocation<T>> suspendedDeallocations = this.suspendedDeallocations;
         this.suspendedDeallocations = null;
 
-        if (suspendedDeallocations.isEmpty()) {
-            return this;
-        }
-
         for (Allocation<T> a: suspendedDeallocations) {
             a.chunk.arena.free(a.chunk, a.handle);
         }
-        return this;
     }
 
-    @Override
-    public final boolean isFreed() {
-        return memory == null;
+    /**
+     * Prepares a recycled buffer for its next use.
+     */
+    final void reuse(int maxCapacity) {
+        maxCapacity(maxCapacity);
+        resetRefCnt();
     }
 
     @Override
-    public final void free() {
+    protected final void deallocate() {
         if (handle >= 0) {
-            resumeIntermediaryDeallocations();
+            freeSuspendedDeallocations();
             final long handle = this.handle;
             this.handle = -1;
             memory = null;
-            chunk.arena.free(chunk, handle);
+            chunk.arena.free(chunk, handle, maxLength);
+            recycle();
         }
     }
 
+    private void recycle() {
+        // Do not pin the memory of the chunk while this buffer sits in the pool.
+        chunk = null;
+        tmpNioBuf = null;
+        @SuppressWarnings("unchecked")
+        Recycler<Object> recycler = (Recycler<Object>) recycler();
+        recycler.recycle(this, recyclerHandle);
+    }
+
+    protected abstract Recycler<?> recycler();
+
     protected final int idx(int index) {
         return offset + index;
     }
@@ -16,10 +16,29 @@
 
 package io.netty.buffer;
 
+import io.netty.monitor.MonitorName;
+import io.netty.monitor.MonitorRegistry;
+import io.netty.monitor.ValueMonitor;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
 import io.netty.util.internal.StringUtil;
+import io.netty.util.internal.SystemPropertyUtil;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class PooledByteBufAllocator extends AbstractByteBufAllocator {
 
@@ -27,21 +46,62 @@ public class PooledByteBufAllocator extends AbstractByteBufAllocator {
     private static final int DEFAULT_NUM_DIRECT_ARENA = Runtime.getRuntime().availableProcessors();
     private static final int DEFAULT_PAGE_SIZE = 8192;
     private static final int DEFAULT_MAX_ORDER = 11; // 8192 << 11 = 16 MiB per chunk
+    private static final int DEFAULT_TINY_CACHE_SIZE =
+            nonNegative("io.netty.allocator.tinyCacheSize", 512);
+    private static final int DEFAULT_SMALL_CACHE_SIZE =
+            nonNegative("io.netty.allocator.smallCacheSize", 256);
+    private static final int DEFAULT_NORMAL_CACHE_SIZE =
+            nonNegative("io.netty.allocator.normalCacheSize", 64);
+    private static final int DEFAULT_MAX_CACHED_BUFFER_CAPACITY =
+            nonNegative("io.netty.allocator.maxCachedBufferCapacity", 32 * 1024);
+    private static final int DEFAULT_CACHE_TRIM_INTERVAL =
+            Math.max(1, SystemPropertyUtil.getInt("io.netty.allocator.cacheTrimInterval", 8192));
+    // The huge cache is disabled by default so that memory nobody asked for is not retained.
+    private static final long DEFAULT_HUGE_CACHE_MAX_BYTES =
+            Math.max(0, SystemPropertyUtil.getLong("io.netty.allocator.hugeCacheMaxBytes", 0));
+    private static final long DEFAULT_HUGE_CACHE_IDLE_TIME_MILLIS =
+            Math.max(0, SystemPropertyUtil.getLong("io.netty.allocator.hugeCacheIdleTimeMillis", 10000));
 
     private static final int MIN_PAGE_SIZE = 4096;
     private static final int MAX_CHUNK_SIZE = (int) (((long) Integer.MAX_VALUE + 1) / 2);
 
     public static final PooledByteBufAllocator DEFAULT = new PooledByteBufAllocator();
 
+    private static int nonNegative(String key, int def) {
+        return Math.max(0, SystemPropertyUtil.getInt(key, def));
+    }
+
     private final PoolArena<byte[]>[] heapArenas;
     private final PoolArena<ByteBuffer>[] directArenas;
 
+    private final int pageShifts;
+    private final int tinyCacheSize;
+    private final int smallCacheSize;
+    private final int normalCacheSize;
+    private final int maxCachedBufferCapacity;
+    private final int cacheTrimInterval;
+
+    // The number of bytes kept by the huge caches of all arenas.
+    final AtomicLong cachedHugeBytes = new AtomicLong();
+
+    private final ReferenceQueue<Thread> deadThreads = new ReferenceQueue<Thread>();
+    private final Set<ThreadCacheReference> threadCacheRefs =
+            Collections.newSetFromMap(new ConcurrentHashMap<ThreadCacheReference, Boolean>());
+
     final ThreadLocal<PoolThreadCache> threadCache = new ThreadLocal<PoolThreadCache>() {
         private final AtomicInteger index = new AtomicInteger();
         @Override
         protected PoolThreadCache initialValue() {
+            freeDeadThreadCaches();
+
             int idx = Math.abs(index.getAndIncrement() % heapArenas.length);
-            return new PoolThreadCache(heapArenas[idx], directArenas[idx]);
+            PoolThreadCache cache = new PoolThreadCache(
+                    heapArenas[idx], directArenas[idx], tinyCacheSize, smallCacheSize, normalCacheSize,
+                    maxCachedBufferCapacity, cacheTrimInterval, pageShifts);
+            cache.heapArena.numThreadCaches.incrementAndGet();
+            cache.directArena.numThreadCaches.incrementAndGet();
+            threadCacheRefs.add(new ThreadCacheReference(Thread.currentThread(), cache, deadThreads));
+            return cache;
         }
     };
 
@@ -59,6 +119,67 @@ public class PooledByteBufAllocator extends AbstractByteBufAllocator {
 
     public PooledByteBufAllocator(
             boolean directByDefault, int nHeapArena, int nDirectArena, int pageSize, int maxOrder) {
+        this(directByDefault, nHeapArena, nDirectArena, pageSize, maxOrder,
+                DEFAULT_TINY_CACHE_SIZE, DEFAULT_SMALL_CACHE_SIZE, DEFAULT_NORMAL_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param tinyCacheSize    the maximum number of tiny (&lt; 512 bytes) buffers each thread keeps per size class
+     *                         for reuse without acquiring the lock of its arena. {@code 0} disables the cache.
+     * @param smallCacheSize   the maximum number of small (&lt; {@code pageSize}) buffers each thread keeps per
+     *                         size class. {@code 0} disables the cache.
+     * @param normalCacheSize  the maximum number of normal (&lt;= {@code maxCachedBufferCapacity}) buffers each
+     *                         thread keeps per size class. {@code 0} disables the cache.
+     */
+    public PooledByteBufAllocator(
+            boolean directByDefault, int nHeapArena, int nDirectArena, int pageSize, int maxOrder,
+            int tinyCacheSize, int smallCacheSize, int normalCacheSize) {
+        this(directByDefault, nHeapArena, nDirectArena, pageSize, maxOrder,
+                tinyCacheSize, smallCacheSize, normalCacheSize,
+                DEFAULT_HUGE_CACHE_MAX_BYTES, DEFAULT_HUGE_CACHE_IDLE_TIME_MILLIS);
+    }
+
+    /**
+     * Creates a new instance.  See {@link #PooledByteBufAllocator(boolean, int, int, int, int, int, int, int)} for
+     * the other parameters.
+     *
+     * @param hugeCacheMaxBytes        the maximum number of bytes all arenas of this allocator keep together for
+     *                                 reusing the memory of huge (&gt; {@code pageSize << maxOrder}) buffers, which
+     *                                 are never pooled.  {@code 0}, the default, disables the cache.
+     * @param hugeCacheIdleTimeMillis  the time in milliseconds after which the memory kept for a huge buffer is
+     *                                 released if it has not been reused.  If the cache is enabled, idle memory is
+     *                                 also released by a background timer, so that it is not retained until the
+     *                                 next allocation.
+     */
+    public PooledByteBufAllocator(
+            boolean directByDefault, int nHeapArena, int nDirectArena, int pageSize, int maxOrder,
+            int tinyCacheSize, int smallCacheSize, int normalCacheSize,
+            long hugeCacheMaxBytes, long hugeCacheIdleTimeMillis) {
+        this(directByDefault, nHeapArena, nDirectArena, pageSize, maxOrder,
+                tinyCacheSize, smallCacheSize, normalCacheSize,
+                DEFAULT_MAX_CACHED_BUFFER_CAPACITY, DEFAULT_CACHE_TRIM_INTERVAL,
+                hugeCacheMaxBytes, hugeCacheIdleTimeMillis);
+    }
+
+    /**
+     * Creates a new instance.  See {@link #PooledByteBufAllocator(boolean, int, int, int, int, int, int, int)} and
+     * {@link #PooledByteBufAllocator(boolean, int, int, int, int, int, int, int, long, long)} for the other
+     * parameters.
+     *
+     * @param maxCachedBufferCapacity  the capacity of the largest normal buffer each thread keeps for reuse.
+     *                                 Defaults to 32 KiB, or the {@code io.netty.allocator.maxCachedBufferCapacity}
+     *                                 system property.
+     * @param cacheTrimInterval        the number of allocations after which each thread returns the buffers it has
+     *                                 not reused since the last trim to their arenas. Defaults to 8192, or the
+     *                                 {@code io.netty.allocator.cacheTrimInterval} system property.
+     */
+    public PooledByteBufAllocator(
+            boolean directByDefault, int nHeapArena, int nDirectArena, int pageSize, int maxOrder,
+            int tinyCacheSize, int smallCacheSize, int normalCacheSize,
+            int maxCachedBufferCapacity, int cacheTrimInterval,
+            long hugeCacheMaxBytes, long hugeCacheIdleTimeMillis) {
         super(directByDefault);
 
         final int chunkSize = validateAndCalculateChunkSize(pageSize, maxOrder);
@@ -70,16 +191,53 @@ public class PooledByteBufAllocator extends AbstractByteBufAllocator {
             throw new IllegalArgumentException("nDirectArea: " + nDirectArena + " (expected: 1+)");
         }
 
+        if (tinyCacheSize < 0) {
+            throw new IllegalArgumentException("tinyCacheSize: " + tinyCacheSize + " (expected: 0+)");
+        }
+        if (smallCacheSize < 0) {
+            throw new IllegalArgumentException("smallCacheSize: " + smallCacheSize + " (expected: 0+)");
+        }
+        if (normalCacheSize < 0) {
+            throw new IllegalArgumentException("normalCacheSize: " + normalCacheSize + " (expected: 0+)");
+        }
+        if (maxCachedBufferCapacity < 0) {
+            throw new IllegalArgumentException(
+                    "maxCachedBufferCapacity: " + maxCachedBufferCapacity + " (expected: 0+)");
+        }
+        if (cacheTrimInterval <= 0) {
+            throw new IllegalArgumentException("cacheTrimInterval: " + cacheTrimInterval + " (expected: 1+)");
+        }
+        if (hugeCacheMaxBytes < 0) {
+            throw new IllegalArgumentException("hugeCacheMaxBytes: " + hugeCacheMaxBytes + " (expected: 0+)");
+        }
+        if (hugeCacheIdleTimeMillis < 0) {
+            throw new IllegalArgumentException(
+                    "hugeCacheIdleTimeMillis: " + hugeCacheIdleTimeMillis + " (expected: 0+)");
+        }
+
+        this.tinyCacheSize = tinyCacheSize;
+        this.smallCacheSize = smallCacheSize;
+        this.normalCacheSize = normalCacheSize;
+        this.maxCachedBufferCapacity = maxCachedBufferCapacity;
+        this.cacheTrimInterval = cacheTrimInterval;
+
         int pageShifts = validateAndCalculatePageShifts(pageSize);
+        this.pageShifts = pageShifts;
 
         heapArenas = newArenaArray(nHeapArena);
         for (int i = 0; i < heapArenas.length; i ++) {
-            heapArenas[i] = new PoolArena.HeapArena(this, pageSize, maxOrder, pageShifts, chunkSize);
+            heapArenas[i] = new PoolArena.HeapArena(
+                    this, pageSize, maxOrder, pageShifts, chunkSize, hugeCacheMaxBytes, hugeCacheIdleTimeMillis);
         }
 
         directArenas = newArenaArray(nDirectArena);
         for (int i = 0; i < directArenas.length; i ++) {
-            directArenas[i] = new PoolArena.DirectArena(this, pageSize, maxOrder, pageShifts, chunkSize);
+            directArenas[i] = new PoolArena.DirectArena(
+                    this, pageSize, maxOrder, pageShifts, chunkSize, hugeCacheMaxBytes, hugeCacheIdleTimeMillis);
+        }
+
+        if (hugeCacheMaxBytes > 0) {
+            HugeCacheTrimmer.schedule(this, hugeCacheIdleTimeMillis);
         }
     }
 
@@ -132,13 +290,214 @@ public class PooledByteBufAllocator extends AbstractByteBufAllocator {
     @Override
     protected ByteBuf newHeapBuffer(int initialCapacity, int maxCapacity) {
         PoolThreadCache cache = threadCache.get();
-        return cache.heapArena.allocate(cache, initialCapacity, maxCapacity);
+        return toLeakAwareBuffer(cache.heapArena.allocate(cache, initialCapacity, maxCapacity));
     }
 
     @Override
     protected ByteBuf newDirectBuffer(int initialCapacity, int maxCapacity) {
         PoolThreadCache cache = threadCache.get();
-        return cache.directArena.allocate(cache, initialCapacity, maxCapacity);
+        return toLeakAwareBuffer(cache.directArena.allocate(cache, initialCapacity, maxCapacity));
+    }
+
+    /**
+     * Destroys the memory kept by the huge caches of all arenas which has not been reused for longer than the idle
+     * time of the huge cache.
+     */
+    void trimHugeCaches() {
+        for (PoolArena<byte[]> a: heapArenas) {
+            a.trimHugeCache();
+        }
+        for (PoolArena<ByteBuffer> a: directArenas) {
+            a.trimHugeCache();
+        }
+    }
+
+    /**
+     * Returns the memory cached by the threads which have been garbage-collected to the arenas.
+     */
+    void freeDeadThreadCaches() {
+        for (;;) {
+            Reference<? extends Thread> ref = deadThreads.poll();
+            if (ref == null) {
+                break;
+            }
+
+            ThreadCacheReference cacheRef = (ThreadCacheReference) ref;
+            threadCacheRefs.remove(cacheRef);
+            PoolThreadCache cache = cacheRef.cache;
+            cache.free();
+            cache.heapArena.numThreadCaches.decrementAndGet();
+            cache.directArena.numThreadCaches.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the metrics of the heap arenas of this allocator.
+     */
+    public List<PoolArenaMetric> heapArenaMetrics() {
+        return arenaMetrics(heapArenas);
+    }
+
+    /**
+     * Returns the metrics of the direct arenas of this allocator.
+     */
+    public List<PoolArenaMetric> directArenaMetrics() {
+        return arenaMetrics(directArenas);
+    }
+
+    private static List<PoolArenaMetric> arenaMetrics(PoolArena<?>[] arenas) {
+        List<PoolArenaMetric> metrics = new ArrayList<PoolArenaMetric>(arenas.length);
+        Collections.addAll(metrics, arenas);
+        return Collections.unmodifiableList(metrics);
+    }
+
+    /**
+     * Registers the {@link ValueMonitor}s which expose the {@link PoolArenaMetric}s of this allocator to the
+     * specified {@link MonitorRegistry}.  The {@link MonitorName#instance() instance} of each monitor identifies its
+     * arena, e.g. {@code "heap-arena-0"} or {@code "direct-arena-3"}.
+     */
+    public void registerMonitors(MonitorRegistry monitorRegistry) {
+        if (monitorRegistry == null) {
+            throw new NullPointerException("monitorRegistry");
+        }
+
+        for (int i = 0; i < heapArenas.length; i ++) {
+            registerMonitors(monitorRegistry, heapArenas[i], "heap-arena-" + i);
+        }
+        for (int i = 0; i < directArenas.length; i ++) {
+            registerMonitors(monitorRegistry, directArenas[i], "direct-arena-" + i);
+        }
+    }
+
+    private void registerMonitors(MonitorRegistry registry, final PoolArenaMetric arena, String instance) {
+        registry.registerValueMonitor(monitorName("num-thread-caches", instance), new ValueMonitor<Integer>() {
+            @Override
+            public Integer currentValue() {
+                return arena.numThreadCaches();
+            }
+        });
+        registry.registerValueMonitor(monitorName("num-tiny-allocations", instance), new ValueMonitor<Long>() {
+            @Override
+            public Long currentValue() {
+                return arena.numTinyAllocations();
+            }
+        });
+        registry.registerValueMonitor(monitorName("num-small-allocations", instance), new ValueMonitor<Long>() {
+            @Override
+            public Long currentValue() {
+                return arena.numSmallAllocations();
+            }
+        });
+        registry.registerValueMonitor(monitorName("num-normal-allocations", instance), new ValueMonitor<Long>() {
+            @Override
+            public Long currentValue() {
+                return arena.numNormalAllocations();
+            }
+        });
+        registry.registerValueMonitor(monitorName("num-huge-allocations", instance), new ValueMonitor<Long>() {
+            @Override
+            public Long currentValue() {
+                return arena.numHugeAllocations();
+            }
+        });
+        registry.registerValueMonitor(monitorName("num-tiny-deallocations", instance), new ValueMonitor<Long>() {
+            @Override
+            public Long currentValue() {
+                return arena.numTinyDeallocations();
+            }
+        });
+        registry.registerValueMonitor(monitorName("num-small-deallocations", instance), new ValueMonitor<Long>() {
+            @Override
+            public Long currentValue() {
+                return arena.numSmallDeallocations();
+            }
+        });
+        registry.registerValueMonitor(monitorName("num-normal-deallocations", instance), new ValueMonitor<Long>() {
+            @Override
+            public Long currentValue() {
+                return arena.numNormalDeallocations();
+            }
+        });
+        registry.registerValueMonitor(monitorName("num-huge-deallocations", instance), new ValueMonitor<Long>() {
+            @Override
+            public Long currentValue() {
+                return arena.numHugeDeallocations();
+            }
+        });
+        registry.registerValueMonitor(monitorName("num-active-bytes", instance), new ValueMonitor<Long>() {
+            @Override
+            public Long currentValue() {
+                return arena.numActiveBytes();
+            }
+        });
+        registry.registerValueMonitor(monitorName("num-huge-cache-hits", instance), new ValueMonitor<Long>() {
+            @Override
+            public Long currentValue() {
+                return arena.numHugeCacheHits();
+            }
+        });
+        registry.registerValueMonitor(monitorName("num-cached-huge-bytes", instance), new ValueMonitor<Long>() {
+            @Override
+            public Long currentValue() {
+                return arena.numCachedHugeBytes();
+            }
+        });
+
+        for (final PoolChunkListMetric chunkList: arena.chunkLists()) {
+            String name = "chunk-list-" + chunkList.minUsage() + '-' + chunkList.maxUsage();
+            registry.registerValueMonitor(monitorName(name + "-num-chunks", instance), new ValueMonitor<Integer>() {
+                @Override
+                public Integer currentValue() {
+                    int numChunks = 0;
+                    for (PoolChunkMetric ignored: chunkList) {
+                        numChunks ++;
+                    }
+                    return numChunks;
+                }
+            });
+            registry.registerValueMonitor(monitorName(name + "-usage", instance), new ValueMonitor<Integer>() {
+                @Override
+                public Integer currentValue() {
+                    long chunkSize = 0;
+                    long freeBytes = 0;
+                    for (PoolChunkMetric c: chunkList) {
+                        chunkSize += c.chunkSize();
+                        freeBytes += c.freeBytes();
+                    }
+                    return chunkSize == 0 ? 0 : (int) ((chunkSize - freeBytes) * 100 / chunkSize);
+                }
+            });
+        }
+
+        registry.registerValueMonitor(monitorName("tiny-subpage-usage", instance), new ValueMonitor<Integer>() {
+            @Override
+            public Integer currentValue() {
+                return subpageUsage(arena.tinySubpages());
+            }
+        });
+        registry.registerValueMonitor(monitorName("small-subpage-usage", instance), new ValueMonitor<Integer>() {
+            @Override
+            public Integer currentValue() {
+                return subpageUsage(arena.smallSubpages());
+            }
+        });
+    }
+
+    private MonitorName monitorName(String name, String instance) {
+        return new MonitorName(getClass(), name, instance);
+    }
+
+    /**
+     * Returns the percentage of the allocated elements of the specified subpages.
+     */
+    private static int subpageUsage(List<PoolSubpageMetric> subpages) {
+        long maxNumElements = 0;
+        long numAvailable = 0;
+        for (PoolSubpageMetric s: subpages) {
+            maxNumElements += s.maxNumElements();
+            numAvailable += s.numAvailable();
+        }
+        return maxNumElements == 0 ? 0 : (int) ((maxNumElements - numAvailable) * 100 / maxNumElements);
     }
 
     @Override
@@ -162,4 +521,57 @@ public class PooledByteBufAllocator extends AbstractByteBufAllocator {
         }
         return buf.toString();
     }
+
+    /**
+     * Periodically calls {@link #trimHugeCaches()} of an allocator from a timer shared by all allocators, until the
+     * allocator is garbage-collected.
+     */
+    private static final class HugeCacheTrimmer implements TimerTask {
+
+        // A trim is never delayed by less than this to avoid busy-looping when the idle time is very short.
+        private static final long MIN_TRIM_INTERVAL_MILLIS = 100;
+
+        private static final Timer timer = new HashedWheelTimer(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "PooledByteBufAllocator-hugeCacheTrimmer");
+                // Must not prevent the JVM from exiting.
+                t.setDaemon(true);
+                return t;
+            }
+        });
+
+        static void schedule(PooledByteBufAllocator allocator, long idleTimeMillis) {
+            long intervalMillis = Math.max(MIN_TRIM_INTERVAL_MILLIS, idleTimeMillis);
+            timer.newTimeout(new HugeCacheTrimmer(allocator, intervalMillis), intervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        // Weak so that the timer does not keep the allocator and its memory alive.
+        private final Reference<PooledByteBufAllocator> allocator;
+        private final long intervalMillis;
+
+        private HugeCacheTrimmer(PooledByteBufAllocator allocator, long intervalMillis) {
+            this.allocator = new WeakReference<PooledByteBufAllocator>(allocator);
+            this.intervalMillis = intervalMillis;
+        }
+
+        @Override
+        public void run(Timeout timeout) {
+            PooledByteBufAllocator allocator = this.allocator.get();
+            if (allocator == null) {
+                return;
+            }
+            allocator.trimHugeCaches();
+            timer.newTimeout(this, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static final class ThreadCacheReference extends WeakReference<Thread> {
+        final PoolThreadCache cache;
+
+        ThreadCacheReference(Thread thread, PoolThreadCache cache, ReferenceQueue<Thread> queue) {
+            super(thread, queue);
+            this.cache = cache;
+        }
+    }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.buffer;
+
+import io.netty.util.Recycler;
+
+/**
+ * A {@link SlicedByteBuf} of a pooled buffer, which is returned to a {@link Recycler} once it released the last
+ * reference to its parent.
+ */
+final class PooledSlicedByteBuf extends SlicedByteBuf {
+
+    private static final Recycler<PooledSlicedByteBuf> RECYCLER = new Recycler<PooledSlicedByteBuf>() {
+        @Override
+        protected PooledSlicedByteBuf newObject(Handle handle) {
+            return new PooledSlicedByteBuf(handle);
+        }
+    };
+
+    static PooledSlicedByteBuf newInstance(ByteBuf buffer, int index, int length) {
+        PooledSlicedByteBuf buf = RECYCLER.get();
+        buf.init(buffer, index, length);
+        return buf;
+    }
+
+    private final Recycler.Handle recyclerHandle;
+
+    private PooledSlicedByteBuf(Recycler.Handle recyclerHandle) {
+        this.recyclerHandle = recyclerHandle;
+    }
+
+    @Override
+    public ByteBuf duplicate() {
+        ByteBuf duplicate = newInstance(this, 0, capacity());
+        duplicate.setIndex(readerIndex(), writerIndex());
+        return duplicate;
+    }
+
+    @Override
+    public ByteBuf slice(int index, int length) {
+        checkIndex(index, length);
+        if (length == 0) {
+            return Unpooled.EMPTY_BUFFER;
+        }
+        return newInstance(this, index, length);
+    }
+
+    @Override
+    public boolean release() {
+        if (super.release()) {
+            recycle();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        if (super.release(decrement)) {
+            recycle();
+            return true;
+        }
+        return false;
+    }
+
+    private void recycle() {
+        deinit();
+        RECYCLER.recycle(this, recyclerHandle);
+    }
+}
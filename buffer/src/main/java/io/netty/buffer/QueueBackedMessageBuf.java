@@ -22,7 +22,7 @@ import java.util.Queue;
 final class QueueBackedMessageBuf<T> implements MessageBuf<T> {
 
     private final Queue<T> queue;
-    private boolean freed;
+    private int refCnt = 1;
 
     QueueBackedMessageBuf(Queue<T> queue) {
         if (queue == null) {
@@ -176,13 +176,62 @@ final class QueueBackedMessageBuf<T> implements MessageBuf<T> {
 
     @Override
     public boolean isFreed() {
-        return freed;
+        return refCnt == 0;
     }
 
     @Override
     public void free() {
-        freed = true;
-        queue.clear();
+        if (refCnt == 0) {
+            return;
+        }
+        if (-- refCnt == 0) {
+            queue.clear();
+        }
+    }
+
+    @Override
+    public int refCnt() {
+        return refCnt;
+    }
+
+    @Override
+    public MessageBuf<T> retain() {
+        return retain(1);
+    }
+
+    @Override
+    public MessageBuf<T> retain(int increment) {
+        if (increment <= 0) {
+            throw new IllegalArgumentException("increment: " + increment + " (expected: > 0)");
+        }
+        ensureValid();
+        if (refCnt > Integer.MAX_VALUE - increment) {
+            throw new IllegalStateException("refCnt overflow (refCnt: " + refCnt + ", increment: " + increment + ')');
+        }
+        refCnt += increment;
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return release(1);
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        if (decrement <= 0) {
+            throw new IllegalArgumentException("decrement: " + decrement + " (expected: > 0)");
+        }
+        if (refCnt < decrement) {
+            throw new IllegalBufferAccessException(
+                    "refCnt: " + refCnt + ", decrement: " + decrement + " (expected: refCnt >= decrement)");
+        }
+        refCnt -= decrement;
+        if (refCnt == 0) {
+            queue.clear();
+            return true;
+        }
+        return false;
     }
 
     @Override
@@ -191,7 +240,7 @@ final class QueueBackedMessageBuf<T> implements MessageBuf<T> {
     }
 
     private void ensureValid() {
-        if (freed) {
+        if (refCnt == 0) {
             throw new IllegalBufferAccessException();
         }
     }
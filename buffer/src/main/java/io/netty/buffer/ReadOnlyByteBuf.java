@@ -230,6 +230,33 @@ public class ReadOnlyByteBuf extends AbstractByteBuf {
         throw new ReadOnlyBufferException();
     }
 
+    @Override
+    public int refCnt() {
+        return buffer.refCnt();
+    }
+
+    @Override
+    public ByteBuf retain() {
+        buffer.retain();
+        return this;
+    }
+
+    @Override
+    public ByteBuf retain(int increment) {
+        buffer.retain(increment);
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return buffer.release();
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        return buffer.release(decrement);
+    }
+
     @Override
     public boolean isFreed() {
         return buffer.isFreed();
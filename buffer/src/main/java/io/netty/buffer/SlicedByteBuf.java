@@ -32,12 +32,23 @@ import java.nio.channels.ScatteringByteChannel;
  */
 public class SlicedByteBuf extends AbstractByteBuf {
 
-    private final ByteBuf buffer;
-    private final int adjustment;
-    private final int length;
+    private ByteBuf buffer;
+    private int adjustment;
+    private int length;
 
     public SlicedByteBuf(ByteBuf buffer, int index, int length) {
         super(length);
+        init(buffer, index, length);
+    }
+
+    /**
+     * Creates an uninitialized instance which is initialized by {@link #init(ByteBuf, int, int)} later.
+     */
+    SlicedByteBuf() {
+        super(0);
+    }
+
+    final void init(ByteBuf buffer, int index, int length) {
         if (index < 0 || index > buffer.capacity()) {
             throw new IndexOutOfBoundsException("Invalid index of " + index
                     + ", maximum is " + buffer.capacity());
@@ -59,10 +70,21 @@ public class SlicedByteBuf extends AbstractByteBuf {
             adjustment = index;
         }
         this.length = length;
+        maxCapacity(length);
 
+        setIndex(0, 0);
+        markReaderIndex();
+        markWriterIndex();
         writerIndex(length);
     }
 
+    /**
+     * Releases the reference to the parent buffer so that it is not pinned while this instance is pooled.
+     */
+    final void deinit() {
+        buffer = null;
+    }
+
     @Override
     public ByteBuf unwrap() {
         return buffer;
@@ -283,6 +305,33 @@ public class SlicedByteBuf extends AbstractByteBuf {
         return buffer.nioBuffers(index, length);
     }
 
+    @Override
+    public int refCnt() {
+        return buffer.refCnt();
+    }
+
+    @Override
+    public ByteBuf retain() {
+        buffer.retain();
+        return this;
+    }
+
+    @Override
+    public ByteBuf retain(int increment) {
+        buffer.retain(increment);
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return buffer.release();
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        return buffer.release(decrement);
+    }
+
     @Override
     public boolean isFreed() {
         return buffer.isFreed();
@@ -16,6 +16,7 @@
 package io.netty.buffer;
 
 import io.netty.util.internal.DetectionUtil;
+import io.netty.util.internal.UnsafeUtil;
 
 /**
  * Simplistic {@link ByteBufAllocator} implementation that does not pool anything.
@@ -36,7 +37,13 @@ public final class UnpooledByteBufAllocator extends AbstractByteBufAllocator {
 
     @Override
     protected ByteBuf newDirectBuffer(int initialCapacity, int maxCapacity) {
-        return new UnpooledDirectByteBuf(this, initialCapacity, maxCapacity);
+        ByteBuf buf;
+        if (UnsafeUtil.isAvailable()) {
+            buf = new UnpooledUnsafeDirectByteBuf(this, initialCapacity, maxCapacity);
+        } else {
+            buf = new UnpooledDirectByteBuf(this, initialCapacity, maxCapacity);
+        }
+        return toLeakAwareBuffer(buf);
     }
 
     @Override
@@ -35,7 +35,7 @@ import java.util.Queue;
  * constructor explicitly.
  */
 @SuppressWarnings("restriction")
-final class UnpooledDirectByteBuf extends AbstractByteBuf {
+final class UnpooledDirectByteBuf extends AbstractReferenceCountedByteBuf {
 
     private static final Field CLEANER_FIELD;
 
@@ -484,12 +484,7 @@ final class UnpooledDirectByteBuf extends AbstractByteBuf {
     }
 
     @Override
-    public boolean isFreed() {
-        return buffer == null;
-    }
-
-    @Override
-    public void free() {
+    protected void deallocate() {
         ByteBuffer buffer = this.buffer;
         if (buffer == null) {
             return;
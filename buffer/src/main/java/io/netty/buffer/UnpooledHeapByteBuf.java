@@ -27,7 +27,7 @@ import java.nio.channels.ScatteringByteChannel;
 /**
  * Big endian Java heap buffer implementation.
  */
-final class UnpooledHeapByteBuf extends AbstractByteBuf {
+final class UnpooledHeapByteBuf extends AbstractReferenceCountedByteBuf {
 
     private final ByteBufAllocator alloc;
     private byte[] array;
@@ -352,12 +352,7 @@ final class UnpooledHeapByteBuf extends AbstractByteBuf {
     }
 
     @Override
-    public boolean isFreed() {
-        return array == null;
-    }
-
-    @Override
-    public void free() {
+    protected void deallocate() {
         array = null;
     }
 
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.buffer;
+
+import io.netty.util.internal.UnsafeUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Memory access shared by {@link PooledUnsafeDirectByteBuf} and {@link UnpooledUnsafeDirectByteBuf}.  All methods
+ * take the memory address of the accessed index, which must have been validated by the caller.
+ */
+final class UnsafeDirectByteBufUtil {
+
+    private static final boolean NATIVE_ORDER = UnsafeUtil.BIG_ENDIAN_NATIVE_ORDER;
+
+    static short getShort(long address) {
+        short v = UnsafeUtil.getShort(address);
+        return NATIVE_ORDER? v : Short.reverseBytes(v);
+    }
+
+    static int getUnsignedMedium(long address) {
+        return (UnsafeUtil.getByte(address) & 0xff) << 16 | getShort(address + 1) & 0xffff;
+    }
+
+    static int getInt(long address) {
+        int v = UnsafeUtil.getInt(address);
+        return NATIVE_ORDER? v : Integer.reverseBytes(v);
+    }
+
+    static long getLong(long address) {
+        long v = UnsafeUtil.getLong(address);
+        return NATIVE_ORDER? v : Long.reverseBytes(v);
+    }
+
+    static void setShort(long address, int value) {
+        UnsafeUtil.putShort(address, NATIVE_ORDER? (short) value : Short.reverseBytes((short) value));
+    }
+
+    static void setMedium(long address, int value) {
+        UnsafeUtil.putByte(address, (byte) (value >>> 16));
+        setShort(address + 1, value);
+    }
+
+    static void setInt(long address, int value) {
+        UnsafeUtil.putInt(address, NATIVE_ORDER? value : Integer.reverseBytes(value));
+    }
+
+    static void setLong(long address, long value) {
+        UnsafeUtil.putLong(address, NATIVE_ORDER? value : Long.reverseBytes(value));
+    }
+
+    static void getBytes(AbstractByteBuf buf, long address, int index, ByteBuf dst, int dstIndex, int length) {
+        long dstAddress = memoryAddress(dst, dstIndex, length);
+        if (dstAddress != 0) {
+            UnsafeUtil.copyMemory(address, dstAddress, length);
+        } else if (dst.hasArray()) {
+            getBytes(address, dst.array(), dst.arrayOffset() + dstIndex, length);
+        } else {
+            // Do not call dst.setBytes(dstIndex, buf, index, length), which may call this method again.
+            dst.setBytes(dstIndex, buf.nioBuffer(index, length));
+        }
+    }
+
+    static void getBytes(long address, byte[] dst, int dstIndex, int length) {
+        checkArrayIndex(dst, dstIndex, length);
+        if (length != 0) {
+            UnsafeUtil.copyMemory(address, dst, dstIndex, length);
+        }
+    }
+
+    static void getBytes(long address, OutputStream out, int length) throws IOException {
+        if (length == 0) {
+            return;
+        }
+
+        byte[] tmp = new byte[length];
+        UnsafeUtil.copyMemory(address, tmp, 0, length);
+        out.write(tmp);
+    }
+
+    static void setBytes(AbstractByteBuf buf, long address, int index, ByteBuf src, int srcIndex, int length) {
+        long srcAddress = memoryAddress(src, srcIndex, length);
+        if (srcAddress != 0) {
+            UnsafeUtil.copyMemory(srcAddress, address, length);
+        } else if (src.hasArray()) {
+            setBytes(address, src.array(), src.arrayOffset() + srcIndex, length);
+        } else {
+            // Do not call src.getBytes(srcIndex, buf, index, length), which may call this method again.
+            src.getBytes(srcIndex, buf.nioBuffer(index, length));
+        }
+    }
+
+    static void setBytes(long address, byte[] src, int srcIndex, int length) {
+        checkArrayIndex(src, srcIndex, length);
+        if (length != 0) {
+            UnsafeUtil.copyMemory(src, srcIndex, address, length);
+        }
+    }
+
+    static int setBytes(long address, InputStream in, int length) throws IOException {
+        byte[] tmp = new byte[length];
+        int readBytes = in.read(tmp);
+        if (readBytes > 0) {
+            UnsafeUtil.copyMemory(tmp, 0, address, readBytes);
+        }
+        return readBytes;
+    }
+
+    /**
+     * Returns the memory address of the specified index of the specified buffer, or {@code 0} if the buffer is not
+     * backed by memory which can be accessed via {@link UnsafeUtil}.
+     */
+    private static long memoryAddress(ByteBuf buf, int index, int length) {
+        if (buf instanceof PooledUnsafeDirectByteBuf) {
+            PooledUnsafeDirectByteBuf b = (PooledUnsafeDirectByteBuf) buf;
+            b.checkIndex(index, length);
+            return b.addr(index);
+        }
+        if (buf instanceof UnpooledUnsafeDirectByteBuf) {
+            UnpooledUnsafeDirectByteBuf b = (UnpooledUnsafeDirectByteBuf) buf;
+            b.checkIndex(index, length);
+            return b.addr(index);
+        }
+        return 0;
+    }
+
+    private static void checkArrayIndex(byte[] array, int index, int length) {
+        if (index < 0 || length < 0 || index > array.length - length) {
+            throw new IndexOutOfBoundsException(String.format(
+                    "index: %d, length: %d (expected: range(0, %d))", index, length, array.length));
+        }
+    }
+
+    private UnsafeDirectByteBufUtil() {
+        // Unused
+    }
+}
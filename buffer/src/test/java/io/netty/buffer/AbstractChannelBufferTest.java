@@ -1607,6 +1607,30 @@ public abstract class AbstractChannelBufferTest {
         assertEquals(0, set.size());
     }
 
+    @Test
+    public void testRetainAndRelease() {
+        int refCnt = buffer.refCnt();
+        assertSame(buffer, buffer.retain());
+        assertEquals(refCnt + 1, buffer.refCnt());
+        assertFalse(buffer.release());
+        assertEquals(refCnt, buffer.refCnt());
+        assertFalse(buffer.isFreed());
+    }
+
+    @Test
+    public void testDerivedBufferSharesReferenceCount() {
+        int refCnt = buffer.refCnt();
+        ByteBuf slice = buffer.slice(0, 1).retain();
+        ByteBuf duplicate = buffer.duplicate().retain(2);
+        assertEquals(refCnt + 3, buffer.refCnt());
+        assertEquals(refCnt + 3, slice.refCnt());
+        assertEquals(refCnt + 3, duplicate.refCnt());
+
+        assertFalse(slice.release());
+        assertFalse(duplicate.release(2));
+        assertEquals(refCnt, buffer.refCnt());
+    }
+
     // Test case for https://github.com/netty/netty/issues/325
     @Test
     public void testDiscardAllReadBytes() {
@@ -173,6 +173,72 @@ public abstract class AbstractCompositeChannelBufferTest extends
         assertEquals(0, buf.arrayOffset());
     }
 
+    @Test
+    public void testNeverConsolidate() {
+        CompositeByteBuf buf = compositeBuffer(CompositeByteBuf.NEVER_CONSOLIDATE);
+        for (int i = 0; i < 300; i ++) {
+            buf.addComponent(wrappedBuffer(new byte[] { (byte) i, (byte) (i + 1) }));
+        }
+        buf.writerIndex(buf.capacity());
+
+        assertEquals(300, buf.numComponents());
+        assertEquals(600, buf.capacity());
+
+        // Random access in both directions.
+        for (int i = 599; i >= 0; i -= 7) {
+            assertEquals((byte) (i / 2 + i % 2), buf.getByte(i));
+            assertEquals(i / 2, buf.toComponentIndex(i));
+        }
+        for (int i = 0; i < 600; i += 13) {
+            assertEquals((byte) (i / 2 + i % 2), buf.getByte(i));
+            assertEquals(i / 2, buf.toComponentIndex(i));
+        }
+
+        ByteBuffer[] nioBuffers = buf.nioBuffers(3, 6);
+        assertEquals(4, nioBuffers.length);
+        assertEquals(1, nioBuffers[0].remaining());
+        assertEquals(2, nioBuffers[0].get());
+        assertEquals(2, nioBuffers[1].remaining());
+        assertEquals(1, nioBuffers[3].remaining());
+        assertEquals(300, buf.nioBuffers().length);
+    }
+
+    @Test
+    public void testNioBuffersOfNestedComposite() {
+        CompositeByteBuf nested = compositeBuffer(Integer.MAX_VALUE);
+        nested.addComponent(wrappedBuffer(new byte[] { 2, 3 }));
+        nested.addComponent(wrappedBuffer(new byte[] { 4, 5 }));
+        nested.writerIndex(nested.capacity());
+
+        CompositeByteBuf buf = compositeBuffer(Integer.MAX_VALUE);
+        buf.addComponent(wrappedBuffer(new byte[] { 1 }));
+        buf.addComponent(nested.slice(0, 4));
+        buf.addComponent(wrappedBuffer(new byte[] { 6 }));
+
+        ByteBuffer[] nioBuffers = buf.nioBuffers(0, 6);
+        assertEquals(4, nioBuffers.length);
+        int expected = 1;
+        for (ByteBuffer b: nioBuffers) {
+            while (b.hasRemaining()) {
+                assertEquals(expected ++, b.get());
+            }
+        }
+        assertEquals(7, expected);
+    }
+
+    @Test
+    public void testRemoveLastComponent() {
+        CompositeByteBuf buf = compositeBuffer(Integer.MAX_VALUE);
+        buf.addComponent(wrappedBuffer(new byte[] { 1 }));
+        buf.addComponent(wrappedBuffer(new byte[] { 2, 3 }));
+        assertEquals(1, buf.toComponentIndex(2));
+
+        buf.removeComponent(1);
+        assertEquals(1, buf.numComponents());
+        assertEquals(1, buf.capacity());
+        assertEquals(1, buf.getByte(0));
+    }
+
     @Test
     public void testFullConsolidation() {
         CompositeByteBuf buf = compositeBuffer(Integer.MAX_VALUE);
@@ -20,6 +20,8 @@ import io.netty.util.CharsetUtil;
 
 import org.junit.Test;
 
+import java.nio.ByteOrder;
+import java.util.Random;
 
 /**
  * Tests the index-finding capabilities of channel buffers
@@ -63,4 +65,145 @@ public class ChannelBufferIndexFinderTest {
         assertEquals(2, buf.indexOf(6, 0, ByteBufIndexFinder.NOT_CRLF));
         assertEquals(-1, buf.indexOf(3, 0, ByteBufIndexFinder.CRLF));
     }
+
+    @Test
+    public void testByteIndexOf() {
+        Random random = new Random(42);
+        ByteBuf[] bufs = {
+                Unpooled.buffer(100), Unpooled.directBuffer(100),
+                Unpooled.directBuffer(100).order(ByteOrder.LITTLE_ENDIAN) };
+        for (ByteBuf buf: bufs) {
+            for (int i = 0; i < 1000; i ++) {
+                buf.clear();
+                for (int j = 0; j < buf.capacity(); j ++) {
+                    buf.writeByte(random.nextInt(8));
+                }
+                int from = random.nextInt(buf.capacity() + 1);
+                int to = random.nextInt(buf.capacity() + 1);
+                byte value = (byte) random.nextInt(8);
+                assertEquals(naiveIndexOf(buf, from, to, value), buf.indexOf(from, to, value));
+            }
+        }
+    }
+
+    @Test
+    public void testByteIndexOfHighBytes() {
+        ByteBuf buf = Unpooled.directBuffer(16);
+        buf.writeBytes(new byte[] { (byte) 0x80, 0x7F, (byte) 0xFF, 0, 1, (byte) 0x80, 0, 0x7F,
+                                    (byte) 0xFE, 0x01, (byte) 0x81, 0x7F, (byte) 0xFF, 0, 0, 0 });
+        assertEquals(0, buf.indexOf(0, 16, (byte) 0x80));
+        assertEquals(5, buf.indexOf(1, 16, (byte) 0x80));
+        assertEquals(10, buf.indexOf(0, 16, (byte) 0x81));
+        assertEquals(8, buf.indexOf(16, 0, (byte) 0xFE));
+        assertEquals(12, buf.indexOf(16, 0, (byte) 0xFF));
+        assertEquals(15, buf.indexOf(16, 0, (byte) 0));
+        assertEquals(-1, buf.indexOf(0, 16, (byte) 0x02));
+    }
+
+    @Test
+    public void testByteSequenceFinder() {
+        ByteBuf buf = Unpooled.copiedBuffer("abcabdabcabcabd", CharsetUtil.ISO_8859_1);
+        ByteSequenceFinder finder = new ByteSequenceFinder("abcabd".getBytes(CharsetUtil.ISO_8859_1));
+        assertEquals(6, finder.length());
+        assertEquals(0, finder.indexOf(buf, 0, buf.capacity()));
+        assertEquals(9, finder.indexOf(buf, 1, buf.capacity()));
+        assertEquals(-1, finder.indexOf(buf, 1, buf.capacity() - 1));
+        assertEquals(-1, finder.indexOf(buf, 10, buf.capacity()));
+
+        Random random = new Random(42);
+        for (ByteBuf b: new ByteBuf[] { Unpooled.buffer(200), Unpooled.directBuffer(200) }) {
+            for (int i = 0; i < 1000; i ++) {
+                b.clear();
+                for (int j = 0; j < b.capacity(); j ++) {
+                    b.writeByte(random.nextInt(3));
+                }
+                byte[] needle = new byte[1 + random.nextInt(5)];
+                for (int j = 0; j < needle.length; j ++) {
+                    needle[j] = (byte) random.nextInt(3);
+                }
+                int from = random.nextInt(b.capacity());
+                int to = from + random.nextInt(b.capacity() - from + 1);
+                assertEquals(naiveIndexOf(b, from, to, needle), new ByteSequenceFinder(needle).indexOf(b, from, to));
+            }
+        }
+    }
+
+    @Test
+    public void testMultiByteSequenceFinder() {
+        ByteBuf buf = Unpooled.copiedBuffer("xxabcdyyabd", CharsetUtil.ISO_8859_1);
+        MultiByteSequenceFinder finder = new MultiByteSequenceFinder(
+                Unpooled.copiedBuffer("bcd", CharsetUtil.ISO_8859_1),
+                Unpooled.copiedBuffer("abcdy", CharsetUtil.ISO_8859_1),
+                Unpooled.copiedBuffer("ab", CharsetUtil.ISO_8859_1));
+        assertEquals(3, finder.numSequences());
+
+        // "ab" and "abcdy" both start at 2, but "abcdy" comes first.
+        assertEquals(2, finder.indexOf(buf, 0, buf.capacity()));
+        assertEquals(1, finder.sequenceAt(buf, 2, buf.capacity()));
+        assertEquals(5, finder.length(1));
+        // "abcdy" does not fit, so "ab" matches.
+        assertEquals(2, finder.indexOf(buf, 0, 6));
+        assertEquals(2, finder.sequenceAt(buf, 2, 6));
+        assertEquals(3, finder.indexOf(buf, 3, buf.capacity()));
+        assertEquals(0, finder.sequenceAt(buf, 3, buf.capacity()));
+        assertEquals(8, finder.indexOf(buf, 4, buf.capacity()));
+        assertEquals(-1, finder.indexOf(buf, 9, buf.capacity()));
+        assertEquals(-1, finder.sequenceAt(buf, 9, buf.capacity()));
+
+        Random random = new Random(42);
+        for (ByteBuf b: new ByteBuf[] { Unpooled.buffer(100), Unpooled.directBuffer(100) }) {
+            for (int i = 0; i < 1000; i ++) {
+                b.clear();
+                for (int j = 0; j < b.capacity(); j ++) {
+                    b.writeByte(random.nextInt(3));
+                }
+                byte[][] needles = new byte[1 + random.nextInt(4)][];
+                for (int j = 0; j < needles.length; j ++) {
+                    needles[j] = new byte[1 + random.nextInt(6)];
+                    for (int k = 0; k < needles[j].length; k ++) {
+                        needles[j][k] = (byte) random.nextInt(3);
+                    }
+                }
+                int from = random.nextInt(b.capacity());
+                int to = from + random.nextInt(b.capacity() - from + 1);
+                int expected = -1;
+                for (byte[] needle: needles) {
+                    int index = naiveIndexOf(b, from, to, needle);
+                    if (index >= 0 && (expected < 0 || index < expected)) {
+                        expected = index;
+                    }
+                }
+                assertEquals(expected, new MultiByteSequenceFinder(needles).indexOf(b, from, to));
+            }
+        }
+    }
+
+    private static int naiveIndexOf(ByteBuf buf, int from, int to, byte value) {
+        if (from <= to) {
+            for (int i = from; i < to; i ++) {
+                if (buf.getByte(i) == value) {
+                    return i;
+                }
+            }
+        } else {
+            for (int i = from - 1; i >= to; i --) {
+                if (buf.getByte(i) == value) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static int naiveIndexOf(ByteBuf buf, int from, int to, byte[] needle) {
+        outer: for (int i = from; i <= to - needle.length; i ++) {
+            for (int j = 0; j < needle.length; j ++) {
+                if (buf.getByte(i + j) != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
 }
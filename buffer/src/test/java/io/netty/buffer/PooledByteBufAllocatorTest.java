@@ -0,0 +1,449 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.buffer;
+
+import io.netty.monitor.CounterMonitor;
+import io.netty.monitor.EventRateMonitor;
+import io.netty.monitor.MonitorName;
+import io.netty.monitor.MonitorRegistry;
+import io.netty.monitor.ValueDistributionMonitor;
+import io.netty.monitor.ValueMonitor;
+import io.netty.util.internal.UnsafeUtil;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class PooledByteBufAllocatorTest {
+
+    @Test
+    public void testThreadCacheReusesFreedMemory() {
+        PooledByteBufAllocator alloc = new PooledByteBufAllocator(false, 1, 1, 8192, 11, 8, 8, 8);
+        for (int capacity: new int[] { 16, 100, 1024, 4000, 8192, 16384 }) {
+            ByteBuf buf = alloc.heapBuffer(capacity);
+            byte[] array = buf.array();
+            int offset = buf.arrayOffset();
+            buf.free();
+
+            ByteBuf reused = alloc.heapBuffer(capacity);
+            assertSame(array, reused.array());
+            assertEquals(offset, reused.arrayOffset());
+            assertEquals(capacity, reused.capacity());
+            assertEquals(0, reused.readerIndex());
+            assertEquals(0, reused.writerIndex());
+            reused.free();
+        }
+    }
+
+    @Test
+    public void testBufferObjectIsRecycled() {
+        PooledByteBufAllocator alloc = new PooledByteBufAllocator(false, 1, 1, 8192, 11, 8, 8, 8);
+        ByteBuf buf = alloc.directBuffer(32, 64);
+        buf.writeInt(1);
+        buf.markReaderIndex();
+        buf.readInt();
+        buf.free();
+
+        ByteBuf reused = alloc.directBuffer(128, 256);
+        assertSame(buf, reused);
+        assertFalse(reused.isFreed());
+        assertEquals(128, reused.capacity());
+        assertEquals(256, reused.maxCapacity());
+        reused.writeInt(2);
+        reused.resetReaderIndex();
+        assertEquals(0, reused.readerIndex());
+        reused.free();
+    }
+
+    @Test
+    public void testAllocOfFreedBuffer() {
+        PooledByteBufAllocator alloc = new PooledByteBufAllocator(false, 1, 1, 8192, 11, 8, 8, 8);
+        ByteBuf buf = alloc.heapBuffer(16);
+        buf.free();
+        assertSame(alloc, buf.alloc());
+    }
+
+    @Test
+    public void testDerivedBufferIsRecycled() {
+        PooledByteBufAllocator alloc = new PooledByteBufAllocator(false, 1, 1, 8192, 11, 8, 8, 8);
+        ByteBuf buf = alloc.directBuffer(16);
+        buf.writeLong(1).writeLong(2);
+        ByteBuf slice = buf.slice(8, 8);
+        assertEquals(2, slice.getLong(0));
+        slice.retain();
+        assertFalse(slice.release());
+        assertTrue(slice.release());
+        assertTrue(buf.isFreed());
+
+        buf = alloc.directBuffer(16);
+        buf.writeLong(3).writeLong(4);
+        ByteBuf reusedSlice = buf.slice(8, 8);
+        assertSame(slice, reusedSlice);
+        assertEquals(0, reusedSlice.readerIndex());
+        assertEquals(8, reusedSlice.writerIndex());
+        assertEquals(8, reusedSlice.maxCapacity());
+        assertEquals(4, reusedSlice.getLong(0));
+
+        ByteBuf duplicate = buf.duplicate();
+        assertTrue(duplicate.release());
+
+        buf = alloc.directBuffer(16);
+        buf.writerIndex(12).readerIndex(4);
+        ByteBuf reusedDuplicate = buf.duplicate();
+        assertSame(duplicate, reusedDuplicate);
+        assertEquals(4, reusedDuplicate.readerIndex());
+        assertEquals(12, reusedDuplicate.writerIndex());
+        reusedDuplicate.resetReaderIndex();
+        assertEquals(0, reusedDuplicate.readerIndex());
+        assertTrue(reusedDuplicate.release());
+    }
+
+    @Test
+    public void testReleaseDeallocatesOnLastReference() {
+        PooledByteBufAllocator alloc = new PooledByteBufAllocator(false, 1, 1, 8192, 11, 8, 8, 8);
+        ByteBuf buf = alloc.heapBuffer(16);
+        assertEquals(1, buf.refCnt());
+        buf.retain();
+
+        assertFalse(buf.release());
+        assertFalse(buf.isFreed());
+        buf.writeByte(1);
+
+        assertTrue(buf.release());
+        assertTrue(buf.isFreed());
+        assertEquals(0, buf.refCnt());
+
+        // free() has no effect on a deallocated buffer.
+        buf.free();
+
+        try {
+            buf.release();
+            fail();
+        } catch (IllegalBufferAccessException e) {
+            // Expected
+        }
+        try {
+            buf.retain();
+            fail();
+        } catch (IllegalBufferAccessException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testThreadCacheDisabled() {
+        PooledByteBufAllocator alloc = new PooledByteBufAllocator(false, 1, 1, 8192, 11, 0, 0, 0);
+        ByteBuf buf = alloc.directBuffer(64);
+        buf.writeLong(42);
+        buf.free();
+
+        buf = alloc.directBuffer(64);
+        assertEquals(0, buf.writerIndex());
+        buf.free();
+    }
+
+    @Test
+    public void testFreeFromOtherThread() throws Exception {
+        final PooledByteBufAllocator alloc = new PooledByteBufAllocator(false, 2, 2, 8192, 11, 8, 8, 8);
+        final ByteBuf[] bufs = new ByteBuf[64];
+        for (int i = 0; i < bufs.length; i ++) {
+            bufs[i] = alloc.heapBuffer(i * 100);
+        }
+
+        final AtomicReference<Throwable> cause = new AtomicReference<Throwable>();
+        Thread t = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    for (ByteBuf b: bufs) {
+                        b.free();
+                        alloc.heapBuffer(b.maxCapacity() > 0 ? 100 : 0).free();
+                    }
+                } catch (Throwable t) {
+                    cause.set(t);
+                }
+            }
+        };
+        t.start();
+        t.join();
+
+        assertNull(cause.get());
+        for (ByteBuf b: bufs) {
+            assertTrue(b.isFreed());
+        }
+    }
+
+    @Test
+    public void testUnsafeDirectBuffer() {
+        PooledByteBufAllocator alloc = new PooledByteBufAllocator(false, 1, 1, 8192, 11, 8, 8, 8);
+        ByteBuf buf = alloc.directBuffer(16);
+        assertEquals(UnsafeUtil.isAvailable(), buf instanceof PooledUnsafeDirectByteBuf);
+
+        buf.writeByte(1);
+        buf.writeShort(0x0203);
+        buf.writeMedium(0x040506);
+        buf.writeInt(0x0708090a);
+        buf.writeLong(0x0b0c0d0e0f101112L);
+        assertEquals(0x01020304, buf.getInt(0));
+        assertEquals(0x050607, buf.getUnsignedMedium(4));
+
+        // Force a reallocation into a bigger chunk.
+        buf.writeBytes(new byte[8192]);
+        assertEquals(0x0b0c0d0e0f101112L, buf.getLong(10));
+
+        ByteBuf heap = Unpooled.buffer(18);
+        ByteBuf direct = alloc.directBuffer(18);
+        buf.getBytes(0, heap, 18);
+        buf.getBytes(0, direct, 18);
+        for (int i = 0; i < 18; i ++) {
+            assertEquals(i + 1, heap.getByte(i));
+            assertEquals(i + 1, direct.getByte(i));
+        }
+
+        ByteBuf copy = buf.copy(1, 2);
+        assertEquals(0x0203, copy.readShort());
+
+        copy.free();
+        direct.free();
+        buf.free();
+    }
+
+    @Test
+    public void testArenaMetrics() {
+        // chunkSize = 8192 << 2 = 32 KiB
+        PooledByteBufAllocator alloc = new PooledByteBufAllocator(false, 1, 1, 8192, 2, 0, 0, 0);
+        ByteBuf tiny = alloc.heapBuffer(16);
+        ByteBuf small = alloc.heapBuffer(1024);
+        ByteBuf normal = alloc.heapBuffer(16384);
+        ByteBuf huge = alloc.heapBuffer(65536);
+
+        List<PoolArenaMetric> metrics = alloc.heapArenaMetrics();
+        assertEquals(1, metrics.size());
+        PoolArenaMetric m = metrics.get(0);
+        assertEquals(1, m.numThreadCaches());
+        assertEquals(1, m.numTinyAllocations());
+        assertEquals(1, m.numSmallAllocations());
+        assertEquals(1, m.numNormalAllocations());
+        assertEquals(1, m.numHugeAllocations());
+        assertEquals(4, m.numAllocations());
+        assertEquals(4, m.numActiveAllocations());
+        assertEquals(8192 + 8192 + 16384 + 65536, m.numActiveBytes());
+
+        assertEquals(1, m.tinySubpages().size());
+        PoolSubpageMetric subpage = m.tinySubpages().get(0);
+        assertEquals(16, subpage.elementSize());
+        assertEquals(8192, subpage.pageSize());
+        assertEquals(512, subpage.maxNumElements());
+        assertEquals(511, subpage.numAvailable());
+        assertEquals(1, m.smallSubpages().size());
+
+        assertEquals(6, m.chunkLists().size());
+        int usedBytes = 0;
+        for (PoolChunkListMetric chunkList: m.chunkLists()) {
+            for (PoolChunkMetric chunk: chunkList) {
+                assertEquals(32768, chunk.chunkSize());
+                assertTrue(chunk.usage() >= chunkList.minUsage());
+                assertTrue(chunk.usage() <= chunkList.maxUsage());
+                usedBytes += chunk.chunkSize() - chunk.freeBytes();
+            }
+        }
+        assertEquals(8192 + 8192 + 16384, usedBytes);
+
+        tiny.free();
+        small.free();
+        normal.free();
+        huge.free();
+        assertEquals(1, m.numTinyDeallocations());
+        assertEquals(1, m.numSmallDeallocations());
+        assertEquals(1, m.numNormalDeallocations());
+        assertEquals(1, m.numHugeDeallocations());
+        assertEquals(4, m.numDeallocations());
+        assertEquals(0, m.numActiveAllocations());
+        assertEquals(0, m.numActiveBytes());
+        assertTrue(m.tinySubpages().isEmpty());
+
+        // The direct arena is bound to the same thread but has not been used.
+        PoolArenaMetric direct = alloc.directArenaMetrics().get(0);
+        assertEquals(1, direct.numThreadCaches());
+        assertEquals(0, direct.numAllocations());
+    }
+
+    @Test
+    public void testHugeCacheReusesFreedMemory() {
+        // chunkSize = 8192 << 2 = 32 KiB
+        PooledByteBufAllocator alloc = new PooledByteBufAllocator(false, 1, 1, 8192, 2, 0, 0, 0, 262144, 60000);
+        PoolArenaMetric m = alloc.heapArenaMetrics().get(0);
+
+        ByteBuf buf = alloc.heapBuffer(70000);
+        byte[] array = buf.array();
+        assertEquals(73728, array.length);
+        buf.free();
+        assertEquals(73728, m.numCachedHugeBytes());
+
+        buf = alloc.heapBuffer(66000);
+        assertSame(array, buf.array());
+        assertEquals(66000, buf.capacity());
+        assertEquals(0, buf.writerIndex());
+        assertEquals(1, m.numHugeCacheHits());
+        assertEquals(0, m.numCachedHugeBytes());
+        assertEquals(73728, m.numActiveBytes());
+        buf.free();
+        assertEquals(0, m.numActiveBytes());
+
+        // Evicts the least recently cached chunk to stay within the bound.
+        alloc.heapBuffer(200000).free();
+        assertEquals(204800, m.numCachedHugeBytes());
+
+        // Never caches a chunk bigger than the bound.
+        alloc.heapBuffer(300000).free();
+        assertEquals(204800, m.numCachedHugeBytes());
+        assertEquals(1, m.numHugeCacheHits());
+    }
+
+    @Test
+    public void testHugeCacheIsBoundedPerAllocator() {
+        PooledByteBufAllocator alloc = new PooledByteBufAllocator(false, 1, 1, 8192, 2, 0, 0, 0, 262144, 60000);
+        PoolArenaMetric heap = alloc.heapArenaMetrics().get(0);
+        PoolArenaMetric direct = alloc.directArenaMetrics().get(0);
+
+        alloc.heapBuffer(200000).free();
+        assertEquals(204800, heap.numCachedHugeBytes());
+
+        // The heap arena keeps most of the bytes the allocator may keep, so there is no room left.
+        alloc.directBuffer(70000).free();
+        assertEquals(0, direct.numCachedHugeBytes());
+        assertEquals(204800, heap.numCachedHugeBytes());
+
+        // Reusing the memory kept by the heap arena makes room again.
+        ByteBuf heapBuf = alloc.heapBuffer(200000);
+        assertEquals(0, heap.numCachedHugeBytes());
+        alloc.directBuffer(70000).free();
+        assertEquals(73728, direct.numCachedHugeBytes());
+
+        ByteBuf directBuf = alloc.directBuffer(66000);
+        assertEquals(1, direct.numHugeCacheHits());
+        directBuf.setByte(65999, 42);
+        assertEquals(42, directBuf.nioBuffer(65999, 1).get());
+        directBuf.free();
+        heapBuf.free();
+    }
+
+    @Test
+    public void testHugeCacheExpiry() throws Exception {
+        PooledByteBufAllocator alloc = new PooledByteBufAllocator(false, 1, 1, 8192, 2, 0, 0, 0, 262144, 500);
+        PoolArena<?> arena = (PoolArena<?>) alloc.heapArenaMetrics().get(0);
+        alloc.heapBuffer(65536).free();
+        assertEquals(65536, arena.numCachedHugeBytes());
+
+        // Released by the timer without any further allocation.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (arena.numCachedHugeBytes() != 0) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+        assertEquals(0, alloc.cachedHugeBytes.get());
+        alloc.heapBuffer(65536).free();
+        assertEquals(0, arena.numHugeCacheHits());
+    }
+
+    @Test
+    public void testHugeCacheDisabled() {
+        PooledByteBufAllocator alloc = new PooledByteBufAllocator(false, 1, 1, 8192, 2, 0, 0, 0, 0, 60000);
+        ByteBuf buf = alloc.heapBuffer(70000);
+        assertEquals(70000, buf.array().length);
+        buf.free();
+        assertEquals(0, alloc.heapArenaMetrics().get(0).numCachedHugeBytes());
+    }
+
+    @Test
+    public void testHugeCacheDisabledByDefault() {
+        PooledByteBufAllocator alloc = new PooledByteBufAllocator(false, 1, 1, 8192, 2, 0, 0, 0);
+        alloc.heapBuffer(70000).free();
+        assertEquals(0, alloc.heapArenaMetrics().get(0).numCachedHugeBytes());
+        assertEquals(0, alloc.cachedHugeBytes.get());
+    }
+
+    @Test
+    public void testRegisterMonitors() {
+        final Map<String, ValueMonitor<?>> monitors = new HashMap<String, ValueMonitor<?>>();
+        MonitorRegistry registry = new MonitorRegistry() {
+            @Override
+            public <T> ValueMonitor<T> registerValueMonitor(MonitorName monitorName, ValueMonitor<T> valueMonitor) {
+                assertNull(monitors.put(monitorName.instance() + '/' + monitorName.name(), valueMonitor));
+                return valueMonitor;
+            }
+
+            @Override
+            public ValueDistributionMonitor newValueDistributionMonitor(MonitorName monitorName) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public EventRateMonitor newEventRateMonitor(MonitorName monitorName, TimeUnit rateUnit) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CounterMonitor newCounterMonitor(MonitorName monitorName) {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        PooledByteBufAllocator alloc = new PooledByteBufAllocator(false, 1, 2, 8192, 2, 0, 0, 0);
+        alloc.registerMonitors(registry);
+        assertEquals(3 * 26, monitors.size());
+
+        ByteBuf buf = alloc.directBuffer(16384);
+        assertEquals(1L, monitors.get("direct-arena-0/num-normal-allocations").currentValue());
+        assertEquals(16384L, monitors.get("direct-arena-0/num-active-bytes").currentValue());
+        assertEquals(1, monitors.get("direct-arena-0/chunk-list-25-75-num-chunks").currentValue());
+        assertEquals(50, monitors.get("direct-arena-0/chunk-list-25-75-usage").currentValue());
+        assertEquals(0L, monitors.get("direct-arena-1/num-normal-allocations").currentValue());
+        assertEquals(0L, monitors.get("heap-arena-0/num-normal-allocations").currentValue());
+        buf.free();
+        assertEquals(0L, monitors.get("direct-arena-0/num-active-bytes").currentValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCacheSize() {
+        new PooledByteBufAllocator(false, 1, 1, 8192, 11, -1, 0, 0);
+    }
+
+    @Test
+    public void testMaxCachedBufferCapacity() {
+        PooledByteBufAllocator alloc = new PooledByteBufAllocator(
+                false, 1, 1, 8192, 11, 8, 8, 8, 8192, 8192, 0, 0);
+        PoolArenaMetric arena = alloc.heapArenaMetrics().get(0);
+
+        // Kept by the thread cache.
+        alloc.heapBuffer(8192).free();
+        assertEquals(0, arena.numNormalDeallocations());
+
+        // Larger than maxCachedBufferCapacity - returned to the arena.
+        alloc.heapBuffer(16384).free();
+        assertEquals(1, arena.numNormalDeallocations());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCacheTrimInterval() {
+        new PooledByteBufAllocator(false, 1, 1, 8192, 11, 8, 8, 8, 32768, 0, 0, 0);
+    }
+}
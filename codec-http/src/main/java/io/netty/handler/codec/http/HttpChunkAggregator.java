@@ -92,7 +92,8 @@ public class HttpChunkAggregator extends MessageToMessageDecoder<HttpObject, Htt
      * the components in the cumulation buffer exceeds this value, the components of the
      * cumulation buffer are consolidated into a single component, involving memory copies.
      * The default value of this property is {@link #DEFAULT_MAX_COMPOSITEBUFFER_COMPONENTS}
-     * and its minimum allowed value is {@code 2}.
+     * and its minimum allowed value is {@code 2}.  Use {@link CompositeByteBuf#NEVER_CONSOLIDATE}
+     * to never copy the content which has been aggregated already.
      */
     public final void setMaxCumulationBufferComponents(int maxCumulationBufferComponents) {
         if (maxCumulationBufferComponents < 2) {
@@ -16,6 +16,7 @@
 package io.netty.handler.codec.http.multipart;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteSequenceFinder;
 import io.netty.handler.codec.http.HttpChunk;
 import io.netty.handler.codec.http.HttpConstants;
 import io.netty.handler.codec.http.HttpHeaders;
@@ -118,6 +119,21 @@ public class HttpPostRequestDecoder {
      */
     private FileUpload currentFileUpload;
 
+    /**
+     * Finder of the last used delimiter preceded by LF
+     */
+    private ByteSequenceFinder delimiterFinder;
+
+    /**
+     * Delimiter the finder was built for
+     */
+    private String delimiterFinderDelimiter;
+
+    /**
+     * LF followed by the delimiter
+     */
+    private byte[] delimiterSequence;
+
     /**
      * The current Attribute that is currently in decode process
      */
@@ -1463,102 +1479,6 @@ public class HttpPostRequestDecoder {
         throw new NotEnoughDataDecoderException();
     }
 
-    /**
-     * Read a FileUpload data as Byte (Binary) and add the bytes directly to the
-     * FileUpload. If the delimiter is found, the FileUpload is completed.
-     *
-     * @throws NotEnoughDataDecoderException
-     *             Need more chunks but do not reset the readerInder since some
-     *             values will be already added to the FileOutput
-     * @throws ErrorDataDecoderException
-     *             write IO error occurs with the FileUpload
-     */
-    private void readFileUploadByteMultipartStandard(String delimiter) throws NotEnoughDataDecoderException,
-            ErrorDataDecoderException {
-        int readerIndex = undecodedChunk.readerIndex();
-        // found the decoder limit
-        boolean newLine = true;
-        int index = 0;
-        int lastPosition = undecodedChunk.readerIndex();
-        boolean found = false;
-        while (undecodedChunk.readable()) {
-            byte nextByte = undecodedChunk.readByte();
-            if (newLine) {
-                // Check the delimiter
-                if (nextByte == delimiter.codePointAt(index)) {
-                    index++;
-                    if (delimiter.length() == index) {
-                        found = true;
-                        break;
-                    }
-                    continue;
-                } else {
-                    newLine = false;
-                    index = 0;
-                    // continue until end of line
-                    if (nextByte == HttpConstants.CR) {
-                        if (undecodedChunk.readable()) {
-                            nextByte = undecodedChunk.readByte();
-                            if (nextByte == HttpConstants.LF) {
-                                newLine = true;
-                                index = 0;
-                                lastPosition = undecodedChunk.readerIndex() - 2;
-                            }
-                        }
-                    } else if (nextByte == HttpConstants.LF) {
-                        newLine = true;
-                        index = 0;
-                        lastPosition = undecodedChunk.readerIndex() - 1;
-                    } else {
-                        // save last valid position
-                        lastPosition = undecodedChunk.readerIndex();
-                    }
-                }
-            } else {
-                // continue until end of line
-                if (nextByte == HttpConstants.CR) {
-                    if (undecodedChunk.readable()) {
-                        nextByte = undecodedChunk.readByte();
-                        if (nextByte == HttpConstants.LF) {
-                            newLine = true;
-                            index = 0;
-                            lastPosition = undecodedChunk.readerIndex() - 2;
-                        }
-                    }
-                } else if (nextByte == HttpConstants.LF) {
-                    newLine = true;
-                    index = 0;
-                    lastPosition = undecodedChunk.readerIndex() - 1;
-                } else {
-                    // save last valid position
-                    lastPosition = undecodedChunk.readerIndex();
-                }
-            }
-        }
-        ByteBuf buffer = undecodedChunk.slice(readerIndex, lastPosition - readerIndex);
-        if (found) {
-            // found so lastPosition is correct and final
-            try {
-                currentFileUpload.addContent(buffer, true);
-                // just before the CRLF and delimiter
-                undecodedChunk.readerIndex(lastPosition);
-            } catch (IOException e) {
-                throw new ErrorDataDecoderException(e);
-            }
-        } else {
-            // possibly the delimiter is partially found but still the last
-            // position is OK
-            try {
-                currentFileUpload.addContent(buffer, false);
-                // last valid char (not CR, not LF, not beginning of delimiter)
-                undecodedChunk.readerIndex(lastPosition);
-                throw new NotEnoughDataDecoderException();
-            } catch (IOException e) {
-                throw new ErrorDataDecoderException(e);
-            }
-        }
-    }
-
     /**
      * Read a FileUpload data as Byte (Binary) and add the bytes directly to the
      * FileUpload. If the delimiter is found, the FileUpload is completed.
@@ -1571,76 +1491,12 @@ public class HttpPostRequestDecoder {
      */
     private void readFileUploadByteMultipart(String delimiter) throws NotEnoughDataDecoderException,
             ErrorDataDecoderException {
-        SeekAheadOptimize sao;
-        try {
-            sao = new SeekAheadOptimize(undecodedChunk);
-        } catch (SeekAheadNoBackArrayException e1) {
-            readFileUploadByteMultipartStandard(delimiter);
-            return;
-        }
         int readerIndex = undecodedChunk.readerIndex();
-        // found the decoder limit
-        boolean newLine = true;
-        int index = 0;
-        int lastrealpos = sao.pos;
-        int lastPosition;
-        boolean found = false;
-
-        while (sao.pos < sao.limit) {
-            byte nextByte = sao.bytes[sao.pos++];
-            if (newLine) {
-                // Check the delimiter
-                if (nextByte == delimiter.codePointAt(index)) {
-                    index++;
-                    if (delimiter.length() == index) {
-                        found = true;
-                        break;
-                    }
-                    continue;
-                } else {
-                    newLine = false;
-                    index = 0;
-                    // continue until end of line
-                    if (nextByte == HttpConstants.CR) {
-                        if (sao.pos < sao.limit) {
-                            nextByte = sao.bytes[sao.pos++];
-                            if (nextByte == HttpConstants.LF) {
-                                newLine = true;
-                                index = 0;
-                                lastrealpos = sao.pos - 2;
-                            }
-                        }
-                    } else if (nextByte == HttpConstants.LF) {
-                        newLine = true;
-                        index = 0;
-                        lastrealpos = sao.pos - 1;
-                    } else {
-                        // save last valid position
-                        lastrealpos = sao.pos;
-                    }
-                }
-            } else {
-                // continue until end of line
-                if (nextByte == HttpConstants.CR) {
-                    if (sao.pos < sao.limit) {
-                        nextByte = sao.bytes[sao.pos++];
-                        if (nextByte == HttpConstants.LF) {
-                            newLine = true;
-                            index = 0;
-                            lastrealpos = sao.pos - 2;
-                        }
-                    }
-                } else if (nextByte == HttpConstants.LF) {
-                    newLine = true;
-                    index = 0;
-                    lastrealpos = sao.pos - 1;
-                } else {
-                    // save last valid position
-                    lastrealpos = sao.pos;
-                }
-            }
+        int lastPosition = findDelimiter(delimiter);
+        boolean found = lastPosition >= 0;
+        if (!found) {
+            lastPosition = -lastPosition - 1;
         }
-        lastPosition = sao.getReadPosition(lastrealpos);
         ByteBuf buffer = undecodedChunk.slice(readerIndex, lastPosition - readerIndex);
         if (found) {
             // found so lastPosition is correct and final
@@ -1672,68 +1528,11 @@ public class HttpPostRequestDecoder {
      *             Need more chunks
      * @throws ErrorDataDecoderException
      */
-    private void loadFieldMultipartStandard(String delimiter) throws NotEnoughDataDecoderException,
-            ErrorDataDecoderException {
+    private void loadFieldMultipart(String delimiter) throws NotEnoughDataDecoderException, ErrorDataDecoderException {
         int readerIndex = undecodedChunk.readerIndex();
         try {
-            // found the decoder limit
-            boolean newLine = true;
-            int index = 0;
-            int lastPosition = undecodedChunk.readerIndex();
-            boolean found = false;
-            while (undecodedChunk.readable()) {
-                byte nextByte = undecodedChunk.readByte();
-                if (newLine) {
-                    // Check the delimiter
-                    if (nextByte == delimiter.codePointAt(index)) {
-                        index++;
-                        if (delimiter.length() == index) {
-                            found = true;
-                            break;
-                        }
-                        continue;
-                    } else {
-                        newLine = false;
-                        index = 0;
-                        // continue until end of line
-                        if (nextByte == HttpConstants.CR) {
-                            if (undecodedChunk.readable()) {
-                                nextByte = undecodedChunk.readByte();
-                                if (nextByte == HttpConstants.LF) {
-                                    newLine = true;
-                                    index = 0;
-                                    lastPosition = undecodedChunk.readerIndex() - 2;
-                                }
-                            }
-                        } else if (nextByte == HttpConstants.LF) {
-                            newLine = true;
-                            index = 0;
-                            lastPosition = undecodedChunk.readerIndex() - 1;
-                        } else {
-                            lastPosition = undecodedChunk.readerIndex();
-                        }
-                    }
-                } else {
-                    // continue until end of line
-                    if (nextByte == HttpConstants.CR) {
-                        if (undecodedChunk.readable()) {
-                            nextByte = undecodedChunk.readByte();
-                            if (nextByte == HttpConstants.LF) {
-                                newLine = true;
-                                index = 0;
-                                lastPosition = undecodedChunk.readerIndex() - 2;
-                            }
-                        }
-                    } else if (nextByte == HttpConstants.LF) {
-                        newLine = true;
-                        index = 0;
-                        lastPosition = undecodedChunk.readerIndex() - 1;
-                    } else {
-                        lastPosition = undecodedChunk.readerIndex();
-                    }
-                }
-            }
-            if (found) {
+            int lastPosition = findDelimiter(delimiter);
+            if (lastPosition >= 0) {
                 // found so lastPosition is correct
                 // but position is just after the delimiter (either close
                 // delimiter or simple one)
@@ -1745,6 +1544,7 @@ public class HttpPostRequestDecoder {
                 }
                 undecodedChunk.readerIndex(lastPosition);
             } else {
+                lastPosition = -lastPosition - 1;
                 try {
                     currentAttribute.addContent(undecodedChunk.slice(readerIndex, lastPosition - readerIndex), false);
                 } catch (IOException e) {
@@ -1760,106 +1560,72 @@ public class HttpPostRequestDecoder {
     }
 
     /**
-     * Load the field value from a Multipart request
+     * Find the delimiter at the beginning of a line of the readable bytes of the undecoded chunk, or at the reader
+     * index, which is assumed to be the beginning of a line.
      *
-     * @throws NotEnoughDataDecoderException
-     *             Need more chunks
-     * @throws ErrorDataDecoderException
+     * @return the position just before the CRLF (or LF) preceding the delimiter if the delimiter was found;
+     *         otherwise {@code -(lastPosition + 1)} where lastPosition is the position of the last valid byte
+     *         (not CR, not LF, not beginning of delimiter), so that the bytes after it are checked again once
+     *         more data is available
      */
-    private void loadFieldMultipart(String delimiter) throws NotEnoughDataDecoderException, ErrorDataDecoderException {
-        SeekAheadOptimize sao;
-        try {
-            sao = new SeekAheadOptimize(undecodedChunk);
-        } catch (SeekAheadNoBackArrayException e1) {
-            loadFieldMultipartStandard(delimiter);
-            return;
+    private int findDelimiter(String delimiter) {
+        ByteSequenceFinder finder = delimiterFinder;
+        if (finder == null || !delimiter.equals(delimiterFinderDelimiter)) {
+            // LF + delimiter, so that a delimiter which does not start a line is skipped
+            byte[] sequence = new byte[delimiter.length() + 1];
+            sequence[0] = HttpConstants.LF;
+            for (int i = 0; i < delimiter.length(); i ++) {
+                sequence[i + 1] = (byte) delimiter.charAt(i);
+            }
+            finder = new ByteSequenceFinder(sequence);
+            delimiterFinder = finder;
+            delimiterFinderDelimiter = delimiter;
+            delimiterSequence = sequence;
+        }
+        final byte[] sequence = delimiterSequence;
+        final int readerIndex = undecodedChunk.readerIndex();
+        final int writerIndex = undecodedChunk.writerIndex();
+
+        // the delimiter at the very beginning
+        if (matches(undecodedChunk, readerIndex, writerIndex, sequence, 1)) {
+            if (writerIndex - readerIndex >= sequence.length - 1) {
+                return readerIndex;
+            }
+            // partially found
+            return -readerIndex - 1;
         }
-        int readerIndex = undecodedChunk.readerIndex();
-        try {
-            // found the decoder limit
-            boolean newLine = true;
-            int index = 0;
-            int lastPosition;
-            int lastrealpos = sao.pos;
-            boolean found = false;
 
-            while (sao.pos < sao.limit) {
-                byte nextByte = sao.bytes[sao.pos++];
-                if (newLine) {
-                    // Check the delimiter
-                    if (nextByte == delimiter.codePointAt(index)) {
-                        index++;
-                        if (delimiter.length() == index) {
-                            found = true;
-                            break;
-                        }
-                        continue;
-                    } else {
-                        newLine = false;
-                        index = 0;
-                        // continue until end of line
-                        if (nextByte == HttpConstants.CR) {
-                            if (sao.pos < sao.limit) {
-                                nextByte = sao.bytes[sao.pos++];
-                                if (nextByte == HttpConstants.LF) {
-                                    newLine = true;
-                                    index = 0;
-                                    lastrealpos = sao.pos - 2;
-                                }
-                            }
-                        } else if (nextByte == HttpConstants.LF) {
-                            newLine = true;
-                            index = 0;
-                            lastrealpos = sao.pos - 1;
-                        } else {
-                            lastrealpos = sao.pos;
-                        }
-                    }
-                } else {
-                    // continue until end of line
-                    if (nextByte == HttpConstants.CR) {
-                        if (sao.pos < sao.limit) {
-                            nextByte = sao.bytes[sao.pos++];
-                            if (nextByte == HttpConstants.LF) {
-                                newLine = true;
-                                index = 0;
-                                lastrealpos = sao.pos - 2;
-                            }
-                        }
-                    } else if (nextByte == HttpConstants.LF) {
-                        newLine = true;
-                        index = 0;
-                        lastrealpos = sao.pos - 1;
-                    } else {
-                        lastrealpos = sao.pos;
-                    }
-                }
+        int index = finder.indexOf(undecodedChunk, readerIndex, writerIndex);
+        if (index >= 0) {
+            if (index > readerIndex && undecodedChunk.getByte(index - 1) == HttpConstants.CR) {
+                index --;
             }
-            lastPosition = sao.getReadPosition(lastrealpos);
-            if (found) {
-                // found so lastPosition is correct
-                // but position is just after the delimiter (either close
-                // delimiter or simple one)
-                // so go back of delimiter size
-                try {
-                    currentAttribute.addContent(undecodedChunk.slice(readerIndex, lastPosition - readerIndex), true);
-                } catch (IOException e) {
-                    throw new ErrorDataDecoderException(e);
-                }
-                undecodedChunk.readerIndex(lastPosition);
-            } else {
-                try {
-                    currentAttribute.addContent(undecodedChunk.slice(readerIndex, lastPosition - readerIndex), false);
-                } catch (IOException e) {
-                    throw new ErrorDataDecoderException(e);
-                }
-                undecodedChunk.readerIndex(lastPosition);
-                throw new NotEnoughDataDecoderException();
+            return index;
+        }
+
+        // Keep the CRLF and the beginning of the delimiter which may end the readable bytes.
+        for (int i = Math.max(readerIndex, writerIndex - sequence.length - 1); i < writerIndex; i ++) {
+            byte b = undecodedChunk.getByte(i);
+            if (b == HttpConstants.CR && matches(undecodedChunk, i + 1, writerIndex, sequence, 0) ||
+                b == HttpConstants.LF && matches(undecodedChunk, i, writerIndex, sequence, 0)) {
+                return -i - 1;
+            }
+        }
+        return -writerIndex - 1;
+    }
+
+    /**
+     * Returns true if the bytes from index up to writerIndex match the sequence from sequenceIndex, even if the
+     * sequence goes on beyond writerIndex
+     */
+    private static boolean matches(ByteBuf buffer, int index, int writerIndex, byte[] sequence, int sequenceIndex) {
+        int length = Math.min(sequence.length - sequenceIndex, writerIndex - index);
+        for (int i = 0; i < length; i ++) {
+            if (buffer.getByte(index + i) != sequence[sequenceIndex + i]) {
+                return false;
             }
-        } catch (IndexOutOfBoundsException e) {
-            undecodedChunk.readerIndex(readerIndex);
-            throw new NotEnoughDataDecoderException(e);
         }
+        return true;
     }
 
     /**
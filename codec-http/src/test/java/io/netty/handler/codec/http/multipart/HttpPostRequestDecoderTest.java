@@ -0,0 +1,129 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.handler.codec.http.multipart;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultHttpChunk;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpChunk;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpTransferEncoding;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.CharsetUtil;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HttpPostRequestDecoderTest {
+
+    private static final String BOUNDARY = "AaB03x";
+
+    @Test
+    public void testFieldSplitAtEveryOffset() throws Exception {
+        testFieldSplitAtEveryOffset("\r\n", "Joe Blow");
+    }
+
+    @Test
+    public void testFieldWithLoneCrSplitAtEveryOffset() throws Exception {
+        testFieldSplitAtEveryOffset("\r\n", "Joe\rBlow\r");
+    }
+
+    @Test
+    public void testFieldWithLfOnlyLineEndingsSplitAtEveryOffset() throws Exception {
+        testFieldSplitAtEveryOffset("\n", "Joe Blow");
+    }
+
+    @Test
+    public void testFileUploadSplitAtEveryOffset() throws Exception {
+        testFileUploadSplitAtEveryOffset("\r\n", "file contents");
+    }
+
+    @Test
+    public void testFileUploadWithLoneCrSplitAtEveryOffset() throws Exception {
+        testFileUploadSplitAtEveryOffset("\r\n", "file\rcontents\r");
+    }
+
+    @Test
+    public void testFileUploadWithLfOnlyLineEndingsSplitAtEveryOffset() throws Exception {
+        testFileUploadSplitAtEveryOffset("\n", "file contents");
+    }
+
+    private static void testFieldSplitAtEveryOffset(String newLine, String value) throws Exception {
+        String headers = "--" + BOUNDARY + newLine +
+                "Content-Disposition: form-data; name=\"field\"" + newLine +
+                newLine;
+        String body = headers + value + newLine + "--" + BOUNDARY + "--" + newLine;
+
+        for (String[] chunks: split(body, headers.length(), headers.length() + value.length() + newLine.length())) {
+            List<InterfaceHttpData> datas = decode(chunks);
+            assertEquals(1, datas.size());
+            Attribute attribute = (Attribute) datas.get(0);
+            assertEquals("field", attribute.getName());
+            assertEquals(value, attribute.getValue());
+        }
+    }
+
+    private static void testFileUploadSplitAtEveryOffset(String newLine, String contents) throws Exception {
+        String headers = "--" + BOUNDARY + newLine +
+                "Content-Disposition: form-data; name=\"file\"; filename=\"file.txt\"" + newLine +
+                "Content-Type: text/plain" + newLine +
+                newLine;
+        String body = headers + contents + newLine + "--" + BOUNDARY + "--" + newLine;
+
+        for (String[] chunks: split(body, headers.length(), headers.length() + contents.length() + newLine.length())) {
+            List<InterfaceHttpData> datas = decode(chunks);
+            assertEquals(1, datas.size());
+            FileUpload upload = (FileUpload) datas.get(0);
+            assertEquals("file", upload.getName());
+            assertEquals("file.txt", upload.getFilename());
+            assertEquals(contents, upload.getString(CharsetUtil.UTF_8));
+        }
+    }
+
+    /**
+     * Returns the body split in two at every offset from start up to the end of the boundary which follows end.
+     * The headers before start are never split.
+     */
+    private static String[][] split(String body, int start, int end) {
+        int last = end + BOUNDARY.length() + 2;
+        String[][] splits = new String[last - start + 1][];
+        for (int i = start; i <= last; i ++) {
+            splits[i - start] = new String[] { body.substring(0, i), body.substring(i) };
+        }
+        return splits;
+    }
+
+    private static List<InterfaceHttpData> decode(String... chunks) throws Exception {
+        HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/upload");
+        request.setHeader(HttpHeaders.Names.CONTENT_TYPE, "multipart/form-data; boundary=" + BOUNDARY);
+        request.setTransferEncoding(HttpTransferEncoding.CHUNKED);
+
+        HttpPostRequestDecoder decoder = new HttpPostRequestDecoder(new DefaultHttpDataFactory(false), request);
+        for (String chunk: chunks) {
+            if (chunk.length() == 0) {
+                // An empty chunk would be the last one.
+                continue;
+            }
+            decoder.offer(new DefaultHttpChunk(Unpooled.copiedBuffer(chunk, CharsetUtil.UTF_8)));
+        }
+        decoder.offer(HttpChunk.LAST_CHUNK);
+        return decoder.getBodyHttpDatas();
+    }
+}
@@ -16,6 +16,7 @@
 package io.netty.handler.codec;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.MultiByteSequenceFinder;
 import io.netty.channel.ChannelHandlerContext;
 
 /**
@@ -57,6 +58,7 @@ import io.netty.channel.ChannelHandlerContext;
 public class DelimiterBasedFrameDecoder extends ByteToMessageDecoder<Object> {
 
     private final ByteBuf[] delimiters;
+    private final MultiByteSequenceFinder delimiterFinder;
     private final int maxFrameLength;
     private final boolean stripDelimiter;
     private final boolean failFast;
@@ -173,6 +175,7 @@ public class DelimiterBasedFrameDecoder extends ByteToMessageDecoder<Object> {
         if (isLineBased(delimiters) && !isSubclass()) {
             lineBasedDecoder = new LineBasedFrameDecoder(maxFrameLength, stripDelimiter, failFast);
             this.delimiters = null;
+            delimiterFinder = null;
         } else {
             this.delimiters = new ByteBuf[delimiters.length];
             for (int i = 0; i < delimiters.length; i ++) {
@@ -180,6 +183,7 @@ public class DelimiterBasedFrameDecoder extends ByteToMessageDecoder<Object> {
                 validateDelimiter(d);
                 this.delimiters[i] = d.slice(d.readerIndex(), d.readableBytes());
             }
+            delimiterFinder = new MultiByteSequenceFinder(this.delimiters);
             lineBasedDecoder = null;
         }
         this.maxFrameLength = maxFrameLength;
@@ -215,18 +219,14 @@ public class DelimiterBasedFrameDecoder extends ByteToMessageDecoder<Object> {
         if (lineBasedDecoder != null) {
             return lineBasedDecoder.decode(ctx, buffer);
         }
-        // Try all delimiters and choose the delimiter which yields the shortest frame.
-        int minFrameLength = Integer.MAX_VALUE;
-        ByteBuf minDelim = null;
-        for (ByteBuf delim: delimiters) {
-            int frameLength = indexOf(buffer, delim);
-            if (frameLength >= 0 && frameLength < minFrameLength) {
-                minFrameLength = frameLength;
-                minDelim = delim;
-            }
-        }
+        // Look for all delimiters at once and choose the delimiter which yields the shortest frame.
+        final int readerIndex = buffer.readerIndex();
+        final int writerIndex = buffer.writerIndex();
+        final int delimIndex = delimiterFinder.indexOf(buffer, readerIndex, writerIndex);
 
-        if (minDelim != null) {
+        if (delimIndex >= 0) {
+            int minFrameLength = delimIndex - readerIndex;
+            ByteBuf minDelim = delimiters[delimiterFinder.sequenceAt(buffer, delimIndex, writerIndex)];
             int minDelimLength = minDelim.capacity();
             ByteBuf frame;
 
@@ -293,35 +293,6 @@ public class DelimiterBasedFrameDecoder extends ByteToMessageDecoder<Object> {
         }
     }
 
-    /**
-     * Returns the number of bytes between the readerIndex of the haystack and
-     * the first needle found in the haystack.  -1 is returned if no needle is
-     * found in the haystack.
-     */
-    private static int indexOf(ByteBuf haystack, ByteBuf needle) {
-        for (int i = haystack.readerIndex(); i < haystack.writerIndex(); i ++) {
-            int haystackIndex = i;
-            int needleIndex;
-            for (needleIndex = 0; needleIndex < needle.capacity(); needleIndex ++) {
-                if (haystack.getByte(haystackIndex) != needle.getByte(needleIndex)) {
-                    break;
-                } else {
-                    haystackIndex ++;
-                    if (haystackIndex == haystack.writerIndex() &&
-                        needleIndex != needle.capacity() - 1) {
-                        return -1;
-                    }
-                }
-            }
-
-            if (needleIndex == needle.capacity()) {
-                // Found the needle from the haystack!
-                return i - haystack.readerIndex();
-            }
-        }
-        return -1;
-    }
-
     private static void validateDelimiter(ByteBuf delimiter) {
         if (delimiter == null) {
             throw new NullPointerException("delimiter");
@@ -121,15 +121,11 @@ public class LineBasedFrameDecoder extends ByteToMessageDecoder<ByteBuf> {
      * Returns -1 if no end of line was found in the buffer.
      */
     private static int findEndOfLine(final ByteBuf buffer) {
-        final int n = buffer.writerIndex();
-        for (int i = buffer.readerIndex(); i < n; i ++) {
-            final byte b = buffer.getByte(i);
-            if (b == '\n') {
-                return i;
-            } else if (b == '\r' && i < n - 1 && buffer.getByte(i + 1) == '\n') {
-                return i;  // \r\n
-            }
+        final int readerIndex = buffer.readerIndex();
+        int i = buffer.indexOf(readerIndex, buffer.writerIndex(), (byte) '\n');
+        if (i > readerIndex && buffer.getByte(i - 1) == '\r') {
+            i --;  // \r\n
         }
-        return -1;  // Not found.
+        return i;
     }
 }
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util;
+
+import io.netty.util.internal.SystemPropertyUtil;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Light-weight object pool based on a thread-local stack.
+ * <p>
+ * An object obtained from {@link #get()} is bound to the thread which created it.  When it is recycled by that
+ * thread, it is pushed back to the thread-local stack without any synchronization.  When it is recycled by another
+ * thread, it is handed back to the owner thread through a concurrent queue which the owner drains once its local
+ * stack runs empty.
+ * <p>
+ * You can limit the number of pooled objects per thread and type with the system property
+ * <strong>io.netty.recycler.maxCapacity</strong>.
+ *
+ * @param <T> the type of the pooled object
+ */
+public abstract class Recycler<T> {
+
+    private static final int DEFAULT_MAX_CAPACITY;
+    private static final int INITIAL_CAPACITY;
+
+    static {
+        int maxCapacity = SystemPropertyUtil.getInt("io.netty.recycler.maxCapacity", 32768);
+        if (maxCapacity <= 0) {
+            maxCapacity = 32768;
+        }
+
+        DEFAULT_MAX_CAPACITY = maxCapacity;
+        INITIAL_CAPACITY = Math.min(DEFAULT_MAX_CAPACITY, 256);
+    }
+
+    private final int maxCapacity;
+
+    private final ThreadLocal<Stack<T>> threadLocal = new ThreadLocal<Stack<T>>() {
+        @Override
+        protected Stack<T> initialValue() {
+            return new Stack<T>(Recycler.this, Thread.currentThread(), maxCapacity);
+        }
+    };
+
+    protected Recycler() {
+        this(DEFAULT_MAX_CAPACITY);
+    }
+
+    protected Recycler(int maxCapacity) {
+        if (maxCapacity <= 0) {
+            throw new IllegalArgumentException("maxCapacity: " + maxCapacity + " (expected: 1+)");
+        }
+        this.maxCapacity = maxCapacity;
+    }
+
+    /**
+     * Returns a pooled object of the current thread, or a new one created by {@link #newObject(Handle)} if there
+     * is no pooled object left.
+     */
+    public final T get() {
+        Stack<T> stack = threadLocal.get();
+        T o = stack.pop();
+        if (o == null) {
+            o = newObject(stack);
+        }
+        return o;
+    }
+
+    /**
+     * Returns the specified object to the pool of the thread it was created by.
+     *
+     * @param handle the {@link Handle} which was passed to {@link #newObject(Handle)} when {@code o} was created
+     * @return {@code true} if the object was pooled, {@code false} if it was not created by this recycler or if the
+     *         pool is full, in which case it is left to the garbage collector
+     */
+    public final boolean recycle(T o, Handle handle) {
+        if (o == null) {
+            throw new NullPointerException("o");
+        }
+
+        @SuppressWarnings("unchecked")
+        Stack<T> stack = (Stack<T>) handle;
+        if (stack.parent != this) {
+            return false;
+        }
+
+        if (Thread.currentThread() == stack.thread) {
+            return stack.push(o);
+        }
+        return stack.pushForeign(o);
+    }
+
+    /**
+     * Creates a new object which is recycled with the specified {@link Handle}.
+     */
+    protected abstract T newObject(Handle handle);
+
+    /**
+     * Identifies the pool an object has to be returned to.
+     */
+    public interface Handle { }
+
+    static final class Stack<T> implements Handle {
+
+        final Recycler<T> parent;
+        final Thread thread;
+        private final int maxCapacity;
+        private T[] elements;
+        private int size;
+
+        // Objects recycled by other threads, which are moved to elements by the owner thread only.
+        private final Queue<T> foreignElements = new ConcurrentLinkedQueue<T>();
+        private final AtomicInteger foreignSize = new AtomicInteger();
+
+        @SuppressWarnings("unchecked")
+        Stack(Recycler<T> parent, Thread thread, int maxCapacity) {
+            this.parent = parent;
+            this.thread = thread;
+            this.maxCapacity = maxCapacity;
+            elements = (T[]) new Object[Math.min(INITIAL_CAPACITY, maxCapacity)];
+        }
+
+        T pop() {
+            int size = this.size;
+            if (size == 0) {
+                size = drainForeign();
+                if (size == 0) {
+                    return null;
+                }
+            }
+            size --;
+            T ret = elements[size];
+            elements[size] = null;
+            this.size = size;
+            return ret;
+        }
+
+        boolean push(T o) {
+            int size = this.size;
+            if (size == elements.length) {
+                if (size == maxCapacity) {
+                    // Hit the maximum capacity - drop the possibly youngest object.
+                    return false;
+                }
+                @SuppressWarnings("unchecked")
+                T[] newElements = (T[]) new Object[Math.min(size << 1, maxCapacity)];
+                System.arraycopy(elements, 0, newElements, 0, size);
+                elements = newElements;
+            }
+
+            elements[size] = o;
+            this.size = size + 1;
+            return true;
+        }
+
+        boolean pushForeign(T o) {
+            if (foreignSize.incrementAndGet() > maxCapacity) {
+                foreignSize.decrementAndGet();
+                return false;
+            }
+            foreignElements.add(o);
+            return true;
+        }
+
+        private int drainForeign() {
+            if (foreignSize.get() == 0) {
+                return 0;
+            }
+
+            for (;;) {
+                T o = foreignElements.poll();
+                if (o == null) {
+                    break;
+                }
+                foreignSize.decrementAndGet();
+                if (!push(o)) {
+                    break;
+                }
+            }
+            return size;
+        }
+    }
+}
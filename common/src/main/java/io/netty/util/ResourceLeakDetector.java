@@ -0,0 +1,202 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util;
+
+import io.netty.logging.InternalLogger;
+import io.netty.logging.InternalLoggerFactory;
+import io.netty.util.internal.StringUtil;
+import io.netty.util.internal.SystemPropertyUtil;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detects resources, such as pooled or direct buffers, which were garbage-collected before they were released.
+ * <p>
+ * A tracked resource is referred by a {@link PhantomReference}, which remembers where the resource was created.
+ * When the resource is garbage-collected without {@link ResourceLeak#close()} being called, the creation record is
+ * logged at the next call of {@link #open(Object)}.
+ * <p>
+ * The level of detection can be specified with the system property <strong>io.netty.leakDetectionLevel</strong>
+ * ({@code disabled}, {@code simple} or {@code paranoid}) or {@link #setLevel(Level)}.  In {@link Level#SIMPLE}
+ * mode, only one out of every <strong>io.netty.leakDetection.samplingInterval</strong> (default: {@code 113})
+ * resources is tracked.
+ *
+ * @param <T> the type of the tracked resource
+ */
+public final class ResourceLeakDetector<T> {
+
+    /**
+     * Represents the level of resource leak detection.
+     */
+    public enum Level {
+        /**
+         * Disables resource leak detection.
+         */
+        DISABLED,
+        /**
+         * Enables sampling resource leak detection which tracks a small fraction of the resources and reports
+         * where they were created.  Adds little overhead.
+         */
+        SIMPLE,
+        /**
+         * Enables paranoid resource leak detection which tracks every single resource.  For testing and
+         * debugging only.
+         */
+        PARANOID
+    }
+
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(ResourceLeakDetector.class);
+
+    private static final int DEFAULT_SAMPLING_INTERVAL = 113;
+
+    private static volatile Level level;
+
+    static {
+        Level defaultLevel = Level.SIMPLE;
+        String levelStr = SystemPropertyUtil.get("io.netty.leakDetectionLevel", defaultLevel.name());
+        levelStr = levelStr.trim().toUpperCase(Locale.UK);
+        for (Level l: Level.values()) {
+            if (l.name().equals(levelStr)) {
+                defaultLevel = l;
+                break;
+            }
+        }
+
+        level = defaultLevel;
+        if (logger.isDebugEnabled()) {
+            logger.debug("io.netty.leakDetectionLevel: " + level.name().toLowerCase(Locale.UK));
+        }
+    }
+
+    /**
+     * Sets the resource leak detection level.
+     */
+    public static void setLevel(Level level) {
+        if (level == null) {
+            throw new NullPointerException("level");
+        }
+        ResourceLeakDetector.level = level;
+    }
+
+    /**
+     * Returns the current resource leak detection level.
+     */
+    public static Level getLevel() {
+        return level;
+    }
+
+    private final Set<DefaultResourceLeak> liveLeaks =
+            Collections.newSetFromMap(new ConcurrentHashMap<DefaultResourceLeak, Boolean>());
+    private final ReferenceQueue<Object> refQueue = new ReferenceQueue<Object>();
+
+    private final String resourceType;
+    private final int samplingInterval;
+
+    // Not thread-safe on purpose, as a missed or a duplicate sample does not matter.
+    private long leakCheckCnt;
+
+    public ResourceLeakDetector(Class<?> resourceType) {
+        this(resourceType.getSimpleName());
+    }
+
+    public ResourceLeakDetector(String resourceType) {
+        this(resourceType, SystemPropertyUtil.getInt(
+                "io.netty.leakDetection.samplingInterval", DEFAULT_SAMPLING_INTERVAL));
+    }
+
+    public ResourceLeakDetector(String resourceType, int samplingInterval) {
+        if (resourceType == null) {
+            throw new NullPointerException("resourceType");
+        }
+        if (samplingInterval <= 0) {
+            throw new IllegalArgumentException("samplingInterval: " + samplingInterval + " (expected: 1+)");
+        }
+
+        this.resourceType = resourceType;
+        this.samplingInterval = samplingInterval;
+    }
+
+    /**
+     * Creates a new {@link ResourceLeak} which is expected to be closed via {@link ResourceLeak#close()} when the
+     * related resource is deallocated.
+     *
+     * @return the {@link ResourceLeak} or {@code null} if the resource is not tracked
+     */
+    public ResourceLeak open(T obj) {
+        Level level = ResourceLeakDetector.level;
+        if (level == Level.DISABLED) {
+            return null;
+        }
+
+        if (level == Level.SIMPLE && leakCheckCnt ++ % samplingInterval != 0) {
+            return null;
+        }
+
+        reportLeak();
+        return new DefaultResourceLeak(obj);
+    }
+
+    private void reportLeak() {
+        for (;;) {
+            DefaultResourceLeak ref = (DefaultResourceLeak) refQueue.poll();
+            if (ref == null) {
+                break;
+            }
+
+            ref.clear();
+            if (!ref.close()) {
+                // Released before it was garbage-collected.
+                continue;
+            }
+
+            if (logger.isErrorEnabled()) {
+                logger.error(
+                        "LEAK: " + resourceType + " was garbage-collected before it was released. " +
+                        "Enable paranoid leak detection with -Dio.netty.leakDetectionLevel=paranoid " +
+                        "to track every " + resourceType + '.' + StringUtil.NEWLINE +
+                        "Created at:", ref.creationRecord);
+            }
+        }
+    }
+
+    private final class DefaultResourceLeak extends PhantomReference<Object> implements ResourceLeak {
+
+        final Throwable creationRecord;
+
+        DefaultResourceLeak(Object referent) {
+            super(referent, refQueue);
+            creationRecord = new ResourceLeakRecord();
+            liveLeaks.add(this);
+        }
+
+        @Override
+        public boolean close() {
+            return liveLeaks.remove(this);
+        }
+    }
+
+    /**
+     * Captures the stack trace at the creation of a tracked resource.
+     */
+    private static final class ResourceLeakRecord extends Throwable {
+        private static final long serialVersionUID = -3398059025669569009L;
+    }
+}
@@ -0,0 +1,375 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util.internal;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A lock-free multi-producer single-consumer queue which stores its elements in a linked list of fixed-size array
+ * chunks, so that only one chunk needs to be allocated per {@value #CHUNK_SIZE} elements rather than one node per
+ * element.
+ * <p>
+ * Any thread may insert elements.  Only one thread at a time may retrieve elements, i.e. call {@link #poll()},
+ * {@link #peek()}, {@link #take()}, {@link #poll(long, TimeUnit)} or {@link #drainTo(Collection)}.  Retrieving an
+ * element involves no compare-and-set operation.  The consumer may block in {@link #take()}, in which case it is
+ * unparked by the next insertion.
+ * <p>
+ * The queue may be bounded, in which case {@link #offer(Object)} returns {@code false} once it holds
+ * {@code capacity} elements.  Elements removed via {@link #remove(Object)} do not count towards the capacity even
+ * though their slots are only reclaimed once the consumer reaches them.  {@link #remove(Object)} is only supported
+ * if it is called by the consumer or while no thread consumes the queue.  Iteration is not supported.
+ *
+ * @param <E> the type of the elements
+ */
+public final class MpscChunkedQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    static final int CHUNK_SIZE = 1024;
+
+    // Placed into the slot of an element which was removed via remove(Object).
+    private static final Object REMOVED = new Object();
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<MpscChunkedQueue> producerIndexUpdater =
+            AtomicLongFieldUpdater.newUpdater(MpscChunkedQueue.class, "producerIndex");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<MpscChunkedQueue> consumerIndexUpdater =
+            AtomicLongFieldUpdater.newUpdater(MpscChunkedQueue.class, "consumerIndex");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<MpscChunkedQueue, Thread> waitingConsumerUpdater =
+            AtomicReferenceFieldUpdater.newUpdater(MpscChunkedQueue.class, Thread.class, "waitingConsumer");
+
+    private final int capacity;
+
+    // The sequence number of the next element to insert, shifted left by one.  The lowest bit is set while a producer
+    // links a new chunk, during which no other producer may claim a sequence number.
+    private volatile long producerIndex;
+    private volatile Chunk producerChunk;
+
+    // The sequence number of the next element to retrieve.  Only written by the consumer.
+    private volatile long consumerIndex;
+    private Chunk consumerChunk;
+
+    // The number of REMOVED slots between consumerIndex and producerIndex.  Only written by the consumer, and always
+    // decremented before consumerIndex is advanced so that a producer which reads consumerIndex first never
+    // underestimates the size.
+    private volatile long removedCount;
+
+    private volatile Thread waitingConsumer;
+
+    /**
+     * Creates a new unbounded queue.
+     */
+    public MpscChunkedQueue() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new queue which holds at most {@code capacity} elements.
+     */
+    public MpscChunkedQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity: " + capacity + " (expected: > 0)");
+        }
+        this.capacity = capacity;
+        producerChunk = consumerChunk = new Chunk(0);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException("e");
+        }
+
+        for (;;) {
+            final long producerIndex = this.producerIndex;
+            if ((producerIndex & 1) != 0) {
+                // Another producer is linking a new chunk, which involves an allocation - let it run.
+                Thread.yield();
+                continue;
+            }
+
+            // Read after producerIndex; unchanged as long as the CAS below succeeds.
+            final Chunk chunk = producerChunk;
+            final long seq = producerIndex >>> 1;
+            if (size(seq) >= capacity) {
+                return false;
+            }
+
+            final int offset = (int) (seq - chunk.base);
+            if (offset < CHUNK_SIZE) {
+                if (producerIndexUpdater.compareAndSet(this, producerIndex, producerIndex + 2)) {
+                    chunk.slots.lazySet(offset, e);
+                    break;
+                }
+            } else if (producerIndexUpdater.compareAndSet(this, producerIndex, producerIndex + 1)) {
+                Chunk next = new Chunk(chunk.base + CHUNK_SIZE);
+                next.slots.lazySet(0, e);
+                chunk.next = next;
+                producerChunk = next;
+                this.producerIndex = producerIndex + 2;
+                break;
+            }
+        }
+
+        // Only one producer unparks the waiting consumer.
+        Thread waitingConsumer = this.waitingConsumer;
+        if (waitingConsumer != null && waitingConsumerUpdater.compareAndSet(this, waitingConsumer, null)) {
+            LockSupport.unpark(waitingConsumer);
+        }
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        return poll(true);
+    }
+
+    @Override
+    public E peek() {
+        return poll(false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private E poll(boolean remove) {
+        for (;;) {
+            final long seq = consumerIndex;
+            Chunk chunk = consumerChunk;
+            int offset = (int) (seq - chunk.base);
+            if (offset == CHUNK_SIZE) {
+                Chunk next = chunk.next;
+                if (next == null) {
+                    if (isEmpty(seq)) {
+                        return null;
+                    }
+                    // A producer is linking the next chunk.
+                    continue;
+                }
+                // The consumed chunk is garbage from now on.
+                consumerChunk = chunk = next;
+                offset = 0;
+            }
+
+            Object e = chunk.slots.get(offset);
+            if (e == null) {
+                if (isEmpty(seq)) {
+                    return null;
+                }
+                // A producer claimed the slot but did not store its element yet.
+                continue;
+            }
+
+            if (e == REMOVED || remove) {
+                if (e == REMOVED) {
+                    removedCount --;
+                }
+                chunk.slots.lazySet(offset, null);
+                consumerIndexUpdater.lazySet(this, seq + 1);
+            }
+            if (e != REMOVED) {
+                return (E) e;
+            }
+        }
+    }
+
+    private boolean isEmpty(long consumerIndex) {
+        return consumerIndex == producerIndex >>> 1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return isEmpty(consumerIndex);
+    }
+
+    /**
+     * Returns the number of elements in this queue.  The returned value is only an estimate if the queue is modified
+     * concurrently.
+     */
+    @Override
+    public int size() {
+        long size = size(producerIndex >>> 1);
+        return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) Math.max(0, size);
+    }
+
+    /**
+     * Returns the number of elements before the specified producer sequence number, not counting removed ones.
+     */
+    private long size(long producerSeq) {
+        // consumerIndex must be read before removedCount.
+        long consumerSeq = consumerIndex;
+        return producerSeq - consumerSeq - removedCount;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+
+        long seq = consumerIndex;
+        final long producerSeq = producerIndex >>> 1;
+        Chunk chunk = consumerChunk;
+        for (; seq < producerSeq; seq ++) {
+            int offset = (int) (seq - chunk.base);
+            if (offset == CHUNK_SIZE) {
+                chunk = chunk.next;
+                if (chunk == null) {
+                    break;
+                }
+                offset = 0;
+            }
+
+            Object e = chunk.slots.get(offset);
+            if (o.equals(e) && chunk.slots.compareAndSet(offset, e, REMOVED)) {
+                removedCount ++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        while (!offer(e)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            Thread.yield();
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!offer(e)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            Thread.yield();
+        }
+        return true;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        for (;;) {
+            E e = poll();
+            if (e != null) {
+                return e;
+            }
+            await(0);
+        }
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (;;) {
+            E e = poll();
+            if (e != null) {
+                return e;
+            }
+
+            long timeoutNanos = deadline - System.nanoTime();
+            if (timeoutNanos <= 0) {
+                return null;
+            }
+            await(timeoutNanos);
+        }
+    }
+
+    /**
+     * Parks the consumer until an element is inserted, {@code timeoutNanos} elapsed (unless {@code 0}) or the
+     * thread is interrupted.
+     */
+    private void await(long timeoutNanos) throws InterruptedException {
+        waitingConsumer = Thread.currentThread();
+        try {
+            // Check again after publishing the waiting consumer - a producer might not have seen it.
+            if (isEmpty()) {
+                if (timeoutNanos == 0) {
+                    LockSupport.park(this);
+                } else {
+                    LockSupport.parkNanos(this, timeoutNanos);
+                }
+            }
+        } finally {
+            waitingConsumer = null;
+        }
+
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null) {
+            throw new NullPointerException("c");
+        }
+        if (c == this) {
+            throw new IllegalArgumentException("c == this");
+        }
+
+        int n = 0;
+        for (; n < maxElements; n ++) {
+            E e = poll();
+            if (e == null) {
+                break;
+            }
+            c.add(e);
+        }
+        return n;
+    }
+
+    private static final class Chunk {
+        final long base;
+        final AtomicReferenceArray<Object> slots = new AtomicReferenceArray<Object>(CHUNK_SIZE);
+        volatile Chunk next;
+
+        Chunk(long base) {
+            this.base = base;
+        }
+    }
+}
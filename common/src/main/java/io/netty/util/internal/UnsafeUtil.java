@@ -0,0 +1,180 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util.internal;
+
+import io.netty.logging.InternalLogger;
+import io.netty.logging.InternalLoggerFactory;
+import sun.misc.Unsafe;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Provides raw access to the memory of direct {@link ByteBuffer}s and byte arrays via {@code sun.misc.Unsafe}.
+ * <p>
+ * The methods of this class perform no bounds checks at all.  They must only be called after {@link #isAvailable()}
+ * returned {@code true} and with addresses that were validated by the caller.
+ */
+@SuppressWarnings("restriction")
+public final class UnsafeUtil {
+
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(UnsafeUtil.class);
+
+    private static final Unsafe UNSAFE;
+    private static final long ADDRESS_FIELD_OFFSET;
+    private static final long BYTE_ARRAY_BASE_OFFSET;
+    private static final boolean AVAILABLE;
+
+    /**
+     * {@code true} if the native byte order is big-endian, the byte order of all Netty buffers by default.
+     */
+    public static final boolean BIG_ENDIAN_NATIVE_ORDER = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
+    /**
+     * Limits the number of bytes copied by a single {@code Unsafe.copyMemory()} call so that a large copy does not
+     * delay a safepoint for too long.
+     */
+    private static final long UNSAFE_COPY_THRESHOLD = 1024L * 1024L;
+
+    static {
+        Unsafe unsafe = null;
+        long addressFieldOffset = -1;
+        long byteArrayBaseOffset = -1;
+        // Unsafe.copyMemory(Object, long, Object, long, long) is only available since Java 7.
+        if (DetectionUtil.hasUnsafe() && DetectionUtil.javaVersion() >= 7 && unaligned()) {
+            try {
+                Field unsafeField = Unsafe.class.getDeclaredField("theUnsafe");
+                unsafeField.setAccessible(true);
+                unsafe = (Unsafe) unsafeField.get(null);
+
+                Field addressField = Buffer.class.getDeclaredField("address");
+                addressFieldOffset = unsafe.objectFieldOffset(addressField);
+                byteArrayBaseOffset = unsafe.arrayBaseOffset(byte[].class);
+
+                // Make sure the address of a direct buffer can actually be read.
+                ByteBuffer direct = ByteBuffer.allocateDirect(1);
+                if (unsafe.getLong(direct, addressFieldOffset) == 0) {
+                    unsafe = null;
+                }
+            } catch (Throwable t) {
+                unsafe = null;
+            }
+        }
+
+        UNSAFE = unsafe;
+        ADDRESS_FIELD_OFFSET = addressFieldOffset;
+        BYTE_ARRAY_BASE_OFFSET = byteArrayBaseOffset;
+        AVAILABLE = unsafe != null;
+        logger.debug("sun.misc.Unsafe based memory access: " + (AVAILABLE ? "available" : "unavailable"));
+    }
+
+    private static boolean unaligned() {
+        try {
+            Class<?> bitsClass = Class.forName("java.nio.Bits", false, ClassLoader.getSystemClassLoader());
+            Method unalignedMethod = bitsClass.getDeclaredMethod("unaligned");
+            unalignedMethod.setAccessible(true);
+            return Boolean.TRUE.equals(unalignedMethod.invoke(null));
+        } catch (Throwable t) {
+            // Only assume unaligned access is safe on the architectures known to support it.
+            String arch = SystemPropertyUtil.get("os.arch", "");
+            return arch.matches("^(i[3-6]86|x86(_64)?|x64|amd64)$");
+        }
+    }
+
+    /**
+     * Return {@code true} if the methods of this class can be used.
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Return the memory address of the first byte of the specified direct {@link ByteBuffer}.
+     */
+    public static long directBufferAddress(ByteBuffer buffer) {
+        return UNSAFE.getLong(buffer, ADDRESS_FIELD_OFFSET);
+    }
+
+    public static byte getByte(long address) {
+        return UNSAFE.getByte(address);
+    }
+
+    public static short getShort(long address) {
+        return UNSAFE.getShort(address);
+    }
+
+    public static int getInt(long address) {
+        return UNSAFE.getInt(address);
+    }
+
+    public static long getLong(long address) {
+        return UNSAFE.getLong(address);
+    }
+
+    public static void putByte(long address, byte value) {
+        UNSAFE.putByte(address, value);
+    }
+
+    public static void putShort(long address, short value) {
+        UNSAFE.putShort(address, value);
+    }
+
+    public static void putInt(long address, int value) {
+        UNSAFE.putInt(address, value);
+    }
+
+    public static void putLong(long address, long value) {
+        UNSAFE.putLong(address, value);
+    }
+
+    /**
+     * Copies {@code length} bytes from the memory at {@code srcAddr} to the memory at {@code dstAddr}.
+     */
+    public static void copyMemory(long srcAddr, long dstAddr, long length) {
+        copyMemory(null, srcAddr, null, dstAddr, length);
+    }
+
+    /**
+     * Copies {@code length} bytes from the specified array to the memory at {@code dstAddr}.
+     */
+    public static void copyMemory(byte[] src, int srcIndex, long dstAddr, long length) {
+        copyMemory(src, BYTE_ARRAY_BASE_OFFSET + srcIndex, null, dstAddr, length);
+    }
+
+    /**
+     * Copies {@code length} bytes from the memory at {@code srcAddr} to the specified array.
+     */
+    public static void copyMemory(long srcAddr, byte[] dst, int dstIndex, long length) {
+        copyMemory(null, srcAddr, dst, BYTE_ARRAY_BASE_OFFSET + dstIndex, length);
+    }
+
+    private static void copyMemory(Object src, long srcOffset, Object dst, long dstOffset, long length) {
+        while (length > 0) {
+            long size = Math.min(length, UNSAFE_COPY_THRESHOLD);
+            UNSAFE.copyMemory(src, srcOffset, dst, dstOffset, size);
+            length -= size;
+            srcOffset += size;
+            dstOffset += size;
+        }
+    }
+
+    private UnsafeUtil() {
+        // Unused
+    }
+}
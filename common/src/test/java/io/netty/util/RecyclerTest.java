@@ -0,0 +1,90 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RecyclerTest {
+
+    private static final Recycler<RecyclableObject> RECYCLER = new Recycler<RecyclableObject>(2) {
+        @Override
+        protected RecyclableObject newObject(Handle handle) {
+            return new RecyclableObject(handle);
+        }
+    };
+
+    @Test
+    public void testRecycleFromOwnerThread() {
+        RecyclableObject o = RECYCLER.get();
+        assertTrue(RECYCLER.recycle(o, o.handle));
+        assertSame(o, RECYCLER.get());
+    }
+
+    @Test
+    public void testRecycleFromOtherThread() throws Exception {
+        final RecyclableObject o = RECYCLER.get();
+        final boolean[] recycled = new boolean[1];
+        Thread t = new Thread() {
+            @Override
+            public void run() {
+                recycled[0] = RECYCLER.recycle(o, o.handle);
+                // Must not be handed out to a thread other than the owner.
+                assertNotSame(o, RECYCLER.get());
+            }
+        };
+        t.start();
+        t.join();
+
+        assertTrue(recycled[0]);
+        assertSame(o, RECYCLER.get());
+    }
+
+    @Test
+    public void testMaxCapacity() {
+        RecyclableObject a = RECYCLER.get();
+        RecyclableObject b = RECYCLER.get();
+        RecyclableObject c = RECYCLER.get();
+        assertTrue(RECYCLER.recycle(a, a.handle));
+        assertTrue(RECYCLER.recycle(b, b.handle));
+        assertFalse(RECYCLER.recycle(c, c.handle));
+
+        assertSame(b, RECYCLER.get());
+        assertSame(a, RECYCLER.get());
+    }
+
+    @Test
+    public void testRecycleWithForeignHandle() {
+        Recycler<RecyclableObject> other = new Recycler<RecyclableObject>() {
+            @Override
+            protected RecyclableObject newObject(Handle handle) {
+                return new RecyclableObject(handle);
+            }
+        };
+
+        RecyclableObject o = other.get();
+        assertFalse(RECYCLER.recycle(o, o.handle));
+    }
+
+    private static final class RecyclableObject {
+        final Recycler.Handle handle;
+
+        RecyclableObject(Recycler.Handle handle) {
+            this.handle = handle;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util;
+
+import io.netty.util.ResourceLeakDetector.Level;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ResourceLeakDetectorTest {
+
+    private Level oldLevel;
+
+    @Before
+    public void saveLevel() {
+        oldLevel = ResourceLeakDetector.getLevel();
+    }
+
+    @After
+    public void restoreLevel() {
+        ResourceLeakDetector.setLevel(oldLevel);
+    }
+
+    @Test
+    public void testDisabled() {
+        ResourceLeakDetector.setLevel(Level.DISABLED);
+        ResourceLeakDetector<Object> detector = new ResourceLeakDetector<Object>("test", 1);
+        assertNull(detector.open(new Object()));
+    }
+
+    @Test
+    public void testSimpleSamplesResources() {
+        ResourceLeakDetector.setLevel(Level.SIMPLE);
+        ResourceLeakDetector<Object> detector = new ResourceLeakDetector<Object>("test", 4);
+        int tracked = 0;
+        for (int i = 0; i < 16; i ++) {
+            if (detector.open(new Object()) != null) {
+                tracked ++;
+            }
+        }
+        assertEquals(4, tracked);
+    }
+
+    @Test
+    public void testParanoidTracksEveryResource() {
+        ResourceLeakDetector.setLevel(Level.PARANOID);
+        ResourceLeakDetector<Object> detector = new ResourceLeakDetector<Object>("test", 4);
+        for (int i = 0; i < 16; i ++) {
+            ResourceLeak leak = detector.open(new Object());
+            assertNotNull(leak);
+            assertTrue(leak.close());
+            assertFalse(leak.close());
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.util.internal;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class MpscChunkedQueueTest {
+
+    @Test
+    public void testFifoAcrossChunks() {
+        MpscChunkedQueue<Integer> queue = new MpscChunkedQueue<Integer>();
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+
+        int n = MpscChunkedQueue.CHUNK_SIZE * 3 + 7;
+        for (int i = 0; i < n; i ++) {
+            assertTrue(queue.offer(i));
+        }
+        assertEquals(n, queue.size());
+        assertEquals(Integer.valueOf(0), queue.peek());
+
+        for (int i = 0; i < n; i ++) {
+            assertEquals(Integer.valueOf(i), queue.poll());
+        }
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullElement() {
+        new MpscChunkedQueue<Object>().offer(null);
+    }
+
+    @Test
+    public void testBounded() {
+        MpscChunkedQueue<Integer> queue = new MpscChunkedQueue<Integer>(2);
+        assertTrue(queue.offer(1));
+        assertTrue(queue.offer(2));
+        assertFalse(queue.offer(3));
+        assertEquals(0, queue.remainingCapacity());
+
+        assertEquals(Integer.valueOf(1), queue.poll());
+        assertTrue(queue.offer(3));
+        assertFalse(queue.offer(4));
+    }
+
+    @Test
+    public void testBoundedDoesNotCountRemoved() {
+        MpscChunkedQueue<Integer> queue = new MpscChunkedQueue<Integer>(2);
+        assertTrue(queue.offer(1));
+        assertTrue(queue.offer(2));
+        assertTrue(queue.remove(1));
+        assertEquals(1, queue.size());
+        assertEquals(1, queue.remainingCapacity());
+
+        assertTrue(queue.offer(3));
+        assertFalse(queue.offer(4));
+        assertEquals(Integer.valueOf(2), queue.poll());
+        assertEquals(1, queue.size());
+        assertEquals(Integer.valueOf(3), queue.poll());
+        assertEquals(0, queue.size());
+        assertEquals(2, queue.remainingCapacity());
+    }
+
+    @Test
+    public void testRemove() {
+        MpscChunkedQueue<String> queue = new MpscChunkedQueue<String>();
+        queue.offer("a");
+        queue.offer("b");
+        queue.offer("c");
+
+        assertTrue(queue.remove("b"));
+        assertFalse(queue.remove("b"));
+        assertFalse(queue.remove("d"));
+
+        assertEquals("a", queue.poll());
+        assertEquals("c", queue.peek());
+        assertEquals("c", queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testDrainTo() {
+        MpscChunkedQueue<Integer> queue = new MpscChunkedQueue<Integer>();
+        for (int i = 0; i < 10; i ++) {
+            queue.offer(i);
+        }
+
+        List<Integer> drained = new ArrayList<Integer>();
+        assertEquals(4, queue.drainTo(drained, 4));
+        assertEquals(6, queue.drainTo(drained));
+        assertEquals(10, drained.size());
+        for (int i = 0; i < 10; i ++) {
+            assertEquals(Integer.valueOf(i), drained.get(i));
+        }
+    }
+
+    @Test
+    public void testPollTimeout() throws Exception {
+        MpscChunkedQueue<Integer> queue = new MpscChunkedQueue<Integer>();
+        long startTime = System.nanoTime();
+        assertNull(queue.poll(100, TimeUnit.MILLISECONDS));
+        assertTrue(System.nanoTime() - startTime >= TimeUnit.MILLISECONDS.toNanos(90));
+    }
+
+    @Test(timeout = 5000)
+    public void testTakeIsUnparkedByOffer() throws Exception {
+        final MpscChunkedQueue<Integer> queue = new MpscChunkedQueue<Integer>();
+        final AtomicReference<Integer> taken = new AtomicReference<Integer>();
+        Thread consumer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    taken.set(queue.take());
+                } catch (InterruptedException e) {
+                    // Ignore
+                }
+            }
+        };
+        consumer.start();
+
+        Thread.sleep(100);
+        queue.offer(42);
+        consumer.join();
+        assertEquals(Integer.valueOf(42), taken.get());
+    }
+
+    @Test(timeout = 5000, expected = InterruptedException.class)
+    public void testTakeIsInterrupted() throws Exception {
+        Thread.currentThread().interrupt();
+        new MpscChunkedQueue<Integer>().take();
+    }
+
+    @Test(timeout = 30000)
+    public void testMultipleProducers() throws Exception {
+        final int producers = 4;
+        final int elementsPerProducer = 100000;
+        final MpscChunkedQueue<long[]> queue = new MpscChunkedQueue<long[]>();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        for (int i = 0; i < producers; i ++) {
+            final int producer = i;
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < elementsPerProducer; j ++) {
+                        queue.offer(new long[] { producer, j });
+                    }
+                }
+            }.start();
+        }
+        start.countDown();
+
+        // The elements of each producer must be retrieved exactly once and in the order they were inserted.
+        long[] next = new long[producers];
+        for (int i = 0; i < producers * elementsPerProducer; i ++) {
+            long[] e = queue.take();
+            assertEquals(next[(int) e[0]] ++, e[1]);
+        }
+        for (long n: next) {
+            assertEquals(elementsPerProducer, n);
+        }
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -40,6 +40,18 @@ public class HexDumpProxyBackendHandler extends ChannelInboundByteHandlerAdapter
         out.writeBytes(in);
         in.clear();
         inboundChannel.flush();
+        if (!inboundChannel.isWritable()) {
+            // The client does not keep up - stop reading from the remote host until the backlog has been written.
+            ctx.channel().config().setAutoRead(false);
+        }
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable()) {
+            // The remote host caught up - resume reading from the client.
+            inboundChannel.config().setAutoRead(true);
+        }
     }
 
     @Override
@@ -74,6 +74,18 @@ public class HexDumpProxyFrontendHandler extends ChannelInboundByteHandlerAdapte
         if (outboundChannel.isActive()) {
             outboundChannel.flush();
         }
+        if (!outboundChannel.isWritable()) {
+            // The remote host does not keep up - stop reading from the client until the backlog has been written.
+            ctx.channel().config().setAutoRead(false);
+        }
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable() && outboundChannel != null) {
+            // The client caught up - resume reading from the remote host.
+            outboundChannel.config().setAutoRead(true);
+        }
     }
 
     @Override
@@ -27,6 +27,7 @@ public class QuoteOfTheMomentClientHandler extends ChannelInboundMessageHandlerA
             ChannelHandlerContext ctx, DatagramPacket msg)
             throws Exception {
         String response = msg.data().toString(CharsetUtil.UTF_8);
+        msg.free();
         if (response.startsWith("QOTM: ")) {
             System.out.println("Quote of the Moment: " + response.substring(6));
             ctx.close();
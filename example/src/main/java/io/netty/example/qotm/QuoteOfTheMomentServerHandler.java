@@ -47,10 +47,14 @@ public class QuoteOfTheMomentServerHandler extends ChannelInboundMessageHandlerA
     public void messageReceived(
             ChannelHandlerContext ctx, DatagramPacket msg)
             throws Exception {
-        if ("QOTM?".equals(msg.data().toString(CharsetUtil.UTF_8))) {
-            ctx.write(new DatagramPacket(
-                    Unpooled.copiedBuffer("QOTM: " + nextQuote(), CharsetUtil.UTF_8),
-                    msg.remoteAddress()));
+        try {
+            if ("QOTM?".equals(msg.data().toString(CharsetUtil.UTF_8))) {
+                ctx.write(new DatagramPacket(
+                        Unpooled.copiedBuffer("QOTM: " + nextQuote(), CharsetUtil.UTF_8),
+                        msg.remoteAddress()));
+            }
+        } finally {
+            msg.free();
         }
     }
 
@@ -166,6 +166,15 @@ public class LoggingHandler extends ChannelHandlerAdapter {
         super.channelInactive(ctx);
     }
 
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx)
+            throws Exception {
+        if (logger.isEnabled(internalLevel)) {
+            logger.log(internalLevel, format(ctx, "WRITABILITY: " + ctx.channel().isWritable()));
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx,
             Throwable cause) throws Exception {
@@ -103,7 +103,8 @@ public class ChunkedWriteHandler
     }
 
     private boolean isWritable() {
-        return pendingWrites.get() < maxPendingWrites;
+        // Stop fetching chunks as well when the outbound buffer of the channel went above its high water mark.
+        return pendingWrites.get() < maxPendingWrites && ctx.channel().isWritable();
     }
 
     /**
@@ -159,6 +160,15 @@ public class ChunkedWriteHandler
         super.channelInactive(ctx);
     }
 
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable()) {
+            // The outbound buffer has been drained down to the low water mark - continue the transfer.
+            resumeTransfer();
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
     private void discard(final ChannelHandlerContext ctx, Throwable cause) {
 
         boolean fireExceptionCaught = false;
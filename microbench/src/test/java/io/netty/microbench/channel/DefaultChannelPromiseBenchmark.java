@@ -0,0 +1,154 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.microbench.channel;
+
+import com.google.caliper.Param;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundByteHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.DefaultChannelPromise;
+import io.netty.channel.embedded.EmbeddedByteChannel;
+import io.netty.microbench.util.DefaultBenchmark;
+
+/**
+ * Measures the cost of the life cycle of a {@link DefaultChannelPromise}, which is created and completed for almost
+ * every write, with one or more threads.  Each thread runs its share of the repetitions, and in
+ * {@link #timeAddAndRemoveListener(int)} and {@link #timeIsDoneAndIsSuccess(int)} all threads access the same promise.
+ */
+public class DefaultChannelPromiseBenchmark extends DefaultBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    @Param({"0", "1", "2", "4"})
+    private int listeners;
+
+    private Channel channel;
+    private final ChannelFutureListener listener = new ChannelFutureListener() {
+        @Override
+        public void operationComplete(ChannelFuture future) {
+            // NOOP
+        }
+    };
+
+    @Override
+    protected void setUp() throws Exception {
+        channel = new EmbeddedByteChannel(new ChannelInboundByteHandlerAdapter() {
+            @Override
+            protected void inboundBufferUpdated(ChannelHandlerContext ctx, ByteBuf in) {
+                in.clear();
+            }
+        });
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        channel.close();
+    }
+
+    public void timeNewAndSucceed(int reps) throws Exception {
+        final Channel channel = this.channel;
+        final ChannelFutureListener listener = this.listener;
+        final int listeners = this.listeners;
+
+        runConcurrently(reps, new Task() {
+            @Override
+            public void run(int reps) {
+                for (int i = 0; i < reps; i ++) {
+                    ChannelPromise promise = new DefaultChannelPromise(channel);
+                    for (int j = 0; j < listeners; j ++) {
+                        promise.addListener(listener);
+                    }
+                    promise.setSuccess();
+                }
+            }
+        });
+    }
+
+    public void timeAddAndRemoveListener(int reps) throws Exception {
+        final ChannelFutureListener listener = this.listener;
+        final ChannelPromise promise = newPromise(false);
+
+        runConcurrently(reps, new Task() {
+            @Override
+            public void run(int reps) {
+                for (int i = 0; i < reps; i ++) {
+                    promise.addListener(listener);
+                    promise.removeListener(listener);
+                }
+            }
+        });
+        promise.setSuccess();
+    }
+
+    public void timeIsDoneAndIsSuccess(int reps) throws Exception {
+        final ChannelPromise promise = newPromise(true);
+
+        runConcurrently(reps, new Task() {
+            @Override
+            public void run(int reps) {
+                for (int i = 0; i < reps; i ++) {
+                    if (!promise.isDone() || !promise.isSuccess()) {
+                        throw new IllegalStateException();
+                    }
+                }
+            }
+        });
+    }
+
+    private ChannelPromise newPromise(boolean succeeded) {
+        ChannelPromise promise = new DefaultChannelPromise(channel);
+        for (int j = 0; j < listeners; j ++) {
+            promise.addListener(listener);
+        }
+        if (succeeded) {
+            promise.setSuccess();
+        }
+        return promise;
+    }
+
+    private interface Task {
+        void run(int reps);
+    }
+
+    private void runConcurrently(int reps, final Task task) throws Exception {
+        if (threads == 1) {
+            task.run(reps);
+            return;
+        }
+
+        final int repsPerThread = reps / threads + 1;
+        Thread[] threads = new Thread[this.threads];
+        for (int i = 0; i < threads.length; i ++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    task.run(repsPerThread);
+                }
+            };
+        }
+        for (Thread t: threads) {
+            t.start();
+        }
+        for (Thread t: threads) {
+            t.join();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.microbench.channel;
+
+import com.google.caliper.Param;
+import io.netty.channel.DefaultEventExecutorGroup;
+import io.netty.channel.EventExecutor;
+import io.netty.channel.EventExecutorGroup;
+import io.netty.channel.local.LocalEventLoopGroup;
+import io.netty.channel.socket.nio.NioEventLoopGroup;
+import io.netty.microbench.util.DefaultBenchmark;
+
+/**
+ * Measures the throughput of {@link EventExecutor#execute(Runnable)} with one or more producer threads.
+ * {@link Executor#LOCAL} and {@link Executor#DEFAULT} run the same loop on top of a lock-free MPSC task queue and a
+ * {@link java.util.concurrent.LinkedBlockingQueue} respectively.
+ */
+public class EventExecutorBenchmark extends DefaultBenchmark {
+
+    public enum Executor {
+        NIO {
+            @Override
+            EventExecutorGroup newGroup() {
+                return new NioEventLoopGroup(1);
+            }
+        },
+        LOCAL {
+            @Override
+            EventExecutorGroup newGroup() {
+                return new LocalEventLoopGroup(1);
+            }
+        },
+        DEFAULT {
+            @Override
+            EventExecutorGroup newGroup() {
+                return new DefaultEventExecutorGroup(1);
+            }
+        };
+
+        abstract EventExecutorGroup newGroup();
+    }
+
+    @Param({"1", "2", "4", "8"})
+    private int producers;
+
+    @Param
+    private Executor executor;
+
+    private EventExecutorGroup group;
+    private EventExecutor loop;
+    private final Runnable task = new Runnable() {
+        @Override
+        public void run() {
+            executed ++;
+        }
+    };
+    private int executed;
+
+    @Override
+    protected void setUp() throws Exception {
+        group = executor.newGroup();
+        loop = group.next();
+        // Start the event loop thread.
+        loop.submit(task).get();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        group.shutdown();
+    }
+
+    public int timeExecute(final int reps) throws Exception {
+        final EventExecutor loop = this.loop;
+        final Runnable task = this.task;
+        final int tasksPerProducer = reps / producers + 1;
+
+        Thread[] threads = new Thread[producers];
+        for (int i = 0; i < threads.length; i ++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < tasksPerProducer; j ++) {
+                        loop.execute(task);
+                    }
+                }
+            };
+        }
+        for (Thread t: threads) {
+            t.start();
+        }
+        for (Thread t: threads) {
+            t.join();
+        }
+
+        // All tasks were executed once the task submitted last was executed.
+        loop.submit(task).get();
+        return executed;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.microbench.channel;
+
+import com.google.caliper.Param;
+import io.netty.microbench.util.DefaultBenchmark;
+
+import java.lang.reflect.Method;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Measures the cost of selecting and walking the selected keys of a {@link Selector} with many ready channels,
+ * with and without the array-backed selected-key set of the NIO transport installed.  Every channel is an
+ * unconnected {@link DatagramChannel} registered for {@link SelectionKey#OP_WRITE}, so all of them are ready on each
+ * select.
+ * <p>
+ * The selected-key set is package-private, so it is installed and flipped via reflection.  The cost of one reflective
+ * call per select is small compared to walking thousands of keys.  Make sure the open file limit
+ * ({@code ulimit -n}) is higher than the number of channels.
+ */
+public class SelectedSelectionKeySetBenchmark extends DefaultBenchmark {
+
+    @Param({"1000", "10000", "20000"})
+    private int channels;
+
+    @Param
+    private boolean optimized;
+
+    private Selector selector;
+    private Object selectedKeys;
+    private Method flip;
+    private DatagramChannel[] chs;
+    private volatile int processed;
+
+    @Override
+    protected void setUp() throws Exception {
+        selector = Selector.open();
+        if (optimized) {
+            Method install = Class.forName("io.netty.channel.socket.nio.SelectorUtil")
+                    .getDeclaredMethod("installSelectedKeySet", Selector.class);
+            install.setAccessible(true);
+            selectedKeys = install.invoke(null, selector);
+            if (selectedKeys == null) {
+                throw new IllegalStateException("failed to install the selected key set");
+            }
+            flip = selectedKeys.getClass().getDeclaredMethod("flip");
+            flip.setAccessible(true);
+        }
+
+        chs = new DatagramChannel[channels];
+        for (int i = 0; i < chs.length; i ++) {
+            DatagramChannel ch = DatagramChannel.open();
+            ch.configureBlocking(false);
+            ch.register(selector, SelectionKey.OP_WRITE);
+            chs[i] = ch;
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        for (DatagramChannel ch: chs) {
+            if (ch != null) {
+                ch.close();
+            }
+        }
+        selector.close();
+    }
+
+    public int timeSelectAndProcess(int reps) throws Exception {
+        final Selector selector = this.selector;
+        int processed = 0;
+        for (int i = 0; i < reps; i ++) {
+            selector.selectNow();
+            if (selectedKeys != null) {
+                SelectionKey[] keys = (SelectionKey[]) flip.invoke(selectedKeys);
+                for (int j = 0;; j ++) {
+                    SelectionKey k = keys[j];
+                    if (k == null) {
+                        break;
+                    }
+                    keys[j] = null;
+                    processed += k.readyOps();
+                }
+            } else {
+                Set<SelectionKey> keys = selector.selectedKeys();
+                for (Iterator<SelectionKey> it = keys.iterator(); it.hasNext();) {
+                    SelectionKey k = it.next();
+                    it.remove();
+                    processed += k.readyOps();
+                }
+            }
+        }
+        this.processed = processed;
+        return processed;
+    }
+}
@@ -109,7 +109,9 @@ public class DatagramMulticastTest extends AbstractDatagramTest {
                 fail = true;
             }
 
-            assertEquals(1, msg.data().readInt());
+            int value = msg.data().readInt();
+            msg.free();
+            assertEquals(1, value);
             latch.countDown();
 
             // mark the handler as done as we only are supposed to receive one message
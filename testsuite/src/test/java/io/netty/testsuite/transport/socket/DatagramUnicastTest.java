@@ -43,7 +43,9 @@ public class DatagramUnicastTest extends AbstractDatagramTest {
             public void messageReceived(
                     ChannelHandlerContext ctx,
                     DatagramPacket msg) throws Exception {
-                assertEquals(1, msg.data().readInt());
+                int value = msg.data().readInt();
+                msg.free();
+                assertEquals(1, value);
                 latch.countDown();
             }
         });
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.testsuite.transport.socket;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundByteHandlerAdapter;
+import io.netty.channel.ChannelOption;
+import io.netty.testsuite.util.TestUtils;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.net.ConnectException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class ServerSocketReusePortTest extends AbstractServerSocketTest {
+
+    private static final int NUM_ACCEPTORS = 4;
+    private static final int NUM_CLIENT_THREADS = 8;
+    private static final int NUM_CONNECTIONS_PER_THREAD = 64;
+
+    @Test
+    public void testConnectStorm() throws Throwable {
+        Assume.assumeTrue(TestUtils.isReusePortSupported());
+        run();
+    }
+
+    public void testConnectStorm(ServerBootstrap sb) throws Throwable {
+        AcceptedChannelCounter counter =
+                new AcceptedChannelCounter(NUM_CLIENT_THREADS * NUM_CONNECTIONS_PER_THREAD);
+
+        sb.acceptors(NUM_ACCEPTORS);
+        sb.option(ChannelOption.SO_BACKLOG, 1024);
+        sb.childHandler(counter);
+
+        Channel sc = sb.bind().sync().channel();
+
+        final AtomicReference<Throwable> clientError = new AtomicReference<Throwable>();
+        List<Thread> clients = new ArrayList<Thread>();
+        for (int i = 0; i < NUM_CLIENT_THREADS; i ++) {
+            Thread t = new Thread() {
+                @Override
+                public void run() {
+                    List<Socket> sockets = new ArrayList<Socket>();
+                    try {
+                        for (int i = 0; i < NUM_CONNECTIONS_PER_THREAD; i ++) {
+                            Socket s = new Socket();
+                            sockets.add(s);
+                            s.connect(addr, 10000);
+                        }
+                    } catch (Throwable t) {
+                        clientError.compareAndSet(null, t);
+                    } finally {
+                        for (Socket s: sockets) {
+                            try {
+                                s.close();
+                            } catch (Exception e) {
+                                // Ignore
+                            }
+                        }
+                    }
+                }
+            };
+            clients.add(t);
+            t.start();
+        }
+        for (Thread t: clients) {
+            t.join();
+        }
+
+        if (clientError.get() != null) {
+            throw clientError.get();
+        }
+        assertTrue(counter.latch.await(10, TimeUnit.SECONDS));
+
+        // The kernel should have spread the connections over more than one listening channel.
+        assertTrue("acceptors: " + counter.acceptors, counter.acceptors.size() > 1);
+        assertTrue(counter.acceptors.size() <= NUM_ACCEPTORS);
+
+        // Closing the bound channel must close all listening channels.
+        sc.close().sync();
+        for (Channel acceptor: counter.acceptors) {
+            assertTrue(acceptor.closeFuture().await(5, TimeUnit.SECONDS));
+        }
+
+        // Acceptors which accepted no connection may take a little longer to close, depending on the transport.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        for (;;) {
+            try {
+                new Socket(addr.getAddress(), addr.getPort()).close();
+            } catch (ConnectException e) {
+                // Expected
+                break;
+            }
+            assertTrue("an acceptor is still listening", System.nanoTime() < deadline);
+            Thread.sleep(100);
+        }
+    }
+
+    @Test
+    public void testNonSharableHandler() throws Throwable {
+        run();
+    }
+
+    public void testNonSharableHandler(ServerBootstrap sb) throws Throwable {
+        sb.acceptors(NUM_ACCEPTORS);
+        sb.handler(new ChannelInboundByteHandlerAdapter() {
+            @Override
+            public void inboundBufferUpdated(ChannelHandlerContext ctx, ByteBuf in) throws Exception {
+                // Unused
+            }
+        });
+        sb.childHandler(new AcceptedChannelCounter(0));
+
+        // Rejected before any channel is bound, as the handler cannot be added to more than one channel.
+        try {
+            sb.bind();
+            fail();
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+        try {
+            new Socket(addr.getAddress(), addr.getPort()).close();
+            fail("a channel is listening");
+        } catch (ConnectException e) {
+            // Expected
+        }
+    }
+
+    @ChannelHandler.Sharable
+    private static final class AcceptedChannelCounter extends ChannelInboundByteHandlerAdapter {
+
+        final CountDownLatch latch;
+        final Set<Channel> acceptors =
+                Collections.newSetFromMap(new ConcurrentHashMap<Channel, Boolean>());
+
+        AcceptedChannelCounter(int nChannels) {
+            latch = new CountDownLatch(nChannels);
+        }
+
+        @Override
+        public void channelRegistered(ChannelHandlerContext ctx) throws Exception {
+            acceptors.add(ctx.channel().parent());
+            latch.countDown();
+        }
+
+        @Override
+        public void inboundBufferUpdated(ChannelHandlerContext ctx, ByteBuf in) throws Exception {
+            // Unused
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.testsuite.transport.socket;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundByteHandlerAdapter;
+import io.netty.channel.socket.oio.OioSocketChannel;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SocketWritabilityTest extends AbstractClientSocketTest {
+
+    private static final int MAX_WRITTEN_BYTES = 64 * 1024 * 1024;
+
+    @Test(timeout = 30000)
+    public void testWritabilityChanged() throws Throwable {
+        run();
+    }
+
+    public void testWritabilityChanged(Bootstrap cb) throws Throwable {
+        final BlockingQueue<Boolean> writability = new LinkedBlockingQueue<Boolean>();
+        ServerSocket ss = new ServerSocket();
+        Socket s = null;
+        try {
+            ss.bind(addr);
+            Channel ch = cb.handler(new ChannelInboundByteHandlerAdapter() {
+                @Override
+                public void inboundBufferUpdated(ChannelHandlerContext ctx, ByteBuf in) throws Exception {
+                    in.clear();
+                }
+
+                @Override
+                public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+                    writability.add(ctx.channel().isWritable());
+                }
+            }).connect().sync().channel();
+
+            if (ch instanceof OioSocketChannel) {
+                // A blocking write never leaves anything in the outbound buffer.
+                return;
+            }
+
+            s = ss.accept();
+            assertTrue(ch.isWritable());
+
+            // Write until the socket send buffer is full and the outbound buffer goes above the high water mark,
+            // as the peer does not read anything yet.  Writing from the event loop makes sure nothing is written
+            // anymore once the channel became unwritable.
+            final Channel channel = ch;
+            ch.eventLoop().execute(new Runnable() {
+                @Override
+                public void run() {
+                    byte[] data = new byte[8192];
+                    for (int written = 0; channel.isWritable() && written < MAX_WRITTEN_BYTES;
+                         written += data.length) {
+                        channel.write(Unpooled.wrappedBuffer(data));
+                    }
+                }
+            });
+            assertFalse(writability.take());
+
+            // Let the peer read until the outbound buffer has been drained down to the low water mark.
+            // Note that an asynchronous transport may drain it into the socket send buffer by itself.
+            InputStream in = s.getInputStream();
+            byte[] buf = new byte[65536];
+            Boolean writable;
+            while ((writable = writability.poll(10, TimeUnit.MILLISECONDS)) == null) {
+                int available = in.available();
+                if (available > 0) {
+                    assertTrue(in.read(buf, 0, Math.min(available, buf.length)) > 0);
+                }
+            }
+            assertTrue(writable);
+            assertTrue(ch.isWritable());
+
+            ch.close().sync();
+        } finally {
+            if (s != null) {
+                s.close();
+            }
+            ss.close();
+        }
+    }
+}
@@ -108,5 +108,25 @@ public final class TestUtils {
         return false;
     }
 
+    /**
+     * Return {@code true} if {@code SO_REUSEPORT} is supported by the running JDK and os.
+     */
+    public static boolean isReusePortSupported() {
+        try {
+            // Use reflection as java.net.StandardSocketOptions.SO_REUSEPORT is only available in Java 9+.
+            Object option = Class.forName("java.net.StandardSocketOptions").getField("SO_REUSEPORT").get(null);
+            ServerSocket ss = new ServerSocket();
+            try {
+                ServerSocket.class.getMethod("setOption", Class.forName("java.net.SocketOption"), Object.class)
+                                  .invoke(ss, option, true);
+            } finally {
+                ss.close();
+            }
+            return true;
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
     private TestUtils() { }
 }
@@ -0,0 +1,698 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+#define _GNU_SOURCE
+#include <jni.h>
+#include <errno.h>
+#include <stdio.h>
+#include <string.h>
+#include <unistd.h>
+#include <limits.h>
+#include <sys/epoll.h>
+#include <sys/eventfd.h>
+#include <sys/socket.h>
+#include <sys/uio.h>
+#include <netinet/in.h>
+#include <netinet/tcp.h>
+
+#ifndef SO_REUSEPORT
+#define SO_REUSEPORT 15
+#endif
+
+#define MAX_EVENTS 1024
+
+// Must be kept in sync with the flags in io.netty.channel.epoll.Native.
+#define NETTY_EPOLLIN  0x01
+#define NETTY_EPOLLOUT 0x02
+#define NETTY_EPOLLET  0x04
+
+static jclass ioExceptionClass = NULL;
+static jclass connectExceptionClass = NULL;
+static jclass closedChannelExceptionClass = NULL;
+static jclass channelExceptionClass = NULL;
+static jmethodID closedChannelExceptionMethodId = NULL;
+static jfieldID positionFieldId = NULL;
+static jfieldID limitFieldId = NULL;
+static int socketFamily = AF_INET6;
+
+static void throwException(JNIEnv* env, jclass exceptionClass, const char* prefix, int err) {
+    char message[256];
+    snprintf(message, sizeof(message), "%s: %s", prefix, strerror(err));
+    (*env)->ThrowNew(env, exceptionClass, message);
+}
+
+static void throwIOException(JNIEnv* env, const char* prefix, int err) {
+    throwException(env, ioExceptionClass, prefix, err);
+}
+
+static void throwConnectException(JNIEnv* env, const char* prefix, int err) {
+    throwException(env, connectExceptionClass, prefix, err);
+}
+
+static void throwChannelException(JNIEnv* env, const char* prefix, int err) {
+    throwException(env, channelExceptionClass, prefix, err);
+}
+
+static void throwClosedChannelException(JNIEnv* env) {
+    jobject exception = (*env)->NewObject(env, closedChannelExceptionClass, closedChannelExceptionMethodId);
+    if (exception != NULL) {
+        (*env)->Throw(env, exception);
+    }
+}
+
+static void throwIOExceptionOrClosed(JNIEnv* env, const char* prefix, int err) {
+    if (err == EBADF) {
+        throwClosedChannelException(env);
+    } else {
+        throwIOException(env, prefix, err);
+    }
+}
+
+static jclass newGlobalClassRef(JNIEnv* env, const char* name) {
+    jclass localClass = (*env)->FindClass(env, name);
+    if (localClass == NULL) {
+        return NULL;
+    }
+    jclass globalClass = (jclass) (*env)->NewGlobalRef(env, localClass);
+    (*env)->DeleteLocalRef(env, localClass);
+    return globalClass;
+}
+
+jint JNI_OnLoad(JavaVM* vm, void* reserved) {
+    JNIEnv* env;
+    if ((*vm)->GetEnv(vm, (void**) &env, JNI_VERSION_1_6) != JNI_OK) {
+        return JNI_ERR;
+    }
+
+    ioExceptionClass = newGlobalClassRef(env, "java/io/IOException");
+    connectExceptionClass = newGlobalClassRef(env, "java/net/ConnectException");
+    closedChannelExceptionClass = newGlobalClassRef(env, "java/nio/channels/ClosedChannelException");
+    channelExceptionClass = newGlobalClassRef(env, "io/netty/channel/ChannelException");
+    if (ioExceptionClass == NULL || connectExceptionClass == NULL ||
+            closedChannelExceptionClass == NULL || channelExceptionClass == NULL) {
+        return JNI_ERR;
+    }
+
+    closedChannelExceptionMethodId = (*env)->GetMethodID(env, closedChannelExceptionClass, "<init>", "()V");
+    if (closedChannelExceptionMethodId == NULL) {
+        return JNI_ERR;
+    }
+
+    jclass bufferClass = (*env)->FindClass(env, "java/nio/Buffer");
+    if (bufferClass == NULL) {
+        return JNI_ERR;
+    }
+    positionFieldId = (*env)->GetFieldID(env, bufferClass, "position", "I");
+    limitFieldId = (*env)->GetFieldID(env, bufferClass, "limit", "I");
+    if (positionFieldId == NULL || limitFieldId == NULL) {
+        return JNI_ERR;
+    }
+
+    // Use IPv4 only if IPv6 is not supported by the kernel.
+    int fd = socket(AF_INET6, SOCK_STREAM, 0);
+    if (fd == -1) {
+        socketFamily = AF_INET;
+    } else {
+        close(fd);
+    }
+
+    return JNI_VERSION_1_6;
+}
+
+void JNI_OnUnload(JavaVM* vm, void* reserved) {
+    JNIEnv* env;
+    if ((*vm)->GetEnv(vm, (void**) &env, JNI_VERSION_1_6) != JNI_OK) {
+        return;
+    }
+
+    (*env)->DeleteGlobalRef(env, ioExceptionClass);
+    (*env)->DeleteGlobalRef(env, connectExceptionClass);
+    (*env)->DeleteGlobalRef(env, closedChannelExceptionClass);
+    (*env)->DeleteGlobalRef(env, channelExceptionClass);
+}
+
+/* Event loop */
+
+JNIEXPORT jint JNICALL Java_io_netty_channel_epoll_Native_eventFd(JNIEnv* env, jclass clazz) {
+    jint eventFd = eventfd(0, EFD_CLOEXEC | EFD_NONBLOCK);
+    if (eventFd < 0) {
+        throwIOException(env, "eventfd() failed", errno);
+    }
+    return eventFd;
+}
+
+JNIEXPORT void JNICALL Java_io_netty_channel_epoll_Native_eventFdWrite(
+        JNIEnv* env, jclass clazz, jint fd, jlong value) {
+    if (eventfd_write(fd, (eventfd_t) value) < 0 && errno != EAGAIN) {
+        throwIOException(env, "eventfd_write() failed", errno);
+    }
+}
+
+JNIEXPORT void JNICALL Java_io_netty_channel_epoll_Native_eventFdRead(JNIEnv* env, jclass clazz, jint fd) {
+    eventfd_t value;
+    if (eventfd_read(fd, &value) < 0 && errno != EAGAIN) {
+        throwIOException(env, "eventfd_read() failed", errno);
+    }
+}
+
+JNIEXPORT jint JNICALL Java_io_netty_channel_epoll_Native_epollCreate(JNIEnv* env, jclass clazz) {
+    jint efd = epoll_create1(EPOLL_CLOEXEC);
+    if (efd < 0) {
+        throwIOException(env, "epoll_create1() failed", errno);
+    }
+    return efd;
+}
+
+static uint32_t toEpollEvents(jint flags) {
+    uint32_t events = 0;
+    if (flags & NETTY_EPOLLIN) {
+        events |= EPOLLIN;
+    }
+    if (flags & NETTY_EPOLLOUT) {
+        events |= EPOLLOUT;
+    }
+    if (flags & NETTY_EPOLLET) {
+        events |= EPOLLET;
+    }
+    return events;
+}
+
+static jint fromEpollEvents(uint32_t events) {
+    jint flags = 0;
+    // An error or a hang-up is reported as both readable and writable so that the next I/O operation fails.
+    if (events & (EPOLLIN | EPOLLERR | EPOLLHUP)) {
+        flags |= NETTY_EPOLLIN;
+    }
+    if (events & (EPOLLOUT | EPOLLERR | EPOLLHUP)) {
+        flags |= NETTY_EPOLLOUT;
+    }
+    return flags;
+}
+
+JNIEXPORT jint JNICALL Java_io_netty_channel_epoll_Native_epollWait(
+        JNIEnv* env, jclass clazz, jint efd, jlongArray events, jint timeout) {
+    struct epoll_event ev[MAX_EVENTS];
+    jlong result[MAX_EVENTS];
+    int len = (*env)->GetArrayLength(env, events);
+    if (len > MAX_EVENTS) {
+        len = MAX_EVENTS;
+    }
+
+    int ready = epoll_wait(efd, ev, len, timeout);
+    if (ready < 0) {
+        if (errno == EINTR) {
+            // Let the event loop check its tasks again.
+            return 0;
+        }
+        throwIOException(env, "epoll_wait() failed", errno);
+        return -1;
+    }
+
+    int i;
+    for (i = 0; i < ready; i ++) {
+        result[i] = ((jlong) fromEpollEvents(ev[i].events) << 32) | (jlong) (uint32_t) ev[i].data.fd;
+    }
+    (*env)->SetLongArrayRegion(env, events, 0, ready, result);
+    return ready;
+}
+
+static void epollCtl(JNIEnv* env, jint efd, int op, jint fd, jint flags) {
+    struct epoll_event ev;
+    memset(&ev, 0, sizeof(ev));
+    ev.events = toEpollEvents(flags);
+    ev.data.fd = fd;
+    if (epoll_ctl(efd, op, fd, &ev) < 0) {
+        throwIOExceptionOrClosed(env, "epoll_ctl() failed", errno);
+    }
+}
+
+JNIEXPORT void JNICALL Java_io_netty_channel_epoll_Native_epollCtlAdd(
+        JNIEnv* env, jclass clazz, jint efd, jint fd, jint flags) {
+    epollCtl(env, efd, EPOLL_CTL_ADD, fd, flags);
+}
+
+JNIEXPORT void JNICALL Java_io_netty_channel_epoll_Native_epollCtlMod(
+        JNIEnv* env, jclass clazz, jint efd, jint fd, jint flags) {
+    epollCtl(env, efd, EPOLL_CTL_MOD, fd, flags);
+}
+
+JNIEXPORT void JNICALL Java_io_netty_channel_epoll_Native_epollCtlDel(
+        JNIEnv* env, jclass clazz, jint efd, jint fd) {
+    epollCtl(env, efd, EPOLL_CTL_DEL, fd, 0);
+}
+
+/* I/O */
+
+JNIEXPORT jint JNICALL Java_io_netty_channel_epoll_Native_write(
+        JNIEnv* env, jclass clazz, jint fd, jobject buffer, jint pos, jint limit) {
+    char* address = (char*) (*env)->GetDirectBufferAddress(env, buffer);
+    if (address == NULL) {
+        (*env)->ThrowNew(env, ioExceptionClass, "not a direct buffer");
+        return -1;
+    }
+
+    ssize_t res;
+    do {
+        res = write(fd, address + pos, (size_t) (limit - pos));
+    } while (res < 0 && errno == EINTR);
+
+    if (res < 0) {
+        if (errno == EAGAIN || errno == EWOULDBLOCK) {
+            return 0;
+        }
+        throwIOExceptionOrClosed(env, "write() failed", errno);
+        return -1;
+    }
+    return (jint) res;
+}
+
+JNIEXPORT jlong JNICALL Java_io_netty_channel_epoll_Native_writev(
+        JNIEnv* env, jclass clazz, jint fd, jobjectArray buffers, jint offset, jint length) {
+    struct iovec iov[IOV_MAX];
+    if (length > IOV_MAX) {
+        length = IOV_MAX;
+    }
+
+    int i;
+    for (i = 0; i < length; i ++) {
+        jobject buffer = (*env)->GetObjectArrayElement(env, buffers, offset + i);
+        char* address = (char*) (*env)->GetDirectBufferAddress(env, buffer);
+        if (address == NULL) {
+            (*env)->ThrowNew(env, ioExceptionClass, "not a direct buffer");
+            return -1;
+        }
+        jint pos = (*env)->GetIntField(env, buffer, positionFieldId);
+        jint limit = (*env)->GetIntField(env, buffer, limitFieldId);
+        iov[i].iov_base = address + pos;
+        iov[i].iov_len = (size_t) (limit - pos);
+        (*env)->DeleteLocalRef(env, buffer);
+    }
+
+    ssize_t res;
+    do {
+        res = writev(fd, iov, length);
+    } while (res < 0 && errno == EINTR);
+
+    if (res < 0) {
+        if (errno == EAGAIN || errno == EWOULDBLOCK) {
+            return 0;
+        }
+        throwIOExceptionOrClosed(env, "writev() failed", errno);
+        return -1;
+    }
+    return (jlong) res;
+}
+
+JNIEXPORT jint JNICALL Java_io_netty_channel_epoll_Native_read(
+        JNIEnv* env, jclass clazz, jint fd, jobject buffer, jint pos, jint limit) {
+    char* address = (char*) (*env)->GetDirectBufferAddress(env, buffer);
+    if (address == NULL) {
+        (*env)->ThrowNew(env, ioExceptionClass, "not a direct buffer");
+        return -1;
+    }
+
+    ssize_t res;
+    do {
+        res = read(fd, address + pos, (size_t) (limit - pos));
+    } while (res < 0 && errno == EINTR);
+
+    if (res < 0) {
+        if (errno == EAGAIN || errno == EWOULDBLOCK) {
+            return 0;
+        }
+        throwIOExceptionOrClosed(env, "read() failed", errno);
+        return -1;
+    }
+
+    if (res == 0) {
+        // End of stream
+        return -1;
+    }
+    return (jint) res;
+}
+
+JNIEXPORT void JNICALL Java_io_netty_channel_epoll_Native_close(JNIEnv* env, jclass clazz, jint fd) {
+    if (close(fd) < 0 && errno != EINTR) {
+        throwIOException(env, "close() failed", errno);
+    }
+}
+
+JNIEXPORT void JNICALL Java_io_netty_channel_epoll_Native_shutdown(
+        JNIEnv* env, jclass clazz, jint fd, jboolean read, jboolean write) {
+    int how;
+    if (read && write) {
+        how = SHUT_RDWR;
+    } else if (read) {
+        how = SHUT_RD;
+    } else if (write) {
+        how = SHUT_WR;
+    } else {
+        return;
+    }
+    if (shutdown(fd, how) < 0) {
+        throwIOExceptionOrClosed(env, "shutdown() failed", errno);
+    }
+}
+
+/* Sockets */
+
+static int toSockaddr(JNIEnv* env, jbyteArray address, jint scopeId, jint port,
+                      struct sockaddr_storage* addr, socklen_t* addrLen) {
+    jbyte bytes[16];
+    int len = (*env)->GetArrayLength(env, address);
+    if (len != 4 && len != 16) {
+        (*env)->ThrowNew(env, ioExceptionClass, "invalid address length");
+        return -1;
+    }
+    (*env)->GetByteArrayRegion(env, address, 0, len, bytes);
+
+    memset(addr, 0, sizeof(struct sockaddr_storage));
+    if (socketFamily == AF_INET6) {
+        struct sockaddr_in6* ip6addr = (struct sockaddr_in6*) addr;
+        ip6addr->sin6_family = AF_INET6;
+        ip6addr->sin6_port = htons((uint16_t) port);
+        if (len == 4) {
+            // IPv4-mapped IPv6 address
+            ip6addr->sin6_addr.s6_addr[10] = 0xff;
+            ip6addr->sin6_addr.s6_addr[11] = 0xff;
+            memcpy(&ip6addr->sin6_addr.s6_addr[12], bytes, 4);
+        } else {
+            memcpy(&ip6addr->sin6_addr.s6_addr, bytes, 16);
+            ip6addr->sin6_scope_id = (uint32_t) scopeId;
+        }
+        *addrLen = sizeof(struct sockaddr_in6);
+    } else {
+        struct sockaddr_in* ipaddr = (struct sockaddr_in*) addr;
+        ipaddr->sin_family = AF_INET;
+        ipaddr->sin_port = htons((uint16_t) port);
+        if (len == 4) {
+            memcpy(&ipaddr->sin_addr.s_addr, bytes, 4);
+        } else {
+            static const jbyte mappedPrefix[] = { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, (jbyte) 0xff, (jbyte) 0xff };
+            if (memcmp(bytes, mappedPrefix, sizeof(mappedPrefix)) != 0) {
+                (*env)->ThrowNew(env, ioExceptionClass, "IPv6 is not supported");
+                return -1;
+            }
+            memcpy(&ipaddr->sin_addr.s_addr, &bytes[12], 4);
+        }
+        *addrLen = sizeof(struct sockaddr_in);
+    }
+    return 0;
+}
+
+static void putInt(jbyte* bytes, int offset, uint32_t value) {
+    bytes[offset] = (jbyte) (value >> 24);
+    bytes[offset + 1] = (jbyte) (value >> 16);
+    bytes[offset + 2] = (jbyte) (value >> 8);
+    bytes[offset + 3] = (jbyte) value;
+}
+
+// Encodes the address as 16 address bytes (IPv4 addresses are mapped), 4 bytes scope id and 4 bytes port.
+static jbyteArray fromSockaddr(JNIEnv* env, struct sockaddr_storage* addr) {
+    jbyte bytes[24];
+    memset(bytes, 0, sizeof(bytes));
+    if (addr->ss_family == AF_INET6) {
+        struct sockaddr_in6* ip6addr = (struct sockaddr_in6*) addr;
+        memcpy(bytes, &ip6addr->sin6_addr.s6_addr, 16);
+        putInt(bytes, 16, ip6addr->sin6_scope_id);
+        putInt(bytes, 20, ntohs(ip6addr->sin6_port));
+    } else if (addr->ss_family == AF_INET) {
+        struct sockaddr_in* ipaddr = (struct sockaddr_in*) addr;
+        bytes[10] = (jbyte) 0xff;
+        bytes[11] = (jbyte) 0xff;
+        memcpy(&bytes[12], &ipaddr->sin_addr.s_addr, 4);
+        putInt(bytes, 20, ntohs(ipaddr->sin_port));
+    } else {
+        return NULL;
+    }
+
+    jbyteArray array = (*env)->NewByteArray(env, sizeof(bytes));
+    if (array != NULL) {
+        (*env)->SetByteArrayRegion(env, array, 0, sizeof(bytes), bytes);
+    }
+    return array;
+}
+
+JNIEXPORT jint JNICALL Java_io_netty_channel_epoll_Native_socketStreamFd(JNIEnv* env, jclass clazz) {
+    int fd = socket(socketFamily, SOCK_STREAM | SOCK_NONBLOCK | SOCK_CLOEXEC, 0);
+    if (fd < 0) {
+        throwIOException(env, "socket() failed", errno);
+        return -1;
+    }
+    if (socketFamily == AF_INET6) {
+        // Accept IPv4 connections as well.
+        int optval = 0;
+        if (setsockopt(fd, IPPROTO_IPV6, IPV6_V6ONLY, &optval, sizeof(optval)) < 0) {
+            int err = errno;
+            close(fd);
+            throwIOException(env, "setsockopt() failed", err);
+            return -1;
+        }
+    }
+    return fd;
+}
+
+JNIEXPORT void JNICALL Java_io_netty_channel_epoll_Native_bind0(
+        JNIEnv* env, jclass clazz, jint fd, jbyteArray address, jint scopeId, jint port) {
+    struct sockaddr_storage addr;
+    socklen_t addrLen;
+    if (toSockaddr(env, address, scopeId, port, &addr, &addrLen) < 0) {
+        return;
+    }
+    if (bind(fd, (struct sockaddr*) &addr, addrLen) < 0) {
+        throwIOExceptionOrClosed(env, "bind() failed", errno);
+    }
+}
+
+JNIEXPORT void JNICALL Java_io_netty_channel_epoll_Native_listen(
+        JNIEnv* env, jclass clazz, jint fd, jint backlog) {
+    if (listen(fd, backlog) < 0) {
+        throwIOExceptionOrClosed(env, "listen() failed", errno);
+    }
+}
+
+JNIEXPORT jboolean JNICALL Java_io_netty_channel_epoll_Native_connect0(
+        JNIEnv* env, jclass clazz, jint fd, jbyteArray address, jint scopeId, jint port) {
+    struct sockaddr_storage addr;
+    socklen_t addrLen;
+    if (toSockaddr(env, address, scopeId, port, &addr, &addrLen) < 0) {
+        return JNI_FALSE;
+    }
+
+    int res;
+    do {
+        res = connect(fd, (struct sockaddr*) &addr, addrLen);
+    } while (res < 0 && errno == EINTR);
+
+    if (res < 0) {
+        if (errno == EINPROGRESS) {
+            // Connection attempt in progress - wait for EPOLLOUT.
+            return JNI_FALSE;
+        }
+        throwConnectException(env, "connect() failed", errno);
+        return JNI_FALSE;
+    }
+    return JNI_TRUE;
+}
+
+JNIEXPORT jboolean JNICALL Java_io_netty_channel_epoll_Native_finishConnect(JNIEnv* env, jclass clazz, jint fd) {
+    int optval;
+    socklen_t optlen = sizeof(optval);
+    if (getsockopt(fd, SOL_SOCKET, SO_ERROR, &optval, &optlen) < 0) {
+        throwIOExceptionOrClosed(env, "getsockopt() failed", errno);
+        return JNI_FALSE;
+    }
+    if (optval == 0) {
+        return JNI_TRUE;
+    }
+    if (optval == EINPROGRESS) {
+        return JNI_FALSE;
+    }
+    throwConnectException(env, "connect() failed", optval);
+    return JNI_FALSE;
+}
+
+JNIEXPORT jint JNICALL Java_io_netty_channel_epoll_Native_accept(JNIEnv* env, jclass clazz, jint fd) {
+    for (;;) {
+        int socketFd = accept4(fd, NULL, NULL, SOCK_NONBLOCK | SOCK_CLOEXEC);
+        if (socketFd >= 0) {
+            return socketFd;
+        }
+
+        int err = errno;
+        if (err == EINTR || err == ECONNABORTED) {
+            // Try the next pending connection.
+            continue;
+        }
+        if (err == EAGAIN || err == EWOULDBLOCK) {
+            return -1;
+        }
+        throwIOExceptionOrClosed(env, "accept() failed", err);
+        return -1;
+    }
+}
+
+JNIEXPORT jbyteArray JNICALL Java_io_netty_channel_epoll_Native_remoteAddress0(JNIEnv* env, jclass clazz, jint fd) {
+    struct sockaddr_storage addr;
+    socklen_t len = sizeof(addr);
+    if (getpeername(fd, (struct sockaddr*) &addr, &len) < 0) {
+        return NULL;
+    }
+    return fromSockaddr(env, &addr);
+}
+
+JNIEXPORT jbyteArray JNICALL Java_io_netty_channel_epoll_Native_localAddress0(JNIEnv* env, jclass clazz, jint fd) {
+    struct sockaddr_storage addr;
+    socklen_t len = sizeof(addr);
+    if (getsockname(fd, (struct sockaddr*) &addr, &len) < 0) {
+        return NULL;
+    }
+    return fromSockaddr(env, &addr);
+}
+
+/* Socket options */
+
+static void setOption(JNIEnv* env, jint fd, int level, int optname, const void* optval, socklen_t len) {
+    if (setsockopt(fd, level, optname, optval, len) < 0) {
+        throwChannelException(env, "setsockopt() failed", errno);
+    }
+}
+
+static int getOption(JNIEnv* env, jint fd, int level, int optname, void* optval, socklen_t len) {
+    if (getsockopt(fd, level, optname, optval, &len) < 0) {
+        throwChannelException(env, "getsockopt() failed", errno);
+        return -1;
+    }
+    return 0;
+}
+
+static void setIntOption(JNIEnv* env, jint fd, int level, int optname, jint value) {
+    int optval = value;
+    setOption(env, fd, level, optname, &optval, sizeof(optval));
+}
+
+static jint getIntOption(JNIEnv* env, jint fd, int level, int optname) {
+    int optval = 0;
+    if (getOption(env, fd, level, optname, &optval, sizeof(optval)) < 0) {
+        return -1;
+    }
+    return optval;
+}
+
+JNIEXPORT void JNICALL Java_io_netty_channel_epoll_Native_setReuseAddress(
+        JNIEnv* env, jclass clazz, jint fd, jint optval) {
+    setIntOption(env, fd, SOL_SOCKET, SO_REUSEADDR, optval);
+}
+
+JNIEXPORT void JNICALL Java_io_netty_channel_epoll_Native_setReusePort(
+        JNIEnv* env, jclass clazz, jint fd, jint optval) {
+    setIntOption(env, fd, SOL_SOCKET, SO_REUSEPORT, optval);
+}
+
+JNIEXPORT void JNICALL Java_io_netty_channel_epoll_Native_setTcpNoDelay(
+        JNIEnv* env, jclass clazz, jint fd, jint optval) {
+    setIntOption(env, fd, IPPROTO_TCP, TCP_NODELAY, optval);
+}
+
+JNIEXPORT void JNICALL Java_io_netty_channel_epoll_Native_setTcpCork(
+        JNIEnv* env, jclass clazz, jint fd, jint optval) {
+    setIntOption(env, fd, IPPROTO_TCP, TCP_CORK, optval);
+}
+
+JNIEXPORT void JNICALL Java_io_netty_channel_epoll_Native_setTcpQuickAck(
+        JNIEnv* env, jclass clazz, jint fd, jint optval) {
+    setIntOption(env, fd, IPPROTO_TCP, TCP_QUICKACK, optval);
+}
+
+JNIEXPORT void JNICALL Java_io_netty_channel_epoll_Native_setKeepAlive(
+        JNIEnv* env, jclass clazz, jint fd, jint optval) {
+    setIntOption(env, fd, SOL_SOCKET, SO_KEEPALIVE, optval);
+}
+
+JNIEXPORT void JNICALL Java_io_netty_channel_epoll_Native_setReceiveBufferSize(
+        JNIEnv* env, jclass clazz, jint fd, jint optval) {
+    setIntOption(env, fd, SOL_SOCKET, SO_RCVBUF, optval);
+}
+
+JNIEXPORT void JNICALL Java_io_netty_channel_epoll_Native_setSendBufferSize(
+        JNIEnv* env, jclass clazz, jint fd, jint optval) {
+    setIntOption(env, fd, SOL_SOCKET, SO_SNDBUF, optval);
+}
+
+JNIEXPORT void JNICALL Java_io_netty_channel_epoll_Native_setSoLinger(
+        JNIEnv* env, jclass clazz, jint fd, jint optval) {
+    struct linger solinger;
+    if (optval < 0) {
+        solinger.l_onoff = 0;
+        solinger.l_linger = 0;
+    } else {
+        solinger.l_onoff = 1;
+        solinger.l_linger = optval;
+    }
+    setOption(env, fd, SOL_SOCKET, SO_LINGER, &solinger, sizeof(solinger));
+}
+
+JNIEXPORT void JNICALL Java_io_netty_channel_epoll_Native_setTrafficClass(
+        JNIEnv* env, jclass clazz, jint fd, jint optval) {
+    setIntOption(env, fd, IPPROTO_IP, IP_TOS, optval);
+    if (socketFamily == AF_INET6 && !(*env)->ExceptionCheck(env)) {
+        setIntOption(env, fd, IPPROTO_IPV6, IPV6_TCLASS, optval);
+    }
+}
+
+JNIEXPORT jint JNICALL Java_io_netty_channel_epoll_Native_isReuseAddress(JNIEnv* env, jclass clazz, jint fd) {
+    return getIntOption(env, fd, SOL_SOCKET, SO_REUSEADDR);
+}
+
+JNIEXPORT jint JNICALL Java_io_netty_channel_epoll_Native_isReusePort(JNIEnv* env, jclass clazz, jint fd) {
+    return getIntOption(env, fd, SOL_SOCKET, SO_REUSEPORT);
+}
+
+JNIEXPORT jint JNICALL Java_io_netty_channel_epoll_Native_isTcpNoDelay(JNIEnv* env, jclass clazz, jint fd) {
+    return getIntOption(env, fd, IPPROTO_TCP, TCP_NODELAY);
+}
+
+JNIEXPORT jint JNICALL Java_io_netty_channel_epoll_Native_isTcpCork(JNIEnv* env, jclass clazz, jint fd) {
+    return getIntOption(env, fd, IPPROTO_TCP, TCP_CORK);
+}
+
+JNIEXPORT jint JNICALL Java_io_netty_channel_epoll_Native_isTcpQuickAck(JNIEnv* env, jclass clazz, jint fd) {
+    return getIntOption(env, fd, IPPROTO_TCP, TCP_QUICKACK);
+}
+
+JNIEXPORT jint JNICALL Java_io_netty_channel_epoll_Native_isKeepAlive(JNIEnv* env, jclass clazz, jint fd) {
+    return getIntOption(env, fd, SOL_SOCKET, SO_KEEPALIVE);
+}
+
+JNIEXPORT jint JNICALL Java_io_netty_channel_epoll_Native_getReceiveBufferSize(
+        JNIEnv* env, jclass clazz, jint fd) {
+    return getIntOption(env, fd, SOL_SOCKET, SO_RCVBUF);
+}
+
+JNIEXPORT jint JNICALL Java_io_netty_channel_epoll_Native_getSendBufferSize(JNIEnv* env, jclass clazz, jint fd) {
+    return getIntOption(env, fd, SOL_SOCKET, SO_SNDBUF);
+}
+
+JNIEXPORT jint JNICALL Java_io_netty_channel_epoll_Native_getSoLinger(JNIEnv* env, jclass clazz, jint fd) {
+    struct linger solinger;
+    if (getOption(env, fd, SOL_SOCKET, SO_LINGER, &solinger, sizeof(solinger)) < 0) {
+        return -1;
+    }
+    return solinger.l_onoff ? solinger.l_linger : -1;
+}
+
+JNIEXPORT jint JNICALL Java_io_netty_channel_epoll_Native_getTrafficClass(JNIEnv* env, jclass clazz, jint fd) {
+    return getIntOption(env, fd, IPPROTO_IP, IP_TOS);
+}
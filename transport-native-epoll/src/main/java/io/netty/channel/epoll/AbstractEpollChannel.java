@@ -0,0 +1,190 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.channel.AbstractChannel;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+/**
+ * Abstract base class for {@link Channel} implementations which are registered with an {@link EpollEventLoop}.
+ */
+abstract class AbstractEpollChannel extends AbstractChannel {
+
+    private final int readFlag;
+    final int fd;
+
+    // The epoll flags of this channel, which are only accessed by its event loop.
+    int flags = Native.EPOLLET;
+
+    volatile boolean active;
+    private volatile boolean open = true;
+
+    /**
+     * Create a new instance
+     *
+     * @param parent            the parent {@link Channel} by which this instance was created. May be {@code null}
+     * @param id                the id of this instance or {@code null} if one should be generated
+     * @param fd                the file descriptor of the underlying socket
+     * @param readFlag          the epoll flag to set to receive data from the socket
+     * @param active            {@code true} if the socket is connected or bound already
+     */
+    AbstractEpollChannel(Channel parent, Integer id, int fd, int readFlag, boolean active) {
+        super(parent, id);
+        this.fd = fd;
+        this.readFlag = readFlag;
+        this.active = active;
+    }
+
+    @Override
+    public boolean isActive() {
+        return active;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public InetSocketAddress localAddress() {
+        return (InetSocketAddress) super.localAddress();
+    }
+
+    @Override
+    public InetSocketAddress remoteAddress() {
+        return (InetSocketAddress) super.remoteAddress();
+    }
+
+    @Override
+    protected SocketAddress localAddress0() {
+        return Native.localAddress(fd);
+    }
+
+    @Override
+    protected boolean isCompatible(EventLoop loop) {
+        return loop instanceof EpollEventLoop;
+    }
+
+    @Override
+    protected boolean isFlushPending() {
+        return (flags & Native.EPOLLOUT) != 0;
+    }
+
+    @Override
+    protected Runnable doRegister() throws Exception {
+        ((EpollEventLoop) eventLoop()).add(this);
+        return null;
+    }
+
+    @Override
+    protected void doDeregister() throws Exception {
+        ((EpollEventLoop) eventLoop()).remove(this);
+    }
+
+    @Override
+    protected void doBeginRead() throws Exception {
+        setFlag(readFlag);
+    }
+
+    @Override
+    protected void doDisconnect() throws Exception {
+        doClose();
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        active = false;
+        open = false;
+        Native.close(fd);
+    }
+
+    /**
+     * Adds the specified epoll flag and applies it if it was not set yet.
+     */
+    final void setFlag(int flag) throws IOException {
+        if ((flags & flag) == 0) {
+            flags |= flag;
+            modifyEvents();
+        }
+    }
+
+    /**
+     * Removes the specified epoll flag and applies it if it was set.
+     */
+    final void clearFlag(int flag) throws IOException {
+        if ((flags & flag) != 0) {
+            flags &= ~flag;
+            modifyEvents();
+        }
+    }
+
+    private void modifyEvents() throws IOException {
+        if (isOpen() && isRegistered()) {
+            ((EpollEventLoop) eventLoop()).modify(this);
+        }
+    }
+
+    /**
+     * {@link Unsafe} implementation which is notified by the {@link EpollEventLoop} when the socket is ready.
+     */
+    abstract class AbstractEpollUnsafe extends AbstractUnsafe {
+
+        private boolean epollInReadyPending;
+        private final Runnable epollInReadyTask = new Runnable() {
+            @Override
+            public void run() {
+                epollInReadyPending = false;
+                // Skip if reading was suspended in the meantime.  Re-adding the flag re-arms the edge then.
+                if (isOpen() && (flags & readFlag) != 0) {
+                    epollInReady();
+                }
+            }
+        };
+
+        /**
+         * Called once {@link Native#EPOLLIN} was reported.  As the events are edge-triggered, implementations
+         * must read until the socket is drained, stop reading, or call {@link #continueEpollInReady()} when they
+         * stop early.
+         */
+        abstract void epollInReady();
+
+        /**
+         * Calls {@link #epollInReady()} again later from the event loop.  No new {@link Native#EPOLLIN} is reported
+         * for data which is pending already, so an implementation which stops reading before the socket is drained,
+         * e.g. because {@link io.netty.channel.ChannelOption#MAX_MESSAGES_PER_READ} was reached, must call this.
+         * The other channels of the event loop get their turn in the meantime.
+         */
+        final void continueEpollInReady() {
+            if (!epollInReadyPending) {
+                epollInReadyPending = true;
+                eventLoop().execute(epollInReadyTask);
+            }
+        }
+
+        /**
+         * Called once {@link Native#EPOLLOUT} was reported.
+         */
+        void epollOutReady() {
+            // Flush pending data now that the socket is writable again.
+            flushNow();
+        }
+    }
+}
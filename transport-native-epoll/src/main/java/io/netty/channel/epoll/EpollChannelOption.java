@@ -0,0 +1,45 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.channel.ChannelOption;
+
+/**
+ * {@link ChannelOption}s which are only supported by the epoll transport, as they map to Linux-specific socket
+ * options.
+ */
+public final class EpollChannelOption<T> extends ChannelOption<T> {
+
+    /**
+     * {@code TCP_CORK}: do not send out partial frames until the option is cleared again.
+     */
+    public static final ChannelOption<Boolean> TCP_CORK = new EpollChannelOption<Boolean>("TCP_CORK");
+
+    /**
+     * {@code TCP_QUICKACK}: send acknowledgements immediately rather than delayed.
+     */
+    public static final ChannelOption<Boolean> TCP_QUICKACK = new EpollChannelOption<Boolean>("TCP_QUICKACK");
+
+    /**
+     * {@code SO_REUSEPORT}: allow multiple sockets to bind to the same address and port, so that the kernel
+     * balances incoming connections between them.  This is the same option as {@link ChannelOption#SO_REUSEPORT}.
+     */
+    public static final ChannelOption<Boolean> SO_REUSEPORT = ChannelOption.SO_REUSEPORT;
+
+    private EpollChannelOption(String name) {
+        super(name);
+    }
+}
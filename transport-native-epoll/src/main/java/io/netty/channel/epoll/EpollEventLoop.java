@@ -0,0 +1,240 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.channel.ChannelException;
+import io.netty.channel.SingleThreadEventLoop;
+import io.netty.channel.epoll.AbstractEpollChannel.AbstractEpollUnsafe;
+import io.netty.logging.InternalLogger;
+import io.netty.logging.InternalLoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * {@link SingleThreadEventLoop} which uses edge-triggered epoll under the covers.  Only works on Linux!
+ */
+final class EpollEventLoop extends SingleThreadEventLoop {
+
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(EpollEventLoop.class);
+
+    private static final AtomicIntegerFieldUpdater<EpollEventLoop> WAKEN_UP_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(EpollEventLoop.class, "wakenUp");
+
+    private static final int MAX_EVENTS = 1024;
+    private static final long EPOLL_WAIT_TIMEOUT_MILLIS = 1000;
+
+    private final int epollFd;
+    private final int eventFd;
+
+    // Channels registered with this loop, indexed by their file descriptor.
+    private AbstractEpollChannel[] channels = new AbstractEpollChannel[64];
+    private long[] events = new long[128];
+
+    @SuppressWarnings("unused")
+    private volatile int wakenUp;
+
+    EpollEventLoop(EpollEventLoopGroup parent, ThreadFactory threadFactory) {
+        super(parent, threadFactory);
+
+        boolean success = false;
+        int epollFd = -1;
+        int eventFd = -1;
+        try {
+            this.epollFd = epollFd = Native.epollCreate();
+            this.eventFd = eventFd = Native.eventFd();
+            // The eventfd is registered level-triggered, so a wake-up is never lost even if it was not consumed.
+            Native.epollCtlAdd(epollFd, eventFd, Native.EPOLLIN);
+            success = true;
+        } catch (IOException e) {
+            throw new ChannelException("failed to open a new epoll instance", e);
+        } finally {
+            if (!success) {
+                closeQuietly(epollFd);
+                closeQuietly(eventFd);
+            }
+        }
+    }
+
+    @Override
+    protected Queue<Runnable> newTaskQueue() {
+        return newMpscTaskQueue();
+    }
+
+    private static void closeQuietly(int fd) {
+        if (fd < 0) {
+            return;
+        }
+        try {
+            Native.close(fd);
+        } catch (IOException e) {
+            logger.warn("Failed to close a file descriptor.", e);
+        }
+    }
+
+    @Override
+    protected void wakeup(boolean inEventLoop) {
+        // The event loop does not block while it has pending tasks, so it never needs to wake up itself unless it is
+        // shutting down.
+        if ((!inEventLoop || isShutdown()) && wakenUp == 0 && WAKEN_UP_UPDATER.compareAndSet(this, 0, 1)) {
+            try {
+                Native.eventFdWrite(eventFd, 1L);
+            } catch (IOException e) {
+                logger.warn("Failed to wake up an event loop.", e);
+            }
+        }
+    }
+
+    /**
+     * Registers the specified {@link AbstractEpollChannel} with its current flags.
+     */
+    void add(AbstractEpollChannel ch) throws IOException {
+        int fd = ch.fd;
+        Native.epollCtlAdd(epollFd, fd, ch.flags);
+        if (fd >= channels.length) {
+            AbstractEpollChannel[] newChannels = new AbstractEpollChannel[Math.max(fd + 1, channels.length << 1)];
+            System.arraycopy(channels, 0, newChannels, 0, channels.length);
+            channels = newChannels;
+        }
+        channels[fd] = ch;
+    }
+
+    /**
+     * Applies the current flags of the specified {@link AbstractEpollChannel}.
+     */
+    void modify(AbstractEpollChannel ch) throws IOException {
+        Native.epollCtlMod(epollFd, ch.fd, ch.flags);
+    }
+
+    /**
+     * Deregisters the specified {@link AbstractEpollChannel}.
+     */
+    void remove(AbstractEpollChannel ch) throws IOException {
+        int fd = ch.fd;
+        if (fd < channels.length && channels[fd] == ch) {
+            channels[fd] = null;
+        }
+        if (ch.isOpen()) {
+            // A closed file descriptor has been removed from the epoll set by the kernel already.
+            Native.epollCtlDel(epollFd, fd);
+        }
+    }
+
+    private int epollWait() throws IOException {
+        long timeoutMillis = EPOLL_WAIT_TIMEOUT_MILLIS;
+        long delayNanos = delayNanos();
+        if (delayNanos >= 0) {
+            // Do not block longer than until the deadline of the nearest scheduled task.
+            timeoutMillis = Math.min(timeoutMillis, TimeUnit.NANOSECONDS.toMillis(delayNanos + 999999L));
+        }
+        return Native.epollWait(epollFd, events, (int) timeoutMillis);
+    }
+
+    @Override
+    protected void run() {
+        for (;;) {
+            // A task which is added after this point wakes up epoll_wait() below through the eventfd.
+            WAKEN_UP_UPDATER.set(this, 0);
+            try {
+                int ready;
+                if (hasTasks()) {
+                    // Non-blocking wait as there are tasks to run.
+                    ready = Native.epollWait(epollFd, events, 0);
+                } else {
+                    ready = epollWait();
+                }
+
+                if (ready > 0) {
+                    processReady(events, ready);
+                    if (ready == events.length && events.length < MAX_EVENTS) {
+                        // The array was too small to hold all ready events - grow it for the next round.
+                        events = new long[events.length << 1];
+                    }
+                }
+
+                runAllTasks();
+
+                if (isShutdown()) {
+                    closeAll();
+                    if (confirmShutdown()) {
+                        break;
+                    }
+                }
+            } catch (Throwable t) {
+                logger.warn("Unexpected exception in the epoll loop.", t);
+
+                // Prevent possible consecutive immediate failures that lead to
+                // excessive CPU consumption.
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    // Ignore.
+                }
+            }
+        }
+    }
+
+    private void processReady(long[] events, int ready) throws IOException {
+        for (int i = 0; i < ready; i ++) {
+            final long ev = events[i];
+            final int fd = (int) ev;
+            if (fd == eventFd) {
+                Native.eventFdRead(eventFd);
+                continue;
+            }
+
+            final AbstractEpollChannel ch = fd < channels.length ? channels[fd] : null;
+            if (ch == null) {
+                // Closed and deregistered already.
+                continue;
+            }
+
+            // Only handle the events the channel is interested in, because errors and hang-ups are always reported.
+            final int readyFlags = (int) (ev >>> 32) & ch.flags;
+            final AbstractEpollUnsafe unsafe = (AbstractEpollUnsafe) ch.unsafe();
+            if ((readyFlags & Native.EPOLLOUT) != 0 && ch.isOpen()) {
+                unsafe.epollOutReady();
+            }
+            if ((readyFlags & Native.EPOLLIN) != 0 && ch.isOpen()) {
+                unsafe.epollInReady();
+            }
+        }
+    }
+
+    private void closeAll() {
+        List<AbstractEpollChannel> channels = new ArrayList<AbstractEpollChannel>();
+        for (AbstractEpollChannel ch: this.channels) {
+            if (ch != null) {
+                channels.add(ch);
+            }
+        }
+
+        for (AbstractEpollChannel ch: channels) {
+            ch.unsafe().close(ch.unsafe().voidFuture());
+        }
+    }
+
+    @Override
+    protected void cleanup() {
+        closeQuietly(epollFd);
+        closeQuietly(eventFd);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.channel.EventExecutor;
+import io.netty.channel.MultithreadEventLoopGroup;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * {@link MultithreadEventLoopGroup} which uses epoll under the covers.  Because of this
+ * it only works on linux.
+ */
+public final class EpollEventLoopGroup extends MultithreadEventLoopGroup {
+
+    /**
+     * Create a new instance using {@link #DEFAULT_POOL_SIZE} number of threads and the default {@link ThreadFactory}.
+     */
+    public EpollEventLoopGroup() {
+        this(0);
+    }
+
+    /**
+     * Create a new instance using nThreads number of threads and the default {@link ThreadFactory}.
+     */
+    public EpollEventLoopGroup(int nThreads) {
+        this(nThreads, null);
+    }
+
+    /**
+     * Create a new instance using nThreads number of threads and the given {@link ThreadFactory}.
+     */
+    public EpollEventLoopGroup(int nThreads, ThreadFactory threadFactory) {
+        super(nThreads, threadFactory);
+    }
+
+    @Override
+    protected EventExecutor newChild(ThreadFactory threadFactory, Object... args) throws Exception {
+        return new EpollEventLoop(this, threadFactory);
+    }
+}
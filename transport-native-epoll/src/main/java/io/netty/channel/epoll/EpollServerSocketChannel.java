@@ -0,0 +1,167 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.buffer.BufType;
+import io.netty.buffer.MessageBuf;
+import io.netty.channel.ChannelMetadata;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.socket.ServerSocketChannel;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+/**
+ * {@link ServerSocketChannel} implementation that uses linux EPOLL Edge-Triggered Mode for
+ * maximal performance.
+ */
+public final class EpollServerSocketChannel extends AbstractEpollChannel implements ServerSocketChannel {
+
+    private static final ChannelMetadata METADATA = new ChannelMetadata(BufType.MESSAGE, false);
+
+    private final EpollServerSocketChannelConfig config;
+
+    /**
+     * Create a new instance
+     */
+    public EpollServerSocketChannel() {
+        super(null, null, Native.socketStreamFd(), Native.EPOLLIN, false);
+        config = new EpollServerSocketChannelConfig(this);
+        // Same default as java.nio.channels.ServerSocketChannel on Linux.
+        config.setReuseAddress(true);
+    }
+
+    @Override
+    public ChannelMetadata metadata() {
+        return METADATA;
+    }
+
+    @Override
+    public EpollServerSocketChannelConfig config() {
+        return config;
+    }
+
+    @Override
+    public InetSocketAddress remoteAddress() {
+        return null;
+    }
+
+    @Override
+    protected SocketAddress remoteAddress0() {
+        return null;
+    }
+
+    @Override
+    protected void doBind(SocketAddress localAddress) throws Exception {
+        Native.bind(fd, (InetSocketAddress) localAddress);
+        Native.listen(fd, config.getBacklog());
+        active = true;
+    }
+
+    @Override
+    protected void doDisconnect() throws Exception {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected boolean isFlushPending() {
+        return false;
+    }
+
+    @Override
+    protected AbstractEpollUnsafe newUnsafe() {
+        return new EpollServerSocketUnsafe();
+    }
+
+    final class EpollServerSocketUnsafe extends AbstractEpollUnsafe {
+
+        @Override
+        public void connect(SocketAddress remoteAddress, SocketAddress localAddress, ChannelPromise promise) {
+            promise.setFailure(new UnsupportedOperationException());
+        }
+
+        @Override
+        void epollInReady() {
+            assert eventLoop().inEventLoop();
+            final ChannelPipeline pipeline = pipeline();
+            if (!config().isAutoRead()) {
+                // Stop accepting until read() is called again.
+                try {
+                    clearFlag(Native.EPOLLIN);
+                } catch (IOException e) {
+                    pipeline.fireExceptionCaught(e);
+                    close(voidFuture());
+                    return;
+                }
+            }
+
+            final MessageBuf<Object> msgBuf = pipeline.inboundMessageBuffer();
+            final int maxMessagesPerRead = config().getMaxMessagesPerRead();
+            boolean closed = false;
+            boolean read = false;
+            boolean firedInboundBufferSuspended = false;
+            boolean limitReached = false;
+            int accepted = 0;
+            try {
+                // The events are edge-triggered, so accept until there is no pending connection left or the limit
+                // is reached.
+                for (;;) {
+                    int socketFd = Native.accept(fd);
+                    if (socketFd == -1) {
+                        break;
+                    }
+                    msgBuf.add(new EpollSocketChannel(EpollServerSocketChannel.this, null, socketFd));
+                    read = true;
+                    if (++ accepted >= maxMessagesPerRead) {
+                        limitReached = true;
+                        break;
+                    }
+                }
+            } catch (Throwable t) {
+                if (read) {
+                    read = false;
+                    pipeline.fireInboundBufferUpdated();
+                }
+
+                if (t instanceof IOException) {
+                    closed = true;
+                } else {
+                    firedInboundBufferSuspended = true;
+                    pipeline.fireInboundBufferSuspended();
+                }
+
+                pipeline.fireExceptionCaught(t);
+            } finally {
+                if (read) {
+                    pipeline.fireInboundBufferUpdated();
+                }
+                if (closed && isOpen()) {
+                    close(voidFuture());
+                } else {
+                    if (!firedInboundBufferSuspended) {
+                        pipeline.fireInboundBufferSuspended();
+                    }
+                    if (limitReached) {
+                        // Accept the remaining connections later - no new event is reported for them.
+                        continueEpollInReady();
+                    }
+                }
+            }
+        }
+    }
+}
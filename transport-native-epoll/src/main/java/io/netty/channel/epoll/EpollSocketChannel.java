@@ -0,0 +1,493 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.buffer.BufType;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelMetadata;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.EventLoop;
+import io.netty.channel.ReceiveBufferSizePredictor;
+import io.netty.channel.socket.ChannelInputShutdownEvent;
+import io.netty.channel.socket.SocketChannel;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SocketChannel} implementation that uses linux EPOLL Edge-Triggered Mode for
+ * maximal performance.
+ * <p>
+ * Direct buffers are read from and written to the socket without any copy.  The content of heap buffers is copied
+ * through a temporary direct buffer, which is why you should prefer direct buffers when using this transport.
+ * {@link io.netty.channel.FileRegion}s are not supported.
+ */
+public final class EpollSocketChannel extends AbstractEpollChannel implements SocketChannel {
+
+    private static final ChannelMetadata METADATA = new ChannelMetadata(BufType.BYTE, false);
+
+    private final EpollSocketChannelConfig config;
+
+    /**
+     * The future of the current connection attempt.  If not null, subsequent
+     * connection attempts will fail.
+     */
+    private ChannelPromise connectPromise;
+    private ScheduledFuture<?> connectTimeoutFuture;
+    private ConnectException connectTimeoutException;
+
+    private volatile boolean inputShutdown;
+    private volatile boolean outputShutdown;
+
+    /**
+     * Create a new instance
+     */
+    public EpollSocketChannel() {
+        super(null, null, Native.socketStreamFd(), Native.EPOLLIN, false);
+        config = new EpollSocketChannelConfig(this);
+    }
+
+    /**
+     * Create a new instance for a connection which was accepted by the given parent.
+     */
+    EpollSocketChannel(Channel parent, Integer id, int fd) {
+        super(parent, id, fd, Native.EPOLLIN, true);
+        config = new EpollSocketChannelConfig(this);
+    }
+
+    @Override
+    public ChannelMetadata metadata() {
+        return METADATA;
+    }
+
+    @Override
+    public EpollSocketChannelConfig config() {
+        return config;
+    }
+
+    @Override
+    public boolean isInputShutdown() {
+        return inputShutdown;
+    }
+
+    @Override
+    public boolean isOutputShutdown() {
+        return outputShutdown || !isActive();
+    }
+
+    @Override
+    public ChannelFuture shutdownOutput() {
+        return shutdownOutput(newPromise());
+    }
+
+    @Override
+    public ChannelFuture shutdownOutput(final ChannelPromise promise) {
+        EventLoop loop = eventLoop();
+        if (loop.inEventLoop()) {
+            try {
+                Native.shutdown(fd, false, true);
+                outputShutdown = true;
+                promise.setSuccess();
+            } catch (Throwable t) {
+                promise.setFailure(t);
+            }
+        } else {
+            loop.execute(new Runnable() {
+                @Override
+                public void run() {
+                    shutdownOutput(promise);
+                }
+            });
+        }
+        return promise;
+    }
+
+    @Override
+    protected SocketAddress remoteAddress0() {
+        return Native.remoteAddress(fd);
+    }
+
+    @Override
+    protected void doBind(SocketAddress localAddress) throws Exception {
+        Native.bind(fd, (InetSocketAddress) localAddress);
+    }
+
+    @Override
+    protected AbstractEpollUnsafe newUnsafe() {
+        return new EpollSocketUnsafe();
+    }
+
+    /**
+     * Connect to the remote peer
+     */
+    private boolean doConnect(SocketAddress remoteAddress, SocketAddress localAddress) throws Exception {
+        if (localAddress != null) {
+            Native.bind(fd, (InetSocketAddress) localAddress);
+        }
+
+        boolean success = false;
+        try {
+            boolean connected = Native.connect(fd, (InetSocketAddress) remoteAddress);
+            if (connected) {
+                active = true;
+            } else {
+                // Wait until the socket becomes writable, which signals that the connection attempt is done.
+                setFlag(Native.EPOLLOUT);
+            }
+            success = true;
+            return connected;
+        } finally {
+            if (!success) {
+                doClose();
+            }
+        }
+    }
+
+    /**
+     * Finish the connect
+     */
+    private boolean doFinishConnect() throws Exception {
+        if (!Native.finishConnect(fd)) {
+            return false;
+        }
+        clearFlag(Native.EPOLLOUT);
+        active = true;
+        return true;
+    }
+
+    /**
+     * Read bytes into the given {@link ByteBuf} and return the amount.
+     */
+    private int doReadBytes(ByteBuf byteBuf) throws Exception {
+        final int writerIndex = byteBuf.writerIndex();
+        final int writableBytes = byteBuf.writableBytes();
+        final int localReadAmount;
+        if (byteBuf.isDirect() && byteBuf.nioBufferCount() == 1) {
+            // Read into the memory of the buffer directly.
+            ByteBuffer nioBuf = byteBuf.nioBuffer(writerIndex, writableBytes);
+            localReadAmount = Native.read(fd, nioBuf, nioBuf.position(), nioBuf.limit());
+        } else {
+            ByteBuf tmp = alloc().directBuffer(writableBytes);
+            try {
+                ByteBuffer nioBuf = tmp.nioBuffer(0, writableBytes);
+                localReadAmount = Native.read(fd, nioBuf, nioBuf.position(), nioBuf.limit());
+                if (localReadAmount > 0) {
+                    byteBuf.setBytes(writerIndex, tmp, 0, localReadAmount);
+                }
+            } finally {
+                tmp.free();
+            }
+        }
+
+        if (localReadAmount > 0) {
+            byteBuf.writerIndex(writerIndex + localReadAmount);
+        }
+        return localReadAmount;
+    }
+
+    /**
+     * Write bytes from the given {@link ByteBuf} to the socket and return the amount.
+     */
+    private int doWriteBytes(ByteBuf buf, boolean lastSpin) throws Exception {
+        final int readerIndex = buf.readerIndex();
+        final int expectedWrittenBytes = buf.readableBytes();
+        final int writtenBytes;
+        if (buf.isDirect() && buf.nioBufferCount() == 1) {
+            // Write from the memory of the buffer directly.
+            ByteBuffer nioBuf = buf.nioBuffer(readerIndex, expectedWrittenBytes);
+            writtenBytes = Native.write(fd, nioBuf, nioBuf.position(), nioBuf.limit());
+        } else {
+            ByteBuffer[] nioBufs = buf.nioBufferCount() > 1 ? buf.nioBuffers(readerIndex, expectedWrittenBytes) : null;
+            if (nioBufs != null && isDirect(nioBufs)) {
+                // Write all components of a composite buffer with a single gathering write.
+                writtenBytes = (int) Native.writev(fd, nioBufs, 0, nioBufs.length);
+            } else {
+                ByteBuf tmp = alloc().directBuffer(expectedWrittenBytes);
+                try {
+                    tmp.writeBytes(buf, readerIndex, expectedWrittenBytes);
+                    ByteBuffer nioBuf = tmp.nioBuffer(0, expectedWrittenBytes);
+                    writtenBytes = Native.write(fd, nioBuf, nioBuf.position(), nioBuf.limit());
+                } finally {
+                    tmp.free();
+                }
+            }
+        }
+        buf.readerIndex(readerIndex + writtenBytes);
+
+        if (writtenBytes >= expectedWrittenBytes) {
+            // Wrote the outbound buffer completely - clear EPOLLOUT.
+            clearFlag(Native.EPOLLOUT);
+        } else if (writtenBytes > 0 || lastSpin) {
+            // The socket buffer is full - let the event loop call flushNow() once it is writable again.
+            setFlag(Native.EPOLLOUT);
+        }
+        return writtenBytes;
+    }
+
+    private static boolean isDirect(ByteBuffer[] nioBufs) {
+        for (ByteBuffer b: nioBufs) {
+            if (!b.isDirect()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFlushByteBuffer(ByteBuf buf) throws Exception {
+        if (!buf.readable()) {
+            // Reset reader/writerIndex to 0 if the buffer is empty.
+            buf.clear();
+            return;
+        }
+
+        for (int i = config().getWriteSpinCount() - 1; i >= 0; i --) {
+            int localFlushedAmount = doWriteBytes(buf, i == 0);
+            if (localFlushedAmount > 0) {
+                break;
+            }
+            if (!buf.readable()) {
+                // Reset reader/writerIndex to 0 if the buffer is empty.
+                buf.clear();
+                break;
+            }
+        }
+    }
+
+    @Override
+    protected void doBeginRead() throws Exception {
+        if (inputShutdown) {
+            return;
+        }
+        super.doBeginRead();
+    }
+
+    private void setInputShutdown() throws IOException {
+        inputShutdown = true;
+        clearFlag(Native.EPOLLIN);
+    }
+
+    final class EpollSocketUnsafe extends AbstractEpollUnsafe {
+
+        @Override
+        public void connect(
+                final SocketAddress remoteAddress, final SocketAddress localAddress, final ChannelPromise promise) {
+            if (eventLoop().inEventLoop()) {
+                if (!ensureOpen(promise)) {
+                    return;
+                }
+
+                try {
+                    if (connectPromise != null) {
+                        throw new IllegalStateException("connection attempt already made");
+                    }
+
+                    boolean wasActive = isActive();
+                    if (doConnect(remoteAddress, localAddress)) {
+                        promise.setSuccess();
+                        if (!wasActive && isActive()) {
+                            pipeline().fireChannelActive();
+                        }
+                    } else {
+                        connectPromise = promise;
+
+                        // Schedule connect timeout.
+                        int connectTimeoutMillis = config().getConnectTimeoutMillis();
+                        if (connectTimeoutMillis > 0) {
+                            connectTimeoutFuture = eventLoop().schedule(new Runnable() {
+                                @Override
+                                public void run() {
+                                    if (connectTimeoutException == null) {
+                                        connectTimeoutException = new ConnectException("connection timed out");
+                                    }
+                                    ChannelPromise connectFuture = connectPromise;
+                                    if (connectFuture != null && connectFuture.tryFailure(connectTimeoutException)) {
+                                        close(voidFuture());
+                                    }
+                                }
+                            }, connectTimeoutMillis, TimeUnit.MILLISECONDS);
+                        }
+                    }
+                } catch (Throwable t) {
+                    promise.setFailure(t);
+                    closeIfClosed();
+                }
+            } else {
+                eventLoop().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        connect(remoteAddress, localAddress, promise);
+                    }
+                });
+            }
+        }
+
+        private void finishConnect() {
+            assert eventLoop().inEventLoop();
+            assert connectPromise != null;
+            try {
+                boolean wasActive = isActive();
+                if (!doFinishConnect()) {
+                    // Still in progress - wait for the next EPOLLOUT.
+                    return;
+                }
+                connectPromise.setSuccess();
+                if (!wasActive && isActive()) {
+                    pipeline().fireChannelActive();
+                }
+            } catch (Throwable t) {
+                connectPromise.setFailure(t);
+                // Unlike a JDK channel, the socket is still open after a failed connection attempt.
+                close(voidFuture());
+            }
+
+            if (connectTimeoutFuture != null) {
+                connectTimeoutFuture.cancel(false);
+            }
+            connectPromise = null;
+        }
+
+        @Override
+        void epollOutReady() {
+            if (connectPromise != null) {
+                finishConnect();
+            } else {
+                super.epollOutReady();
+            }
+        }
+
+        @Override
+        void epollInReady() {
+            assert eventLoop().inEventLoop();
+            final ChannelPipeline pipeline = pipeline();
+            if (!config().isAutoRead()) {
+                // Stop reading until read() is called again. Otherwise EPOLLIN is kept to save system calls.
+                try {
+                    clearFlag(Native.EPOLLIN);
+                } catch (IOException e) {
+                    pipeline.fireExceptionCaught(e);
+                    close(voidFuture());
+                    return;
+                }
+            }
+
+            final ByteBuf byteBuf = pipeline.inboundByteBuffer();
+            final ReceiveBufferSizePredictor predictor = receiveBufferSizePredictor();
+            final int expectedReadAmount = predictor.nextReceiveBufferSize();
+            final int maxMessagesPerRead = config().getMaxMessagesPerRead();
+            final int maxBytesPerRead = config().getMaxBytesPerRead();
+            boolean closed = false;
+            boolean read = false;
+            boolean firedInboundBufferSuspended = false;
+            boolean limitReached = false;
+            int totalReadAmount = 0;
+            int readCount = 0;
+            try {
+                prepareReadBuffer(byteBuf, expectedReadAmount);
+                // The events are edge-triggered, so keep reading until the socket is drained or the limit is
+                // reached.
+                loop: for (;;) {
+                    int localReadAmount = doReadBytes(byteBuf);
+                    if (localReadAmount > 0) {
+                        read = true;
+                        totalReadAmount += localReadAmount;
+                        if (++ readCount >= maxMessagesPerRead || totalReadAmount >= maxBytesPerRead) {
+                            limitReached = true;
+                            break;
+                        }
+                    } else if (localReadAmount < 0) {
+                        closed = true;
+                        break;
+                    }
+
+                    switch (expandReadBuffer(byteBuf, expectedReadAmount)) {
+                    case 0:
+                        // Read all - stop reading.
+                        break loop;
+                    case 1:
+                        // Keep reading until everything is read.
+                        break;
+                    case 2:
+                        // Let the inbound handler drain the buffer and continue reading.
+                        if (read) {
+                            read = false;
+                            pipeline.fireInboundBufferUpdated();
+                            if (!byteBuf.writable()) {
+                                throw new IllegalStateException(
+                                        "an inbound handler whose buffer is full must consume at " +
+                                        "least one byte.");
+                            }
+                        }
+                    }
+                }
+            } catch (Throwable t) {
+                if (read) {
+                    read = false;
+                    pipeline.fireInboundBufferUpdated();
+                }
+
+                if (t instanceof IOException) {
+                    closed = true;
+                } else if (!closed) {
+                    firedInboundBufferSuspended = true;
+                    pipeline.fireInboundBufferSuspended();
+                }
+                pipeline.fireExceptionCaught(t);
+            } finally {
+                if (totalReadAmount > 0) {
+                    predictor.previousReceiveBufferSize(totalReadAmount);
+                }
+
+                if (read) {
+                    pipeline.fireInboundBufferUpdated();
+                }
+
+                if (closed) {
+                    try {
+                        setInputShutdown();
+                    } catch (IOException e) {
+                        // The socket is closed below anyway if half-closure is not allowed.
+                        pipeline.fireExceptionCaught(e);
+                    }
+                    if (isOpen()) {
+                        if (Boolean.TRUE.equals(config().getOption(ChannelOption.ALLOW_HALF_CLOSURE))) {
+                            pipeline.fireUserEventTriggered(ChannelInputShutdownEvent.INSTANCE);
+                        } else {
+                            close(voidFuture());
+                        }
+                    }
+                } else {
+                    if (!firedInboundBufferSuspended) {
+                        pipeline.fireInboundBufferSuspended();
+                    }
+                    if (limitReached) {
+                        // Read the remaining bytes later - no new event is reported for them.
+                        continueEpollInReady();
+                    }
+                }
+            }
+        }
+    }
+}
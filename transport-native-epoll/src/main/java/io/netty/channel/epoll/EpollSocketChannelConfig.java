@@ -0,0 +1,300 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.DefaultChannelConfig;
+import io.netty.channel.ReceiveBufferSizePredictorFactory;
+import io.netty.channel.socket.SocketChannelConfig;
+
+import java.util.Map;
+
+import static io.netty.channel.ChannelOption.*;
+
+/**
+ * The {@link SocketChannelConfig} of an {@link EpollSocketChannel}, which also supports
+ * {@link EpollChannelOption#TCP_CORK} and {@link EpollChannelOption#TCP_QUICKACK}.
+ */
+public final class EpollSocketChannelConfig extends DefaultChannelConfig implements SocketChannelConfig {
+
+    private final EpollSocketChannel channel;
+    private volatile boolean allowHalfClosure;
+
+    /**
+     * Creates a new instance.
+     */
+    EpollSocketChannelConfig(EpollSocketChannel channel) {
+        super(channel);
+        this.channel = channel;
+    }
+
+    @Override
+    public Map<ChannelOption<?>, Object> getOptions() {
+        return getOptions(
+                super.getOptions(),
+                SO_RCVBUF, SO_SNDBUF, TCP_NODELAY, SO_KEEPALIVE, SO_REUSEADDR, SO_LINGER, IP_TOS,
+                ALLOW_HALF_CLOSURE, EpollChannelOption.TCP_CORK, EpollChannelOption.TCP_QUICKACK);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T getOption(ChannelOption<T> option) {
+        if (option == SO_RCVBUF) {
+            return (T) Integer.valueOf(getReceiveBufferSize());
+        }
+        if (option == SO_SNDBUF) {
+            return (T) Integer.valueOf(getSendBufferSize());
+        }
+        if (option == TCP_NODELAY) {
+            return (T) Boolean.valueOf(isTcpNoDelay());
+        }
+        if (option == SO_KEEPALIVE) {
+            return (T) Boolean.valueOf(isKeepAlive());
+        }
+        if (option == SO_REUSEADDR) {
+            return (T) Boolean.valueOf(isReuseAddress());
+        }
+        if (option == SO_LINGER) {
+            return (T) Integer.valueOf(getSoLinger());
+        }
+        if (option == IP_TOS) {
+            return (T) Integer.valueOf(getTrafficClass());
+        }
+        if (option == ALLOW_HALF_CLOSURE) {
+            return (T) Boolean.valueOf(isAllowHalfClosure());
+        }
+        if (option == EpollChannelOption.TCP_CORK) {
+            return (T) Boolean.valueOf(isTcpCork());
+        }
+        if (option == EpollChannelOption.TCP_QUICKACK) {
+            return (T) Boolean.valueOf(isTcpQuickAck());
+        }
+
+        return super.getOption(option);
+    }
+
+    @Override
+    public <T> boolean setOption(ChannelOption<T> option, T value) {
+        validate(option, value);
+
+        if (option == SO_RCVBUF) {
+            setReceiveBufferSize((Integer) value);
+        } else if (option == SO_SNDBUF) {
+            setSendBufferSize((Integer) value);
+        } else if (option == TCP_NODELAY) {
+            setTcpNoDelay((Boolean) value);
+        } else if (option == SO_KEEPALIVE) {
+            setKeepAlive((Boolean) value);
+        } else if (option == SO_REUSEADDR) {
+            setReuseAddress((Boolean) value);
+        } else if (option == SO_LINGER) {
+            setSoLinger((Integer) value);
+        } else if (option == IP_TOS) {
+            setTrafficClass((Integer) value);
+        } else if (option == ALLOW_HALF_CLOSURE) {
+            setAllowHalfClosure((Boolean) value);
+        } else if (option == EpollChannelOption.TCP_CORK) {
+            setTcpCork((Boolean) value);
+        } else if (option == EpollChannelOption.TCP_QUICKACK) {
+            setTcpQuickAck((Boolean) value);
+        } else {
+            return super.setOption(option, value);
+        }
+
+        return true;
+    }
+
+    @Override
+    public int getReceiveBufferSize() {
+        return Native.getReceiveBufferSize(channel.fd);
+    }
+
+    @Override
+    public int getSendBufferSize() {
+        return Native.getSendBufferSize(channel.fd);
+    }
+
+    @Override
+    public int getSoLinger() {
+        return Native.getSoLinger(channel.fd);
+    }
+
+    @Override
+    public int getTrafficClass() {
+        return Native.getTrafficClass(channel.fd);
+    }
+
+    @Override
+    public boolean isKeepAlive() {
+        return Native.isKeepAlive(channel.fd) != 0;
+    }
+
+    @Override
+    public boolean isReuseAddress() {
+        return Native.isReuseAddress(channel.fd) != 0;
+    }
+
+    @Override
+    public boolean isTcpNoDelay() {
+        return Native.isTcpNoDelay(channel.fd) != 0;
+    }
+
+    /**
+     * Returns {@code true} if {@code TCP_CORK} is enabled.
+     */
+    public boolean isTcpCork() {
+        return Native.isTcpCork(channel.fd) != 0;
+    }
+
+    /**
+     * Returns {@code true} if {@code TCP_QUICKACK} is enabled.
+     */
+    public boolean isTcpQuickAck() {
+        return Native.isTcpQuickAck(channel.fd) != 0;
+    }
+
+    @Override
+    public EpollSocketChannelConfig setKeepAlive(boolean keepAlive) {
+        Native.setKeepAlive(channel.fd, keepAlive ? 1 : 0);
+        return this;
+    }
+
+    @Override
+    public EpollSocketChannelConfig setPerformancePreferences(
+            int connectionTime, int latency, int bandwidth) {
+        // Not supported by the operating system - ignore just like java.net.Socket does.
+        return this;
+    }
+
+    @Override
+    public EpollSocketChannelConfig setReceiveBufferSize(int receiveBufferSize) {
+        Native.setReceiveBufferSize(channel.fd, receiveBufferSize);
+        return this;
+    }
+
+    @Override
+    public EpollSocketChannelConfig setReuseAddress(boolean reuseAddress) {
+        Native.setReuseAddress(channel.fd, reuseAddress ? 1 : 0);
+        return this;
+    }
+
+    @Override
+    public EpollSocketChannelConfig setSendBufferSize(int sendBufferSize) {
+        Native.setSendBufferSize(channel.fd, sendBufferSize);
+        return this;
+    }
+
+    @Override
+    public EpollSocketChannelConfig setSoLinger(int soLinger) {
+        Native.setSoLinger(channel.fd, soLinger);
+        return this;
+    }
+
+    @Override
+    public EpollSocketChannelConfig setTcpNoDelay(boolean tcpNoDelay) {
+        Native.setTcpNoDelay(channel.fd, tcpNoDelay ? 1 : 0);
+        return this;
+    }
+
+    /**
+     * Enables or disables {@code TCP_CORK}.  While enabled, only full frames are sent.
+     */
+    public EpollSocketChannelConfig setTcpCork(boolean tcpCork) {
+        Native.setTcpCork(channel.fd, tcpCork ? 1 : 0);
+        return this;
+    }
+
+    /**
+     * Enables or disables {@code TCP_QUICKACK}.  Note that the kernel may disable it again on its own.
+     */
+    public EpollSocketChannelConfig setTcpQuickAck(boolean tcpQuickAck) {
+        Native.setTcpQuickAck(channel.fd, tcpQuickAck ? 1 : 0);
+        return this;
+    }
+
+    @Override
+    public EpollSocketChannelConfig setTrafficClass(int trafficClass) {
+        Native.setTrafficClass(channel.fd, trafficClass);
+        return this;
+    }
+
+    @Override
+    public boolean isAllowHalfClosure() {
+        return allowHalfClosure;
+    }
+
+    @Override
+    public EpollSocketChannelConfig setAllowHalfClosure(boolean allowHalfClosure) {
+        this.allowHalfClosure = allowHalfClosure;
+        return this;
+    }
+
+    @Override
+    public EpollSocketChannelConfig setConnectTimeoutMillis(int connectTimeoutMillis) {
+        super.setConnectTimeoutMillis(connectTimeoutMillis);
+        return this;
+    }
+
+    @Override
+    public EpollSocketChannelConfig setWriteSpinCount(int writeSpinCount) {
+        super.setWriteSpinCount(writeSpinCount);
+        return this;
+    }
+
+    @Override
+    public EpollSocketChannelConfig setAllocator(ByteBufAllocator allocator) {
+        super.setAllocator(allocator);
+        return this;
+    }
+
+    @Override
+    public EpollSocketChannelConfig setAutoRead(boolean autoRead) {
+        super.setAutoRead(autoRead);
+        return this;
+    }
+
+    @Override
+    public EpollSocketChannelConfig setReceiveBufferSizePredictorFactory(
+            ReceiveBufferSizePredictorFactory predictorFactory) {
+        super.setReceiveBufferSizePredictorFactory(predictorFactory);
+        return this;
+    }
+
+    @Override
+    public EpollSocketChannelConfig setMaxMessagesPerRead(int maxMessagesPerRead) {
+        super.setMaxMessagesPerRead(maxMessagesPerRead);
+        return this;
+    }
+
+    @Override
+    public EpollSocketChannelConfig setMaxBytesPerRead(int maxBytesPerRead) {
+        super.setMaxBytesPerRead(maxBytesPerRead);
+        return this;
+    }
+
+    @Override
+    public EpollSocketChannelConfig setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+        super.setWriteBufferHighWaterMark(writeBufferHighWaterMark);
+        return this;
+    }
+
+    @Override
+    public EpollSocketChannelConfig setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+        super.setWriteBufferLowWaterMark(writeBufferLowWaterMark);
+        return this;
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.channel.ChannelException;
+import io.netty.logging.InternalLogger;
+import io.netty.logging.InternalLoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.UnresolvedAddressException;
+
+/**
+ * Native helper methods which are backed by the JNI library {@code netty-transport-native-epoll}.
+ * <p>
+ * The library is loaded from {@code META-INF/native} in the class path first, and from
+ * {@code java.library.path} if it could not be found there.
+ * <p>
+ * <strong>Internal usage only!</strong>
+ */
+final class Native {
+
+    private static final InternalLogger logger = InternalLoggerFactory.getInstance(Native.class);
+
+    private static final String LIBRARY_NAME = "netty-transport-native-epoll";
+
+    // Must be kept in sync with the flags in io_netty_channel_epoll_Native.c
+    static final int EPOLLIN = 0x01;
+    static final int EPOLLOUT = 0x02;
+    static final int EPOLLET = 0x04;
+
+    static {
+        loadLibrary();
+    }
+
+    private static void loadLibrary() {
+        String libName = System.mapLibraryName(LIBRARY_NAME);
+        InputStream in = Native.class.getClassLoader().getResourceAsStream("META-INF/native/" + libName);
+        if (in == null) {
+            System.loadLibrary(LIBRARY_NAME);
+            return;
+        }
+
+        File tmpFile = null;
+        try {
+            tmpFile = File.createTempFile("lib" + LIBRARY_NAME, ".so");
+            OutputStream out = new FileOutputStream(tmpFile);
+            try {
+                byte[] buffer = new byte[8192];
+                int length;
+                while ((length = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, length);
+                }
+            } finally {
+                out.close();
+            }
+            System.load(tmpFile.getPath());
+        } catch (IOException e) {
+            throw (UnsatisfiedLinkError) new UnsatisfiedLinkError(
+                    "could not extract the native library: " + libName).initCause(e);
+        } finally {
+            try {
+                in.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close an input stream.", e);
+            }
+            if (tmpFile != null && !tmpFile.delete()) {
+                // The library is mapped already, so the file is not needed anymore.
+                tmpFile.deleteOnExit();
+            }
+        }
+    }
+
+    // Event loop
+    static native int eventFd() throws IOException;
+    static native void eventFdWrite(int fd, long value) throws IOException;
+    static native void eventFdRead(int fd) throws IOException;
+    static native int epollCreate() throws IOException;
+
+    /**
+     * Waits for events on the specified epoll file descriptor and stores them into {@code events}.  Each event
+     * carries the file descriptor in its lower and the ready {@link #EPOLLIN}/{@link #EPOLLOUT} flags in its
+     * upper 32 bits.
+     *
+     * @return the number of events stored into {@code events}
+     */
+    static native int epollWait(int efd, long[] events, int timeout) throws IOException;
+    static native void epollCtlAdd(int efd, int fd, int flags) throws IOException;
+    static native void epollCtlMod(int efd, int fd, int flags) throws IOException;
+    static native void epollCtlDel(int efd, int fd) throws IOException;
+
+    // I/O
+    /**
+     * Returns the number of written bytes, or {@code 0} if the socket buffer is full.
+     */
+    static native int write(int fd, ByteBuffer buf, int pos, int limit) throws IOException;
+
+    /**
+     * Returns the number of written bytes, or {@code 0} if the socket buffer is full.
+     */
+    static native long writev(int fd, ByteBuffer[] buffers, int offset, int length) throws IOException;
+
+    /**
+     * Returns the number of read bytes, {@code 0} if there is nothing to read, or {@code -1} on end of stream.
+     */
+    static native int read(int fd, ByteBuffer buf, int pos, int limit) throws IOException;
+    static native void close(int fd) throws IOException;
+    static native void shutdown(int fd, boolean read, boolean write) throws IOException;
+
+    // Sockets
+    static native int socketStreamFd();
+    static native void listen(int fd, int backlog) throws IOException;
+
+    /**
+     * Returns the file descriptor of an accepted connection, or {@code -1} if there is none.
+     */
+    static native int accept(int fd) throws IOException;
+    static native boolean finishConnect(int fd) throws IOException;
+
+    private static native void bind0(int fd, byte[] address, int scopeId, int port) throws IOException;
+    private static native boolean connect0(int fd, byte[] address, int scopeId, int port) throws IOException;
+    private static native byte[] remoteAddress0(int fd);
+    private static native byte[] localAddress0(int fd);
+
+    static void bind(int fd, InetSocketAddress address) throws IOException {
+        InetAddress addr = checkResolved(address);
+        bind0(fd, addr.getAddress(), scopeId(addr), address.getPort());
+    }
+
+    /**
+     * Returns {@code true} if connected immediately, or {@code false} if the connection attempt is in progress.
+     */
+    static boolean connect(int fd, InetSocketAddress address) throws IOException {
+        InetAddress addr = checkResolved(address);
+        return connect0(fd, addr.getAddress(), scopeId(addr), address.getPort());
+    }
+
+    static InetSocketAddress remoteAddress(int fd) {
+        return address(remoteAddress0(fd));
+    }
+
+    static InetSocketAddress localAddress(int fd) {
+        return address(localAddress0(fd));
+    }
+
+    private static InetAddress checkResolved(InetSocketAddress address) {
+        if (address.isUnresolved()) {
+            throw new UnresolvedAddressException();
+        }
+        return address.getAddress();
+    }
+
+    private static int scopeId(InetAddress addr) {
+        if (addr instanceof Inet6Address) {
+            return ((Inet6Address) addr).getScopeId();
+        }
+        return 0;
+    }
+
+    /**
+     * Decodes an address which was encoded by the native library as 16 address bytes (IPv4 addresses are
+     * mapped), followed by the scope id and the port as big-endian 32-bit integers.
+     */
+    private static InetSocketAddress address(byte[] encoded) {
+        if (encoded == null) {
+            return null;
+        }
+
+        int scopeId = decodeInt(encoded, 16);
+        int port = decodeInt(encoded, 20);
+        try {
+            InetAddress address;
+            if (isIpv4Mapped(encoded)) {
+                byte[] ipv4 = new byte[4];
+                System.arraycopy(encoded, 12, ipv4, 0, 4);
+                address = InetAddress.getByAddress(ipv4);
+            } else {
+                byte[] ipv6 = new byte[16];
+                System.arraycopy(encoded, 0, ipv6, 0, 16);
+                address = Inet6Address.getByAddress(null, ipv6, scopeId);
+            }
+            return new InetSocketAddress(address, port);
+        } catch (UnknownHostException e) {
+            // Never happens because the length of the address is always valid.
+            throw new ChannelException("invalid address", e);
+        }
+    }
+
+    private static boolean isIpv4Mapped(byte[] encoded) {
+        for (int i = 0; i < 10; i ++) {
+            if (encoded[i] != 0) {
+                return false;
+            }
+        }
+        return encoded[10] == (byte) 0xff && encoded[11] == (byte) 0xff;
+    }
+
+    private static int decodeInt(byte[] encoded, int index) {
+        return (encoded[index] & 0xff) << 24 |
+               (encoded[index + 1] & 0xff) << 16 |
+               (encoded[index + 2] & 0xff) << 8 |
+               encoded[index + 3] & 0xff;
+    }
+
+    // Socket options; a failure is reported as a ChannelException.
+    static native void setReuseAddress(int fd, int reuseAddress);
+    static native void setReusePort(int fd, int reusePort);
+    static native void setTcpNoDelay(int fd, int tcpNoDelay);
+    static native void setTcpCork(int fd, int tcpCork);
+    static native void setTcpQuickAck(int fd, int tcpQuickAck);
+    static native void setKeepAlive(int fd, int keepAlive);
+    static native void setReceiveBufferSize(int fd, int receiveBufferSize);
+    static native void setSendBufferSize(int fd, int sendBufferSize);
+    static native void setSoLinger(int fd, int soLinger);
+    static native void setTrafficClass(int fd, int trafficClass);
+
+    static native int isReuseAddress(int fd);
+    static native int isReusePort(int fd);
+    static native int isTcpNoDelay(int fd);
+    static native int isTcpCork(int fd);
+    static native int isTcpQuickAck(int fd);
+    static native int isKeepAlive(int fd);
+    static native int getReceiveBufferSize(int fd);
+    static native int getSendBufferSize(int fd);
+    static native int getSoLinger(int fd);
+    static native int getTrafficClass(int fd);
+
+    private Native() {
+        // Unused
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.epoll;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundByteHandlerAdapter;
+import io.netty.channel.ChannelOption;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class EpollSocketChannelTest {
+
+    private static final Random random = new Random();
+    private static final byte[] data = new byte[1048576];
+
+    static {
+        random.nextBytes(data);
+    }
+
+    private ServerBootstrap sb;
+    private Bootstrap cb;
+
+    @Before
+    public void setUp() {
+        sb = new ServerBootstrap();
+        sb.group(new EpollEventLoopGroup(1), new EpollEventLoopGroup(1))
+          .channel(EpollServerSocketChannel.class)
+          .localAddress(new InetSocketAddress("127.0.0.1", 0));
+
+        cb = new Bootstrap();
+        cb.group(new EpollEventLoopGroup(1))
+          .channel(EpollSocketChannel.class);
+    }
+
+    @After
+    public void tearDown() {
+        sb.shutdown();
+        cb.shutdown();
+    }
+
+    @Test(timeout = 30000)
+    public void testEcho() throws Throwable {
+        testEcho0();
+    }
+
+    @Test(timeout = 30000)
+    public void testEchoWithReadLimits() throws Throwable {
+        // Every read event stops long before the socket is drained, so the rest must be read by the continuation.
+        sb.childOption(ChannelOption.MAX_MESSAGES_PER_READ, 1)
+          .childOption(ChannelOption.MAX_BYTES_PER_READ, 512);
+        cb.option(ChannelOption.MAX_MESSAGES_PER_READ, 1)
+          .option(ChannelOption.MAX_BYTES_PER_READ, 512);
+        testEcho0();
+    }
+
+    private void testEcho0() throws Throwable {
+        EchoHandler sh = new EchoHandler();
+        EchoHandler ch = new EchoHandler();
+
+        sb.childHandler(sh);
+        cb.handler(ch);
+
+        Channel sc = sb.bind().sync().channel();
+        Channel cc = cb.remoteAddress(sc.localAddress()).connect().sync().channel();
+        assertEquals(sc.localAddress(), cc.remoteAddress());
+
+        for (int i = 0; i < data.length;) {
+            int length = Math.min(random.nextInt(1024 * 64), data.length - i);
+            switch (random.nextInt(3)) {
+            case 0:
+                // Heap buffer which has to be copied into a direct buffer first.
+                cc.write(Unpooled.wrappedBuffer(data, i, length));
+                break;
+            case 1:
+                cc.write(cc.alloc().directBuffer(length).writeBytes(data, i, length));
+                break;
+            default:
+                // Composite buffer which is written with a single writev().
+                int half = length / 2;
+                cc.write(Unpooled.wrappedBuffer(
+                        cc.alloc().directBuffer(half).writeBytes(data, i, half),
+                        cc.alloc().directBuffer(length - half).writeBytes(data, i + half, length - half)));
+            }
+            i += length;
+        }
+
+        while (ch.counter < data.length || sh.counter < data.length) {
+            if (sh.exception.get() != null || ch.exception.get() != null) {
+                break;
+            }
+            Thread.sleep(1);
+        }
+
+        sh.channel.close().sync();
+        ch.channel.close().sync();
+        sc.close().sync();
+
+        if (sh.exception.get() != null) {
+            throw sh.exception.get();
+        }
+        if (ch.exception.get() != null) {
+            throw ch.exception.get();
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testLinuxOptions() throws Throwable {
+        sb.option(EpollChannelOption.SO_REUSEPORT, true)
+          .childOption(EpollChannelOption.TCP_CORK, true)
+          .childHandler(new EchoHandler());
+        cb.option(ChannelOption.TCP_NODELAY, true)
+          .handler(new EchoHandler());
+
+        EpollServerSocketChannel sc = (EpollServerSocketChannel) sb.bind().sync().channel();
+        assertTrue(sc.config().isReusePort());
+        assertTrue(sc.config().isReuseAddress());
+
+        EpollSocketChannel cc = (EpollSocketChannel) cb.remoteAddress(sc.localAddress()).connect().sync().channel();
+        assertTrue(cc.config().isTcpNoDelay());
+        assertFalse(cc.config().isTcpCork());
+        cc.config().setTcpCork(true);
+        assertTrue(cc.config().getOption(EpollChannelOption.TCP_CORK));
+        cc.config().setTcpQuickAck(true);
+
+        cc.close().sync();
+        sc.close().sync();
+    }
+
+    @Test(timeout = 30000)
+    public void testAcceptWithReadLimit() throws Throwable {
+        final int clients = 16;
+        final CountDownLatch accepted = new CountDownLatch(clients);
+        sb.option(ChannelOption.MAX_MESSAGES_PER_READ, 1)
+          .childHandler(new DiscardHandler() {
+              @Override
+              public void channelActive(ChannelHandlerContext ctx) throws Exception {
+                  accepted.countDown();
+              }
+          });
+        cb.handler(new DiscardHandler());
+
+        Channel sc = sb.bind().sync().channel();
+        // Connect all clients before any of them is accepted, so that a single event reports all of them.
+        List<ChannelFuture> futures = new ArrayList<ChannelFuture>();
+        for (int i = 0; i < clients; i ++) {
+            futures.add(cb.remoteAddress(sc.localAddress()).connect());
+        }
+        for (ChannelFuture f: futures) {
+            f.sync();
+        }
+
+        assertTrue(accepted.await(10, TimeUnit.SECONDS));
+
+        for (ChannelFuture f: futures) {
+            f.channel().close().sync();
+        }
+        sc.close().sync();
+    }
+
+    @Sharable
+    private static class DiscardHandler extends ChannelInboundByteHandlerAdapter {
+        @Override
+        public void inboundBufferUpdated(ChannelHandlerContext ctx, ByteBuf in) throws Exception {
+            in.clear();
+        }
+    }
+
+    private static class EchoHandler extends ChannelInboundByteHandlerAdapter {
+        volatile Channel channel;
+        final AtomicReference<Throwable> exception = new AtomicReference<Throwable>();
+        volatile int counter;
+
+        @Override
+        public ByteBuf newInboundBuffer(ChannelHandlerContext ctx) throws Exception {
+            if (ctx.channel().parent() != null) {
+                // Let the server side read into a direct buffer without a copy.
+                return ctx.alloc().directBuffer();
+            }
+            return super.newInboundBuffer(ctx);
+        }
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) throws Exception {
+            channel = ctx.channel();
+        }
+
+        @Override
+        public void inboundBufferUpdated(ChannelHandlerContext ctx, ByteBuf in) throws Exception {
+            byte[] actual = new byte[in.readableBytes()];
+            in.readBytes(actual);
+
+            int lastIdx = counter;
+            for (int i = 0; i < actual.length; i ++) {
+                assertEquals(data[i + lastIdx], actual[i]);
+            }
+
+            if (channel.parent() != null) {
+                channel.write(Unpooled.wrappedBuffer(actual));
+            }
+
+            counter += actual.length;
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+            if (exception.compareAndSet(null, cause)) {
+                ctx.close();
+            }
+        }
+    }
+}
@@ -21,6 +21,7 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelInboundMessageHandler;
@@ -36,7 +37,9 @@ import io.netty.logging.InternalLoggerFactory;
 import io.netty.util.AttributeKey;
 
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -59,6 +62,7 @@ public class ServerBootstrap extends AbstractBootstrap<ServerBootstrap> {
     private final Map<AttributeKey<?>, Object> childAttrs = new LinkedHashMap<AttributeKey<?>, Object>();
     private EventLoopGroup childGroup;
     private ChannelHandler childHandler;
+    private int acceptors = 1;
 
     /**
      * Specify the {@link EventLoopGroup} which is used for the parent (acceptor) and the child (client).
@@ -144,6 +148,27 @@ public class ServerBootstrap extends AbstractBootstrap<ServerBootstrap> {
         return this;
     }
 
+    /**
+     * Set the number of {@link ServerChannel}s which listen on the same local address.  If greater than {@code 1},
+     * {@code SO_REUSEPORT} is enabled for every {@link ServerChannel} so that the kernel balances incoming connections
+     * between them.  Each of them is registered to the parent {@link EventLoopGroup} like a single server channel, so
+     * connections are only accepted by more than one thread if {@link EventLoopGroup#next()} returns different event
+     * loops, as the default round-robin chooser does when the group has at least as many event loops as acceptors.
+     * The {@link Channel} returned by {@link #bind()} stands for all of them: closing it closes the others, and it is
+     * closed as soon as one of the others is closed.  The default value is {@code 1}.
+     * <p>
+     * This requires a transport and an operating system which support {@link ChannelOption#SO_REUSEPORT}, such as
+     * Linux 3.9 or above.  Otherwise, {@link #bind()} fails with an {@link UnsupportedOperationException}.  As the
+     * {@link #handler(ChannelHandler)} is added to every {@link ServerChannel}, it must be {@link Sharable}.
+     */
+    public ServerBootstrap acceptors(int acceptors) {
+        if (acceptors <= 0) {
+            throw new IllegalArgumentException("acceptors: " + acceptors + " (expected: > 0)");
+        }
+        this.acceptors = acceptors;
+        return this;
+    }
+
     @Override
     public ChannelFuture bind(ChannelPromise future) {
         validate(future);
@@ -161,11 +186,30 @@ public class ServerBootstrap extends AbstractBootstrap<ServerBootstrap> {
             return future;
         }
 
+        if (!initAndRegister(future)) {
+            return future;
+        }
+
+        if (acceptors == 1) {
+            channel.bind(localAddress(), future).addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+        } else {
+            bindAcceptors(future);
+        }
+
+        return future;
+    }
+
+    private boolean initAndRegister(ChannelPromise future) {
+        Channel channel = future.channel();
         try {
             channel.config().setOptions(options());
+            if (acceptors > 1 && !channel.config().setOption(ChannelOption.SO_REUSEPORT, true)) {
+                throw new UnsupportedOperationException(
+                        channel.getClass().getSimpleName() + " does not support " + ChannelOption.SO_REUSEPORT);
+            }
         } catch (Exception e) {
             future.setFailure(e);
-            return future;
+            return false;
         }
 
         for (Entry<AttributeKey<?>, Object> e: attrs().entrySet()) {
@@ -174,25 +218,70 @@ public class ServerBootstrap extends AbstractBootstrap<ServerBootstrap> {
             channel.attr(key).set(e.getValue());
         }
 
-        ChannelPipeline p = future.channel().pipeline();
-        if (handler() != null) {
-            p.addLast(handler());
+        ChannelPipeline p = channel.pipeline();
+        try {
+            if (handler() != null) {
+                p.addLast(handler());
+            }
+            p.addLast(acceptor);
+        } catch (Exception e) {
+            future.setFailure(e);
+            return false;
         }
-        p.addLast(acceptor);
 
         ChannelFuture f = group().register(channel).awaitUninterruptibly();
         if (!f.isSuccess()) {
             future.setFailure(f.cause());
-            return future;
+            return false;
         }
 
-        if (!ensureOpen(future)) {
-            return future;
+        return ensureOpen(future);
+    }
+
+    private void bindAcceptors(ChannelPromise future) {
+        final List<Channel> channels = new ArrayList<Channel>(acceptors);
+        Channel channel = future.channel();
+        channels.add(channel);
+
+        ChannelFuture f = channel.bind(localAddress()).awaitUninterruptibly();
+        for (int i = 1; i < acceptors && f.isSuccess(); i ++) {
+            Channel ch = factory().newChannel();
+            channels.add(ch);
+
+            // Bind to the actual local address, which differs from localAddress() if the port was 0.
+            ChannelPromise promise = ch.newPromise();
+            if (initAndRegister(promise)) {
+                ch.bind(channel.localAddress(), promise).awaitUninterruptibly();
+            }
+            f = promise;
         }
 
-        channel.bind(localAddress(), future).addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+        if (!f.isSuccess()) {
+            for (Channel c: channels) {
+                if (c.isRegistered()) {
+                    c.close();
+                } else {
+                    // Failed before registration, so there is no event loop to close it.
+                    c.unsafe().closeForcibly();
+                }
+            }
+            future.setFailure(f.cause());
+            return;
+        }
 
-        return future;
+        // Make all channels share their lifecycle, so that they appear as a single server channel.
+        ChannelFutureListener closeAll = new ChannelFutureListener() {
+            @Override
+            public void operationComplete(ChannelFuture future) throws Exception {
+                for (Channel c: channels) {
+                    c.close();
+                }
+            }
+        };
+        for (Channel c: channels) {
+            c.closeFuture().addListener(closeAll);
+        }
+        future.setSuccess();
     }
 
     @Override
@@ -212,6 +301,10 @@ public class ServerBootstrap extends AbstractBootstrap<ServerBootstrap> {
         if (localAddress() == null) {
             throw new IllegalStateException("localAddress not set");
         }
+        if (acceptors > 1 && handler() != null && !handler().getClass().isAnnotationPresent(Sharable.class)) {
+            throw new IllegalStateException(
+                    "handler must be @Sharable if acceptors > 1: " + handler().getClass().getName());
+        }
         if (childGroup == null) {
             logger.warn("childGroup is not set. Using parentGroup instead.");
             childGroup = group();
@@ -287,6 +380,11 @@ public class ServerBootstrap extends AbstractBootstrap<ServerBootstrap> {
             buf.append(childHandler);
             buf.append(", ");
         }
+        if (acceptors != 1) {
+            buf.append("acceptors: ");
+            buf.append(acceptors);
+            buf.append(", ");
+        }
         if (buf.charAt(buf.length() - 1) == '(') {
             buf.append(')');
         } else {
@@ -88,6 +88,7 @@ public abstract class AbstractChannel extends DefaultAttributeMap implements Cha
     private volatile SocketAddress remoteAddress;
     private volatile EventLoop eventLoop;
     private volatile boolean registered;
+    private volatile boolean writable = true;
 
     private ClosedChannelException closedChannelException;
     private boolean inFlushNow;
@@ -99,6 +100,9 @@ public abstract class AbstractChannel extends DefaultAttributeMap implements Cha
 
     private AbstractUnsafe.FlushTask flushTaskInProgress;
 
+    /** Created lazily by the I/O thread, so that the configured factory is picked up. */
+    private ReceiveBufferSizePredictor receiveBufferSizePredictor;
+
     /**
      * Creates a new instance.
      *
@@ -207,6 +211,11 @@ public abstract class AbstractChannel extends DefaultAttributeMap implements Cha
         return registered;
     }
 
+    @Override
+    public boolean isWritable() {
+        return writable;
+    }
+
     @Override
     public ChannelFuture bind(SocketAddress localAddress) {
         return pipeline.bind(localAddress);
@@ -338,10 +347,71 @@ public abstract class AbstractChannel extends DefaultAttributeMap implements Cha
         return pipeline.sendFile(region, promise);
     }
 
+    /**
+     * Compares the size of the outbound buffer with the write buffer water marks and notifies the pipeline if
+     * the writability of this channel has changed.  A transport which completes write operations outside of
+     * {@link Unsafe#flushNow()} must call this method once the outbound buffer has been drained.
+     * This method must be called from the I/O thread only.
+     */
+    protected final void updateWritability() {
+        if (!isActive()) {
+            // The outbound buffer is going to be released.
+            return;
+        }
+
+        final int bufSize;
+        final ChannelHandlerContext ctx = pipeline.head;
+        if (ctx.hasOutboundByteBuffer()) {
+            bufSize = ctx.outboundByteBuffer().readableBytes();
+        } else {
+            bufSize = ctx.outboundMessageBuffer().size();
+        }
+
+        if (writable) {
+            if (bufSize > config().getWriteBufferHighWaterMark()) {
+                writable = false;
+                pipeline.fireChannelWritabilityChanged();
+            }
+        } else if (bufSize <= config().getWriteBufferLowWaterMark()) {
+            writable = true;
+            pipeline.fireChannelWritabilityChanged();
+        }
+    }
+
+    /**
+     * Returns the {@link ReceiveBufferSizePredictor} of this channel, which is created by the
+     * {@link ReceiveBufferSizePredictorFactory} of its {@link ChannelConfig} when it is first accessed.
+     * This method must be called from the I/O thread only.
+     */
+    protected final ReceiveBufferSizePredictor receiveBufferSizePredictor() {
+        ReceiveBufferSizePredictor predictor = receiveBufferSizePredictor;
+        if (predictor == null) {
+            receiveBufferSizePredictor = predictor = config().getReceiveBufferSizePredictorFactory().getPredictor();
+        }
+        return predictor;
+    }
+
+    /**
+     * Makes sure the specified inbound byte buffer is able to hold {@code expectedBytes} more bytes, without
+     * exceeding its maximum capacity.  If the buffer does not contain any readable bytes and its capacity is at
+     * least twice as large as {@code expectedBytes}, it is shrunk first so that the memory a past burst of data
+     * required is not pinned by an idle connection.
+     */
+    protected static void prepareReadBuffer(ByteBuf byteBuf, int expectedBytes) {
+        if (!byteBuf.readable()) {
+            byteBuf.discardReadBytes();
+            if (byteBuf.capacity() >>> 1 >= expectedBytes) {
+                byteBuf.capacity(expectedBytes);
+            }
+        }
+
+        byteBuf.ensureWritableBytes(Math.min(expectedBytes, byteBuf.maxCapacity() - byteBuf.writerIndex()));
+    }
+
     // 0 - not expanded because the buffer is writable
     // 1 - expanded because the buffer was not writable
     // 2 - could not expand because the buffer was at its maximum although the buffer is not writable.
-    protected static int expandReadBuffer(ByteBuf byteBuf) {
+    protected static int expandReadBuffer(ByteBuf byteBuf, int increment) {
         final int writerIndex = byteBuf.writerIndex();
         final int capacity = byteBuf.capacity();
         if (capacity != writerIndex) {
@@ -357,10 +427,7 @@ public abstract class AbstractChannel extends DefaultAttributeMap implements Cha
             return 2;
         }
 
-        // FIXME: Magic number
-        final int increment = 4096;
-
-        if (writerIndex + increment > maxCapacity) {
+        if (writerIndex + increment > maxCapacity || writerIndex + increment < 0) {
             // Expand to maximum capacity.
             byteBuf.capacity(maxCapacity);
         } else {
@@ -603,6 +670,9 @@ public abstract class AbstractChannel extends DefaultAttributeMap implements Cha
             try {
                 Runnable postRegisterTask = doRegister();
                 registered = true;
+                if (eventLoop instanceof SingleThreadEventLoop) {
+                    ((SingleThreadEventLoop) eventLoop).incrementRegisteredChannels();
+                }
                 promise.setSuccess();
                 pipeline.fireChannelRegistered();
                 if (postRegisterTask != null) {
@@ -751,6 +821,9 @@ public abstract class AbstractChannel extends DefaultAttributeMap implements Cha
                 } finally {
                     if (registered) {
                         registered = false;
+                        if (eventLoop instanceof SingleThreadEventLoop) {
+                            ((SingleThreadEventLoop) eventLoop).decrementRegisteredChannels();
+                        }
                         promise.setSuccess();
                         pipeline.fireChannelUnregistered();
                     } else {
@@ -852,6 +925,9 @@ public abstract class AbstractChannel extends DefaultAttributeMap implements Cha
                         close(voidFuture());
                     }
                 } finally {
+                    // Update the writability here as well because flushNow() is not called while a flush is
+                    // pending, although new data has been added to the outbound buffer.
+                    updateWritability();
                     if (!isActive()) {
                         close(unsafe().voidFuture());
                     }
@@ -912,6 +988,7 @@ public abstract class AbstractChannel extends DefaultAttributeMap implements Cha
                 }
             } finally {
                 inFlushNow = false;
+                updateWritability();
             }
         }
 
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel;
+
+/**
+ * {@link EventExecutorChooserFactory} which prefers the {@link EventExecutor} of the calling thread.  If
+ * {@link EventExecutorGroup#next()} is called from one of the {@link EventExecutor}s of the group, for example when a
+ * handler opens an outbound connection, that {@link EventExecutor} is returned so that the new {@link Channel} does
+ * not need to hand over its events to another thread.  Otherwise, the choice is delegated to another
+ * {@link EventExecutorChooserFactory}.
+ */
+public final class AffinityEventExecutorChooserFactory implements EventExecutorChooserFactory {
+
+    private final EventExecutorChooserFactory fallback;
+
+    /**
+     * Creates a new instance which falls back to {@link RoundRobinEventExecutorChooserFactory}.
+     */
+    public AffinityEventExecutorChooserFactory() {
+        this(RoundRobinEventExecutorChooserFactory.INSTANCE);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param fallback  the {@link EventExecutorChooserFactory} used when the caller is not one of the
+     *                  {@link EventExecutor}s to choose from
+     */
+    public AffinityEventExecutorChooserFactory(EventExecutorChooserFactory fallback) {
+        if (fallback == null) {
+            throw new NullPointerException("fallback");
+        }
+        this.fallback = fallback;
+    }
+
+    @Override
+    public EventExecutorChooser newChooser(EventExecutor[] executors) {
+        return new AffinityEventExecutorChooser(executors, fallback.newChooser(executors));
+    }
+
+    private static final class AffinityEventExecutorChooser implements EventExecutorChooser {
+        private final EventExecutor[] executors;
+        private final EventExecutorChooser fallback;
+
+        AffinityEventExecutorChooser(EventExecutor[] executors, EventExecutorChooser fallback) {
+            this.executors = executors;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public EventExecutor next() {
+            EventExecutor current = SingleThreadEventExecutor.currentEventLoop();
+            if (current != null) {
+                for (EventExecutor e: executors) {
+                    if (e == current) {
+                        return e;
+                    }
+                }
+            }
+            return fallback.next();
+        }
+    }
+}
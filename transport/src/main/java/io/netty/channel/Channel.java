@@ -114,6 +114,16 @@ public interface Channel extends AttributeMap, ChannelOutboundInvoker, ChannelPr
      */
     boolean isActive();
 
+    /**
+     * Returns {@code true} if and only if the I/O thread will perform the requested write operation immediately.
+     * Any write requests made when this method returns {@code false} are queued until the I/O thread is ready to
+     * process them.  The writability changes when the size of the outbound buffer goes above
+     * {@link ChannelConfig#getWriteBufferHighWaterMark()} or drops to
+     * {@link ChannelConfig#getWriteBufferLowWaterMark()}, which is notified via
+     * {@link ChannelStateHandler#channelWritabilityChanged(ChannelHandlerContext)}.
+     */
+    boolean isWritable();
+
     /**
      * Return the {@link ChannelMetadata} of the {@link Channel} which describe the nature of the {@link Channel}.
      */
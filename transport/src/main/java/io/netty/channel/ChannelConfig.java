@@ -138,6 +138,41 @@ public interface ChannelConfig {
      */
     ChannelConfig setWriteSpinCount(int writeSpinCount);
 
+    /**
+     * Returns the high water mark of the write buffer.  If the number of bytes (or messages for a message-oriented
+     * {@link Channel}) queued in the outbound buffer exceeds this value, {@link Channel#isWritable()} will start to
+     * return {@code false}.  The default value is {@code 65536}.
+     */
+    int getWriteBufferHighWaterMark();
+
+    /**
+     * Sets the high water mark of the write buffer.  If the number of bytes (or messages for a message-oriented
+     * {@link Channel}) queued in the outbound buffer exceeds this value, {@link Channel#isWritable()} will start to
+     * return {@code false}.
+     *
+     * @throws IllegalArgumentException
+     *         if the specified value is less than {@link #getWriteBufferLowWaterMark()}
+     */
+    ChannelConfig setWriteBufferHighWaterMark(int writeBufferHighWaterMark);
+
+    /**
+     * Returns the low water mark of the write buffer.  Once the number of bytes (or messages for a message-oriented
+     * {@link Channel}) queued in the outbound buffer exceeded the high water mark and then dropped down to this
+     * value, {@link Channel#isWritable()} will start to return {@code true} again.  The default value is
+     * {@code 32768}.
+     */
+    int getWriteBufferLowWaterMark();
+
+    /**
+     * Sets the low water mark of the write buffer.  Once the number of bytes (or messages for a message-oriented
+     * {@link Channel}) queued in the outbound buffer exceeded the high water mark and then dropped down to this
+     * value, {@link Channel#isWritable()} will start to return {@code true} again.
+     *
+     * @throws IllegalArgumentException
+     *         if the specified value is negative or greater than {@link #getWriteBufferHighWaterMark()}
+     */
+    ChannelConfig setWriteBufferLowWaterMark(int writeBufferLowWaterMark);
+
     /**
      * Returns {@link ByteBufAllocator} which is used for the channel
      * to allocate buffers.
@@ -161,4 +196,52 @@ public interface ChannelConfig {
      * need to call it at all. The default value is {@code true}.
      */
     ChannelConfig setAutoRead(boolean autoRead);
+
+    /**
+     * Returns the {@link ReceiveBufferSizePredictorFactory} which creates a new {@link ReceiveBufferSizePredictor}
+     * for the {@link Channel}.  The predictor determines how much the inbound byte buffer is expanded before reading
+     * from the socket.  The default factory creates an {@link AdaptiveReceiveBufferSizePredictor}.
+     */
+    ReceiveBufferSizePredictorFactory getReceiveBufferSizePredictorFactory();
+
+    /**
+     * Sets the {@link ReceiveBufferSizePredictorFactory} which creates a new {@link ReceiveBufferSizePredictor}
+     * for the {@link Channel}.  It has to be set before the {@link Channel} reads for the first time to take effect.
+     */
+    ChannelConfig setReceiveBufferSizePredictorFactory(ReceiveBufferSizePredictorFactory predictorFactory);
+
+    /**
+     * Returns the maximum number of messages to read per read event.  A message-oriented {@link Channel} stops
+     * reading once it has read this many messages, and a byte-oriented {@link Channel} stops reading once it has
+     * read from the socket this many times, so that a busy {@link Channel} does not starve the other
+     * {@link Channel}s of its {@link EventLoop}.  The remaining messages are read on the next read event.
+     * The default value is {@code 16}.
+     */
+    int getMaxMessagesPerRead();
+
+    /**
+     * Sets the maximum number of messages to read per read event.
+     *
+     * @throws IllegalArgumentException
+     *         if the specified value is {@code 0} or less than {@code 0}
+     * @see #getMaxMessagesPerRead()
+     */
+    ChannelConfig setMaxMessagesPerRead(int maxMessagesPerRead);
+
+    /**
+     * Returns the maximum number of bytes a byte-oriented {@link Channel} reads per read event, so that a busy
+     * {@link Channel} does not starve the other {@link Channel}s of its {@link EventLoop}.  The budget is checked
+     * after each read from the socket, hence a single read may exceed it.  The remaining bytes are read on the next
+     * read event.  The default value is {@code 65536}.
+     */
+    int getMaxBytesPerRead();
+
+    /**
+     * Sets the maximum number of bytes a byte-oriented {@link Channel} reads per read event.
+     *
+     * @throws IllegalArgumentException
+     *         if the specified value is {@code 0} or less than {@code 0}
+     * @see #getMaxBytesPerRead()
+     */
+    ChannelConfig setMaxBytesPerRead(int maxBytesPerRead);
 }
@@ -57,6 +57,16 @@ public interface ChannelInboundInvoker {
      */
     void fireChannelInactive();
 
+    /**
+     * The writability of a {@link Channel} has changed, which means the size of its outbound buffer went above
+     * the high water mark or dropped to the low water mark.
+     *
+     * This will result in having the {@link ChannelStateHandler#channelWritabilityChanged(ChannelHandlerContext)}
+     * method called of the next {@link ChannelStateHandler} contained in the {@link ChannelPipeline} of the
+     * {@link Channel}.
+     */
+    void fireChannelWritabilityChanged();
+
     /**
      * A {@link Channel} received an {@link Throwable} in one of its inbound operations.
      *
@@ -42,10 +42,20 @@ public class ChannelOption<T> extends UniqueName {
             new ChannelOption<Integer>("CONNECT_TIMEOUT_MILLIS");
     public static final ChannelOption<Integer> WRITE_SPIN_COUNT =
             new ChannelOption<Integer>("WRITE_SPIN_COUNT");
+    public static final ChannelOption<Integer> WRITE_BUFFER_HIGH_WATER_MARK =
+            new ChannelOption<Integer>("WRITE_BUFFER_HIGH_WATER_MARK");
+    public static final ChannelOption<Integer> WRITE_BUFFER_LOW_WATER_MARK =
+            new ChannelOption<Integer>("WRITE_BUFFER_LOW_WATER_MARK");
     public static final ChannelOption<Boolean> ALLOW_HALF_CLOSURE =
             new ChannelOption<Boolean>("ALLOW_HALF_CLOSURE");
     public static final ChannelOption<Boolean> AUTO_READ =
             new ChannelOption<Boolean>("AUTO_READ");
+    public static final ChannelOption<ReceiveBufferSizePredictorFactory> RECEIVE_BUFFER_SIZE_PREDICTOR_FACTORY =
+            new ChannelOption<ReceiveBufferSizePredictorFactory>("RECEIVE_BUFFER_SIZE_PREDICTOR_FACTORY");
+    public static final ChannelOption<Integer> MAX_MESSAGES_PER_READ =
+            new ChannelOption<Integer>("MAX_MESSAGES_PER_READ");
+    public static final ChannelOption<Integer> MAX_BYTES_PER_READ =
+            new ChannelOption<Integer>("MAX_BYTES_PER_READ");
 
     public static final ChannelOption<Boolean> SO_BROADCAST =
             new ChannelOption<Boolean>("SO_BROADCAST");
@@ -61,6 +71,8 @@ public class ChannelOption<T> extends UniqueName {
             new ChannelOption<Integer>("SO_LINGER");
     public static final ChannelOption<Integer> SO_BACKLOG =
             new ChannelOption<Integer>("SO_BACKLOG");
+    public static final ChannelOption<Boolean> SO_REUSEPORT =
+            new ChannelOption<Boolean>("SO_REUSEPORT");
 
     public static final ChannelOption<Integer> IP_TOS =
             new ChannelOption<Integer>("IP_TOS");
@@ -42,6 +42,12 @@ public interface ChannelStateHandler extends ChannelHandler {
      */
     void channelInactive(ChannelHandlerContext ctx) throws Exception;
 
+    /**
+     * The writability of the {@link Channel} of the {@link ChannelHandlerContext} has changed.  You can check the
+     * new state with {@link Channel#isWritable()}.
+     */
+    void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception;
+
     /**
      * The inbound buffer of the {@link ChannelHandlerContext} was updated with new data.
      * This means something may be ready to get processed by the actual {@link ChannelStateHandler}
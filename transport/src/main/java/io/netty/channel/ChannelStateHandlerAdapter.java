@@ -135,6 +135,17 @@ public class ChannelStateHandlerAdapter implements ChannelStateHandler {
         ctx.fireChannelInactive();
     }
 
+    /**
+     * Calls {@link ChannelHandlerContext#fireChannelWritabilityChanged()} to forward
+     * to the next {@link ChannelStateHandler} in the {@link ChannelPipeline}.
+     *
+     * Sub-classes may override this method to change behavior.
+     */
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        ctx.fireChannelWritabilityChanged();
+    }
+
     /**
      * Calls {@link ChannelHandlerContext#fireInboundBufferUpdated()} to forward
      * to the next {@link ChannelOperationHandler} in the {@link ChannelPipeline}.
@@ -156,6 +156,11 @@ public class CombinedChannelHandler extends ChannelStateHandlerAdapter implement
         in.channelInactive(ctx);
     }
 
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        in.channelWritabilityChanged(ctx);
+    }
+
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
         in.exceptionCaught(ctx, cause);
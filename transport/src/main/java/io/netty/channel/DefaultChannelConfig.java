@@ -32,13 +32,24 @@ public class DefaultChannelConfig implements ChannelConfig {
 
     private static final ByteBufAllocator DEFAULT_ALLOCATOR = PooledByteBufAllocator.DEFAULT;
     private static final int DEFAULT_CONNECT_TIMEOUT = 30000;
+    private static final int DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK = 64 * 1024;
+    private static final int DEFAULT_WRITE_BUFFER_LOW_WATER_MARK = 32 * 1024;
+    private static final int DEFAULT_MAX_MESSAGES_PER_READ = 16;
+    private static final int DEFAULT_MAX_BYTES_PER_READ = 64 * 1024;
+    private static final ReceiveBufferSizePredictorFactory DEFAULT_PREDICTOR_FACTORY =
+            new AdaptiveReceiveBufferSizePredictorFactory();
 
     protected final Channel channel;
 
     private volatile ByteBufAllocator allocator = DEFAULT_ALLOCATOR;
     private volatile int connectTimeoutMillis = DEFAULT_CONNECT_TIMEOUT;
     private volatile int writeSpinCount = 16;
+    private volatile int writeBufferHighWaterMark = DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK;
+    private volatile int writeBufferLowWaterMark = DEFAULT_WRITE_BUFFER_LOW_WATER_MARK;
     private volatile boolean autoRead = true;
+    private volatile ReceiveBufferSizePredictorFactory predictorFactory = DEFAULT_PREDICTOR_FACTORY;
+    private volatile int maxMessagesPerRead = DEFAULT_MAX_MESSAGES_PER_READ;
+    private volatile int maxBytesPerRead = DEFAULT_MAX_BYTES_PER_READ;
 
     public DefaultChannelConfig(Channel channel) {
         if (channel == null) {
@@ -49,7 +60,9 @@ public class DefaultChannelConfig implements ChannelConfig {
 
     @Override
     public Map<ChannelOption<?>, Object> getOptions() {
-        return getOptions(null, CONNECT_TIMEOUT_MILLIS, WRITE_SPIN_COUNT, ALLOCATOR, AUTO_READ);
+        return getOptions(null, CONNECT_TIMEOUT_MILLIS, WRITE_SPIN_COUNT, ALLOCATOR, AUTO_READ,
+                RECEIVE_BUFFER_SIZE_PREDICTOR_FACTORY, WRITE_BUFFER_HIGH_WATER_MARK, WRITE_BUFFER_LOW_WATER_MARK,
+                MAX_MESSAGES_PER_READ, MAX_BYTES_PER_READ);
     }
 
     protected Map<ChannelOption<?>, Object> getOptions(
@@ -99,6 +112,21 @@ public class DefaultChannelConfig implements ChannelConfig {
         if (option == AUTO_READ) {
             return (T) Boolean.valueOf(isAutoRead());
         }
+        if (option == RECEIVE_BUFFER_SIZE_PREDICTOR_FACTORY) {
+            return (T) getReceiveBufferSizePredictorFactory();
+        }
+        if (option == WRITE_BUFFER_HIGH_WATER_MARK) {
+            return (T) Integer.valueOf(getWriteBufferHighWaterMark());
+        }
+        if (option == WRITE_BUFFER_LOW_WATER_MARK) {
+            return (T) Integer.valueOf(getWriteBufferLowWaterMark());
+        }
+        if (option == MAX_MESSAGES_PER_READ) {
+            return (T) Integer.valueOf(getMaxMessagesPerRead());
+        }
+        if (option == MAX_BYTES_PER_READ) {
+            return (T) Integer.valueOf(getMaxBytesPerRead());
+        }
 
         return null;
     }
@@ -115,6 +143,16 @@ public class DefaultChannelConfig implements ChannelConfig {
             setAllocator((ByteBufAllocator) value);
         } else if (option == AUTO_READ) {
             setAutoRead((Boolean) value);
+        } else if (option == RECEIVE_BUFFER_SIZE_PREDICTOR_FACTORY) {
+            setReceiveBufferSizePredictorFactory((ReceiveBufferSizePredictorFactory) value);
+        } else if (option == WRITE_BUFFER_HIGH_WATER_MARK) {
+            setWriteBufferHighWaterMark((Integer) value);
+        } else if (option == WRITE_BUFFER_LOW_WATER_MARK) {
+            setWriteBufferLowWaterMark((Integer) value);
+        } else if (option == MAX_MESSAGES_PER_READ) {
+            setMaxMessagesPerRead((Integer) value);
+        } else if (option == MAX_BYTES_PER_READ) {
+            setMaxBytesPerRead((Integer) value);
         } else {
             return false;
         }
@@ -159,6 +197,42 @@ public class DefaultChannelConfig implements ChannelConfig {
         return this;
     }
 
+    @Override
+    public int getWriteBufferHighWaterMark() {
+        return writeBufferHighWaterMark;
+    }
+
+    @Override
+    public ChannelConfig setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+        if (writeBufferHighWaterMark < getWriteBufferLowWaterMark()) {
+            throw new IllegalArgumentException(
+                    "writeBufferHighWaterMark: " + writeBufferHighWaterMark +
+                    " (expected: >= writeBufferLowWaterMark(" + getWriteBufferLowWaterMark() + "))");
+        }
+        this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+        return this;
+    }
+
+    @Override
+    public int getWriteBufferLowWaterMark() {
+        return writeBufferLowWaterMark;
+    }
+
+    @Override
+    public ChannelConfig setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+        if (writeBufferLowWaterMark < 0) {
+            throw new IllegalArgumentException(
+                    "writeBufferLowWaterMark: " + writeBufferLowWaterMark + " (expected: >= 0)");
+        }
+        if (writeBufferLowWaterMark > getWriteBufferHighWaterMark()) {
+            throw new IllegalArgumentException(
+                    "writeBufferLowWaterMark: " + writeBufferLowWaterMark +
+                    " (expected: <= writeBufferHighWaterMark(" + getWriteBufferHighWaterMark() + "))");
+        }
+        this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+        return this;
+    }
+
     @Override
     public ByteBufAllocator getAllocator() {
         return allocator;
@@ -187,4 +261,46 @@ public class DefaultChannelConfig implements ChannelConfig {
         }
         return this;
     }
+
+    @Override
+    public ReceiveBufferSizePredictorFactory getReceiveBufferSizePredictorFactory() {
+        return predictorFactory;
+    }
+
+    @Override
+    public ChannelConfig setReceiveBufferSizePredictorFactory(ReceiveBufferSizePredictorFactory predictorFactory) {
+        if (predictorFactory == null) {
+            throw new NullPointerException("predictorFactory");
+        }
+        this.predictorFactory = predictorFactory;
+        return this;
+    }
+
+    @Override
+    public int getMaxMessagesPerRead() {
+        return maxMessagesPerRead;
+    }
+
+    @Override
+    public ChannelConfig setMaxMessagesPerRead(int maxMessagesPerRead) {
+        if (maxMessagesPerRead <= 0) {
+            throw new IllegalArgumentException("maxMessagesPerRead: " + maxMessagesPerRead + " (expected: > 0)");
+        }
+        this.maxMessagesPerRead = maxMessagesPerRead;
+        return this;
+    }
+
+    @Override
+    public int getMaxBytesPerRead() {
+        return maxBytesPerRead;
+    }
+
+    @Override
+    public ChannelConfig setMaxBytesPerRead(int maxBytesPerRead) {
+        if (maxBytesPerRead <= 0) {
+            throw new IllegalArgumentException("maxBytesPerRead: " + maxBytesPerRead + " (expected: > 0)");
+        }
+        this.maxBytesPerRead = maxBytesPerRead;
+        return this;
+    }
 }
@@ -119,6 +119,17 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
             }
         }
     };
+    private final Runnable fireChannelWritabilityChangedTask = new Runnable() {
+        @Override
+        public void run() {
+            DefaultChannelHandlerContext ctx = DefaultChannelHandlerContext.this;
+            try {
+                ((ChannelStateHandler) ctx.handler).channelWritabilityChanged(ctx);
+            } catch (Throwable t) {
+                pipeline.notifyHandlerException(t);
+            }
+        }
+    };
     private final Runnable curCtxFireInboundBufferUpdatedTask = new Runnable() {
         @Override
         public void run() {
@@ -999,6 +1010,19 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
         }
     }
 
+    @Override
+    public void fireChannelWritabilityChanged() {
+        DefaultChannelHandlerContext next = nextContext(this.next, FLAG_STATE_HANDLER);
+        if (next != null) {
+            EventExecutor executor = next.executor();
+            if (executor.inEventLoop()) {
+                next.fireChannelWritabilityChangedTask.run();
+            } else {
+                executor.execute(next.fireChannelWritabilityChangedTask);
+            }
+        }
+    }
+
     @Override
     public void fireExceptionCaught(final Throwable cause) {
         if (cause == null) {
@@ -1228,16 +1252,32 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
     }
 
     static final class MessageBridge {
+        private static final int MIN_EXCHANGE_ARRAY_LENGTH = 16;
+
         final MessageBuf<Object> msgBuf = Unpooled.messageBuffer();
 
         private final Queue<Object[]> exchangeBuf = new ConcurrentLinkedQueue<Object[]>();
+        // Arrays which were drained by flush(), so that fill() does not need to allocate a new one on every hop.
+        private final Queue<Object[]> recycledBuf = new ConcurrentLinkedQueue<Object[]>();
 
         private void fill() {
-            if (msgBuf.isEmpty()) {
+            int size = msgBuf.size();
+            if (size == 0) {
                 return;
             }
-            Object[] data = msgBuf.toArray();
-            msgBuf.clear();
+
+            Object[] data = recycledBuf.poll();
+            if (data == null || data.length < size) {
+                int length = MIN_EXCHANGE_ARRAY_LENGTH;
+                while (length < size) {
+                    length <<= 1;
+                }
+                data = new Object[length];
+            }
+
+            for (int i = 0; i < size; i ++) {
+                data[i] = msgBuf.poll();
+            }
             exchangeBuf.add(data);
         }
 
@@ -1248,21 +1288,27 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
                     break;
                 }
 
-                Collections.addAll(out, data);
+                for (int i = 0; i < data.length; i ++) {
+                    Object o = data[i];
+                    if (o == null) {
+                        break;
+                    }
+                    data[i] = null;
+                    out.add(o);
+                }
+                recycledBuf.add(data);
             }
         }
     }
 
     static final class ByteBridge {
-        final ByteBuf byteBuf;
+        final ExchangeByteBuf byteBuf;
 
         private final Queue<ByteBuf> exchangeBuf = new ConcurrentLinkedQueue<ByteBuf>();
-        private final ChannelHandlerContext ctx;
 
         ByteBridge(ChannelHandlerContext ctx) {
-            this.ctx = ctx;
             // TODO Choose whether to use heap or direct buffer depending on the context's buffer type.
-            byteBuf = ctx.alloc().buffer();
+            byteBuf = new ExchangeByteBuf(ctx.alloc().buffer());
         }
 
         private void fill() {
@@ -1270,17 +1316,8 @@ final class DefaultChannelHandlerContext extends DefaultAttributeMap implements
                 return;
             }
 
-            int dataLen = byteBuf.readableBytes();
-            ByteBuf data;
-            if (byteBuf.isDirect()) {
-                data = ctx.alloc().directBuffer(dataLen, dataLen);
-            } else {
-                data = ctx.alloc().buffer(dataLen, dataLen);
-            }
-
-            byteBuf.readBytes(data).discardSomeReadBytes();
-
-            exchangeBuf.add(data);
+            // Hand off the written buffer as a whole instead of copying its content.
+            exchangeBuf.add(byteBuf.exchange());
         }
 
         private void flush(ByteBuf out) {
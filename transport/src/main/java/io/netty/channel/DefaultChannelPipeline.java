@@ -963,6 +963,11 @@ final class DefaultChannelPipeline implements ChannelPipeline {
         head.fireChannelInactive();
     }
 
+    @Override
+    public void fireChannelWritabilityChanged() {
+        head.fireChannelWritabilityChanged();
+    }
+
     @Override
     public void fireExceptionCaught(Throwable cause) {
         head.fireExceptionCaught(cause);
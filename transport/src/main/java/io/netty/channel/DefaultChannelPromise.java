@@ -19,15 +19,18 @@ import io.netty.channel.ChannelFlushPromiseNotifier.FlushCheckpoint;
 import io.netty.logging.InternalLogger;
 import io.netty.logging.InternalLoggerFactory;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import static java.util.concurrent.TimeUnit.*;
 
 /**
  * The default {@link ChannelPromise} implementation.  It is recommended to use {@link Channel#newPromise()} to create
  * a new {@link ChannelPromise} rather than calling the constructor explicitly.
+ *
+ * The state and the listeners of a promise are updated with compare-and-set, so that completing a promise or adding
+ * a listener to it never acquires a lock.  The monitor of the promise is only used when a thread blocks in one of
+ * the {@code await()} methods.
  */
 public class DefaultChannelPromise extends FlushCheckpoint implements ChannelPromise {
 
@@ -42,13 +45,32 @@ public class DefaultChannelPromise extends FlushCheckpoint implements ChannelPro
         }
     };
 
+    private static final AtomicReferenceFieldUpdater<DefaultChannelPromise, Object> resultUpdater =
+            AtomicReferenceFieldUpdater.newUpdater(DefaultChannelPromise.class, Object.class, "result");
+    private static final AtomicReferenceFieldUpdater<DefaultChannelPromise, Object> listenersUpdater =
+            AtomicReferenceFieldUpdater.newUpdater(DefaultChannelPromise.class, Object.class, "listeners");
+
+    private static final Object SUCCESS = new Object();
+    private static final Object NOTIFIED = new Object();
+
     private final Channel channel;
 
-    private ChannelFutureListener firstListener;
-    private List<ChannelFutureListener> otherListeners;
-    private boolean done;
-    private Throwable cause;
-    private int waiters;
+    /**
+     * {@code null} if not done yet, {@link #SUCCESS} on success, or a {@link CauseHolder} on failure.
+     */
+    private volatile Object result;
+
+    /**
+     * {@code null} if no listener has been added, the {@link ChannelFutureListener} itself if only one listener has
+     * been added, a {@link ChannelFutureListener} array if more than one listener has been added, or
+     * {@link #NOTIFIED} once the listeners have been taken for notification.
+     */
+    private volatile Object listeners;
+
+    /**
+     * The number of threads blocked in {@code await()}.  Only updated while holding the monitor of this promise.
+     */
+    private volatile int waiters;
 
     /**
      * Opportunistically extending FlushCheckpoint to reduce GC.
@@ -71,18 +93,22 @@ public class DefaultChannelPromise extends FlushCheckpoint implements ChannelPro
     }
 
     @Override
-    public synchronized boolean isDone() {
-        return done;
+    public boolean isDone() {
+        return result != null;
     }
 
     @Override
-    public synchronized boolean isSuccess() {
-        return done && cause == null;
+    public boolean isSuccess() {
+        return result == SUCCESS;
     }
 
     @Override
-    public synchronized Throwable cause() {
-        return cause;
+    public Throwable cause() {
+        Object result = this.result;
+        if (result instanceof CauseHolder) {
+            return ((CauseHolder) result).cause;
+        }
+        return null;
     }
 
     @Override
@@ -91,24 +117,30 @@ public class DefaultChannelPromise extends FlushCheckpoint implements ChannelPro
             throw new NullPointerException("listener");
         }
 
-        boolean notifyNow = false;
-        synchronized (this) {
-            if (done) {
-                notifyNow = true;
+        for (;;) {
+            Object listeners = this.listeners;
+            if (listeners == NOTIFIED) {
+                // Done and the listeners have been notified already.
+                notifyListener(this, listener);
+                break;
+            }
+
+            Object newListeners;
+            if (listeners == null) {
+                newListeners = listener;
+            } else if (listeners instanceof ChannelFutureListener) {
+                newListeners = new ChannelFutureListener[] { (ChannelFutureListener) listeners, listener };
             } else {
-                if (firstListener == null) {
-                    firstListener = listener;
-                } else {
-                    if (otherListeners == null) {
-                        otherListeners = new ArrayList<ChannelFutureListener>(1);
-                    }
-                    otherListeners.add(listener);
-                }
+                ChannelFutureListener[] oldArray = (ChannelFutureListener[]) listeners;
+                ChannelFutureListener[] newArray = new ChannelFutureListener[oldArray.length + 1];
+                System.arraycopy(oldArray, 0, newArray, 0, oldArray.length);
+                newArray[oldArray.length] = listener;
+                newListeners = newArray;
             }
-        }
 
-        if (notifyNow) {
-            notifyListener(this, listener);
+            if (listenersUpdater.compareAndSet(this, listeners, newListeners)) {
+                break;
+            }
         }
 
         return this;
@@ -135,18 +167,42 @@ public class DefaultChannelPromise extends FlushCheckpoint implements ChannelPro
             throw new NullPointerException("listener");
         }
 
-        synchronized (this) {
-            if (!done) {
-                if (listener == firstListener) {
-                    if (otherListeners != null && !otherListeners.isEmpty()) {
-                        firstListener = otherListeners.remove(0);
-                    } else {
-                        firstListener = null;
+        for (;;) {
+            Object listeners = this.listeners;
+            Object newListeners;
+            if (listeners == null || listeners == NOTIFIED) {
+                break;
+            } else if (listeners instanceof ChannelFutureListener) {
+                if (listeners != listener) {
+                    break;
+                }
+                newListeners = null;
+            } else {
+                ChannelFutureListener[] oldArray = (ChannelFutureListener[]) listeners;
+                int index = -1;
+                for (int i = 0; i < oldArray.length; i ++) {
+                    if (oldArray[i] == listener) {
+                        index = i;
+                        break;
                     }
-                } else if (otherListeners != null) {
-                    otherListeners.remove(listener);
+                }
+                if (index < 0) {
+                    break;
+                }
+
+                if (oldArray.length == 2) {
+                    newListeners = oldArray[1 - index];
+                } else {
+                    ChannelFutureListener[] newArray = new ChannelFutureListener[oldArray.length - 1];
+                    System.arraycopy(oldArray, 0, newArray, 0, index);
+                    System.arraycopy(oldArray, index + 1, newArray, index, newArray.length - index);
+                    newListeners = newArray;
                 }
             }
+
+            if (listenersUpdater.compareAndSet(this, listeners, newListeners)) {
+                break;
+            }
         }
 
         return this;
@@ -204,15 +260,20 @@ public class DefaultChannelPromise extends FlushCheckpoint implements ChannelPro
             throw new InterruptedException();
         }
 
+        if (isDone()) {
+            return this;
+        }
+
         synchronized (this) {
-            while (!done) {
-                checkDeadLock();
-                waiters++;
-                try {
+            // Increment 'waiters' before checking isDone() so that complete0() cannot miss this thread.
+            waiters++;
+            try {
+                while (!isDone()) {
+                    checkDeadLock();
                     wait();
-                } finally {
-                    waiters--;
                 }
+            } finally {
+                waiters--;
             }
         }
         return this;
@@ -231,18 +292,24 @@ public class DefaultChannelPromise extends FlushCheckpoint implements ChannelPro
 
     @Override
     public ChannelPromise awaitUninterruptibly() {
+        if (isDone()) {
+            return this;
+        }
+
         boolean interrupted = false;
         synchronized (this) {
-            while (!done) {
-                checkDeadLock();
-                waiters++;
-                try {
-                    wait();
-                } catch (InterruptedException e) {
-                    interrupted = true;
-                } finally {
-                    waiters--;
+            waiters++;
+            try {
+                while (!isDone()) {
+                    checkDeadLock();
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
                 }
+            } finally {
+                waiters--;
             }
         }
 
@@ -272,23 +339,31 @@ public class DefaultChannelPromise extends FlushCheckpoint implements ChannelPro
     }
 
     private boolean await0(long timeoutNanos, boolean interruptable) throws InterruptedException {
+        if (isDone()) {
+            return true;
+        }
+
+        if (timeoutNanos <= 0) {
+            return isDone();
+        }
+
         if (interruptable && Thread.interrupted()) {
             throw new InterruptedException();
         }
 
-        long startTime = timeoutNanos <= 0 ? 0 : System.nanoTime();
+        long startTime = System.nanoTime();
         long waitTime = timeoutNanos;
         boolean interrupted = false;
 
         try {
             synchronized (this) {
-                if (done || waitTime <= 0) {
-                    return done;
-                }
-
-                checkDeadLock();
                 waiters++;
                 try {
+                    if (isDone()) {
+                        return true;
+                    }
+
+                    checkDeadLock();
                     for (;;) {
                         try {
                             wait(waitTime / 1000000, (int) (waitTime % 1000000));
@@ -300,12 +375,12 @@ public class DefaultChannelPromise extends FlushCheckpoint implements ChannelPro
                             }
                         }
 
-                        if (done) {
+                        if (isDone()) {
                             return true;
                         } else {
                             waitTime = timeoutNanos - (System.nanoTime() - startTime);
                             if (waitTime <= 0) {
-                                return done;
+                                return isDone();
                             }
                         }
                     }
@@ -344,17 +419,8 @@ public class DefaultChannelPromise extends FlushCheckpoint implements ChannelPro
         return false;
     }
 
-    private synchronized boolean success0() {
-        // Allow only once.
-        if (done) {
-            return false;
-        }
-
-        done = true;
-        if (waiters > 0) {
-            notifyAll();
-        }
-        return true;
+    private boolean success0() {
+        return complete0(SUCCESS);
     }
 
     @Override
@@ -375,60 +441,56 @@ public class DefaultChannelPromise extends FlushCheckpoint implements ChannelPro
         return false;
     }
 
-    private synchronized boolean failure0(Throwable cause) {
+    private boolean failure0(Throwable cause) {
+        return complete0(new CauseHolder(cause));
+    }
+
+    private boolean complete0(Object result) {
         // Allow only once.
-        if (done) {
+        if (!resultUpdater.compareAndSet(this, null, result)) {
             return false;
         }
 
-        this.cause = cause;
-        done = true;
+        // A waiter increments 'waiters' before it checks isDone() while holding the monitor, so it either sees the
+        // result or is seen here and then notified.
         if (waiters > 0) {
-            notifyAll();
+            synchronized (this) {
+                notifyAll();
+            }
         }
         return true;
     }
 
     private void notifyListeners() {
-        // This method doesn't need synchronization because:
-        // 1) This method is always called after synchronized (this) block.
-        //    Hence any listener list modification happens-before this method.
-        // 2) This method is called only when 'done' is true.  Once 'done'
-        //    becomes true, the listener list is never modified - see add/removeListener()
-
-        if (firstListener == null) {
+        // Take the listeners which were added so far.  A listener added after this is notified by addListener()
+        // because it sees NOTIFIED.
+        final Object listeners = listenersUpdater.getAndSet(this, NOTIFIED);
+        if (listeners == null) {
             return;
         }
 
         if (channel().eventLoop().inEventLoop()) {
-            notifyListener0(this, firstListener);
-            firstListener = null;
-
-            if (otherListeners != null) {
-                for (ChannelFutureListener l: otherListeners) {
-                    notifyListener0(this, l);
-                }
-                otherListeners = null;
-            }
+            notifyListeners0(this, listeners);
         } else {
-            final ChannelFutureListener firstListener = this.firstListener;
-            final List<ChannelFutureListener> otherListeners = this.otherListeners;
-            this.firstListener = null;
-            this.otherListeners = null;
             channel().eventLoop().execute(new Runnable() {
                 @Override
                 public void run() {
-                    notifyListener0(DefaultChannelPromise.this, firstListener);
-                    if (otherListeners != null) {
-                        for (ChannelFutureListener l: otherListeners) {
-                            notifyListener0(DefaultChannelPromise.this, l);
-                        }
-                    }
+                    notifyListeners0(DefaultChannelPromise.this, listeners);
                 }
             });
         }
     }
 
+    private static void notifyListeners0(ChannelFuture f, Object listeners) {
+        if (listeners instanceof ChannelFutureListener) {
+            notifyListener0(f, (ChannelFutureListener) listeners);
+        } else {
+            for (ChannelFutureListener l: (ChannelFutureListener[]) listeners) {
+                notifyListener0(f, l);
+            }
+        }
+    }
+
     static void notifyListener(final ChannelFuture f, final ChannelFutureListener l) {
         EventLoop loop = f.channel().eventLoop();
         if (loop.inEventLoop()) {
@@ -478,4 +540,12 @@ public class DefaultChannelPromise extends FlushCheckpoint implements ChannelPro
     ChannelPromise future() {
         return this;
     }
+
+    private static final class CauseHolder {
+        final Throwable cause;
+
+        CauseHolder(Throwable cause) {
+            this.cause = cause;
+        }
+    }
 }
@@ -25,11 +25,10 @@ import java.util.concurrent.ThreadFactory;
 final class DefaultEventExecutor extends SingleThreadEventExecutor {
 
     /**
-     * @see SingleThreadEventExecutor#SingleThreadEventExecutor(EventExecutorGroup, ThreadFactory, ChannelTaskScheduler)
+     * @see SingleThreadEventExecutor#SingleThreadEventExecutor(EventExecutorGroup, ThreadFactory)
      */
-    DefaultEventExecutor(
-            DefaultEventExecutorGroup parent, ThreadFactory threadFactory, ChannelTaskScheduler scheduler) {
-        super(parent, threadFactory, scheduler);
+    DefaultEventExecutor(DefaultEventExecutorGroup parent, ThreadFactory threadFactory) {
+        super(parent, threadFactory);
     }
 
     @Override
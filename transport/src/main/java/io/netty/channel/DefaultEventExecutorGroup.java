@@ -37,9 +37,17 @@ public class DefaultEventExecutorGroup extends MultithreadEventExecutorGroup {
         super(nThreads, threadFactory);
     }
 
+    /**
+     * @see MultithreadEventExecutorGroup#MultithreadEventExecutorGroup(int, ThreadFactory,
+     *      EventExecutorChooserFactory, Object...)
+     */
+    public DefaultEventExecutorGroup(
+            int nThreads, ThreadFactory threadFactory, EventExecutorChooserFactory chooserFactory) {
+        super(nThreads, threadFactory, chooserFactory);
+    }
+
     @Override
-    protected EventExecutor newChild(
-            ThreadFactory threadFactory, ChannelTaskScheduler scheduler, Object... args) throws Exception {
-        return new DefaultEventExecutor(this, threadFactory, scheduler);
+    protected EventExecutor newChild(ThreadFactory threadFactory, Object... args) throws Exception {
+        return new DefaultEventExecutor(this, threadFactory);
     }
 }
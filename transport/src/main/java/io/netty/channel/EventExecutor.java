@@ -47,4 +47,11 @@ public interface EventExecutor extends EventExecutorGroup, ScheduledExecutorServ
      * {@code false} otherwise.
      */
     boolean inEventLoop(Thread thread);
+
+    /**
+     * Executes the given task like {@link #execute(Runnable)}, but without waking up the event loop if it is
+     * currently waiting for I/O.  The task may thus be delayed until the event loop wakes up for another reason.
+     * Use this for tasks which are not urgent, such as updating statistics.
+     */
+    void lazyExecute(Runnable task);
 }
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel;
+
+import io.netty.buffer.AbstractByteBuf;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ScatteringByteChannel;
+
+/**
+ * A {@link ByteBuf} which forwards all data access requests to a backing buffer that can be handed off via
+ * {@link #exchange()}.  The handler which writes into this buffer keeps the same reference before and after the
+ * hand-off, so it is safe for a handler to hold on to it across a call of
+ * {@link ChannelHandlerContext#fireInboundBufferUpdated()} or {@link ChannelHandlerContext#flush()}.
+ * <p>
+ * Slices and duplicates are derived from this buffer rather than from the backing buffer, so they remain valid
+ * after a hand-off and then see the content of the new backing buffer.  NIO buffers cannot be derived that way, so
+ * a {@link ByteBuffer} returned by {@link #nioBuffer(int, int)} or {@link #nioBuffers(int, int)} must not be
+ * accessed after the next {@link #exchange()}.
+ */
+final class ExchangeByteBuf extends AbstractByteBuf {
+
+    private ByteBuf buffer;
+
+    ExchangeByteBuf(ByteBuf buffer) {
+        super(buffer.maxCapacity());
+        this.buffer = buffer;
+        setIndex(buffer.readerIndex(), buffer.writerIndex());
+    }
+
+    /**
+     * Transfers the ownership of the backing buffer, whose indexes are set to the readable region of this buffer,
+     * to the caller and replaces it with a new empty buffer of the same type and capacity, so that the writer does
+     * not have to expand the new buffer again.  The caller is responsible for freeing the returned buffer.
+     */
+    ByteBuf exchange() {
+        ByteBuf data = buffer;
+        data.setIndex(readerIndex(), writerIndex());
+
+        ByteBufAllocator alloc = data.alloc();
+        if (data.isDirect()) {
+            buffer = alloc.directBuffer(data.capacity(), data.maxCapacity());
+        } else {
+            buffer = alloc.heapBuffer(data.capacity(), data.maxCapacity());
+        }
+        clear();
+        markReaderIndex();
+        markWriterIndex();
+        return data;
+    }
+
+    @Override
+    public ByteBuf unwrap() {
+        return buffer;
+    }
+
+    @Override
+    public ByteBufAllocator alloc() {
+        return buffer.alloc();
+    }
+
+    @Override
+    public ByteOrder order() {
+        return buffer.order();
+    }
+
+    @Override
+    public boolean isDirect() {
+        return buffer.isDirect();
+    }
+
+    @Override
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    @Override
+    public ByteBuf capacity(int newCapacity) {
+        // The backing buffer only preserves its own readable region when it is reallocated.
+        ByteBuf buffer = this.buffer;
+        buffer.setIndex(readerIndex(), writerIndex());
+        buffer.capacity(newCapacity);
+        setIndex(buffer.readerIndex(), buffer.writerIndex());
+        return this;
+    }
+
+    @Override
+    public boolean hasArray() {
+        return buffer.hasArray();
+    }
+
+    @Override
+    public byte[] array() {
+        return buffer.array();
+    }
+
+    @Override
+    public int arrayOffset() {
+        return buffer.arrayOffset();
+    }
+
+    @Override
+    public byte getByte(int index) {
+        return buffer.getByte(index);
+    }
+
+    @Override
+    public short getShort(int index) {
+        return buffer.getShort(index);
+    }
+
+    @Override
+    public int getUnsignedMedium(int index) {
+        return buffer.getUnsignedMedium(index);
+    }
+
+    @Override
+    public int getInt(int index) {
+        return buffer.getInt(index);
+    }
+
+    @Override
+    public long getLong(int index) {
+        return buffer.getLong(index);
+    }
+
+    @Override
+    public ByteBuf copy(int index, int length) {
+        return buffer.copy(index, length);
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, ByteBuf dst, int dstIndex, int length) {
+        buffer.getBytes(index, dst, dstIndex, length);
+        return this;
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, byte[] dst, int dstIndex, int length) {
+        buffer.getBytes(index, dst, dstIndex, length);
+        return this;
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, ByteBuffer dst) {
+        buffer.getBytes(index, dst);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setByte(int index, int value) {
+        buffer.setByte(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setShort(int index, int value) {
+        buffer.setShort(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setMedium(int index, int value) {
+        buffer.setMedium(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setInt(int index, int value) {
+        buffer.setInt(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setLong(int index, long value) {
+        buffer.setLong(index, value);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setBytes(int index, byte[] src, int srcIndex, int length) {
+        buffer.setBytes(index, src, srcIndex, length);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setBytes(int index, ByteBuf src, int srcIndex, int length) {
+        buffer.setBytes(index, src, srcIndex, length);
+        return this;
+    }
+
+    @Override
+    public ByteBuf setBytes(int index, ByteBuffer src) {
+        buffer.setBytes(index, src);
+        return this;
+    }
+
+    @Override
+    public ByteBuf getBytes(int index, OutputStream out, int length) throws IOException {
+        buffer.getBytes(index, out, length);
+        return this;
+    }
+
+    @Override
+    public int getBytes(int index, GatheringByteChannel out, int length) throws IOException {
+        return buffer.getBytes(index, out, length);
+    }
+
+    @Override
+    public int setBytes(int index, InputStream in, int length) throws IOException {
+        return buffer.setBytes(index, in, length);
+    }
+
+    @Override
+    public int setBytes(int index, ScatteringByteChannel in, int length) throws IOException {
+        return buffer.setBytes(index, in, length);
+    }
+
+    @Override
+    public int nioBufferCount() {
+        return buffer.nioBufferCount();
+    }
+
+    /**
+     * Returns a view of the backing buffer, which must not be accessed after the next {@link #exchange()}.
+     */
+    @Override
+    public ByteBuffer nioBuffer(int index, int length) {
+        return buffer.nioBuffer(index, length);
+    }
+
+    /**
+     * Returns views of the backing buffer, which must not be accessed after the next {@link #exchange()}.
+     */
+    @Override
+    public ByteBuffer[] nioBuffers(int index, int length) {
+        return buffer.nioBuffers(index, length);
+    }
+
+    @Override
+    public int refCnt() {
+        return buffer.refCnt();
+    }
+
+    @Override
+    public ByteBuf retain() {
+        buffer.retain();
+        return this;
+    }
+
+    @Override
+    public ByteBuf retain(int increment) {
+        buffer.retain(increment);
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return buffer.release();
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        return buffer.release(decrement);
+    }
+
+    @Override
+    public boolean isFreed() {
+        return buffer.isFreed();
+    }
+
+    @Override
+    public void free() {
+        buffer.free();
+    }
+
+    @Override
+    public ByteBuf suspendIntermediaryDeallocations() {
+        buffer.suspendIntermediaryDeallocations();
+        return this;
+    }
+
+    @Override
+    public ByteBuf resumeIntermediaryDeallocations() {
+        buffer.resumeIntermediaryDeallocations();
+        return this;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link EventExecutorChooserFactory} which chooses the {@link EventExecutor} with the least load.  The executors
+ * are scanned from a rotating start index, so that executors with the same load are still chosen one after another
+ * when many channels are registered in a burst, as it happens on a busy server channel.
+ * <p>
+ * The load is only known for {@link SingleThreadEventExecutor}s.  Any other {@link EventExecutor} is treated as if
+ * it had no load at all.
+ */
+public final class LeastLoadedEventExecutorChooserFactory implements EventExecutorChooserFactory {
+
+    /**
+     * Chooses the {@link EventLoop} with the least number of registered {@link Channel}s, as returned by
+     * {@link SingleThreadEventLoop#registeredChannels()}.  The pending tasks of an event loop are added to its load
+     * so that registrations which were not performed yet are taken into account, too.
+     */
+    public static final LeastLoadedEventExecutorChooserFactory REGISTERED_CHANNELS =
+            new LeastLoadedEventExecutorChooserFactory(true);
+
+    /**
+     * Chooses the {@link EventExecutor} with the least number of pending tasks, as returned by
+     * {@link SingleThreadEventExecutor#pendingTasks()}.
+     */
+    public static final LeastLoadedEventExecutorChooserFactory PENDING_TASKS =
+            new LeastLoadedEventExecutorChooserFactory(false);
+
+    private final boolean countChannels;
+
+    private LeastLoadedEventExecutorChooserFactory(boolean countChannels) {
+        this.countChannels = countChannels;
+    }
+
+    @Override
+    public EventExecutorChooser newChooser(EventExecutor[] executors) {
+        return new LeastLoadedEventExecutorChooser(executors, countChannels);
+    }
+
+    private static final class LeastLoadedEventExecutorChooser implements EventExecutorChooser {
+        private final AtomicInteger idx = new AtomicInteger();
+        private final EventExecutor[] executors;
+        private final boolean countChannels;
+
+        LeastLoadedEventExecutorChooser(EventExecutor[] executors, boolean countChannels) {
+            this.executors = executors;
+            this.countChannels = countChannels;
+        }
+
+        @Override
+        public EventExecutor next() {
+            final EventExecutor[] executors = this.executors;
+            final int length = executors.length;
+            int i = Math.abs(idx.getAndIncrement() % length);
+
+            EventExecutor chosen = executors[i];
+            int minLoad = load(chosen);
+            for (int n = 1; n < length && minLoad > 0; n ++) {
+                if (++ i == length) {
+                    i = 0;
+                }
+                EventExecutor e = executors[i];
+                int load = load(e);
+                if (load < minLoad) {
+                    chosen = e;
+                    minLoad = load;
+                }
+            }
+            return chosen;
+        }
+
+        private int load(EventExecutor e) {
+            if (!(e instanceof SingleThreadEventExecutor)) {
+                return 0;
+            }
+
+            int load = ((SingleThreadEventExecutor) e).pendingTasks();
+            if (countChannels && e instanceof SingleThreadEventLoop) {
+                load += ((SingleThreadEventLoop) e).registeredChannels();
+            }
+            return load;
+        }
+    }
+}
@@ -31,9 +31,8 @@ public abstract class MultithreadEventExecutorGroup implements EventExecutorGrou
     public static final int DEFAULT_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
     private static final AtomicInteger poolId = new AtomicInteger();
 
-    final ChannelTaskScheduler scheduler;
     private final EventExecutor[] children;
-    private final AtomicInteger childIndex = new AtomicInteger();
+    private final EventExecutorChooser chooser;
 
     /**
      * Create a new instance.
@@ -42,10 +41,27 @@ public abstract class MultithreadEventExecutorGroup implements EventExecutorGrou
      *                          of {@link #DEFAULT_POOL_SIZE}
      * @param threadFactory     the ThreadFactory to use, or {@code null} if the default should be used.
      * @param args              arguments which will passed to each
-     *                          {@link #newChild(ThreadFactory, ChannelTaskScheduler, Object...)}
+     *                          {@link #newChild(ThreadFactory, Object...)}
      *                          call.
      */
     protected MultithreadEventExecutorGroup(int nThreads, ThreadFactory threadFactory, Object... args) {
+        this(nThreads, threadFactory, RoundRobinEventExecutorChooserFactory.INSTANCE, args);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param nThreads          the number of threads that will be used by this instance. Use 0 for the default number
+     *                          of {@link #DEFAULT_POOL_SIZE}
+     * @param threadFactory     the ThreadFactory to use, or {@code null} if the default should be used.
+     * @param chooserFactory    the {@link EventExecutorChooserFactory} which creates the {@link EventExecutorChooser}
+     *                          used by {@link #next()}
+     * @param args              arguments which will passed to each
+     *                          {@link #newChild(ThreadFactory, Object...)}
+     *                          call.
+     */
+    protected MultithreadEventExecutorGroup(int nThreads, ThreadFactory threadFactory,
+            EventExecutorChooserFactory chooserFactory, Object... args) {
         if (nThreads < 0) {
             throw new IllegalArgumentException(String.format(
                     "nThreads: %d (expected: >= 0)", nThreads));
@@ -57,14 +73,15 @@ public abstract class MultithreadEventExecutorGroup implements EventExecutorGrou
         if (threadFactory == null) {
             threadFactory = new DefaultThreadFactory();
         }
-
-        scheduler = new ChannelTaskScheduler(threadFactory);
+        if (chooserFactory == null) {
+            throw new NullPointerException("chooserFactory");
+        }
 
         children = new SingleThreadEventExecutor[nThreads];
         for (int i = 0; i < nThreads; i ++) {
             boolean success = false;
             try {
-                children[i] = newChild(threadFactory, scheduler, args);
+                children[i] = newChild(threadFactory, args);
                 success = true;
             } catch (Exception e) {
                 throw new EventLoopException("failed to create a child event loop", e);
@@ -76,11 +93,13 @@ public abstract class MultithreadEventExecutorGroup implements EventExecutorGrou
                 }
             }
         }
+
+        chooser = chooserFactory.newChooser(children);
     }
 
     @Override
     public EventExecutor next() {
-        return children[Math.abs(childIndex.getAndIncrement() % children.length)];
+        return chooser.next();
     }
 
     /**
@@ -97,8 +116,7 @@ public abstract class MultithreadEventExecutorGroup implements EventExecutorGrou
      * called for each thread that will serve this {@link MultithreadEventExecutorGroup}.
      *
      */
-    protected abstract EventExecutor newChild(
-            ThreadFactory threadFactory, ChannelTaskScheduler scheduler, Object... args) throws Exception;
+    protected abstract EventExecutor newChild(ThreadFactory threadFactory, Object... args) throws Exception;
 
     @Override
     public void shutdown() {
@@ -106,7 +124,6 @@ public abstract class MultithreadEventExecutorGroup implements EventExecutorGrou
             return;
         }
 
-        scheduler.shutdown();
         for (EventExecutor l: children) {
             l.shutdown();
         }
@@ -114,9 +131,6 @@ public abstract class MultithreadEventExecutorGroup implements EventExecutorGrou
 
     @Override
     public boolean isShutdown() {
-        if (!scheduler.isShutdown()) {
-            return false;
-        }
         for (EventExecutor l: children) {
             if (!l.isShutdown()) {
                 return false;
@@ -127,9 +141,6 @@ public abstract class MultithreadEventExecutorGroup implements EventExecutorGrou
 
     @Override
     public boolean isTerminated() {
-        if (!scheduler.isTerminated()) {
-            return false;
-        }
         for (EventExecutor l: children) {
             if (!l.isTerminated()) {
                 return false;
@@ -142,15 +153,6 @@ public abstract class MultithreadEventExecutorGroup implements EventExecutorGrou
     public boolean awaitTermination(long timeout, TimeUnit unit)
             throws InterruptedException {
         long deadline = System.nanoTime() + unit.toNanos(timeout);
-        for (;;) {
-            long timeLeft = deadline - System.nanoTime();
-            if (timeLeft <= 0) {
-                return isTerminated();
-            }
-            if (scheduler.awaitTermination(timeLeft, TimeUnit.NANOSECONDS)) {
-                break;
-            }
-        }
         loop: for (EventExecutor l: children) {
             for (;;) {
                 long timeLeft = deadline - System.nanoTime();
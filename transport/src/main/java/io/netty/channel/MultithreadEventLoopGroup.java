@@ -31,6 +31,15 @@ public abstract class MultithreadEventLoopGroup extends MultithreadEventExecutor
         super(nThreads, threadFactory, args);
     }
 
+    /**
+     * @see {@link MultithreadEventExecutorGroup#MultithreadEventExecutorGroup(int, ThreadFactory,
+     *      EventExecutorChooserFactory, Object...)}
+     */
+    protected MultithreadEventLoopGroup(int nThreads, ThreadFactory threadFactory,
+            EventExecutorChooserFactory chooserFactory, Object... args) {
+        super(nThreads, threadFactory, chooserFactory, args);
+    }
+
     @Override
     public EventLoop next() {
         return (EventLoop) super.next();
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel;
+
+/**
+ * Predicts the number of readable bytes in the socket receive buffer, so that the inbound byte buffer of a
+ * {@link Channel} is expanded just enough to read everything available with as few read operations as possible
+ * while not wasting memory.
+ * <p>
+ * A predictor is created per {@link Channel} by the {@link ReceiveBufferSizePredictorFactory} set with
+ * {@link ChannelOption#RECEIVE_BUFFER_SIZE_PREDICTOR_FACTORY}, and is only accessed by its I/O thread.
+ */
+public interface ReceiveBufferSizePredictor {
+
+    /**
+     * Returns the number of bytes the inbound byte buffer should be able to hold for the next read operation.
+     *
+     * @return the expected number of readable bytes this time
+     */
+    int nextReceiveBufferSize();
+
+    /**
+     * Updates this predictor by telling the actual number of bytes which were read by the previous read operation.
+     *
+     * @param previousReceiveBufferSize the actual number of read bytes in the previous read operation
+     */
+    void previousReceiveBufferSize(int previousReceiveBufferSize);
+}
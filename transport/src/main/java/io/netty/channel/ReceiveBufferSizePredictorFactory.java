@@ -0,0 +1,28 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel;
+
+/**
+ * Creates a new {@link ReceiveBufferSizePredictor} for each {@link Channel}.
+ */
+public interface ReceiveBufferSizePredictorFactory {
+
+    /**
+     * Returns a {@link ReceiveBufferSizePredictor} for a newly registered {@link Channel}.  The returned predictor
+     * may be shared if it holds no state.
+     */
+    ReceiveBufferSizePredictor getPredictor();
+}
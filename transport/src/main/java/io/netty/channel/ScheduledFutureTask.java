@@ -0,0 +1,163 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A task scheduled via {@link SingleThreadEventExecutor#schedule(Runnable, long, TimeUnit)} and its variants.  It is
+ * kept in the {@link ScheduledTaskQueue} of the executor it belongs to until its deadline is reached.
+ */
+final class ScheduledFutureTask<V> extends FutureTask<V> implements ScheduledFuture<V> {
+
+    private static final long START_TIME = System.nanoTime();
+    private static final AtomicLong nextTaskId = new AtomicLong();
+
+    static long nanoTime() {
+        return System.nanoTime() - START_TIME;
+    }
+
+    static long deadlineNanos(long delay) {
+        long deadlineNanos = nanoTime() + delay;
+        // Guard against overflow.
+        return deadlineNanos < 0 ? Long.MAX_VALUE : deadlineNanos;
+    }
+
+    private final SingleThreadEventExecutor executor;
+    private final long id = nextTaskId.getAndIncrement();
+    private long deadlineNanos;
+    /* 0 - no repeat, >0 - repeat at fixed rate, <0 - repeat with fixed delay */
+    private final long periodNanos;
+
+    /**
+     * The {@link #queueIndex} of a task which was scheduled by another thread and has been submitted to the task
+     * queue of the executor, so that the event loop adds it to the {@link ScheduledTaskQueue} when it runs it.
+     */
+    static final int PENDING_QUEUE_INDEX = -2;
+
+    /**
+     * The index of this task in the {@link ScheduledTaskQueue}, {@link #PENDING_QUEUE_INDEX}, or {@code -1} if it is
+     * not queued.
+     */
+    int queueIndex = -1;
+
+    ScheduledFutureTask(SingleThreadEventExecutor executor, Runnable runnable, V result, long nanoTime) {
+        this(executor, runnable, result, nanoTime, 0);
+    }
+
+    ScheduledFutureTask(
+            SingleThreadEventExecutor executor, Runnable runnable, V result, long nanoTime, long period) {
+        super(runnable, result);
+        this.executor = executor;
+        deadlineNanos = nanoTime;
+        periodNanos = period;
+    }
+
+    ScheduledFutureTask(SingleThreadEventExecutor executor, Callable<V> callable, long nanoTime) {
+        super(callable);
+        this.executor = executor;
+        deadlineNanos = nanoTime;
+        periodNanos = 0;
+    }
+
+    public long deadlineNanos() {
+        return deadlineNanos;
+    }
+
+    public long delayNanos() {
+        return delayNanos(nanoTime());
+    }
+
+    long delayNanos(long currentTimeNanos) {
+        return Math.max(0, deadlineNanos - currentTimeNanos);
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(delayNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed o) {
+        if (this == o) {
+            return 0;
+        }
+
+        ScheduledFutureTask<?> that = (ScheduledFutureTask<?>) o;
+        long d = deadlineNanos - that.deadlineNanos;
+        if (d < 0) {
+            return -1;
+        } else if (d > 0) {
+            return 1;
+        } else if (id < that.id) {
+            return -1;
+        } else if (id == that.id) {
+            throw new Error();
+        } else {
+            return 1;
+        }
+    }
+
+    @Override
+    public void run() {
+        assert executor.inEventLoop();
+
+        if (queueIndex == PENDING_QUEUE_INDEX) {
+            // Scheduled by another thread - only move the task to the scheduled task queue.
+            queueIndex = -1;
+            if (!isCancelled()) {
+                executor.scheduledTaskQueue.add(this);
+            }
+            return;
+        }
+
+        if (periodNanos == 0) {
+            super.run();
+        } else {
+            boolean reset = runAndReset();
+            if (reset && !executor.isShutdown()) {
+                long p = periodNanos;
+                if (p > 0) {
+                    deadlineNanos += p;
+                } else {
+                    deadlineNanos = nanoTime() - p;
+                }
+
+                executor.scheduledTaskQueue.add(this);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The task is also removed from the {@link ScheduledTaskQueue}, right away if called from the event loop and
+     * lazily by the event loop otherwise, so that cancelling a task never allocates anything.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) {
+            executor.removeScheduled(this);
+        }
+        return cancelled;
+    }
+}
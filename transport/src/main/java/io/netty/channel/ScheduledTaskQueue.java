@@ -0,0 +1,164 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of {@link ScheduledFutureTask}s ordered by their deadline.  Every task remembers its own index
+ * in the heap, so that a cancelled task can be removed in {@code O(log n)} without searching the heap or allocating
+ * anything.
+ *
+ * This class is not thread-safe and must only be accessed by the event loop thread which owns it.
+ */
+final class ScheduledTaskQueue {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private ScheduledFutureTask<?>[] queue = new ScheduledFutureTask<?>[INITIAL_CAPACITY];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the task with the nearest deadline without removing it, or {@code null} if this queue is empty.
+     */
+    ScheduledFutureTask<?> peek() {
+        return size == 0 ? null : queue[0];
+    }
+
+    void add(ScheduledFutureTask<?> task) {
+        if (task.queueIndex >= 0) {
+            throw new IllegalStateException("task queued already");
+        }
+
+        int i = size;
+        if (i == queue.length) {
+            queue = Arrays.copyOf(queue, i << 1);
+        }
+        size = i + 1;
+        siftUp(i, task);
+    }
+
+    /**
+     * Removes and returns the task with the nearest deadline, or {@code null} if this queue is empty.
+     */
+    ScheduledFutureTask<?> poll() {
+        if (size == 0) {
+            return null;
+        }
+        ScheduledFutureTask<?> task = queue[0];
+        removeAt(0);
+        return task;
+    }
+
+    /**
+     * Removes the specified task from this queue.
+     *
+     * @return {@code true} if the task was queued, {@code false} otherwise
+     */
+    boolean remove(ScheduledFutureTask<?> task) {
+        int i = task.queueIndex;
+        if (i < 0 || i >= size || queue[i] != task) {
+            return false;
+        }
+        removeAt(i);
+        return true;
+    }
+
+    /**
+     * Removes all cancelled tasks from this queue in {@code O(n)}.
+     */
+    void purgeCancelled() {
+        ScheduledFutureTask<?>[] queue = this.queue;
+        int size = this.size;
+        int newSize = 0;
+        for (int i = 0; i < size; i ++) {
+            ScheduledFutureTask<?> task = queue[i];
+            queue[i] = null;
+            if (task.isCancelled()) {
+                task.queueIndex = -1;
+            } else {
+                queue[newSize ++] = task;
+            }
+        }
+        this.size = newSize;
+
+        // Restore the heap order bottom-up.
+        for (int i = newSize >>> 1; i >= 0; i --) {
+            if (i < newSize) {
+                siftDown(i, queue[i]);
+            }
+        }
+    }
+
+    private void removeAt(int i) {
+        ScheduledFutureTask<?> removed = queue[i];
+        removed.queueIndex = -1;
+
+        int last = -- size;
+        ScheduledFutureTask<?> moved = queue[last];
+        queue[last] = null;
+        if (last != i) {
+            siftDown(i, moved);
+            if (queue[i] == moved) {
+                siftUp(i, moved);
+            }
+        }
+    }
+
+    private void siftUp(int i, ScheduledFutureTask<?> task) {
+        while (i > 0) {
+            int parent = i - 1 >>> 1;
+            ScheduledFutureTask<?> p = queue[parent];
+            if (task.compareTo(p) >= 0) {
+                break;
+            }
+            queue[i] = p;
+            p.queueIndex = i;
+            i = parent;
+        }
+        queue[i] = task;
+        task.queueIndex = i;
+    }
+
+    private void siftDown(int i, ScheduledFutureTask<?> task) {
+        int half = size >>> 1;
+        while (i < half) {
+            int child = (i << 1) + 1;
+            ScheduledFutureTask<?> c = queue[child];
+            int right = child + 1;
+            if (right < size && c.compareTo(queue[right]) > 0) {
+                child = right;
+                c = queue[child];
+            }
+            if (task.compareTo(c) <= 0) {
+                break;
+            }
+            queue[i] = c;
+            c.queueIndex = i;
+            i = child;
+        }
+        queue[i] = task;
+        task.queueIndex = i;
+    }
+}
@@ -17,6 +17,12 @@ package io.netty.channel;
 
 import io.netty.logging.InternalLogger;
 import io.netty.logging.InternalLoggerFactory;
+import io.netty.monitor.MonitorName;
+import io.netty.monitor.MonitorRegistry;
+import io.netty.monitor.ValueDistributionMonitor;
+import io.netty.monitor.ValueMonitor;
+import io.netty.util.internal.MpscChunkedQueue;
+import io.netty.util.internal.SystemPropertyUtil;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -33,6 +39,7 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Abstract base class for {@link EventExecutor}'s that execute all its submitted tasks in a single thread.
@@ -49,6 +56,24 @@ public abstract class SingleThreadEventExecutor extends AbstractExecutorService
      */
     private static final long SHUTDOWN_DELAY_NANOS = TimeUnit.SECONDS.toNanos(2);
 
+    /**
+     * The maximum number of pending tasks of a task queue created by {@link #newMpscTaskQueue()}, which can be set
+     * with the system property {@code io.netty.eventLoop.maxPendingTasks}.  Unbounded by default.
+     */
+    protected static final int DEFAULT_MAX_PENDING_TASKS;
+
+    static {
+        int maxPendingTasks = SystemPropertyUtil.getInt("io.netty.eventLoop.maxPendingTasks", Integer.MAX_VALUE);
+        if (maxPendingTasks <= 0) {
+            maxPendingTasks = Integer.MAX_VALUE;
+        }
+        DEFAULT_MAX_PENDING_TASKS = maxPendingTasks;
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("-Dio.netty.eventLoop.maxPendingTasks: " + DEFAULT_MAX_PENDING_TASKS);
+        }
+    }
+
     static final ThreadLocal<SingleThreadEventExecutor> CURRENT_EVENT_LOOP =
             new ThreadLocal<SingleThreadEventExecutor>();
 
@@ -76,30 +101,48 @@ public abstract class SingleThreadEventExecutor extends AbstractExecutorService
     private final Thread thread;
     private final Object stateLock = new Object();
     private final Semaphore threadLock = new Semaphore(0);
-    private final ChannelTaskScheduler scheduler;
+    final ScheduledTaskQueue scheduledTaskQueue = new ScheduledTaskQueue();
+    // The number of scheduled tasks which were cancelled by other threads since the last purge.
+    private final AtomicInteger cancelledScheduledTasks = new AtomicInteger();
     private final Set<Runnable> shutdownHooks = new LinkedHashSet<Runnable>();
     private volatile int state = ST_NOT_STARTED;
     private long lastAccessTimeNanos;
 
+    // Monitoring this instance
+    private final boolean monitored;
+    private final ValueDistributionMonitor taskExecutionTime;
+
     /**
      * Create a new instance
      *
      * @param parent            the {@link EventExecutorGroup} which is the parent of this instance and belongs to it
      * @param threadFactory     the {@link ThreadFactory} which will be used for the used {@link Thread}
-     * @param scheduler         the {@link ChannelTaskScheduler} which will be used to schedule Tasks for later
-     *                          execution
+     */
+    protected SingleThreadEventExecutor(EventExecutorGroup parent, ThreadFactory threadFactory) {
+        this(parent, threadFactory, MonitorRegistry.NOOP);
+    }
+
+    /**
+     * Create a new instance with {@link io.netty.monitor monitoring support} enabled.  The new instance will monitor
+     * <ul>
+     * <li>the number of tasks in its task queue, and</li>
+     * <li>the distribution of the time it takes to execute a task, in nanoseconds.</li>
+     * </ul>
+     *
+     * @param parent            the {@link EventExecutorGroup} which is the parent of this instance and belongs to it
+     * @param threadFactory     the {@link ThreadFactory} which will be used for the used {@link Thread}
+     * @param monitorRegistry   the {@link MonitorRegistry} to use
      */
     protected SingleThreadEventExecutor(
-            EventExecutorGroup parent, ThreadFactory threadFactory, ChannelTaskScheduler scheduler) {
+            EventExecutorGroup parent, ThreadFactory threadFactory, MonitorRegistry monitorRegistry) {
         if (threadFactory == null) {
             throw new NullPointerException("threadFactory");
         }
-        if (scheduler == null) {
-            throw new NullPointerException("scheduler");
+        if (monitorRegistry == null) {
+            throw new NullPointerException("monitorRegistry");
         }
 
         this.parent = parent;
-        this.scheduler = scheduler;
 
         thread = threadFactory.newThread(new Runnable() {
             @Override
@@ -148,6 +191,23 @@ public abstract class SingleThreadEventExecutor extends AbstractExecutorService
         });
 
         taskQueue = newTaskQueue();
+
+        monitored = monitorRegistry != MonitorRegistry.NOOP;
+        taskExecutionTime = monitorRegistry.newValueDistributionMonitor(monitorName("task-execution-time"));
+        monitorRegistry.registerValueMonitor(monitorName("task-queue-size"), new ValueMonitor<Integer>() {
+            @Override
+            public Integer currentValue() {
+                return taskQueue.size();
+            }
+        });
+    }
+
+    /**
+     * Returns the {@link MonitorName} of the monitor with the specified {@code name} which belongs to this instance.
+     * The name of the {@link Thread} of this instance is used as the {@link MonitorName#instance() instance}.
+     */
+    protected MonitorName monitorName(String name) {
+        return new MonitorName(getClass(), name, thread.getName());
     }
 
     /**
@@ -160,6 +220,15 @@ public abstract class SingleThreadEventExecutor extends AbstractExecutorService
         return new LinkedBlockingQueue<Runnable>();
     }
 
+    /**
+     * Create a new lock-free {@link MpscChunkedQueue} which holds at most {@link #DEFAULT_MAX_PENDING_TASKS} tasks.
+     * Sub-classes may return it from {@link #newTaskQueue()}, as this instance is the only consumer of its task
+     * queue.  Once the queue is full, {@link #execute(Runnable)} throws a {@link RejectedExecutionException}.
+     */
+    protected static Queue<Runnable> newMpscTaskQueue() {
+        return new MpscChunkedQueue<Runnable>(DEFAULT_MAX_PENDING_TASKS);
+    }
+
     @Override
     public EventExecutorGroup parent() {
         return parent;
@@ -178,26 +247,60 @@ public abstract class SingleThreadEventExecutor extends AbstractExecutorService
     }
 
     /**
+     * Return the next scheduled task whose deadline has been reached, or otherwise the next task from the task queue.
+     * Returns {@code null} if there is no such task.
+     *
      * @see {@link Queue#poll()}
      */
     protected Runnable pollTask() {
+        return pollTask(ScheduledFutureTask.nanoTime());
+    }
+
+    private Runnable pollTask(long currentTimeNanos) {
         assert inEventLoop();
+        ScheduledFutureTask<?> scheduledTask = peekScheduledTask();
+        if (scheduledTask != null && scheduledTask.deadlineNanos() <= currentTimeNanos) {
+            return scheduledTaskQueue.poll();
+        }
         return taskQueue.poll();
     }
 
     /**
-     * Take the next {@link Runnable} from the task queue and so will block if no task is currently present.
+     * Take the next {@link Runnable} from the task queue and so will block if no task is currently present.  If a
+     * task has been scheduled, this method blocks at most until its deadline and then returns it.
      *
      * Be aware that this method will throw an {@link UnsupportedOperationException} if the task queue, which was
      * created via {@link #newTaskQueue()}, does not implement {@link BlockingQueue}.
      */
     protected Runnable takeTask() throws InterruptedException {
         assert inEventLoop();
-        if (taskQueue instanceof BlockingQueue) {
-            return ((BlockingQueue<Runnable>) taskQueue).take();
-        } else {
+        if (!(taskQueue instanceof BlockingQueue)) {
             throw new UnsupportedOperationException();
         }
+
+        BlockingQueue<Runnable> taskQueue = (BlockingQueue<Runnable>) this.taskQueue;
+        for (;;) {
+            ScheduledFutureTask<?> scheduledTask = peekScheduledTask();
+            if (scheduledTask == null) {
+                return taskQueue.take();
+            }
+
+            long delayNanos = scheduledTask.delayNanos();
+            Runnable task = null;
+            if (delayNanos > 0) {
+                task = taskQueue.poll(delayNanos, TimeUnit.NANOSECONDS);
+            }
+            if (task != null) {
+                return task;
+            }
+
+            // The deadline of the scheduled task may have been reached, or a task with a nearer deadline has been
+            // scheduled while waiting.  Check again.
+            task = pollTask();
+            if (task != null) {
+                return task;
+            }
+        }
     }
 
     /**
@@ -216,9 +319,80 @@ public abstract class SingleThreadEventExecutor extends AbstractExecutorService
         return !taskQueue.isEmpty();
     }
 
+    /**
+     * Returns the number of tasks which are pending for execution.  Scheduled tasks whose deadline has not been
+     * reached yet are not counted.  This method may be called from any thread, and the returned value is only an
+     * estimate when tasks are added or run concurrently.
+     */
+    public int pendingTasks() {
+        return taskQueue.size();
+    }
+
+    /**
+     * Returns {@code true} if at least one task has been scheduled and not cancelled yet.
+     */
+    protected boolean hasScheduledTasks() {
+        assert inEventLoop();
+        return peekScheduledTask() != null;
+    }
+
+    /**
+     * Returns the amount of time left until the deadline of the nearest scheduled task, in nanoseconds, or
+     * {@code -1} if no task has been scheduled.  An implementation of {@link #run()} which blocks on something else
+     * than {@link #takeTask()} should not block longer than this, so that scheduled tasks are run in time.
+     */
+    protected long delayNanos() {
+        assert inEventLoop();
+        ScheduledFutureTask<?> scheduledTask = peekScheduledTask();
+        if (scheduledTask == null) {
+            return -1;
+        }
+        return scheduledTask.delayNanos();
+    }
+
+    private ScheduledFutureTask<?> peekScheduledTask() {
+        ScheduledTaskQueue scheduledTaskQueue = this.scheduledTaskQueue;
+        if (cancelledScheduledTasks.get() > scheduledTaskQueue.size() >>> 1) {
+            // Most of the scheduled tasks were cancelled by other threads - discard all of them in one pass.
+            cancelledScheduledTasks.set(0);
+            scheduledTaskQueue.purgeCancelled();
+        }
+        for (;;) {
+            ScheduledFutureTask<?> scheduledTask = scheduledTaskQueue.peek();
+            if (scheduledTask == null || !scheduledTask.isCancelled()) {
+                return scheduledTask;
+            }
+            // Cancelled by another thread and not removed yet - discard it now.
+            scheduledTaskQueue.poll();
+        }
+    }
+
+    /**
+     * Removes the specified cancelled task from the scheduled task queue.  The queue is only accessed by the event
+     * loop, so a task cancelled by another thread is only counted here and discarded later by the event loop, either
+     * when it reaches the head of the queue or once more than half of the queued tasks were cancelled.
+     */
+    void removeScheduled(ScheduledFutureTask<?> task) {
+        if (inEventLoop()) {
+            scheduledTaskQueue.remove(task);
+        } else {
+            cancelledScheduledTasks.incrementAndGet();
+        }
+    }
+
+    private void cancelScheduledTasks() {
+        for (;;) {
+            ScheduledFutureTask<?> scheduledTask = scheduledTaskQueue.poll();
+            if (scheduledTask == null) {
+                break;
+            }
+            scheduledTask.cancel(false);
+        }
+    }
+
     /**
      * Add a task to the task queue, or throws a {@link RejectedExecutionException} if this instance was shutdown
-     * before.
+     * before or the task queue is full.
      */
     protected void addTask(Runnable task) {
         if (task == null) {
@@ -227,7 +401,9 @@ public abstract class SingleThreadEventExecutor extends AbstractExecutorService
         if (isTerminated()) {
             reject();
         }
-        taskQueue.add(task);
+        if (!taskQueue.offer(task)) {
+            throw new RejectedExecutionException("event executor task queue full");
+        }
     }
 
     /**
@@ -241,13 +417,18 @@ public abstract class SingleThreadEventExecutor extends AbstractExecutorService
     }
 
     /**
-     * Poll all tasks from the task queue and run them via {@link Runnable#run()} method.
-     * @return
+     * Poll all tasks from the task queue and all scheduled tasks whose deadline has been reached, and run them via
+     * {@link Runnable#run()} method.
+     *
+     * @return {@code true} if at least one task was run
      */
     protected boolean runAllTasks() {
+        // Do not run scheduled tasks whose deadline is reached while running tasks here, so that a periodic task
+        // which is behind its schedule cannot keep this method from returning.
+        final long currentTimeNanos = ScheduledFutureTask.nanoTime();
         boolean ran = false;
         for (;;) {
-            final Runnable task = pollTask();
+            final Runnable task = pollTask(currentTimeNanos);
             if (task == null) {
                 break;
             }
@@ -256,14 +437,56 @@ public abstract class SingleThreadEventExecutor extends AbstractExecutorService
                 continue;
             }
 
-            try {
+            runTask(task);
+            ran = true;
+        }
+        return ran;
+    }
+
+    /**
+     * Poll all tasks from the task queue and all scheduled tasks whose deadline has been reached, and run them via
+     * {@link Runnable#run()} method.  Stops running the tasks once this method ran longer than {@code timeoutNanos}.
+     * As the elapsed time is only checked every 64 tasks, the time limit may be exceeded slightly.
+     *
+     * @return {@code true} if at least one task was run
+     */
+    protected boolean runAllTasks(long timeoutNanos) {
+        final long currentTimeNanos = ScheduledFutureTask.nanoTime();
+        final long deadlineNanos = currentTimeNanos + timeoutNanos;
+        long runTasks = 0;
+        for (;;) {
+            final Runnable task = pollTask(currentTimeNanos);
+            if (task == null) {
+                break;
+            }
+
+            if (task == WAKEUP_TASK) {
+                continue;
+            }
+
+            runTask(task);
+            runTasks ++;
+
+            // Check the deadline every 64 tasks only, because nanoTime() is relatively expensive.
+            if ((runTasks & 0x3F) == 0 && ScheduledFutureTask.nanoTime() >= deadlineNanos) {
+                break;
+            }
+        }
+        return runTasks > 0;
+    }
+
+    private void runTask(Runnable task) {
+        try {
+            if (monitored) {
+                long startTime = System.nanoTime();
+                task.run();
+                taskExecutionTime.update(System.nanoTime() - startTime);
+            } else {
                 task.run();
-                ran = true;
-            } catch (Throwable t) {
-                logger.warn("A task raised an exception.", t);
             }
+        } catch (Throwable t) {
+            logger.warn("A task raised an exception.", t);
         }
-        return ran;
     }
 
     /**
@@ -280,7 +503,8 @@ public abstract class SingleThreadEventExecutor extends AbstractExecutorService
 
     protected void wakeup(boolean inEventLoop) {
         if (!inEventLoop || state == ST_SHUTDOWN) {
-            addTask(WAKEUP_TASK);
+            // A full task queue does not need a wake-up task.
+            taskQueue.offer(WAKEUP_TASK);
         }
     }
 
@@ -406,6 +630,8 @@ public abstract class SingleThreadEventExecutor extends AbstractExecutorService
             throw new IllegalStateException("must be invoked from an event loop");
         }
 
+        cancelScheduledTasks();
+
         if (runAllTasks() || runShutdownHooks()) {
             // There were tasks in the queue. Wait a little bit more until no tasks are queued for SHUTDOWN_DELAY_NANOS.
             lastAccessTimeNanos = 0;
@@ -454,13 +680,24 @@ public abstract class SingleThreadEventExecutor extends AbstractExecutorService
 
     @Override
     public void execute(Runnable task) {
+        execute(task, true);
+    }
+
+    @Override
+    public void lazyExecute(Runnable task) {
+        execute(task, false);
+    }
+
+    private void execute(Runnable task, boolean wakeup) {
         if (task == null) {
             throw new NullPointerException("task");
         }
 
         if (inEventLoop()) {
             addTask(task);
-            wakeup(true);
+            if (wakeup) {
+                wakeup(true);
+            }
         } else {
             synchronized (stateLock) {
                 if (state == ST_NOT_STARTED) {
@@ -472,7 +709,9 @@ public abstract class SingleThreadEventExecutor extends AbstractExecutorService
             if (isTerminated() && removeTask(task)) {
                 reject();
             }
-            wakeup(false);
+            if (wakeup) {
+                wakeup(false);
+            }
         }
     }
 
@@ -482,21 +721,89 @@ public abstract class SingleThreadEventExecutor extends AbstractExecutorService
 
     @Override
     public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
-        return scheduler.schedule(this, command, delay, unit);
+        if (command == null) {
+            throw new NullPointerException("command");
+        }
+        if (unit == null) {
+            throw new NullPointerException("unit");
+        }
+        if (delay < 0) {
+            throw new IllegalArgumentException(
+                    String.format("delay: %d (expected: >= 0)", delay));
+        }
+        return schedule(new ScheduledFutureTask<Void>(
+                this, command, null, ScheduledFutureTask.deadlineNanos(unit.toNanos(delay))));
     }
 
     @Override
     public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
-        return scheduler.schedule(this, callable, delay, unit);
+        if (callable == null) {
+            throw new NullPointerException("callable");
+        }
+        if (unit == null) {
+            throw new NullPointerException("unit");
+        }
+        if (delay < 0) {
+            throw new IllegalArgumentException(
+                    String.format("delay: %d (expected: >= 0)", delay));
+        }
+        return schedule(new ScheduledFutureTask<V>(
+                this, callable, ScheduledFutureTask.deadlineNanos(unit.toNanos(delay))));
     }
 
     @Override
     public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
-        return scheduler.scheduleAtFixedRate(this, command, initialDelay, period, unit);
+        if (command == null) {
+            throw new NullPointerException("command");
+        }
+        if (unit == null) {
+            throw new NullPointerException("unit");
+        }
+        if (initialDelay < 0) {
+            throw new IllegalArgumentException(
+                    String.format("initialDelay: %d (expected: >= 0)", initialDelay));
+        }
+        if (period <= 0) {
+            throw new IllegalArgumentException(
+                    String.format("period: %d (expected: > 0)", period));
+        }
+
+        return schedule(new ScheduledFutureTask<Void>(
+                this, command, null,
+                ScheduledFutureTask.deadlineNanos(unit.toNanos(initialDelay)), unit.toNanos(period)));
     }
 
     @Override
     public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
-        return scheduler.scheduleWithFixedDelay(this, command, initialDelay, delay, unit);
+        if (command == null) {
+            throw new NullPointerException("command");
+        }
+        if (unit == null) {
+            throw new NullPointerException("unit");
+        }
+        if (initialDelay < 0) {
+            throw new IllegalArgumentException(
+                    String.format("initialDelay: %d (expected: >= 0)", initialDelay));
+        }
+        if (delay <= 0) {
+            throw new IllegalArgumentException(
+                    String.format("delay: %d (expected: > 0)", delay));
+        }
+
+        return schedule(new ScheduledFutureTask<Void>(
+                this, command, null,
+                ScheduledFutureTask.deadlineNanos(unit.toNanos(initialDelay)), -unit.toNanos(delay)));
+    }
+
+    private <V> ScheduledFuture<V> schedule(ScheduledFutureTask<V> task) {
+        if (inEventLoop()) {
+            scheduledTaskQueue.add(task);
+        } else {
+            // The task adds itself to the scheduled task queue when the event loop runs it.
+            task.queueIndex = ScheduledFutureTask.PENDING_QUEUE_INDEX;
+            execute(task);
+        }
+
+        return task;
     }
 }
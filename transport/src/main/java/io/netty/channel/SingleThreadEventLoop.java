@@ -15,6 +15,8 @@
  */
 package io.netty.channel;
 
+import io.netty.monitor.MonitorRegistry;
+
 import java.util.concurrent.ThreadFactory;
 
 /**
@@ -23,13 +25,24 @@ import java.util.concurrent.ThreadFactory;
  */
 public abstract class SingleThreadEventLoop extends SingleThreadEventExecutor implements EventLoop {
 
+    // Only modified by the event loop thread.
+    private volatile int registeredChannels;
+
+    /**
+     *
+     * @see SingleThreadEventExecutor#SingleThreadEventExecutor(EventExecutorGroup, ThreadFactory)
+     */
+    protected SingleThreadEventLoop(EventLoopGroup parent, ThreadFactory threadFactory) {
+        super(parent, threadFactory);
+    }
+
     /**
      *
-     * @see SingleThreadEventExecutor#SingleThreadEventExecutor(EventExecutorGroup, ThreadFactory, ChannelTaskScheduler)
+     * @see SingleThreadEventExecutor#SingleThreadEventExecutor(EventExecutorGroup, ThreadFactory, MonitorRegistry)
      */
     protected SingleThreadEventLoop(
-            EventLoopGroup parent, ThreadFactory threadFactory, ChannelTaskScheduler scheduler) {
-        super(parent, threadFactory, scheduler);
+            EventLoopGroup parent, ThreadFactory threadFactory, MonitorRegistry monitorRegistry) {
+        super(parent, threadFactory, monitorRegistry);
     }
 
     @Override
@@ -42,6 +55,30 @@ public abstract class SingleThreadEventLoop extends SingleThreadEventExecutor im
         return (EventLoop) super.next();
     }
 
+    /**
+     * Returns the number of {@link Channel}s which are currently registered to this event loop.  This method may be
+     * called from any thread.
+     */
+    public int registeredChannels() {
+        return registeredChannels;
+    }
+
+    /**
+     * Called by the event loop thread when a {@link Channel} has been registered to this event loop.
+     */
+    void incrementRegisteredChannels() {
+        assert inEventLoop();
+        registeredChannels ++;
+    }
+
+    /**
+     * Called by the event loop thread when a {@link Channel} has been deregistered from this event loop.
+     */
+    void decrementRegisteredChannels() {
+        assert inEventLoop();
+        registeredChannels --;
+    }
+
     @Override
     public ChannelFuture register(Channel channel) {
         if (channel == null) {
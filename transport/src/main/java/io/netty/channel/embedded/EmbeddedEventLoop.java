@@ -34,6 +34,11 @@ final class EmbeddedEventLoop extends AbstractExecutorService implements EventLo
 
     private final Queue<Runnable> tasks = new ArrayDeque<Runnable>(2);
 
+    @Override
+    public void lazyExecute(Runnable task) {
+        execute(task);
+    }
+
     @Override
     public void execute(Runnable command) {
         if (command == null) {
@@ -108,7 +108,10 @@ public interface ChannelGroup extends Set<Channel>, Comparable<ChannelGroup> {
      * group. If the specified {@code message} is an instance of
      * {@link ByteBuf}, it is automatically
      * {@linkplain ByteBuf#duplicate() duplicated} to avoid a race
-     * condition. Please note that this operation is asynchronous as
+     * condition, and {@linkplain ByteBuf#retain() retained} until the write
+     * to each {@link Channel} is done, so that the caller can
+     * {@linkplain ByteBuf#release() release} it without waiting for the
+     * returned future. Please note that this operation is asynchronous as
      * {@link Channel#write(Object)} is.
      *
      * @return the {@link ChannelGroupFuture} instance that notifies when
@@ -210,9 +210,20 @@ public class DefaultChannelGroup extends AbstractSet<Channel> implements Channel
         Map<Integer, ChannelFuture> futures =
             new LinkedHashMap<Integer, ChannelFuture>(size());
         if (message instanceof ByteBuf) {
-            ByteBuf buf = (ByteBuf) message;
+            final ByteBuf buf = (ByteBuf) message;
+            // Share the content of the buffer with all channels instead of copying it.  The buffer is retained once
+            // per channel, so that the caller can free it as soon as this method returns.
+            ChannelFutureListener releaser = new ChannelFutureListener() {
+                @Override
+                public void operationComplete(ChannelFuture future) throws Exception {
+                    buf.release();
+                }
+            };
             for (Channel c: nonServerChannels.values()) {
-                futures.put(c.id(), c.write(buf.duplicate()));
+                ByteBuf duplicate = buf.duplicate().retain();
+                ChannelFuture f = c.write(duplicate);
+                f.addListener(releaser);
+                futures.put(c.id(), f);
             }
         } else {
             for (Channel c: nonServerChannels.values()) {
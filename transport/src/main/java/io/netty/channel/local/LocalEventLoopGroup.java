@@ -16,8 +16,8 @@
 package io.netty.channel.local;
 
 import io.netty.channel.EventExecutor;
+import io.netty.channel.EventExecutorChooserFactory;
 import io.netty.channel.MultithreadEventLoopGroup;
-import io.netty.channel.ChannelTaskScheduler;
 
 import java.util.concurrent.ThreadFactory;
 
@@ -52,9 +52,20 @@ public class LocalEventLoopGroup extends MultithreadEventLoopGroup {
         super(nThreads, threadFactory);
     }
 
+    /**
+     * Create a new instance
+     *
+     * @param nThreads          the number of Threads to use or {@code 0} for the default of {@link #DEFAULT_POOL_SIZE}
+     * @param threadFactory     the {@link ThreadFactory} or {@code null} to use the default
+     * @param chooserFactory    the {@link EventExecutorChooserFactory} which decides which event loop is returned by
+     *                          {@link #next()}
+     */
+    public LocalEventLoopGroup(int nThreads, ThreadFactory threadFactory, EventExecutorChooserFactory chooserFactory) {
+        super(nThreads, threadFactory, chooserFactory);
+    }
+
     @Override
-    protected EventExecutor newChild(
-            ThreadFactory threadFactory, ChannelTaskScheduler scheduler, Object... args) throws Exception {
-        return new LocalEventLoop(this, threadFactory, scheduler);
+    protected EventExecutor newChild(ThreadFactory threadFactory, Object... args) throws Exception {
+        return new LocalEventLoop(this, threadFactory);
     }
 }
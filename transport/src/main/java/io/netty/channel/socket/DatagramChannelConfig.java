@@ -17,6 +17,7 @@ package io.netty.channel.socket;
 
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelConfig;
+import io.netty.channel.ReceiveBufferSizePredictorFactory;
 
 import java.net.InetAddress;
 import java.net.NetworkInterface;
@@ -166,4 +167,19 @@ public interface DatagramChannelConfig extends ChannelConfig {
 
     @Override
     DatagramChannelConfig setAutoRead(boolean autoRead);
+
+    @Override
+    DatagramChannelConfig setReceiveBufferSizePredictorFactory(ReceiveBufferSizePredictorFactory predictorFactory);
+
+    @Override
+    DatagramChannelConfig setMaxMessagesPerRead(int maxMessagesPerRead);
+
+    @Override
+    DatagramChannelConfig setMaxBytesPerRead(int maxBytesPerRead);
+
+    @Override
+    DatagramChannelConfig setWriteBufferHighWaterMark(int writeBufferHighWaterMark);
+
+    @Override
+    DatagramChannelConfig setWriteBufferLowWaterMark(int writeBufferLowWaterMark);
 }
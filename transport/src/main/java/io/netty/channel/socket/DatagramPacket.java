@@ -47,12 +47,27 @@ public final class DatagramPacket {
     }
 
     /**
-     * Return the data which is container. May return an empty {@link ByteBuf}
+     * Return the data which is container. May return an empty {@link ByteBuf}.
      */
     public ByteBuf data() {
         return data;
     }
 
+    /**
+     * Returns {@code true} if and only if the data of this packet has been deallocated.
+     */
+    public boolean isFreed() {
+        return data.isFreed();
+    }
+
+    /**
+     * Deallocates the data of this packet.  The data of a packet received by a {@link DatagramChannel} may come from
+     * a pool, so the handler which consumes the packet must call this method once it is done with it.
+     */
+    public void free() {
+        data.free();
+    }
+
     /**
      * The {@link InetSocketAddress} which this {@link DatagramPacket} will send to or was received from.
      */
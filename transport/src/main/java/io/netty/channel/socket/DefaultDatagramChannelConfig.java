@@ -19,6 +19,7 @@ import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelException;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.DefaultChannelConfig;
+import io.netty.channel.ReceiveBufferSizePredictorFactory;
 import io.netty.logging.InternalLogger;
 import io.netty.logging.InternalLoggerFactory;
 import io.netty.util.internal.DetectionUtil;
@@ -382,4 +383,30 @@ public class DefaultDatagramChannelConfig extends DefaultChannelConfig implement
     public DatagramChannelConfig setAutoRead(boolean autoRead) {
         return (DatagramChannelConfig) super.setAutoRead(autoRead);
     }
+
+    @Override
+    public DatagramChannelConfig setReceiveBufferSizePredictorFactory(
+            ReceiveBufferSizePredictorFactory predictorFactory) {
+        return (DatagramChannelConfig) super.setReceiveBufferSizePredictorFactory(predictorFactory);
+    }
+
+    @Override
+    public DatagramChannelConfig setMaxMessagesPerRead(int maxMessagesPerRead) {
+        return (DatagramChannelConfig) super.setMaxMessagesPerRead(maxMessagesPerRead);
+    }
+
+    @Override
+    public DatagramChannelConfig setMaxBytesPerRead(int maxBytesPerRead) {
+        return (DatagramChannelConfig) super.setMaxBytesPerRead(maxBytesPerRead);
+    }
+
+    @Override
+    public DatagramChannelConfig setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+        return (DatagramChannelConfig) super.setWriteBufferHighWaterMark(writeBufferHighWaterMark);
+    }
+
+    @Override
+    public DatagramChannelConfig setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+        return (DatagramChannelConfig) super.setWriteBufferLowWaterMark(writeBufferLowWaterMark);
+    }
 }
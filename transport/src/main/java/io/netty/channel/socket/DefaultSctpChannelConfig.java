@@ -21,6 +21,7 @@ import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelException;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.DefaultChannelConfig;
+import io.netty.channel.ReceiveBufferSizePredictorFactory;
 
 import java.io.IOException;
 import java.util.Map;
@@ -178,4 +179,30 @@ public class DefaultSctpChannelConfig extends DefaultChannelConfig implements Sc
     public SctpChannelConfig setAutoRead(boolean autoRead) {
         return (SctpChannelConfig) super.setAutoRead(autoRead);
     }
+
+    @Override
+    public SctpChannelConfig setReceiveBufferSizePredictorFactory(
+            ReceiveBufferSizePredictorFactory predictorFactory) {
+        return (SctpChannelConfig) super.setReceiveBufferSizePredictorFactory(predictorFactory);
+    }
+
+    @Override
+    public SctpChannelConfig setMaxMessagesPerRead(int maxMessagesPerRead) {
+        return (SctpChannelConfig) super.setMaxMessagesPerRead(maxMessagesPerRead);
+    }
+
+    @Override
+    public SctpChannelConfig setMaxBytesPerRead(int maxBytesPerRead) {
+        return (SctpChannelConfig) super.setMaxBytesPerRead(maxBytesPerRead);
+    }
+
+    @Override
+    public SctpChannelConfig setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+        return (SctpChannelConfig) super.setWriteBufferHighWaterMark(writeBufferHighWaterMark);
+    }
+
+    @Override
+    public SctpChannelConfig setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+        return (SctpChannelConfig) super.setWriteBufferLowWaterMark(writeBufferLowWaterMark);
+    }
 }
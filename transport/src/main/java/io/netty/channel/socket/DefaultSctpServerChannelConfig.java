@@ -20,6 +20,7 @@ import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelException;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.DefaultChannelConfig;
+import io.netty.channel.ReceiveBufferSizePredictorFactory;
 import io.netty.util.NetUtil;
 
 import java.io.IOException;
@@ -173,4 +174,30 @@ public class DefaultSctpServerChannelConfig extends DefaultChannelConfig impleme
     public SctpServerChannelConfig setAutoRead(boolean autoRead) {
         return (SctpServerChannelConfig) super.setAutoRead(autoRead);
     }
+
+    @Override
+    public SctpServerChannelConfig setReceiveBufferSizePredictorFactory(
+            ReceiveBufferSizePredictorFactory predictorFactory) {
+        return (SctpServerChannelConfig) super.setReceiveBufferSizePredictorFactory(predictorFactory);
+    }
+
+    @Override
+    public SctpServerChannelConfig setMaxMessagesPerRead(int maxMessagesPerRead) {
+        return (SctpServerChannelConfig) super.setMaxMessagesPerRead(maxMessagesPerRead);
+    }
+
+    @Override
+    public SctpServerChannelConfig setMaxBytesPerRead(int maxBytesPerRead) {
+        return (SctpServerChannelConfig) super.setMaxBytesPerRead(maxBytesPerRead);
+    }
+
+    @Override
+    public SctpServerChannelConfig setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+        return (SctpServerChannelConfig) super.setWriteBufferHighWaterMark(writeBufferHighWaterMark);
+    }
+
+    @Override
+    public SctpServerChannelConfig setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+        return (SctpServerChannelConfig) super.setWriteBufferLowWaterMark(writeBufferLowWaterMark);
+    }
 }
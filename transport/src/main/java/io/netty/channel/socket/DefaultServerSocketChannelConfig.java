@@ -19,8 +19,11 @@ import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelException;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.DefaultChannelConfig;
+import io.netty.channel.ReceiveBufferSizePredictorFactory;
 import io.netty.util.NetUtil;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.net.ServerSocket;
 import java.net.SocketException;
 import java.util.Map;
@@ -33,6 +36,32 @@ import static io.netty.channel.ChannelOption.*;
 public class DefaultServerSocketChannelConfig extends DefaultChannelConfig
                                               implements ServerSocketChannelConfig {
 
+    // java.net.StandardSocketOptions.SO_REUSEPORT and the methods to set it, which are only available in Java 9+.
+    private static final Object SO_REUSEPORT_OPTION;
+    private static final Method SET_OPTION;
+    private static final Method GET_OPTION;
+
+    static {
+        Object reusePortOption = null;
+        Method setOption = null;
+        Method getOption = null;
+        try {
+            Class<?> socketOptionType = Class.forName("java.net.SocketOption");
+            reusePortOption = Class.forName("java.net.StandardSocketOptions").getField("SO_REUSEPORT").get(null);
+            setOption = ServerSocket.class.getMethod("setOption", socketOptionType, Object.class);
+            getOption = ServerSocket.class.getMethod("getOption", socketOptionType);
+        } catch (Throwable t) {
+            // Not supported by the current JDK.
+            reusePortOption = null;
+            setOption = null;
+            getOption = null;
+        }
+
+        SO_REUSEPORT_OPTION = reusePortOption;
+        SET_OPTION = setOption;
+        GET_OPTION = getOption;
+    }
+
     private final ServerSocket javaSocket;
     private volatile int backlog = NetUtil.SOMAXCONN;
 
@@ -49,7 +78,7 @@ public class DefaultServerSocketChannelConfig extends DefaultChannelConfig
 
     @Override
     public Map<ChannelOption<?>, Object> getOptions() {
-        return getOptions(super.getOptions(), SO_RCVBUF, SO_REUSEADDR, SO_BACKLOG);
+        return getOptions(super.getOptions(), SO_RCVBUF, SO_REUSEADDR, SO_REUSEPORT, SO_BACKLOG);
     }
 
     @SuppressWarnings("unchecked")
@@ -61,6 +90,9 @@ public class DefaultServerSocketChannelConfig extends DefaultChannelConfig
         if (option == SO_REUSEADDR) {
             return (T) Boolean.valueOf(isReuseAddress());
         }
+        if (option == SO_REUSEPORT) {
+            return (T) Boolean.valueOf(isReusePort());
+        }
         if (option == SO_BACKLOG) {
             return (T) Integer.valueOf(getBacklog());
         }
@@ -76,6 +108,8 @@ public class DefaultServerSocketChannelConfig extends DefaultChannelConfig
             setReceiveBufferSize((Integer) value);
         } else if (option == SO_REUSEADDR) {
             setReuseAddress((Boolean) value);
+        } else if (option == SO_REUSEPORT) {
+            setReusePort((Boolean) value);
         } else if (option == SO_BACKLOG) {
             setBacklog((Integer) value);
         } else {
@@ -104,6 +138,54 @@ public class DefaultServerSocketChannelConfig extends DefaultChannelConfig
         return this;
     }
 
+    /**
+     * Returns {@code true} if {@code SO_REUSEPORT} is enabled.  Always returns {@code false} if the current JDK
+     * does not support {@code SO_REUSEPORT}.
+     */
+    public boolean isReusePort() {
+        if (SO_REUSEPORT_OPTION == null) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(invoke(GET_OPTION, SO_REUSEPORT_OPTION));
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Enables or disables {@code SO_REUSEPORT}, which allows several sockets to listen on the same address and port
+     * so that the kernel balances incoming connections between them.  It requires Java 9 or above and an operating
+     * system which supports it, such as Linux 3.9 or above.
+     *
+     * @throws UnsupportedOperationException
+     *         if {@code SO_REUSEPORT} is not supported by the current JDK or operating system
+     */
+    public ServerSocketChannelConfig setReusePort(boolean reusePort) {
+        if (SO_REUSEPORT_OPTION == null) {
+            if (reusePort) {
+                throw new UnsupportedOperationException("SO_REUSEPORT requires Java 9 or above");
+            }
+            return this;
+        }
+        invoke(SET_OPTION, SO_REUSEPORT_OPTION, reusePort);
+        return this;
+    }
+
+    private Object invoke(Method method, Object... args) {
+        try {
+            return method.invoke(javaSocket, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UnsupportedOperationException) {
+                throw (UnsupportedOperationException) cause;
+            }
+            throw new ChannelException(cause);
+        } catch (Exception e) {
+            throw new ChannelException(e);
+        }
+    }
+
     @Override
     public int getReceiveBufferSize() {
         try {
@@ -162,4 +244,30 @@ public class DefaultServerSocketChannelConfig extends DefaultChannelConfig
     public ServerSocketChannelConfig setAutoRead(boolean autoRead) {
         return (ServerSocketChannelConfig) super.setAutoRead(autoRead);
     }
+
+    @Override
+    public ServerSocketChannelConfig setReceiveBufferSizePredictorFactory(
+            ReceiveBufferSizePredictorFactory predictorFactory) {
+        return (ServerSocketChannelConfig) super.setReceiveBufferSizePredictorFactory(predictorFactory);
+    }
+
+    @Override
+    public ServerSocketChannelConfig setMaxMessagesPerRead(int maxMessagesPerRead) {
+        return (ServerSocketChannelConfig) super.setMaxMessagesPerRead(maxMessagesPerRead);
+    }
+
+    @Override
+    public ServerSocketChannelConfig setMaxBytesPerRead(int maxBytesPerRead) {
+        return (ServerSocketChannelConfig) super.setMaxBytesPerRead(maxBytesPerRead);
+    }
+
+    @Override
+    public ServerSocketChannelConfig setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+        return (ServerSocketChannelConfig) super.setWriteBufferHighWaterMark(writeBufferHighWaterMark);
+    }
+
+    @Override
+    public ServerSocketChannelConfig setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+        return (ServerSocketChannelConfig) super.setWriteBufferLowWaterMark(writeBufferLowWaterMark);
+    }
 }
@@ -19,6 +19,7 @@ import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelException;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.DefaultChannelConfig;
+import io.netty.channel.ReceiveBufferSizePredictorFactory;
 
 import java.net.Socket;
 import java.net.SocketException;
@@ -286,4 +287,30 @@ public class DefaultSocketChannelConfig extends DefaultChannelConfig
     public SocketChannelConfig setAutoRead(boolean autoRead) {
         return (SocketChannelConfig) super.setAutoRead(autoRead);
     }
+
+    @Override
+    public SocketChannelConfig setReceiveBufferSizePredictorFactory(
+            ReceiveBufferSizePredictorFactory predictorFactory) {
+        return (SocketChannelConfig) super.setReceiveBufferSizePredictorFactory(predictorFactory);
+    }
+
+    @Override
+    public SocketChannelConfig setMaxMessagesPerRead(int maxMessagesPerRead) {
+        return (SocketChannelConfig) super.setMaxMessagesPerRead(maxMessagesPerRead);
+    }
+
+    @Override
+    public SocketChannelConfig setMaxBytesPerRead(int maxBytesPerRead) {
+        return (SocketChannelConfig) super.setMaxBytesPerRead(maxBytesPerRead);
+    }
+
+    @Override
+    public SocketChannelConfig setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+        return (SocketChannelConfig) super.setWriteBufferHighWaterMark(writeBufferHighWaterMark);
+    }
+
+    @Override
+    public SocketChannelConfig setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+        return (SocketChannelConfig) super.setWriteBufferLowWaterMark(writeBufferLowWaterMark);
+    }
 }
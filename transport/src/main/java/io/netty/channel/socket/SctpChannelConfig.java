@@ -17,6 +17,7 @@ package io.netty.channel.socket;
 
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelConfig;
+import io.netty.channel.ReceiveBufferSizePredictorFactory;
 
 import static com.sun.nio.sctp.SctpStandardSocketOptions.*;
 
@@ -104,4 +105,19 @@ public interface SctpChannelConfig extends ChannelConfig {
 
     @Override
     SctpChannelConfig setAutoRead(boolean autoRead);
+
+    @Override
+    SctpChannelConfig setReceiveBufferSizePredictorFactory(ReceiveBufferSizePredictorFactory predictorFactory);
+
+    @Override
+    SctpChannelConfig setMaxMessagesPerRead(int maxMessagesPerRead);
+
+    @Override
+    SctpChannelConfig setMaxBytesPerRead(int maxBytesPerRead);
+
+    @Override
+    SctpChannelConfig setWriteBufferHighWaterMark(int writeBufferHighWaterMark);
+
+    @Override
+    SctpChannelConfig setWriteBufferLowWaterMark(int writeBufferLowWaterMark);
 }
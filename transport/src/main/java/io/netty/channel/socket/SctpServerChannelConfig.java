@@ -17,6 +17,7 @@ package io.netty.channel.socket;
 
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelConfig;
+import io.netty.channel.ReceiveBufferSizePredictorFactory;
 
 import static com.sun.nio.sctp.SctpStandardSocketOptions.*;
 
@@ -103,4 +104,19 @@ public interface SctpServerChannelConfig extends ChannelConfig {
 
     @Override
     SctpServerChannelConfig setAutoRead(boolean autoRead);
+
+    @Override
+    SctpServerChannelConfig setReceiveBufferSizePredictorFactory(ReceiveBufferSizePredictorFactory predictorFactory);
+
+    @Override
+    SctpServerChannelConfig setMaxMessagesPerRead(int maxMessagesPerRead);
+
+    @Override
+    SctpServerChannelConfig setMaxBytesPerRead(int maxBytesPerRead);
+
+    @Override
+    SctpServerChannelConfig setWriteBufferHighWaterMark(int writeBufferHighWaterMark);
+
+    @Override
+    SctpServerChannelConfig setWriteBufferLowWaterMark(int writeBufferLowWaterMark);
 }
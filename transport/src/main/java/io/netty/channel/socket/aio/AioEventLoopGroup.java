@@ -16,7 +16,6 @@
 package io.netty.channel.socket.aio;
 
 import io.netty.channel.Channel;
-import io.netty.channel.ChannelTaskScheduler;
 import io.netty.channel.EventExecutor;
 import io.netty.channel.EventLoopException;
 import io.netty.channel.MultithreadEventLoopGroup;
@@ -126,9 +125,8 @@ public class AioEventLoopGroup extends MultithreadEventLoopGroup {
     }
 
     @Override
-    protected EventExecutor newChild(
-            ThreadFactory threadFactory, ChannelTaskScheduler scheduler, Object... args) throws Exception {
-        return new AioEventLoop(this, threadFactory, scheduler);
+    protected EventExecutor newChild(ThreadFactory threadFactory, Object... args) throws Exception {
+        return new AioEventLoop(this, threadFactory);
     }
 
     private final class AioExecutorService extends AbstractExecutorService {
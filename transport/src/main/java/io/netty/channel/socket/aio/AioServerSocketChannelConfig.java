@@ -19,6 +19,7 @@ import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelException;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.DefaultChannelConfig;
+import io.netty.channel.ReceiveBufferSizePredictorFactory;
 import io.netty.channel.socket.ServerSocketChannelConfig;
 import io.netty.util.NetUtil;
 
@@ -44,6 +45,19 @@ final class AioServerSocketChannelConfig extends DefaultChannelConfig
     private Map<SocketOption<?>, Object> options = new ConcurrentHashMap<SocketOption<?>, Object>();
     private static final int DEFAULT_SND_BUF_SIZE = 32 * 1024;
     private static final boolean DEFAULT_SO_REUSEADDR = false;
+    // java.net.StandardSocketOptions.SO_REUSEPORT, which is only available in Java 9+.
+    private static final SocketOption<?> SO_REUSEPORT_OPTION;
+
+    static {
+        SocketOption<?> reusePortOption;
+        try {
+            reusePortOption = (SocketOption<?>) StandardSocketOptions.class.getField("SO_REUSEPORT").get(null);
+        } catch (Throwable t) {
+            // Not supported by the current JDK.
+            reusePortOption = null;
+        }
+        SO_REUSEPORT_OPTION = reusePortOption;
+    }
 
     /**
      * Creates a new instance with no {@link AsynchronousServerSocketChannel} assigned to it.
@@ -65,7 +79,7 @@ final class AioServerSocketChannelConfig extends DefaultChannelConfig
 
     @Override
     public Map<ChannelOption<?>, Object> getOptions() {
-        return getOptions(super.getOptions(), SO_RCVBUF, SO_REUSEADDR, SO_BACKLOG);
+        return getOptions(super.getOptions(), SO_RCVBUF, SO_REUSEADDR, SO_REUSEPORT, SO_BACKLOG);
     }
 
     @SuppressWarnings("unchecked")
@@ -77,6 +91,9 @@ final class AioServerSocketChannelConfig extends DefaultChannelConfig
         if (option == SO_REUSEADDR) {
             return (T) Boolean.valueOf(isReuseAddress());
         }
+        if (option == SO_REUSEPORT) {
+            return (T) Boolean.valueOf(isReusePort());
+        }
         if (option == SO_BACKLOG) {
             return (T) Integer.valueOf(getBacklog());
         }
@@ -92,6 +109,8 @@ final class AioServerSocketChannelConfig extends DefaultChannelConfig
             setReceiveBufferSize((Integer) value);
         } else if (option == SO_REUSEADDR) {
             setReuseAddress((Boolean) value);
+        } else if (option == SO_REUSEPORT) {
+            setReusePort((Boolean) value);
         } else if (option == SO_BACKLOG) {
             setBacklog((Integer) value);
         } else {
@@ -112,6 +131,33 @@ final class AioServerSocketChannelConfig extends DefaultChannelConfig
         return this;
     }
 
+    /**
+     * Returns {@code true} if {@code SO_REUSEPORT} is enabled.  Always returns {@code false} if the current JDK
+     * does not support {@code SO_REUSEPORT}.
+     */
+    public boolean isReusePort() {
+        if (SO_REUSEPORT_OPTION == null) {
+            return false;
+        }
+        return (Boolean) getOption(SO_REUSEPORT_OPTION, false);
+    }
+
+    /**
+     * Enables or disables {@code SO_REUSEPORT}.
+     *
+     * @see io.netty.channel.socket.DefaultServerSocketChannelConfig#setReusePort(boolean)
+     */
+    public ServerSocketChannelConfig setReusePort(boolean reusePort) {
+        if (SO_REUSEPORT_OPTION == null) {
+            if (reusePort) {
+                throw new UnsupportedOperationException("SO_REUSEPORT requires Java 9 or above");
+            }
+            return this;
+        }
+        setOption(SO_REUSEPORT_OPTION, reusePort);
+        return this;
+    }
+
     @Override
     public int getReceiveBufferSize() {
         return (Integer) getOption(StandardSocketOptions.SO_RCVBUF, DEFAULT_SND_BUF_SIZE);
@@ -220,4 +266,30 @@ final class AioServerSocketChannelConfig extends DefaultChannelConfig
     public ServerSocketChannelConfig setAutoRead(boolean autoRead) {
         return (ServerSocketChannelConfig) super.setAutoRead(autoRead);
     }
+
+    @Override
+    public ServerSocketChannelConfig setReceiveBufferSizePredictorFactory(
+            ReceiveBufferSizePredictorFactory predictorFactory) {
+        return (ServerSocketChannelConfig) super.setReceiveBufferSizePredictorFactory(predictorFactory);
+    }
+
+    @Override
+    public ServerSocketChannelConfig setMaxMessagesPerRead(int maxMessagesPerRead) {
+        return (ServerSocketChannelConfig) super.setMaxMessagesPerRead(maxMessagesPerRead);
+    }
+
+    @Override
+    public ServerSocketChannelConfig setMaxBytesPerRead(int maxBytesPerRead) {
+        return (ServerSocketChannelConfig) super.setMaxBytesPerRead(maxBytesPerRead);
+    }
+
+    @Override
+    public ServerSocketChannelConfig setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+        return (ServerSocketChannelConfig) super.setWriteBufferHighWaterMark(writeBufferHighWaterMark);
+    }
+
+    @Override
+    public ServerSocketChannelConfig setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+        return (ServerSocketChannelConfig) super.setWriteBufferLowWaterMark(writeBufferLowWaterMark);
+    }
 }
@@ -306,11 +306,7 @@ public class AioSocketChannel extends AbstractAioChannel implements SocketChanne
                 }
 
                 ByteBuf byteBuf = pipeline().inboundByteBuffer();
-                if (!byteBuf.readable()) {
-                    byteBuf.discardReadBytes();
-                }
-
-                expandReadBuffer(byteBuf);
+                prepareReadBuffer(byteBuf, receiveBufferSizePredictor().nextReceiveBufferSize());
 
                 readInProgress = true;
                 if (byteBuf.nioBufferCount() == 1) {
@@ -384,6 +380,7 @@ public class AioSocketChannel extends AbstractAioChannel implements SocketChanne
                 channel.unsafe().flushNow();
             } else {
                 buf.discardReadBytes();
+                channel.updateWritability();
             }
         }
 
@@ -437,6 +434,7 @@ public class AioSocketChannel extends AbstractAioChannel implements SocketChanne
                     // This is needed as the ByteBuffer and the ByteBuf does not share
                     // each others index
                     byteBuf.writerIndex(byteBuf.writerIndex() + localReadAmount);
+                    channel.receiveBufferSizePredictor().previousReceiveBufferSize(localReadAmount);
 
                     read = true;
                 } else if (localReadAmount < 0) {
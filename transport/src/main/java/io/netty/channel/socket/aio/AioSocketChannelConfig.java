@@ -16,6 +16,7 @@
 package io.netty.channel.socket.aio;
 
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ReceiveBufferSizePredictorFactory;
 import io.netty.channel.socket.SocketChannelConfig;
 
 import java.nio.channels.InterruptedByTimeoutException;
@@ -65,6 +66,21 @@ public interface AioSocketChannelConfig extends SocketChannelConfig {
     @Override
     AioSocketChannelConfig setAutoRead(boolean autoRead);
 
+    @Override
+    AioSocketChannelConfig setReceiveBufferSizePredictorFactory(ReceiveBufferSizePredictorFactory predictorFactory);
+
+    @Override
+    AioSocketChannelConfig setMaxMessagesPerRead(int maxMessagesPerRead);
+
+    @Override
+    AioSocketChannelConfig setMaxBytesPerRead(int maxBytesPerRead);
+
+    @Override
+    AioSocketChannelConfig setWriteBufferHighWaterMark(int writeBufferHighWaterMark);
+
+    @Override
+    AioSocketChannelConfig setWriteBufferLowWaterMark(int writeBufferLowWaterMark);
+
     /**
      * Return the read timeout in milliseconds after which a {@link InterruptedByTimeoutException} will get thrown.
      * Once such an exception was detected it will get propagated to the handlers first. After that the channel
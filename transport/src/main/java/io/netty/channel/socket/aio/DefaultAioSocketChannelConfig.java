@@ -19,6 +19,7 @@ import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelException;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.DefaultChannelConfig;
+import io.netty.channel.ReceiveBufferSizePredictorFactory;
 
 import java.io.IOException;
 import java.net.SocketOption;
@@ -343,4 +344,30 @@ final class DefaultAioSocketChannelConfig extends DefaultChannelConfig
     public AioSocketChannelConfig setAutoRead(boolean autoRead) {
         return (AioSocketChannelConfig) super.setAutoRead(autoRead);
     }
+
+    @Override
+    public AioSocketChannelConfig setReceiveBufferSizePredictorFactory(
+            ReceiveBufferSizePredictorFactory predictorFactory) {
+        return (AioSocketChannelConfig) super.setReceiveBufferSizePredictorFactory(predictorFactory);
+    }
+
+    @Override
+    public AioSocketChannelConfig setMaxMessagesPerRead(int maxMessagesPerRead) {
+        return (AioSocketChannelConfig) super.setMaxMessagesPerRead(maxMessagesPerRead);
+    }
+
+    @Override
+    public AioSocketChannelConfig setMaxBytesPerRead(int maxBytesPerRead) {
+        return (AioSocketChannelConfig) super.setMaxBytesPerRead(maxBytesPerRead);
+    }
+
+    @Override
+    public AioSocketChannelConfig setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+        return (AioSocketChannelConfig) super.setWriteBufferHighWaterMark(writeBufferHighWaterMark);
+    }
+
+    @Override
+    public AioSocketChannelConfig setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+        return (AioSocketChannelConfig) super.setWriteBufferLowWaterMark(writeBufferLowWaterMark);
+    }
 }
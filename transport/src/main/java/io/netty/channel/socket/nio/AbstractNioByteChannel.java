@@ -21,6 +21,7 @@ import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.ChannelPromise;
 import io.netty.channel.FileRegion;
+import io.netty.channel.ReceiveBufferSizePredictor;
 import io.netty.channel.socket.ChannelInputShutdownEvent;
 
 import java.io.IOException;
@@ -60,21 +61,33 @@ public abstract class AbstractNioByteChannel extends AbstractNioChannel {
 
             final ChannelPipeline pipeline = pipeline();
             final ByteBuf byteBuf = pipeline.inboundByteBuffer();
+            final ReceiveBufferSizePredictor predictor = receiveBufferSizePredictor();
+            final int expectedReadAmount = predictor.nextReceiveBufferSize();
+            final int maxMessagesPerRead = config().getMaxMessagesPerRead();
+            final int maxBytesPerRead = config().getMaxBytesPerRead();
             boolean closed = false;
             boolean read = false;
             boolean firedInboundBufferSuspended = false;
+            int totalReadAmount = 0;
+            int readCount = 0;
             try {
-                expandReadBuffer(byteBuf);
+                prepareReadBuffer(byteBuf, expectedReadAmount);
                 loop: for (;;) {
                     int localReadAmount = doReadBytes(byteBuf);
                     if (localReadAmount > 0) {
                         read = true;
+                        totalReadAmount += localReadAmount;
+                        if (++ readCount >= maxMessagesPerRead || totalReadAmount >= maxBytesPerRead) {
+                            // Leave the remaining bytes to the next read event so that the other channels of
+                            // the event loop get their turn.
+                            break;
+                        }
                     } else if (localReadAmount < 0) {
                         closed = true;
                         break;
                     }
 
-                    switch (expandReadBuffer(byteBuf)) {
+                    switch (expandReadBuffer(byteBuf, expectedReadAmount)) {
                     case 0:
                         // Read all - stop reading.
                         break loop;
@@ -108,6 +121,10 @@ public abstract class AbstractNioByteChannel extends AbstractNioChannel {
                 }
                 pipeline().fireExceptionCaught(t);
             } finally {
+                if (totalReadAmount > 0) {
+                    predictor.previousReceiveBufferSize(totalReadAmount);
+                }
+
                 if (read) {
                     pipeline.fireInboundBufferUpdated();
                 }
@@ -50,14 +50,22 @@ public abstract class AbstractNioMessageChannel extends AbstractNioChannel {
 
             final ChannelPipeline pipeline = pipeline();
             final MessageBuf<Object> msgBuf = pipeline.inboundMessageBuffer();
+            final int maxMessagesPerRead = config().getMaxMessagesPerRead();
             boolean closed = false;
             boolean read = false;
             boolean firedInboundBufferSuspended = false;
+            int totalReadAmount = 0;
             try {
                 for (;;) {
                     int localReadAmount = doReadMessages(msgBuf);
                     if (localReadAmount > 0) {
                         read = true;
+                        totalReadAmount += localReadAmount;
+                        if (totalReadAmount >= maxMessagesPerRead) {
+                            // Leave the remaining messages to the next read event so that the other channels of
+                            // the event loop get their turn.
+                            break;
+                        }
                     } else if (localReadAmount == 0) {
                         break;
                     } else if (localReadAmount < 0) {
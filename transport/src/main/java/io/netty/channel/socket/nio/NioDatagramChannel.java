@@ -18,7 +18,6 @@ package io.netty.channel.socket.nio;
 import io.netty.buffer.BufType;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.MessageBuf;
-import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelException;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelMetadata;
@@ -152,8 +151,8 @@ public final class NioDatagramChannel
 
     @Override
     protected void doBind(SocketAddress localAddress) throws Exception {
+        // OP_READ is set by doBeginRead() once the channel is active, so that AUTO_READ is respected.
         javaChannel().socket().bind(localAddress);
-        selectionKey().interestOps(SelectionKey.OP_READ);
     }
 
     @Override
@@ -194,15 +193,29 @@ public final class NioDatagramChannel
     @Override
     protected int doReadMessages(MessageBuf<Object> buf) throws Exception {
         DatagramChannel ch = javaChannel();
-        ByteBuffer data = ByteBuffer.allocate(config().getReceivePacketSize());
-        InetSocketAddress remoteAddress = (InetSocketAddress) ch.receive(data);
-        if (remoteAddress == null) {
-            return 0;
-        }
+        // Receive into a (pooled) direct buffer so that the JDK does not need a temporary direct buffer of its own,
+        // and hand that buffer to the pipeline as is.  The handler which consumes the packet must free it.
+        ByteBuf data = alloc().directBuffer(config().getReceivePacketSize());
+        boolean free = true;
+        try {
+            ByteBuffer nioData = data.nioBuffer(data.writerIndex(), data.writableBytes());
+            int pos = nioData.position();
+            InetSocketAddress remoteAddress = (InetSocketAddress) ch.receive(nioData);
+            if (remoteAddress == null) {
+                return 0;
+            }
 
-        data.flip();
-        buf.add(new DatagramPacket(Unpooled.wrappedBuffer(data), remoteAddress));
-        return 1;
+            // Only the received bytes are readable.  The capacity is left as is because shrinking a pooled buffer
+            // may reallocate and copy it.
+            data.writerIndex(data.writerIndex() + nioData.position() - pos);
+            buf.add(new DatagramPacket(data, remoteAddress));
+            free = false;
+            return 1;
+        } finally {
+            if (free) {
+                data.free();
+            }
+        }
     }
 
     @Override
@@ -210,16 +223,25 @@ public final class NioDatagramChannel
         DatagramPacket packet = (DatagramPacket) buf.peek();
         ByteBuf data = packet.data();
         int dataLen = data.readableBytes();
+        ByteBuf tmpBuf = null;
         ByteBuffer nioData;
         if (data.nioBufferCount() == 1) {
             nioData = data.nioBuffer();
         } else {
-            nioData = ByteBuffer.allocate(dataLen);
-            data.getBytes(data.readerIndex(), nioData);
-            nioData.flip();
+            // Merge the components into a single direct buffer, which is handed to the JDK as is.
+            tmpBuf = alloc().directBuffer(dataLen);
+            tmpBuf.writeBytes(data, data.readerIndex(), dataLen);
+            nioData = tmpBuf.nioBuffer();
         }
 
-        final int writtenBytes = javaChannel().send(nioData, packet.remoteAddress());
+        final int writtenBytes;
+        try {
+            writtenBytes = javaChannel().send(nioData, packet.remoteAddress());
+        } finally {
+            if (tmpBuf != null) {
+                tmpBuf.free();
+            }
+        }
 
         final SelectionKey key = selectionKey();
         final int interestOps = key.interestOps();
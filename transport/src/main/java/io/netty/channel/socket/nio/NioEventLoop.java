@@ -17,12 +17,15 @@ package io.netty.channel.socket.nio;
 
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelException;
-import io.netty.channel.ChannelTaskScheduler;
 import io.netty.channel.EventLoopException;
 import io.netty.channel.SingleThreadEventLoop;
 import io.netty.channel.socket.nio.AbstractNioChannel.NioUnsafe;
 import io.netty.logging.InternalLogger;
 import io.netty.logging.InternalLoggerFactory;
+import io.netty.monitor.CounterMonitor;
+import io.netty.monitor.EventRateMonitor;
+import io.netty.monitor.MonitorRegistry;
+import io.netty.monitor.ValueDistributionMonitor;
 
 import java.io.IOException;
 import java.nio.channels.CancelledKeyException;
@@ -36,8 +39,8 @@ import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -70,18 +73,45 @@ public final class NioEventLoop extends SingleThreadEventLoop {
      */
     private final AtomicBoolean wakenUp = new AtomicBoolean();
 
+    /**
+     * The selected-key set of {@link #selector}, or {@code null} if the optimization is disabled or unavailable.
+     */
+    private SelectedSelectionKeySet selectedKeys;
+
     private int cancelledKeys;
     private boolean cleanedCancelledKeys;
 
+    private volatile int ioRatio = 50;
+
+    // Monitoring this instance
+    private final boolean monitored;
+    private final ValueDistributionMonitor selectTime;
+    private final ValueDistributionMonitor processSelectedKeysTime;
+    private final ValueDistributionMonitor runAllTasksTime;
+    private final CounterMonitor selectorRebuilds;
+    private final EventRateMonitor wakeupsPerSecond;
+    private final EventRateMonitor avoidedWakeupsPerSecond;
+
     NioEventLoop(
-            NioEventLoopGroup parent, ThreadFactory threadFactory,
-            ChannelTaskScheduler scheduler, SelectorProvider selectorProvider) {
-        super(parent, threadFactory, scheduler);
+            NioEventLoopGroup parent, ThreadFactory threadFactory, SelectorProvider selectorProvider,
+            MonitorRegistry monitorRegistry) {
+        super(parent, threadFactory, monitorRegistry);
         if (selectorProvider == null) {
             throw new NullPointerException("selectorProvider");
         }
         provider = selectorProvider;
         selector = openSelector();
+        selectedKeys = installSelectedKeySet(selector);
+
+        monitored = monitorRegistry != MonitorRegistry.NOOP;
+        selectTime = monitorRegistry.newValueDistributionMonitor(monitorName("select-time"));
+        processSelectedKeysTime =
+                monitorRegistry.newValueDistributionMonitor(monitorName("process-selected-keys-time"));
+        runAllTasksTime = monitorRegistry.newValueDistributionMonitor(monitorName("run-all-tasks-time"));
+        selectorRebuilds = monitorRegistry.newCounterMonitor(monitorName("selector-rebuilds"));
+        wakeupsPerSecond = monitorRegistry.newEventRateMonitor(monitorName("wakeups-per-second"), TimeUnit.SECONDS);
+        avoidedWakeupsPerSecond =
+                monitorRegistry.newEventRateMonitor(monitorName("avoided-wakeups-per-second"), TimeUnit.SECONDS);
     }
 
     private Selector openSelector() {
@@ -92,10 +122,20 @@ public final class NioEventLoop extends SingleThreadEventLoop {
         }
     }
 
+    /**
+     * Returns the selected-key set installed into the specified {@link Selector}, or {@code null} if the
+     * optimization is disabled or unavailable.
+     */
+    private static SelectedSelectionKeySet installSelectedKeySet(Selector selector) {
+        if (SelectorUtil.SELECTED_KEY_SET_OPTIMIZATION) {
+            return SelectorUtil.installSelectedKeySet(selector);
+        }
+        return null;
+    }
+
     @Override
     protected Queue<Runnable> newTaskQueue() {
-        // This event loop never calls takeTask()
-        return new ConcurrentLinkedQueue<Runnable>();
+        return newMpscTaskQueue();
     }
 
     /**
@@ -129,6 +169,27 @@ public final class NioEventLoop extends SingleThreadEventLoop {
         }
     }
 
+    /**
+     * Returns the percentage of the desired amount of time spent for I/O in the event loop.
+     */
+    public int getIoRatio() {
+        return ioRatio;
+    }
+
+    /**
+     * Sets the percentage of the desired amount of time spent for I/O in the event loop.  The default value is
+     * {@code 50}, which means the event loop will try to spend the same amount of time for I/O as for non-I/O tasks.
+     * The time spent for running the tasks in one iteration is limited according to the time spent for processing
+     * the selected keys in the same iteration.  A value of {@code 100} disables the limit, so that all pending
+     * tasks are run in each iteration.
+     */
+    public void setIoRatio(int ioRatio) {
+        if (ioRatio <= 0 || ioRatio > 100) {
+            throw new IllegalArgumentException("ioRatio: " + ioRatio + " (expected: 0 < ioRatio <= 100)");
+        }
+        this.ioRatio = ioRatio;
+    }
+
     void executeWhenWritable(AbstractNioChannel channel, NioTask<SelectableChannel> task) {
         if (channel == null) {
             throw new NullPointerException("channel");
@@ -156,13 +217,17 @@ public final class NioEventLoop extends SingleThreadEventLoop {
 
         final Selector oldSelector = selector;
         final Selector newSelector;
+        // Kept apart from the fields until all channels were moved, so that the event loop does not use a key set
+        // which belongs to a selector it does not select on yet.
+        final SelectedSelectionKeySet newSelectedKeys;
 
         if (oldSelector == null) {
             return;
         }
 
         try {
-            newSelector = Selector.open();
+            newSelector = openSelector();
+            newSelectedKeys = installSelectedKeySet(newSelector);
         } catch (Exception e) {
             logger.warn("Failed to create a new Selector.", e);
             return;
@@ -204,6 +269,8 @@ public final class NioEventLoop extends SingleThreadEventLoop {
         }
 
         selector = newSelector;
+        selectedKeys = newSelectedKeys;
+        selectorRebuilds.increment();
 
         try {
             // time to close the old selector as everything else is registered to the new one
@@ -230,11 +297,25 @@ public final class NioEventLoop extends SingleThreadEventLoop {
             wakenUp.set(false);
 
             try {
+                // Do not block longer than until the deadline of the nearest scheduled task.
+                long selectTimeout = SelectorUtil.SELECT_TIMEOUT;
+                long delayNanos = delayNanos();
+                if (delayNanos >= 0) {
+                    selectTimeout = Math.min(selectTimeout, (delayNanos + 999999L) / 1000000L);
+                }
+                if (hasTasks()) {
+                    // Tasks left over by the previous iteration - do not block.
+                    selectTimeout = 0;
+                }
+
                 long beforeSelect = System.nanoTime();
-                int selected = SelectorUtil.select(selector);
-                if (SelectorUtil.EPOLL_BUG_WORKAROUND) {
+                int selected = SelectorUtil.select(selector, selectTimeout);
+                long timeBlocked = System.nanoTime() - beforeSelect;
+                if (monitored) {
+                    selectTime.update(timeBlocked);
+                }
+                if (SelectorUtil.EPOLL_BUG_WORKAROUND && selectTimeout == SelectorUtil.SELECT_TIMEOUT) {
                     if (selected == 0) {
-                        long timeBlocked = System.nanoTime()  - beforeSelect;
                         if (timeBlocked < minSelectTimeout) {
                             // returned before the minSelectTimeout elapsed with nothing select.
                             // this may be the cause of the jdk epoll(..) bug, so increment the counter
@@ -294,12 +375,24 @@ public final class NioEventLoop extends SingleThreadEventLoop {
 
                 cancelledKeys = 0;
 
-                runAllTasks();
+                final long ioStartTime = System.nanoTime();
+                processSelectedKeys();
                 selector = this.selector;
+                final long ioTime = System.nanoTime() - ioStartTime;
 
-                processSelectedKeys();
+                final int ioRatio = this.ioRatio;
+                if (ioRatio == 100) {
+                    runAllTasks();
+                } else {
+                    runAllTasks(ioTime * (100 - ioRatio) / ioRatio);
+                }
                 selector = this.selector;
 
+                if (monitored) {
+                    processSelectedKeysTime.update(ioTime);
+                    runAllTasksTime.update(System.nanoTime() - ioStartTime - ioTime);
+                }
+
                 if (isShutdown()) {
                     closeAll();
                     if (confirmShutdown()) {
@@ -336,11 +429,59 @@ public final class NioEventLoop extends SingleThreadEventLoop {
         if (cancelledKeys >= CLEANUP_INTERVAL) {
             cancelledKeys = 0;
             cleanedCancelledKeys = true;
-            SelectorUtil.cleanupKeys(selector);
+            cleanupKeys();
         }
     }
 
+    private void cleanupKeys() {
+        if (selectedKeys != null) {
+            // selectNow() adds the keys which are still ready again - do not process them twice.
+            selectedKeys.reset();
+        }
+        SelectorUtil.cleanupKeys(selector);
+    }
+
     private void processSelectedKeys() {
+        if (selectedKeys != null) {
+            processSelectedKeysOptimized(selectedKeys.flip());
+        } else {
+            processSelectedKeysPlain();
+        }
+    }
+
+    private void processSelectedKeysOptimized(SelectionKey[] selectedKeys) {
+        cleanedCancelledKeys = false;
+        for (int i = 0;; i ++) {
+            final SelectionKey k = selectedKeys[i];
+            if (k == null) {
+                break;
+            }
+            // Release the reference as the array is reused by the select operation after the next one.
+            selectedKeys[i] = null;
+
+            final Object a = k.attachment();
+            if (a instanceof AbstractNioChannel) {
+                processSelectedKey(k, (AbstractNioChannel) a);
+            } else {
+                @SuppressWarnings("unchecked")
+                NioTask<SelectableChannel> task = (NioTask<SelectableChannel>) a;
+                processSelectedKey(k, task);
+            }
+
+            if (cleanedCancelledKeys) {
+                // The cancelled keys were removed by selectNow(), which added the keys that are still ready to the
+                // other array.  Drop the remaining keys and continue with the ones that were selected again.
+                for (i ++; selectedKeys[i] != null; i ++) {
+                    selectedKeys[i] = null;
+                }
+                cleanedCancelledKeys = false;
+                selectedKeys = this.selectedKeys.flip();
+                i = -1;
+            }
+        }
+    }
+
+    private void processSelectedKeysPlain() {
         Set<SelectionKey> selectedKeys = selector.selectedKeys();
         // check if the set is empty and if so just return to not create garbage by
         // creating a new Iterator every time even if there is nothing to process.
@@ -464,7 +605,7 @@ public final class NioEventLoop extends SingleThreadEventLoop {
     }
 
     private void closeAll() {
-        SelectorUtil.cleanupKeys(selector);
+        cleanupKeys();
         Set<SelectionKey> keys = selector.keys();
         Collection<AbstractNioChannel> channels = new ArrayList<AbstractNioChannel>(keys.size());
         for (SelectionKey k: keys) {
@@ -493,10 +634,29 @@ public final class NioEventLoop extends SingleThreadEventLoop {
         }
     }
 
+    @Override
+    public void lazyExecute(Runnable task) {
+        super.lazyExecute(task);
+        if (!inEventLoop()) {
+            avoidedWakeupsPerSecond.event();
+        }
+    }
+
     @Override
     protected void wakeup(boolean inEventLoop) {
-        if (wakenUp.compareAndSet(false, true)) {
+        // The event loop does not block in select() while it has pending tasks, so it never needs to wake up itself
+        // unless it is shutting down.
+        if (inEventLoop && !isShutdown()) {
+            return;
+        }
+
+        // Check wakenUp before the CAS, so that a burst of submissions from many threads does not contend on it
+        // once the selector has been woken up.
+        if (!wakenUp.get() && wakenUp.compareAndSet(false, true)) {
             selector.wakeup();
+            wakeupsPerSecond.event();
+        } else if (!inEventLoop) {
+            avoidedWakeupsPerSecond.event();
         }
     }
 }
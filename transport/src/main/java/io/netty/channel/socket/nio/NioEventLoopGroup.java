@@ -16,9 +16,11 @@
 package io.netty.channel.socket.nio;
 
 import io.netty.channel.Channel;
-import io.netty.channel.ChannelTaskScheduler;
 import io.netty.channel.EventExecutor;
+import io.netty.channel.EventExecutorChooserFactory;
 import io.netty.channel.MultithreadEventLoopGroup;
+import io.netty.channel.RoundRobinEventExecutorChooserFactory;
+import io.netty.monitor.MonitorRegistry;
 
 import java.nio.channels.Selector;
 import java.nio.channels.spi.SelectorProvider;
@@ -59,7 +61,64 @@ public class NioEventLoopGroup extends MultithreadEventLoopGroup {
      */
     public NioEventLoopGroup(
             int nThreads, ThreadFactory threadFactory, final SelectorProvider selectorProvider) {
-        super(nThreads, threadFactory, selectorProvider);
+        this(nThreads, threadFactory, selectorProvider, MonitorRegistry.NOOP);
+    }
+
+    /**
+     * Create a new instance using nThreads number of threads, the given {@link ThreadFactory}, the given
+     * {@link SelectorProvider} and {@link io.netty.monitor monitoring support} enabled.  Each child event loop will
+     * monitor
+     * <ul>
+     * <li>the number of tasks in its task queue,</li>
+     * <li>the distribution of the time it takes to execute a task,</li>
+     * <li>the distribution of the time spent in {@link Selector#select()}, processing the selected keys and running
+     *     the tasks per iteration,</li>
+     * <li>the number of times its {@link Selector} was rebuilt, and</li>
+     * <li>the rate at which its {@link Selector} is woken up.</li>
+     * </ul>
+     * All times are in nanoseconds.  The name of the event loop thread is used as the
+     * {@link io.netty.monitor.MonitorName#instance() instance} of the monitors.
+     *
+     * @param monitorRegistry the {@link MonitorRegistry} to use
+     */
+    public NioEventLoopGroup(
+            int nThreads, ThreadFactory threadFactory, final SelectorProvider selectorProvider,
+            MonitorRegistry monitorRegistry) {
+        this(nThreads, threadFactory, selectorProvider, monitorRegistry,
+             RoundRobinEventExecutorChooserFactory.INSTANCE);
+    }
+
+    /**
+     * Create a new instance using nThreads number of threads, the given {@link ThreadFactory}, the
+     * {@link SelectorProvider} which is returned by {@link SelectorProvider#provider()} and the given
+     * {@link EventExecutorChooserFactory}, which decides which event loop a new {@link Channel} is registered to.
+     */
+    public NioEventLoopGroup(int nThreads, ThreadFactory threadFactory, EventExecutorChooserFactory chooserFactory) {
+        this(nThreads, threadFactory, SelectorProvider.provider(), MonitorRegistry.NOOP, chooserFactory);
+    }
+
+    /**
+     * Create a new instance using nThreads number of threads, the given {@link ThreadFactory}, the given
+     * {@link SelectorProvider}, the given {@link MonitorRegistry} and the given {@link EventExecutorChooserFactory}.
+     *
+     * @see #NioEventLoopGroup(int, ThreadFactory, SelectorProvider, MonitorRegistry)
+     */
+    public NioEventLoopGroup(
+            int nThreads, ThreadFactory threadFactory, final SelectorProvider selectorProvider,
+            MonitorRegistry monitorRegistry, EventExecutorChooserFactory chooserFactory) {
+        super(nThreads, threadFactory, chooserFactory, selectorProvider, monitorRegistry);
+    }
+
+    /**
+     * Sets the percentage of the desired amount of time spent for I/O in the child event loops.  The default value is
+     * {@code 50}, which means the event loop will try to spend the same amount of time for I/O as for non-I/O tasks.
+     *
+     * @see NioEventLoop#setIoRatio(int)
+     */
+    public void setIoRatio(int ioRatio) {
+        for (EventExecutor e: children()) {
+            ((NioEventLoop) e).setIoRatio(ioRatio);
+        }
     }
 
     /**
@@ -73,8 +132,7 @@ public class NioEventLoopGroup extends MultithreadEventLoopGroup {
     }
 
     @Override
-    protected EventExecutor newChild(
-            ThreadFactory threadFactory, ChannelTaskScheduler scheduler, Object... args) throws Exception {
-        return new NioEventLoop(this, threadFactory, scheduler, (SelectorProvider) args[0]);
+    protected EventExecutor newChild(ThreadFactory threadFactory, Object... args) throws Exception {
+        return new NioEventLoop(this, threadFactory, (SelectorProvider) args[0], (MonitorRegistry) args[1]);
     }
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.socket.nio;
+
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Array-backed replacement of the selected-key {@link java.util.HashSet} of a JDK {@link Selector}, which is
+ * installed by {@link SelectorUtil#installSelectedKeySet(Selector)}.  A select operation only appends to an array,
+ * and {@link NioEventLoop} walks the selected keys without creating an {@link Iterator}.
+ * <p>
+ * Two arrays are used in turn, so that a select operation which is performed while the keys returned by
+ * {@link #flip()} are processed does not overwrite them.  {@link #contains(Object)} always returns {@code false}
+ * as the set is flipped after every select operation.  {@link #iterator()} and {@link #clear()} only see the keys
+ * which were added since the last {@link #flip()}, so that code which uses {@link Selector#selectedKeys()} as usual
+ * keeps working.
+ */
+final class SelectedSelectionKeySet extends AbstractSet<SelectionKey> {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private SelectionKey[] keysA;
+    private int keysASize;
+    private SelectionKey[] keysB;
+    private int keysBSize;
+    private boolean isA = true;
+
+    SelectedSelectionKeySet() {
+        keysA = new SelectionKey[INITIAL_CAPACITY];
+        keysB = keysA.clone();
+    }
+
+    @Override
+    public boolean add(SelectionKey o) {
+        if (o == null) {
+            return false;
+        }
+
+        if (isA) {
+            int size = keysASize;
+            keysA[size ++] = o;
+            keysASize = size;
+            if (size == keysA.length) {
+                keysA = doubleCapacity(keysA);
+            }
+        } else {
+            int size = keysBSize;
+            keysB[size ++] = o;
+            keysBSize = size;
+            if (size == keysB.length) {
+                keysB = doubleCapacity(keysB);
+            }
+        }
+
+        return true;
+    }
+
+    private static SelectionKey[] doubleCapacity(SelectionKey[] keys) {
+        // Keep one slot free at least, which terminates the array returned by flip().
+        SelectionKey[] newKeys = new SelectionKey[keys.length << 1];
+        System.arraycopy(keys, 0, newKeys, 0, keys.length);
+        return newKeys;
+    }
+
+    /**
+     * Returns the keys which were added since the last call of this method, followed by {@code null}, and lets
+     * subsequent select operations add to the other array.  The caller is expected to set each returned element to
+     * {@code null} once it is processed, so that the array can be reused.
+     */
+    SelectionKey[] flip() {
+        if (isA) {
+            isA = false;
+            keysA[keysASize] = null;
+            keysBSize = 0;
+            return keysA;
+        } else {
+            isA = true;
+            keysB[keysBSize] = null;
+            keysASize = 0;
+            return keysB;
+        }
+    }
+
+    /**
+     * Discards the keys which were added since the last {@link #flip()}.  Called before a select operation which
+     * would otherwise add the keys which are still ready a second time.
+     */
+    void reset() {
+        if (isA) {
+            Arrays.fill(keysA, 0, keysASize, null);
+            keysASize = 0;
+        } else {
+            Arrays.fill(keysB, 0, keysBSize, null);
+            keysBSize = 0;
+        }
+    }
+
+    @Override
+    public int size() {
+        if (isA) {
+            return keysASize;
+        } else {
+            return keysBSize;
+        }
+    }
+
+    @Override
+    public void clear() {
+        reset();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return false;
+    }
+
+    @Override
+    public Iterator<SelectionKey> iterator() {
+        return new Iterator<SelectionKey>() {
+            private int index;
+            private boolean removable;
+
+            @Override
+            public boolean hasNext() {
+                return index < size();
+            }
+
+            @Override
+            public SelectionKey next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                removable = true;
+                return isA ? keysA[index ++] : keysB[index ++];
+            }
+
+            @Override
+            public void remove() {
+                if (!removable) {
+                    throw new IllegalStateException();
+                }
+                removable = false;
+
+                // Shift the following keys to the left - only used outside of NioEventLoop, so O(n) is fine.
+                SelectionKey[] keys = isA ? keysA : keysB;
+                int size = size();
+                int i = -- index;
+                System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+                keys[size - 1] = null;
+                if (isA) {
+                    keysASize = size - 1;
+                } else {
+                    keysBSize = size - 1;
+                }
+            }
+        };
+    }
+}
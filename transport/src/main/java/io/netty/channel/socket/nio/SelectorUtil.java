@@ -20,6 +20,7 @@ import io.netty.logging.InternalLoggerFactory;
 import io.netty.util.internal.SystemPropertyUtil;
 
 import java.io.IOException;
+import java.lang.reflect.Field;
 import java.nio.channels.CancelledKeyException;
 import java.nio.channels.Selector;
 import java.util.concurrent.TimeUnit;
@@ -36,6 +37,9 @@ final class SelectorUtil {
     static final long SELECT_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(SELECT_TIMEOUT);
     static final boolean EPOLL_BUG_WORKAROUND =
             SystemPropertyUtil.getBoolean("io.netty.epollBugWorkaround", false);
+    // Replaces private fields of the JDK selector via reflection, so it is only used when asked for.
+    static final boolean SELECTED_KEY_SET_OPTIMIZATION =
+            SystemPropertyUtil.getBoolean("io.netty.keySetOptimization", false);
 
     // Workaround for JDK NIO bug.
     //
@@ -57,12 +61,20 @@ final class SelectorUtil {
         if (logger.isDebugEnabled()) {
             logger.debug("Using select timeout of " + SELECT_TIMEOUT);
             logger.debug("Epoll-bug workaround enabled = " + EPOLL_BUG_WORKAROUND);
+            logger.debug("Selected-key set optimization enabled = " + SELECTED_KEY_SET_OPTIMIZATION);
         }
     }
 
-    static int select(Selector selector) throws IOException {
+    /**
+     * Selects with the specified timeout, which must not be greater than {@link #SELECT_TIMEOUT}.  A timeout of
+     * {@code 0} does not block at all, unlike {@link Selector#select(long)}.
+     */
+    static int select(Selector selector, long timeoutMillis) throws IOException {
         try {
-            return selector.select(SELECT_TIMEOUT);
+            if (timeoutMillis <= 0) {
+                return selector.selectNow();
+            }
+            return selector.select(timeoutMillis);
         } catch (CancelledKeyException e) {
             if (logger.isDebugEnabled()) {
                 logger.debug(
@@ -74,6 +86,37 @@ final class SelectorUtil {
         return -1;
     }
 
+    /**
+     * Replaces the selected-key set of the specified {@link Selector} with a {@link SelectedSelectionKeySet}.
+     *
+     * @return the installed {@link SelectedSelectionKeySet}, or {@code null} if the {@link Selector} is not the
+     *         JDK implementation or its fields are not accessible, in which case the {@link Selector} is unchanged
+     */
+    static SelectedSelectionKeySet installSelectedKeySet(Selector selector) {
+        try {
+            Class<?> selectorImplClass =
+                    Class.forName("sun.nio.ch.SelectorImpl", false, ClassLoader.getSystemClassLoader());
+            if (!selectorImplClass.isAssignableFrom(selector.getClass())) {
+                return null;
+            }
+
+            Field selectedKeysField = selectorImplClass.getDeclaredField("selectedKeys");
+            Field publicSelectedKeysField = selectorImplClass.getDeclaredField("publicSelectedKeys");
+            selectedKeysField.setAccessible(true);
+            publicSelectedKeysField.setAccessible(true);
+
+            SelectedSelectionKeySet selectedKeySet = new SelectedSelectionKeySet();
+            selectedKeysField.set(selector, selectedKeySet);
+            publicSelectedKeysField.set(selector, selectedKeySet);
+            return selectedKeySet;
+        } catch (Throwable t) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Failed to install the selected-key set optimization: " + selector, t);
+            }
+            return null;
+        }
+    }
+
     static void cleanupKeys(Selector selector) {
         try {
             selector.selectNow();
@@ -19,6 +19,7 @@ import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ReceiveBufferSizePredictor;
 import io.netty.channel.socket.ChannelInputShutdownEvent;
 
 import java.io.IOException;
@@ -54,15 +55,19 @@ abstract class AbstractOioByteChannel extends AbstractOioChannel {
 
         final ChannelPipeline pipeline = pipeline();
         final ByteBuf byteBuf = pipeline.inboundByteBuffer();
+        final ReceiveBufferSizePredictor predictor = receiveBufferSizePredictor();
+        final int expectedReadAmount = predictor.nextReceiveBufferSize();
         boolean closed = false;
         boolean read = false;
         boolean firedInboundBufferSuspeneded = false;
+        int totalReadAmount = 0;
         try {
-            expandReadBuffer(byteBuf);
+            prepareReadBuffer(byteBuf, expectedReadAmount);
             loop: for (;;) {
                 int localReadAmount = doReadBytes(byteBuf);
                 if (localReadAmount > 0) {
                     read = true;
+                    totalReadAmount += localReadAmount;
                 } else if (localReadAmount < 0) {
                     closed = true;
                     break;
@@ -73,7 +78,7 @@ abstract class AbstractOioByteChannel extends AbstractOioChannel {
                     break;
                 }
 
-                switch (expandReadBuffer(byteBuf)) {
+                switch (expandReadBuffer(byteBuf, expectedReadAmount)) {
                     case 0:
                         // Read all - stop reading.
                         break loop;
@@ -105,6 +110,9 @@ abstract class AbstractOioByteChannel extends AbstractOioChannel {
                 unsafe().close(unsafe().voidFuture());
             }
         } finally {
+            if (totalReadAmount > 0) {
+                predictor.previousReceiveBufferSize(totalReadAmount);
+            }
             if (read) {
                 pipeline.fireInboundBufferUpdated();
             }
@@ -191,8 +191,10 @@ public class OioDatagramChannel extends AbstractOioMessageChannel
             if (remoteAddr == null) {
                 remoteAddr = remoteAddress();
             }
-            buf.add(new DatagramPacket(Unpooled.wrappedBuffer(
-                    data, tmpPacket.getOffset(), tmpPacket.getLength()), remoteAddr));
+            // Wrap the whole array rather than a slice of it so that the packet can be freed like a received one.
+            int offset = tmpPacket.getOffset();
+            buf.add(new DatagramPacket(Unpooled.wrappedBuffer(data).setIndex(
+                    offset, offset + tmpPacket.getLength()), remoteAddr));
 
             return 1;
         } catch (SocketTimeoutException e) {
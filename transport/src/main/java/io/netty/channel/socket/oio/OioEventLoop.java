@@ -33,7 +33,7 @@ class OioEventLoop extends SingleThreadEventLoop {
     private AbstractOioChannel ch;
 
     OioEventLoop(OioEventLoopGroup parent) {
-        super(parent, parent.threadFactory, parent.scheduler);
+        super(parent, parent.threadFactory);
         this.parent = parent;
     }
 
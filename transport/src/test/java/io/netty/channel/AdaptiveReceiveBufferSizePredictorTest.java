@@ -0,0 +1,60 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveReceiveBufferSizePredictorTest {
+
+    @Test
+    public void testGrowsFastAndShrinksSlowly() {
+        ReceiveBufferSizePredictor predictor = new AdaptiveReceiveBufferSizePredictor(64, 1024, 65536);
+        assertEquals(1024, predictor.nextReceiveBufferSize());
+
+        // A full read jumps several steps at once.
+        predictor.previousReceiveBufferSize(1024);
+        assertEquals(16384, predictor.nextReceiveBufferSize());
+        predictor.previousReceiveBufferSize(16384);
+        assertEquals(65536, predictor.nextReceiveBufferSize());
+        predictor.previousReceiveBufferSize(65536);
+        assertEquals(65536, predictor.nextReceiveBufferSize());
+
+        // A single short read does not shrink the prediction, the second one shrinks it by one step only.
+        predictor.previousReceiveBufferSize(100);
+        assertEquals(65536, predictor.nextReceiveBufferSize());
+        predictor.previousReceiveBufferSize(100);
+        assertEquals(32768, predictor.nextReceiveBufferSize());
+
+        for (int i = 0; i < 100; i ++) {
+            predictor.previousReceiveBufferSize(1);
+        }
+        assertEquals(64, predictor.nextReceiveBufferSize());
+    }
+
+    @Test
+    public void testFixedPredictorIgnoresFeedback() {
+        ReceiveBufferSizePredictor predictor = new FixedReceiveBufferSizePredictorFactory(2048).getPredictor();
+        predictor.previousReceiveBufferSize(65536);
+        assertEquals(2048, predictor.nextReceiveBufferSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRange() {
+        new AdaptiveReceiveBufferSizePredictorFactory(1024, 512, 65536);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+
+public class DefaultChannelPromiseTest {
+
+    @Test
+    public void testListenersAreNotifiedInOrder() {
+        final List<Integer> notified = new ArrayList<Integer>();
+        DefaultChannelPromise promise = new DefaultChannelPromise(newChannel());
+        ChannelFutureListener removed = newListener(notified, -1);
+        for (int i = 0; i < 4; i ++) {
+            promise.addListener(newListener(notified, i));
+            if (i == 1) {
+                promise.addListener(removed);
+            }
+        }
+        promise.removeListener(removed);
+
+        assertTrue(promise.trySuccess());
+        assertFalse(promise.tryFailure(new Exception()));
+        assertTrue(promise.isDone());
+        assertTrue(promise.isSuccess());
+        assertNull(promise.cause());
+
+        // Added after completion - notified immediately.
+        promise.addListener(newListener(notified, 4));
+
+        assertEquals(5, notified.size());
+        for (int i = 0; i < notified.size(); i ++) {
+            assertEquals(Integer.valueOf(i), notified.get(i));
+        }
+    }
+
+    @Test
+    public void testFailure() {
+        final List<Integer> notified = new ArrayList<Integer>();
+        DefaultChannelPromise promise = new DefaultChannelPromise(newChannel());
+        promise.addListener(newListener(notified, 0));
+
+        Exception cause = new Exception();
+        promise.setFailure(cause);
+        assertTrue(promise.isDone());
+        assertFalse(promise.isSuccess());
+        assertSame(cause, promise.cause());
+        assertEquals(1, notified.size());
+
+        try {
+            promise.setSuccess();
+            fail();
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testAwaitFromOtherThread() throws Exception {
+        for (int i = 0; i < 1000; i ++) {
+            final DefaultChannelPromise promise = new DefaultChannelPromise(newChannel());
+            Thread t = new Thread() {
+                @Override
+                public void run() {
+                    promise.setSuccess();
+                }
+            };
+            t.start();
+            assertTrue(promise.await(5, TimeUnit.SECONDS));
+            promise.awaitUninterruptibly();
+            t.join();
+        }
+    }
+
+    private static Channel newChannel() {
+        Channel channel = createMock(Channel.class);
+        EventLoop loop = createMock(EventLoop.class);
+        expect(channel.eventLoop()).andReturn(loop).anyTimes();
+        expect(channel.isRegistered()).andReturn(false).anyTimes();
+        expect(loop.inEventLoop()).andReturn(true).anyTimes();
+        replay(channel, loop);
+        return channel;
+    }
+
+    private static ChannelFutureListener newListener(final List<Integer> notified, final int id) {
+        return new ChannelFutureListener() {
+            @Override
+            public void operationComplete(ChannelFuture future) {
+                notified.add(id);
+            }
+        };
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel;
+
+import io.netty.channel.socket.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class EventExecutorChooserTest {
+
+    private MultithreadEventExecutorGroup group;
+
+    @After
+    public void shutdownGroup() throws Exception {
+        if (group != null) {
+            group.shutdown();
+            assertTrue(group.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testRoundRobinPowerOfTwo() {
+        testRoundRobin(4);
+    }
+
+    @Test
+    public void testRoundRobinNonPowerOfTwo() {
+        testRoundRobin(3);
+    }
+
+    private void testRoundRobin(int nThreads) {
+        group = new DefaultEventExecutorGroup(nThreads);
+        List<EventExecutor> children = new ArrayList<EventExecutor>(group.children());
+        for (int i = 0; i < nThreads * 3; i ++) {
+            assertSame(children.get(i % nThreads), group.next());
+        }
+    }
+
+    @Test
+    public void testLeastPendingTasks() throws Exception {
+        group = new DefaultEventExecutorGroup(2, null, LeastLoadedEventExecutorChooserFactory.PENDING_TASKS);
+        List<EventExecutor> children = new ArrayList<EventExecutor>(group.children());
+        SingleThreadEventExecutor busy = (SingleThreadEventExecutor) children.get(0);
+        EventExecutor idle = children.get(1);
+
+        // Keep both executors busy so that submitted tasks stay in the task queue.
+        final CountDownLatch latch = new CountDownLatch(1);
+        Runnable blocker = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    // Ignore
+                }
+            }
+        };
+        busy.execute(blocker);
+        idle.execute(blocker);
+        for (int i = 0; i < 3; i ++) {
+            busy.execute(new Runnable() {
+                @Override
+                public void run() {
+                    // NOOP
+                }
+            });
+        }
+
+        try {
+            assertTrue(busy.pendingTasks() >= 3);
+            for (int i = 0; i < 4; i ++) {
+                assertSame(idle, group.next());
+            }
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    @Test
+    public void testLeastRegisteredChannels() throws Exception {
+        group = new NioEventLoopGroup(2, null, LeastLoadedEventExecutorChooserFactory.REGISTERED_CHANNELS);
+        NioEventLoopGroup group = (NioEventLoopGroup) this.group;
+
+        List<Channel> channels = new ArrayList<Channel>();
+        for (int i = 0; i < 4; i ++) {
+            Channel ch = new NioSocketChannel();
+            group.register(ch).sync();
+            channels.add(ch);
+        }
+
+        for (EventExecutor e: group.children()) {
+            assertEquals(2, registeredChannels(e));
+        }
+
+        // Close both channels of the first event loop, which should be chosen for the next registration then.
+        EventLoop loop = channels.get(0).eventLoop();
+        for (Channel ch: channels) {
+            if (ch.eventLoop() == loop) {
+                ch.close().sync();
+            }
+        }
+        assertEquals(0, registeredChannels(loop));
+
+        Channel ch = new NioSocketChannel();
+        group.register(ch).sync();
+        assertSame(loop, ch.eventLoop());
+        assertEquals(1, registeredChannels(loop));
+
+        for (Channel c: channels) {
+            c.close().sync();
+        }
+        ch.close().sync();
+    }
+
+    private static int registeredChannels(final EventExecutor e) throws Exception {
+        // Run a task on the event loop so that the pending deregistrations are performed before the count is read.
+        return e.submit(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return ((SingleThreadEventLoop) e).registeredChannels();
+            }
+        }).get();
+    }
+
+    @Test
+    public void testAffinity() throws Exception {
+        group = new DefaultEventExecutorGroup(3, null, new AffinityEventExecutorChooserFactory());
+        final List<EventExecutor> children = new ArrayList<EventExecutor>(group.children());
+
+        // The caller is not an event loop of the group - fall back to round-robin.
+        for (int i = 0; i < 6; i ++) {
+            assertSame(children.get(i % 3), group.next());
+        }
+
+        // The caller is an event loop of the group - stick to it.
+        for (final EventExecutor e: children) {
+            assertSame(e, e.submit(new Callable<EventExecutor>() {
+                @Override
+                public EventExecutor call() {
+                    return group.next();
+                }
+            }).get());
+        }
+
+        // The caller is an event loop of another group - fall back to round-robin.
+        final MultithreadEventExecutorGroup other = new DefaultEventExecutorGroup(1);
+        try {
+            EventExecutor chosen = other.next().submit(new Callable<EventExecutor>() {
+                @Override
+                public EventExecutor call() {
+                    return group.next();
+                }
+            }).get();
+            assertTrue(children.contains(chosen));
+        } finally {
+            other.shutdown();
+        }
+    }
+}
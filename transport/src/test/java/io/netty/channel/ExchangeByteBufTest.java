@@ -0,0 +1,96 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ExchangeByteBufTest {
+
+    @Test
+    public void testExchangeTransfersBackingBuffer() {
+        ByteBuf backing = Unpooled.buffer();
+        ExchangeByteBuf buf = new ExchangeByteBuf(backing);
+        buf.writeInt(1);
+        buf.writeInt(2);
+        buf.readInt();
+
+        ByteBuf data = buf.exchange();
+        assertSame(backing, data);
+        assertEquals(4, data.readableBytes());
+        assertEquals(2, data.readInt());
+
+        assertNotSame(backing, buf.unwrap());
+        assertEquals(0, buf.readerIndex());
+        assertEquals(0, buf.writerIndex());
+        data.free();
+    }
+
+    @Test
+    public void testWritesAfterExchangeGoToNewBackingBuffer() {
+        ExchangeByteBuf buf = new ExchangeByteBuf(Unpooled.directBuffer());
+        buf.writeLong(42);
+
+        ByteBuf data = buf.exchange();
+        assertTrue(buf.isDirect());
+        buf.writeLong(43);
+        for (int i = 0; i < 1024; i ++) {
+            buf.writeByte(i);
+        }
+
+        assertEquals(8, data.readableBytes());
+        assertEquals(42, data.readLong());
+        assertEquals(43, buf.readLong());
+        assertEquals(1024, buf.readableBytes());
+        data.free();
+    }
+
+    @Test
+    public void testNewBackingBufferKeepsCapacity() {
+        ExchangeByteBuf buf = new ExchangeByteBuf(Unpooled.buffer(16));
+        for (int i = 0; i < 1024; i ++) {
+            buf.writeByte(i);
+        }
+        int capacity = buf.capacity();
+
+        ByteBuf data = buf.exchange();
+        assertEquals(capacity, data.capacity());
+        assertEquals(capacity, buf.capacity());
+        assertEquals(data.maxCapacity(), buf.maxCapacity());
+        data.free();
+    }
+
+    @Test
+    public void testSliceTakenBeforeExchange() {
+        ExchangeByteBuf buf = new ExchangeByteBuf(Unpooled.buffer());
+        buf.writeInt(1);
+        ByteBuf slice = buf.slice(0, 4);
+        assertEquals(1, slice.getInt(0));
+
+        // The slice does not refer to the handed-off buffer, which is freed by its new owner.
+        ByteBuf data = buf.exchange();
+        data.free();
+        assertTrue(data.isFreed());
+        assertFalse(slice.isFreed());
+
+        buf.writeInt(2);
+        assertEquals(2, slice.getInt(0));
+        buf.free();
+    }
+}
@@ -19,6 +19,8 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
@@ -201,6 +203,147 @@ public class SingleThreadEventLoopTest {
         }
     }
 
+    @Test
+    public void cancelScheduledTasks() throws Exception {
+        final AtomicInteger ranTasks = new AtomicInteger();
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                ranTasks.incrementAndGet();
+            }
+        };
+
+        loop.submit(new Runnable() {
+            @Override
+            public void run() {
+                List<ScheduledFuture<?>> futures = new ArrayList<ScheduledFuture<?>>();
+                for (int i = 0; i < 100; i ++) {
+                    futures.add(loop.schedule(task, 100 + i, TimeUnit.MILLISECONDS));
+                }
+                assertEquals(100, loop.scheduledTaskQueue.size());
+
+                // Cancelled from the event loop - removed from the queue immediately.
+                for (int i = 0; i < 50; i ++) {
+                    assertTrue(futures.get(i * 2).cancel(false));
+                }
+                assertEquals(50, loop.scheduledTaskQueue.size());
+            }
+        }).get();
+
+        // Keep the event loop busy so that the task below is cancelled before the event loop gets it.
+        final CountDownLatch latch = new CountDownLatch(1);
+        loop.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    // Ignore
+                }
+            }
+        });
+
+        ScheduledFuture<?> f = loop.schedule(task, 1, TimeUnit.DAYS);
+        // Cancelled from another thread - never kept by the event loop.
+        assertTrue(f.cancel(false));
+        latch.countDown();
+
+        loop.schedule(new Runnable() {
+            @Override
+            public void run() {
+                assertEquals(50, ranTasks.get());
+                // The task which was scheduled for tomorrow was discarded.
+                assertTrue(loop.scheduledTaskQueue.isEmpty());
+            }
+        }, 300, TimeUnit.MILLISECONDS).get();
+    }
+
+    @Test
+    public void cancelScheduledTasksFromAnotherThread() throws Exception {
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                fail("cancelled task must not run");
+            }
+        };
+
+        final List<ScheduledFuture<?>> futures = new ArrayList<ScheduledFuture<?>>();
+        loop.submit(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 10; i ++) {
+                    futures.add(loop.schedule(task, 1, TimeUnit.DAYS));
+                }
+                assertEquals(10, loop.scheduledTaskQueue.size());
+            }
+        }).get();
+
+        // Cancel from a thread which is neither the caller nor the event loop.
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (ScheduledFuture<?> f: futures) {
+                    assertTrue(f.cancel(false));
+                }
+                cancelled.countDown();
+            }
+        });
+        t.start();
+        assertTrue(cancelled.await(10, TimeUnit.SECONDS));
+
+        // More than half of the queued tasks were cancelled, so the event loop discards them the next time it looks
+        // for a scheduled task, which it does before taking the second task below, long before their deadline.
+        loop.submit(new Runnable() {
+            @Override
+            public void run() {
+                // NOOP
+            }
+        }).get();
+        loop.submit(new Runnable() {
+            @Override
+            public void run() {
+                assertTrue(loop.scheduledTaskQueue.isEmpty());
+                for (ScheduledFuture<?> f: futures) {
+                    assertEquals(-1, ((ScheduledFutureTask<?>) f).queueIndex);
+                }
+            }
+        }).get();
+    }
+
+    @Test
+    public void scheduleFromAnotherThreadSubmitsTaskItself() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        loop.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    // Ignore
+                }
+            }
+        });
+
+        final AtomicInteger ranTasks = new AtomicInteger();
+        ScheduledFuture<?> f = loop.schedule(new Runnable() {
+            @Override
+            public void run() {
+                ranTasks.incrementAndGet();
+            }
+        }, 1, TimeUnit.MILLISECONDS);
+        try {
+            // No wrapper task is created - the scheduled task itself waits in the task queue.
+            assertEquals(ScheduledFutureTask.PENDING_QUEUE_INDEX, ((ScheduledFutureTask<?>) f).queueIndex);
+        } finally {
+            latch.countDown();
+        }
+
+        f.get(10, TimeUnit.SECONDS);
+        assertEquals(1, ranTasks.get());
+        assertEquals(-1, ((ScheduledFutureTask<?>) f).queueIndex);
+    }
+
     @Test
     public void shutdownWithPendingTasks() throws Exception {
         final int NUM_TASKS = 3;
@@ -250,8 +393,7 @@ public class SingleThreadEventLoopTest {
         final AtomicInteger cleanedUp = new AtomicInteger();
 
         SingleThreadEventLoopImpl() {
-            super(null, Executors.defaultThreadFactory(),
-                  new ChannelTaskScheduler(Executors.defaultThreadFactory()));
+            super(null, Executors.defaultThreadFactory());
         }
 
         @Override
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.socket.nio;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundMessageHandlerAdapter;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.socket.DatagramPacket;
+import org.junit.After;
+import org.junit.Test;
+
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class NioDatagramChannelTest {
+
+    private final Bootstrap b = new Bootstrap();
+    private DatagramSocket socket;
+
+    @After
+    public void cleanUp() throws Exception {
+        if (socket != null) {
+            socket.close();
+        }
+        b.shutdown();
+    }
+
+    @Test
+    public void testReceiveWithReadBudget() throws Exception {
+        final BlockingQueue<Integer> received = new LinkedBlockingQueue<Integer>();
+        Channel ch = b.group(new NioEventLoopGroup(1))
+                .channel(NioDatagramChannel.class)
+                .localAddress(new InetSocketAddress("127.0.0.1", 0))
+                .option(ChannelOption.AUTO_READ, false)
+                .option(ChannelOption.MAX_MESSAGES_PER_READ, 4)
+                .handler(new ChannelInboundMessageHandlerAdapter<DatagramPacket>() {
+                    @Override
+                    public void messageReceived(ChannelHandlerContext ctx, DatagramPacket msg) throws Exception {
+                        assertEquals(4, msg.data().readableBytes());
+                        received.add(msg.data().readInt());
+                        msg.free();
+                    }
+                }).bind().sync().channel();
+
+        socket = new DatagramSocket(new InetSocketAddress("127.0.0.1", 0));
+        for (int i = 0; i < 8; i ++) {
+            byte[] data = { 0, 0, 0, (byte) i };
+            socket.send(new java.net.DatagramPacket(data, data.length, ch.localAddress()));
+        }
+
+        // Give the packets some time to arrive so that a single read event could drain all of them.
+        Thread.sleep(200);
+        ch.read();
+        Thread.sleep(500);
+        assertEquals(4, received.size());
+
+        ch.config().setAutoRead(true);
+        for (int i = 0; i < 8; i ++) {
+            Integer value = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(value);
+            assertEquals(i, value.intValue());
+        }
+    }
+
+    @Test
+    public void testReceiveIntoPooledDirectBuffer() throws Exception {
+        final PooledByteBufAllocator alloc = new PooledByteBufAllocator(true);
+        final BlockingQueue<ByteBuf> received = new LinkedBlockingQueue<ByteBuf>();
+        Channel ch = b.group(new NioEventLoopGroup(1))
+                .channel(NioDatagramChannel.class)
+                .localAddress(new InetSocketAddress("127.0.0.1", 0))
+                .option(ChannelOption.ALLOCATOR, alloc)
+                .handler(new ChannelInboundMessageHandlerAdapter<DatagramPacket>() {
+                    @Override
+                    public void messageReceived(ChannelHandlerContext ctx, DatagramPacket msg) throws Exception {
+                        received.add(msg.data());
+                    }
+                }).bind().sync().channel();
+
+        socket = new DatagramSocket(new InetSocketAddress("127.0.0.1", 0));
+        byte[] data = { 1, 2, 3 };
+        socket.send(new java.net.DatagramPacket(data, data.length, ch.localAddress()));
+
+        ByteBuf content = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(content);
+        try {
+            assertTrue(content.isDirect());
+            assertSame(alloc, content.alloc());
+            assertEquals(3, content.readableBytes());
+            assertEquals(2, content.getByte(content.readerIndex() + 1));
+        } finally {
+            content.free();
+        }
+        assertTrue(content.isFreed());
+    }
+
+    @Test
+    public void testSendCompositeBuffer() throws Exception {
+        socket = new DatagramSocket(new InetSocketAddress("127.0.0.1", 0));
+        socket.setSoTimeout(5000);
+
+        Channel ch = b.group(new NioEventLoopGroup(1))
+                .channel(NioDatagramChannel.class)
+                .localAddress(new InetSocketAddress("127.0.0.1", 0))
+                .handler(new ChannelInboundMessageHandlerAdapter<DatagramPacket>() {
+                    @Override
+                    public void messageReceived(ChannelHandlerContext ctx, DatagramPacket msg) throws Exception {
+                        // Nothing will be received.
+                    }
+                }).bind().sync().channel();
+
+        ch.write(new DatagramPacket(
+                Unpooled.wrappedBuffer(Unpooled.copyInt(1), Unpooled.copyInt(2)),
+                (InetSocketAddress) socket.getLocalSocketAddress())).sync();
+
+        java.net.DatagramPacket packet = new java.net.DatagramPacket(new byte[16], 16);
+        socket.receive(packet);
+        assertEquals(8, packet.getLength());
+        assertArrayEquals(new byte[] { 0, 0, 0, 1, 0, 0, 0, 2 }, java.util.Arrays.copyOf(packet.getData(), 8));
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.socket.nio;
+
+import io.netty.channel.EventLoop;
+import io.netty.monitor.CounterMonitor;
+import io.netty.monitor.EventRateMonitor;
+import io.netty.monitor.MonitorName;
+import io.netty.monitor.MonitorRegistry;
+import io.netty.monitor.ValueDistributionMonitor;
+import io.netty.monitor.ValueMonitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.channels.spi.SelectorProvider;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class NioEventLoopMonitorTest {
+
+    private RecordingMonitorRegistry registry;
+    private NioEventLoopGroup group;
+    private EventLoop loop;
+
+    @Before
+    public void setUp() {
+        registry = new RecordingMonitorRegistry();
+        group = new NioEventLoopGroup(1, null, SelectorProvider.provider(), registry);
+        loop = group.next();
+    }
+
+    @After
+    public void tearDown() {
+        group.shutdown();
+    }
+
+    @Test
+    public void shouldRegisterMonitorsPerEventLoop() {
+        for (String name: new String[] {
+                "task-queue-size", "task-execution-time", "select-time", "process-selected-keys-time",
+                "run-all-tasks-time", "selector-rebuilds", "wakeups-per-second", "avoided-wakeups-per-second" }) {
+            MonitorName monitorName = registry.names.get(name);
+            assertNotNull(name, monitorName);
+            assertEquals(NioEventLoop.class.getSimpleName(), monitorName.type());
+            assertNotNull(monitorName.instance());
+        }
+    }
+
+    @Test
+    public void shouldRecordTaskExecutionAndWakeups() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        loop.execute(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+        // The task is timed after it ran - run another task to make sure the first one was recorded.
+        loop.submit(new Runnable() {
+            @Override
+            public void run() {
+                // NOOP
+            }
+        }).get();
+
+        assertTrue(registry.updates("task-execution-time") >= 1);
+
+        // The time spent for running the tasks is recorded after the last task of an iteration ran.
+        for (int i = 0; i < 100 && registry.updates("run-all-tasks-time") == 0; i ++) {
+            Thread.sleep(10);
+        }
+        assertTrue(registry.updates("run-all-tasks-time") >= 1);
+        assertTrue(registry.updates("select-time") >= 1);
+        assertTrue(registry.updates("wakeups-per-second") >= 1);
+        assertEquals(0, registry.valueMonitors.get("task-queue-size").currentValue());
+    }
+
+    @Test
+    public void shouldCountAvoidedWakeups() throws Exception {
+        final Runnable noop = new Runnable() {
+            @Override
+            public void run() {
+                // NOOP
+            }
+        };
+        loop.submit(new Runnable() {
+            @Override
+            public void run() {
+                // Executed from the event loop - no wake-up required, and nothing was avoided either.
+                long avoided = registry.updates("avoided-wakeups-per-second");
+                loop.execute(noop);
+                loop.lazyExecute(noop);
+                assertEquals(avoided, registry.updates("avoided-wakeups-per-second"));
+            }
+        }).get();
+
+        long avoided = registry.updates("avoided-wakeups-per-second");
+        loop.lazyExecute(noop);
+        assertTrue(registry.updates("avoided-wakeups-per-second") > avoided);
+    }
+
+    @Test
+    public void shouldCountSelectorRebuilds() throws Exception {
+        group.rebuildSelectors();
+        loop.submit(new Runnable() {
+            @Override
+            public void run() {
+                // NOOP
+            }
+        }).get();
+
+        assertEquals(1, registry.updates("selector-rebuilds"));
+    }
+
+    private static final class RecordingMonitorRegistry implements MonitorRegistry {
+
+        final Map<String, MonitorName> names = new ConcurrentHashMap<String, MonitorName>();
+        final Map<String, ValueMonitor<?>> valueMonitors = new ConcurrentHashMap<String, ValueMonitor<?>>();
+        private final Map<String, AtomicLong> updates = new ConcurrentHashMap<String, AtomicLong>();
+
+        long updates(String name) {
+            return updates.get(name).get();
+        }
+
+        private AtomicLong register(MonitorName monitorName) {
+            AtomicLong counter = new AtomicLong();
+            names.put(monitorName.name(), monitorName);
+            updates.put(monitorName.name(), counter);
+            return counter;
+        }
+
+        @Override
+        public ValueDistributionMonitor newValueDistributionMonitor(final MonitorName monitorName) {
+            final AtomicLong counter = register(monitorName);
+            return new ValueDistributionMonitor() {
+                @Override
+                public void reset() {
+                }
+
+                @Override
+                public void update(long value) {
+                    assertTrue(value >= 0);
+                    counter.incrementAndGet();
+                }
+            };
+        }
+
+        @Override
+        public EventRateMonitor newEventRateMonitor(final MonitorName monitorName, final TimeUnit rateUnit) {
+            final AtomicLong counter = register(monitorName);
+            return new EventRateMonitor() {
+                @Override
+                public void event() {
+                    counter.incrementAndGet();
+                }
+
+                @Override
+                public void events(long count) {
+                    counter.addAndGet(count);
+                }
+            };
+        }
+
+        @Override
+        public <T> ValueMonitor<T> registerValueMonitor(MonitorName monitorName, ValueMonitor<T> valueMonitor) {
+            register(monitorName);
+            valueMonitors.put(monitorName.name(), valueMonitor);
+            return valueMonitor;
+        }
+
+        @Override
+        public CounterMonitor newCounterMonitor(final MonitorName monitorName) {
+            final AtomicLong counter = register(monitorName);
+            return new CounterMonitor() {
+                @Override
+                public void reset() {
+                    counter.set(0);
+                }
+
+                @Override
+                public void increment(long delta) {
+                    counter.addAndGet(delta);
+                }
+
+                @Override
+                public void increment() {
+                    counter.incrementAndGet();
+                }
+
+                @Override
+                public void decrement(long delta) {
+                    counter.addAndGet(-delta);
+                }
+
+                @Override
+                public void decrement() {
+                    counter.decrementAndGet();
+                }
+            };
+        }
+    }
+}
@@ -20,6 +20,12 @@ import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.ServerSocketChannel;
 import io.netty.channel.socket.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
 
 public class NioEventLoopTest extends AbstractEventLoopTest {
 
@@ -32,4 +38,77 @@ public class NioEventLoopTest extends AbstractEventLoopTest {
     protected Class<? extends ServerSocketChannel> newChannel() {
         return NioServerSocketChannel.class;
     }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroIoRatio() {
+        NioEventLoopGroup group = new NioEventLoopGroup(1);
+        try {
+            group.setIoRatio(0);
+        } finally {
+            group.shutdown();
+        }
+    }
+
+    @Test
+    public void testLowIoRatioRunsAllTasks() throws Exception {
+        NioEventLoopGroup group = new NioEventLoopGroup(1);
+        try {
+            group.setIoRatio(1);
+            final NioEventLoop loop = (NioEventLoop) group.next();
+            assertEquals(1, loop.getIoRatio());
+
+            // Tasks which are left over because of the time limit must not wait for the select timeout.
+            final CountDownLatch latch = new CountDownLatch(10000);
+            loop.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 10000; i ++) {
+                        loop.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                latch.countDown();
+                            }
+                        });
+                    }
+                }
+            });
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } finally {
+            group.shutdown();
+        }
+    }
+
+    @Test
+    public void testLazyExecute() throws Exception {
+        NioEventLoopGroup group = new NioEventLoopGroup(1);
+        try {
+            final NioEventLoop loop = (NioEventLoop) group.next();
+            // Start the event loop.
+            loop.submit(new Runnable() {
+                @Override
+                public void run() {
+                    // NOOP
+                }
+            }).get();
+
+            final CountDownLatch latch = new CountDownLatch(1);
+            loop.lazyExecute(new Runnable() {
+                @Override
+                public void run() {
+                    latch.countDown();
+                }
+            });
+
+            // A lazily executed task runs no later than the tasks which were submitted after it.
+            loop.submit(new Runnable() {
+                @Override
+                public void run() {
+                    // NOOP
+                }
+            }).get();
+            assertEquals(0, latch.getCount());
+        } finally {
+            group.shutdown();
+        }
+    }
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.socket.nio;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundByteHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.FixedReceiveBufferSizePredictorFactory;
+import io.netty.channel.socket.SocketChannel;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class NioReadLimitTest {
+
+    private final ServerBootstrap sb = new ServerBootstrap();
+    private final List<Socket> sockets = new ArrayList<Socket>();
+
+    @After
+    public void cleanUp() throws Exception {
+        for (Socket s: sockets) {
+            s.close();
+        }
+        sb.shutdown();
+    }
+
+    @Test
+    public void testMaxMessagesPerRead() throws Exception {
+        final AtomicInteger accepted = new AtomicInteger();
+        Channel sc = sb.group(new NioEventLoopGroup(1))
+                .channel(NioServerSocketChannel.class)
+                .localAddress(new InetSocketAddress("127.0.0.1", 0))
+                .option(ChannelOption.AUTO_READ, false)
+                .option(ChannelOption.MAX_MESSAGES_PER_READ, 1)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    public void initChannel(SocketChannel ch) throws Exception {
+                        accepted.incrementAndGet();
+                    }
+                }).bind().sync().channel();
+
+        for (int i = 0; i < 4; i ++) {
+            connect(sc);
+        }
+
+        // A single read event must accept only one connection although all of them are pending.
+        sc.read();
+        Thread.sleep(500);
+        assertEquals(1, accepted.get());
+
+        // The remaining connections are accepted by the following read events.
+        sc.config().setAutoRead(true);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (accepted.get() < 4 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(4, accepted.get());
+    }
+
+    @Test
+    public void testMaxBytesPerRead() throws Exception {
+        final BlockingQueue<Channel> children = new LinkedBlockingQueue<Channel>();
+        final BlockingQueue<Integer> readAmounts = new LinkedBlockingQueue<Integer>();
+        Channel sc = sb.group(new NioEventLoopGroup(1))
+                .channel(NioServerSocketChannel.class)
+                .localAddress(new InetSocketAddress("127.0.0.1", 0))
+                .childOption(ChannelOption.AUTO_READ, false)
+                .childOption(ChannelOption.MAX_BYTES_PER_READ, 32)
+                .childOption(ChannelOption.RECEIVE_BUFFER_SIZE_PREDICTOR_FACTORY,
+                        new FixedReceiveBufferSizePredictorFactory(16))
+                .childHandler(new ChannelInboundByteHandlerAdapter() {
+                    @Override
+                    public void channelActive(ChannelHandlerContext ctx) throws Exception {
+                        children.add(ctx.channel());
+                    }
+
+                    @Override
+                    protected void inboundBufferUpdated(ChannelHandlerContext ctx, ByteBuf in) throws Exception {
+                        readAmounts.add(in.readableBytes());
+                        in.skipBytes(in.readableBytes());
+                    }
+                }).bind().sync().channel();
+
+        byte[] data = new byte[1024];
+        OutputStream out = connect(sc).getOutputStream();
+        out.write(data);
+        out.flush();
+
+        Channel child = children.poll(5, TimeUnit.SECONDS);
+        assertNotNull(child);
+
+        // Give the data some time to arrive so that a single read event could read all of it.
+        Thread.sleep(200);
+        child.read();
+
+        int readAmount = readAmounts.poll(5, TimeUnit.SECONDS);
+        assertTrue("read " + readAmount + " bytes", readAmount < data.length);
+
+        // The remaining bytes are read by the following read events.
+        child.config().setAutoRead(true);
+        while (readAmount < data.length) {
+            Integer amount = readAmounts.poll(5, TimeUnit.SECONDS);
+            assertNotNull(amount);
+            readAmount += amount;
+        }
+        assertEquals(data.length, readAmount);
+    }
+
+    private Socket connect(Channel sc) throws Exception {
+        Socket s = new Socket("127.0.0.1", ((InetSocketAddress) sc.localAddress()).getPort());
+        sockets.add(s);
+        return s;
+    }
+}
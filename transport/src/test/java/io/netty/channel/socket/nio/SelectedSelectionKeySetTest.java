@@ -0,0 +1,150 @@
+/*
+ * Copyright 2012 The Netty Project
+ *
+ * The Netty Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.netty.channel.socket.nio;
+
+import org.junit.Test;
+
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+
+public class SelectedSelectionKeySetTest {
+
+    @Test
+    public void testFlip() {
+        SelectedSelectionKeySet set = new SelectedSelectionKeySet();
+        SelectionKey a = createMock(SelectionKey.class);
+        SelectionKey b = createMock(SelectionKey.class);
+
+        assertTrue(set.add(a));
+        assertTrue(set.add(b));
+        assertFalse(set.add(null));
+        assertEquals(2, set.size());
+        assertFalse(set.contains(a));
+
+        SelectionKey[] keys = set.flip();
+        assertSame(a, keys[0]);
+        assertSame(b, keys[1]);
+        assertNull(keys[2]);
+        assertTrue(set.isEmpty());
+
+        // Keys added after a flip go to the other array.
+        set.add(b);
+        assertSame(a, keys[0]);
+        SelectionKey[] keys2 = set.flip();
+        assertNotSame(keys, keys2);
+        assertSame(b, keys2[0]);
+        assertNull(keys2[1]);
+    }
+
+    @Test
+    public void testGrow() {
+        SelectedSelectionKeySet set = new SelectedSelectionKeySet();
+        SelectionKey[] expected = new SelectionKey[3000];
+        for (int i = 0; i < expected.length; i ++) {
+            expected[i] = createMock(SelectionKey.class);
+            set.add(expected[i]);
+        }
+        assertEquals(expected.length, set.size());
+
+        SelectionKey[] keys = set.flip();
+        for (int i = 0; i < expected.length; i ++) {
+            assertSame(expected[i], keys[i]);
+        }
+        assertNull(keys[expected.length]);
+    }
+
+    @Test
+    public void testReset() {
+        SelectedSelectionKeySet set = new SelectedSelectionKeySet();
+        set.add(createMock(SelectionKey.class));
+        set.add(createMock(SelectionKey.class));
+        set.reset();
+        assertTrue(set.isEmpty());
+        assertNull(set.flip()[0]);
+    }
+
+    @Test
+    public void testIterator() {
+        SelectedSelectionKeySet set = new SelectedSelectionKeySet();
+        SelectionKey a = createMock(SelectionKey.class);
+        SelectionKey b = createMock(SelectionKey.class);
+        SelectionKey c = createMock(SelectionKey.class);
+        set.add(a);
+        set.add(b);
+        set.add(c);
+
+        Iterator<SelectionKey> i = set.iterator();
+        assertSame(a, i.next());
+        assertSame(b, i.next());
+        i.remove();
+        assertSame(c, i.next());
+        assertFalse(i.hasNext());
+        try {
+            i.next();
+            fail();
+        } catch (NoSuchElementException e) {
+            // Expected
+        }
+
+        assertEquals(2, set.size());
+        SelectionKey[] keys = set.flip();
+        assertSame(a, keys[0]);
+        assertSame(c, keys[1]);
+        assertNull(keys[2]);
+
+        // Only the keys added since the last flip are visible.
+        set.add(b);
+        i = set.iterator();
+        assertSame(b, i.next());
+        assertFalse(i.hasNext());
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.iterator().hasNext());
+    }
+
+    @Test
+    public void testInstall() throws Exception {
+        Selector selector = Selector.open();
+        DatagramChannel ch = DatagramChannel.open();
+        try {
+            SelectedSelectionKeySet set = SelectorUtil.installSelectedKeySet(selector);
+            if (set == null) {
+                // Not the JDK selector implementation.
+                return;
+            }
+            assertSame(set, selector.selectedKeys());
+
+            // An unconnected datagram channel is always writable.
+            ch.configureBlocking(false);
+            SelectionKey key = ch.register(selector, SelectionKey.OP_WRITE);
+            assertEquals(1, selector.selectNow());
+
+            SelectionKey[] keys = set.flip();
+            assertSame(key, keys[0]);
+            assertNull(keys[1]);
+        } finally {
+            ch.close();
+            selector.close();
+        }
+    }
+}